@@ -139,6 +139,7 @@ import org.neo4j.kernel.impl.store.StoreFactory;
 import org.neo4j.kernel.impl.store.TokenStore;
 import org.neo4j.kernel.impl.store.format.RecordFormatSelector;
 import org.neo4j.kernel.impl.store.format.RecordFormats;
+import org.neo4j.kernel.impl.store.format.RecordStorageCapability;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.PrimitiveRecord;
@@ -343,7 +344,8 @@ public class BatchInserterImpl implements BatchInserter
             relationshipCreator = new RelationshipCreator(
                 new RelationshipGroupGetter( relationshipGroupStore ), relationshipGroupStore.getStoreHeaderInt() );
             propertyTraverser = new PropertyTraverser();
-            propertyCreator = new PropertyCreator( propertyStore, propertyTraverser );
+            propertyCreator = new PropertyCreator( propertyStore, propertyTraverser,
+                    neoStores.getRecordFormats().hasCapability( RecordStorageCapability.INLINED_PROPERTIES ) );
             propertyDeletor = new PropertyDeleter( propertyTraverser );
 
             flushStrategy = new BatchedFlushStrategy( recordAccess, config.get( GraphDatabaseSettings
@@ -796,8 +798,9 @@ public class BatchInserterImpl implements BatchInserter
     private boolean primitiveHasProperty( PrimitiveRecord record, String propertyName )
     {
         int propertyKeyId = tokenHolders.propertyKeyTokens().getIdByName( propertyName );
-        return propertyKeyId != NO_TOKEN && propertyTraverser.findPropertyRecordContaining( record, propertyKeyId,
-                recordAccess.getPropertyRecords(), false ) != Record.NO_NEXT_PROPERTY.intValue();
+        return propertyKeyId != NO_TOKEN && (PropertyTraverser.findInlinedProperty( record, propertyKeyId ) != null ||
+                propertyTraverser.findPropertyRecordContaining( record, propertyKeyId, recordAccess.getPropertyRecords(), false ) !=
+                        Record.NO_NEXT_PROPERTY.intValue());
     }
 
     private static void rejectAutoUpgrade( Config config )
@@ -961,7 +964,7 @@ public class BatchInserterImpl implements BatchInserter
     public void setNodeProperties( long node, Map<String, Object> properties )
     {
         NodeRecord record = getNodeRecord( node ).forChangingData();
-        if ( record.getNextProp() != Record.NO_NEXT_PROPERTY.intValue() )
+        if ( record.getNextProp() != Record.NO_NEXT_PROPERTY.intValue() || record.hasInlinedProperties() )
         {
             propertyDeletor.deletePropertyChain( record, recordAccess.getPropertyRecords() );
         }
@@ -974,7 +977,7 @@ public class BatchInserterImpl implements BatchInserter
     public void setRelationshipProperties( long rel, Map<String, Object> properties )
     {
         RelationshipRecord record = recordAccess.getRelRecords().getOrLoad( rel, null ).forChangingData();
-        if ( record.getNextProp() != Record.NO_NEXT_PROPERTY.intValue() )
+        if ( record.getNextProp() != Record.NO_NEXT_PROPERTY.intValue() || record.hasInlinedProperties() )
         {
             propertyDeletor.deletePropertyChain( record, recordAccess.getPropertyRecords() );
         }
@@ -994,9 +997,9 @@ public class BatchInserterImpl implements BatchInserter
     public Map<String,Object> getNodeProperties( long nodeId )
     {
         NodeRecord record = getNodeRecord( nodeId ).forReadingData();
-        if ( record.getNextProp() != Record.NO_NEXT_PROPERTY.intValue() )
+        if ( record.getNextProp() != Record.NO_NEXT_PROPERTY.intValue() || record.hasInlinedProperties() )
         {
-            return getPropertyChain( record.getNextProp() );
+            return getProperties( record );
         }
         return Collections.emptyMap();
     }
@@ -1053,9 +1056,9 @@ public class BatchInserterImpl implements BatchInserter
     public Map<String,Object> getRelationshipProperties( long relId )
     {
         RelationshipRecord record = recordAccess.getRelRecords().getOrLoad( relId, null ).forChangingData();
-        if ( record.getNextProp() != Record.NO_NEXT_PROPERTY.intValue() )
+        if ( record.getNextProp() != Record.NO_NEXT_PROPERTY.intValue() || record.hasInlinedProperties() )
         {
-            return getPropertyChain( record.getNextProp() );
+            return getProperties( record );
         }
         return Collections.emptyMap();
     }
@@ -1107,10 +1110,10 @@ public class BatchInserterImpl implements BatchInserter
         return "EmbeddedBatchInserter[" + databaseLayout + "]";
     }
 
-    private Map<String, Object> getPropertyChain( long nextProp )
+    private Map<String, Object> getProperties( PrimitiveRecord record )
     {
         final Map<String, Object> map = new HashMap<>();
-        propertyTraverser.getPropertyChain( nextProp, recordAccess.getPropertyRecords(), propBlock ->
+        propertyTraverser.getProperties( record, recordAccess.getPropertyRecords(), propBlock ->
         {
             try
             {
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.batchinsert.internal;
+
+import org.eclipse.collections.api.map.primitive.LongObjectMap;
+
+import java.io.IOException;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.batchimport.IndexImporterFactory;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.memory.ByteBufferFactory;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.index.IndexProvider;
+import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.impl.api.index.stats.IndexStatisticsStore;
+import org.neo4j.kernel.impl.factory.OperationalMode;
+import org.neo4j.kernel.impl.index.schema.GenericNativeIndexProviderFactory;
+import org.neo4j.kernel.impl.index.schema.UnsafeDirectByteBufferAllocator;
+import org.neo4j.memory.ThreadSafePeakMemoryAllocationTracker;
+
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.kernel.impl.index.schema.BlockBasedIndexPopulator.parseBlockSize;
+
+/**
+ * Builds indexes declared for an import using the native index provider, which populates using block-based off-heap buffers,
+ * just like indexes populated in a running database.
+ */
+public class NativeIndexImporterFactory implements IndexImporterFactory
+{
+    public static final IndexImporterFactory INSTANCE = new NativeIndexImporterFactory();
+
+    private NativeIndexImporterFactory()
+    {
+    }
+
+    @Override
+    public IndexProvider instantiate( DatabaseLayout databaseLayout, FileSystemAbstraction fileSystem, PageCache pageCache, Config config )
+    {
+        return GenericNativeIndexProviderFactory.create( pageCache, databaseLayout.databaseDirectory(), fileSystem, IndexProvider.Monitor.EMPTY, config,
+                OperationalMode.SINGLE, immediate() );
+    }
+
+    @Override
+    public void writeSamples( DatabaseLayout databaseLayout, PageCache pageCache, LongObjectMap<IndexSample> samples ) throws IOException
+    {
+        IndexStatisticsStore statisticsStore = new IndexStatisticsStore( pageCache, databaseLayout, immediate(), false );
+        statisticsStore.init();
+        try
+        {
+            samples.forEachKeyValue( ( indexId, sample ) ->
+                    statisticsStore.replaceStats( indexId, sample.uniqueValues(), sample.sampleSize(), sample.indexSize() ) );
+            statisticsStore.checkpoint( IOLimiter.UNLIMITED );
+        }
+        finally
+        {
+            statisticsStore.shutdown();
+        }
+    }
+
+    @Override
+    public ByteBufferFactory newBufferFactory()
+    {
+        ThreadSafePeakMemoryAllocationTracker memoryAllocationTracker = new ThreadSafePeakMemoryAllocationTracker();
+        return new ByteBufferFactory( () -> new UnsafeDirectByteBufferAllocator( memoryAllocationTracker ), parseBlockSize() );
+    }
+}
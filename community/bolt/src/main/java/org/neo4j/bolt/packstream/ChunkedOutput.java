@@ -211,7 +211,18 @@ public class ChunkedOutput implements PackOutput
         {
             throw new IOException( "Asked to write " + length + " bytes, but there is only " + (data.length - offset) + " bytes available in data provided." );
         }
-        return writeBytes( ByteBuffer.wrap( data, offset, length ) );
+        // Copy straight from the array into the chunks, wrapping it in a ByteBuffer would allocate for every string or byte[] packed
+        int end = offset + length;
+        while ( offset < end )
+        {
+            // Ensure there is an open chunk, and that it has at least one byte of space left
+            ensure( 1 );
+
+            int bytesToWrite = Math.min( availableBytesInCurrentChunk(), end - offset );
+            buffer.writeBytes( data, offset, bytesToWrite );
+            offset += bytesToWrite;
+        }
+        return this;
     }
 
     @Override
@@ -19,7 +19,9 @@
  */
 package org.neo4j.bolt.runtime;
 
+import java.io.IOException;
 import java.time.Clock;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -39,6 +41,7 @@ import org.neo4j.values.virtual.MapValue;
 import org.neo4j.values.virtual.MapValueBuilder;
 import org.neo4j.values.virtual.VirtualValues;
 
+import static java.lang.Math.min;
 import static java.lang.String.format;
 import static org.neo4j.bolt.v4.messaging.AbstractStreamingMessage.STREAM_LIMIT_UNLIMITED;
 import static org.neo4j.values.storable.Values.intValue;
@@ -62,14 +65,40 @@ public abstract class AbstractCypherAdapterStream implements BoltResult
     private final BoltAdapterSubscriber querySubscriber;
 
     private static final Long STREAM_UNLIMITED_BATCH_SIZE = Long.MAX_VALUE;
+    /**
+     * Number of records produced by a single call to {@link #prefetch()}, small so that the worker thread gets to check
+     * for the next request of the client often.
+     */
+    private static final int PREFETCH_BATCH_SIZE = 64;
+    /**
+     * Number of records requested at a time when streaming a limited number of records, between which the consumer is checked for being throttled.
+     */
+    private static final int THROTTLE_CHECK_INTERVAL = 1000;
+
+    private final int maxPrefetchedRecords;
+    private final ArrayDeque<AnyValue[]> prefetchedRecords = new ArrayDeque<>();
+    private final PrefetchingRecordConsumer prefetchingRecordConsumer = new PrefetchingRecordConsumer();
+    private boolean prefetchedAll;
+    private Throwable prefetchFailure;
 
     public AbstractCypherAdapterStream( QueryExecution queryExecution,
             BoltAdapterSubscriber querySubscriber, Clock clock )
+    {
+        this( queryExecution, querySubscriber, clock, 0 );
+    }
+
+    /**
+     * @param maxPrefetchedRecords the maximum number of records that {@link #prefetch()} keeps buffered ahead of demand, {@code 0} disables
+     * prefetching.
+     */
+    public AbstractCypherAdapterStream( QueryExecution queryExecution,
+            BoltAdapterSubscriber querySubscriber, Clock clock, int maxPrefetchedRecords )
     {
         this.queryExecution = queryExecution;
         this.fieldNames = queryExecution.fieldNames();
         this.querySubscriber = querySubscriber;
         this.clock = clock;
+        this.maxPrefetchedRecords = maxPrefetchedRecords;
     }
 
     @Override
@@ -88,10 +117,20 @@ public abstract class AbstractCypherAdapterStream implements BoltResult
     public boolean handleRecords( RecordConsumer recordConsumer, long size ) throws Throwable
     {
         long start = clock.millis();
+        long remaining = handlePrefetchedRecords( recordConsumer, size );
+        if ( !prefetchedRecords.isEmpty() )
+        {
+            return true;
+        }
+        if ( prefetchFailure != null )
+        {
+            throw prefetchFailure;
+        }
         this.querySubscriber.setRecordConsumer( recordConsumer );
 
-        boolean hasMore = true;
-        if ( size == STREAM_LIMIT_UNLIMITED )
+        // the stream may already have been exhausted by prefetching, or the prefetched records may have been enough for this request
+        boolean hasMore = !prefetchedAll;
+        if ( hasMore && size == STREAM_LIMIT_UNLIMITED )
         {
             while ( hasMore )
             {
@@ -100,10 +139,18 @@ public abstract class AbstractCypherAdapterStream implements BoltResult
                 hasMore = queryExecution.await();
             }
         }
-        else
+        else if ( hasMore && remaining > 0 )
         {
-            queryExecution.request( size );
-            hasMore = queryExecution.await();
+            // A client not keeping up with the records suspends the demand, the rest of the records are left for its next request
+            // and this thread doesn't wait in the write throttle for the client to read all of them
+            do
+            {
+                long slice = min( remaining, THROTTLE_CHECK_INTERVAL );
+                queryExecution.request( slice );
+                hasMore = queryExecution.await();
+                remaining -= slice;
+            }
+            while ( hasMore && remaining > 0 && !recordConsumer.isThrottled() );
         }
 
         querySubscriber.assertSucceeded();
@@ -124,6 +171,7 @@ public abstract class AbstractCypherAdapterStream implements BoltResult
         if ( queryExecution.executionType().queryType() == QueryExecutionType.QueryType.READ_ONLY )
         {
             long start = clock.millis();
+            prefetchedRecords.clear();
             queryExecution.cancel();
             queryExecution.await();
             addRecordStreamingTime( clock.millis() - start, consumer );
@@ -139,6 +187,53 @@ public abstract class AbstractCypherAdapterStream implements BoltResult
         }
     }
 
+    @Override
+    public boolean prefetch()
+    {
+        long batchSize = min( PREFETCH_BATCH_SIZE, maxPrefetchedRecords - prefetchedRecords.size() );
+        if ( batchSize <= 0 || prefetchedAll || prefetchFailure != null )
+        {
+            return false;
+        }
+
+        querySubscriber.setRecordConsumer( prefetchingRecordConsumer );
+        try
+        {
+            queryExecution.request( batchSize );
+            prefetchedAll = !queryExecution.await();
+        }
+        catch ( Throwable e )
+        {
+            // Handed to the client by the request which gets to the point in the stream where this happened
+            prefetchFailure = e;
+            return false;
+        }
+        return !prefetchedAll && prefetchedRecords.size() < maxPrefetchedRecords;
+    }
+
+    /**
+     * @return the number of records still to be handled after the prefetched ones, or {@code STREAM_LIMIT_UNLIMITED}.
+     */
+    private long handlePrefetchedRecords( RecordConsumer recordConsumer, long size ) throws IOException
+    {
+        long remaining = size;
+        while ( remaining != 0 && !prefetchedRecords.isEmpty() )
+        {
+            AnyValue[] record = prefetchedRecords.poll();
+            recordConsumer.beginRecord( record.length );
+            for ( AnyValue value : record )
+            {
+                recordConsumer.consumeField( value );
+            }
+            recordConsumer.endRecord();
+            if ( remaining != STREAM_LIMIT_UNLIMITED )
+            {
+                remaining--;
+            }
+        }
+        return remaining;
+    }
+
     protected abstract void addDatabaseName( RecordConsumer recordConsumer );
 
     protected abstract void addRecordStreamingTime( long time, RecordConsumer recordConsumer );
@@ -239,6 +334,48 @@ public abstract class AbstractCypherAdapterStream implements BoltResult
         }
     }
 
+    /**
+     * Keeps the records produced by {@link #prefetch()} until they are asked for.
+     */
+    private class PrefetchingRecordConsumer implements RecordConsumer
+    {
+        private AnyValue[] record;
+        private int field;
+
+        @Override
+        public void beginRecord( int numberOfFields )
+        {
+            record = new AnyValue[numberOfFields];
+            field = 0;
+        }
+
+        @Override
+        public void consumeField( AnyValue value )
+        {
+            record[field++] = value;
+        }
+
+        @Override
+        public void endRecord()
+        {
+            prefetchedRecords.add( record );
+            record = null;
+        }
+
+        @Override
+        public void onError()
+        {
+            // Drop the partial record, the error itself is kept by the subscriber
+            record = null;
+        }
+
+        @Override
+        public void addMetadata( String key, AnyValue value )
+        {
+            throw new IllegalStateException( "Metadata is only added to the consumer of a request, not when prefetching" );
+        }
+    }
+
     private static class NotificationConverter
     {
         public static AnyValue convert( Iterable<Notification> notifications )
@@ -27,6 +27,12 @@ public interface BoltConnectionMetricsMonitor
 
     void connectionWaiting();
 
+    /**
+     * A connection with pending messages got a worker thread, after waiting for one for the given time. Listeners typically
+     * keep a histogram of these to tell whether the bolt workers keep up with the connections.
+     */
+    void connectionScheduled( long schedulingWaitTime );
+
     void messageReceived();
 
     void messageProcessingStarted( long queueTime );
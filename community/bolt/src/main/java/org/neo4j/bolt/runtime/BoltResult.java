@@ -43,6 +43,17 @@ public interface BoltResult extends AutoCloseable
      */
     boolean discardRecords( DiscardingRecordConsumer recordConsumer, long size ) throws Throwable;
 
+    /**
+     * Produce some records ahead of demand, to be handed out first by the next call to {@link #handleRecords(RecordConsumer, long)}.
+     * Called on the worker thread bound to the transaction while it waits for the next request of the client.
+     *
+     * @return {@code true} if calling this method again could prefetch more records, {@code false} otherwise.
+     */
+    default boolean prefetch()
+    {
+        return false;
+    }
+
     @Override
     void close();
 
@@ -53,6 +64,16 @@ public interface BoltResult extends AutoCloseable
          * Please stick to Neo4j type system types (Map, List, Integer, Float, Boolean, String etc)
          */
         void addMetadata( String key, AnyValue value );
+
+        /**
+         * Whether the records can't currently be written without blocking until the client has read the ones written so far.
+         * A stream asked for a limited number of records may then stop early and report that it has more records,
+         * rather than keeping the worker thread waiting for the client for the rest of the records.
+         */
+        default boolean isThrottled()
+        {
+            return false;
+        }
     }
 
     abstract class DiscardingRecordConsumer implements RecordConsumer
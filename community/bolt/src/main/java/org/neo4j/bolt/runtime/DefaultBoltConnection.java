@@ -217,7 +217,16 @@ public class DefaultBoltConnection implements BoltConnection
                         // break loop if we'll close the connection
                         while ( !willClose() )
                         {
-                            Job nextJob = queue.poll( 10, SECONDS );
+                            // use the wait for the next job to let open results produce records ahead of demand
+                            Job nextJob = queue.poll();
+                            while ( nextJob == null && machine.prefetch() )
+                            {
+                                nextJob = queue.poll();
+                            }
+                            if ( nextJob == null )
+                            {
+                                nextJob = queue.poll( 10, SECONDS );
+                            }
                             if ( nextJob != null )
                             {
                                 batch.add( nextJob );
@@ -66,6 +66,7 @@ public class DefaultBoltConnectionFactory implements BoltConnectionFactory
 
         BoltScheduler scheduler = schedulerProvider.get( channel );
         BoltConnectionReadLimiter readLimiter = createReadLimiter( config, logService );
+        readLimiter.bindTo( channel.rawChannel() );
         BoltConnectionQueueMonitor connectionQueueMonitor = new BoltConnectionQueueMonitorAggregate( scheduler, readLimiter );
         ChunkedOutput chunkedOutput = new ChunkedOutput( channel.rawChannel(), throttleGroup );
         BoltConnection connection = new DefaultBoltConnection( channel, chunkedOutput, stateMachine, logService, scheduler,
@@ -20,6 +20,7 @@
 package org.neo4j.bolt.runtime.scheduling;
 
 import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
 
 import java.util.Collection;
 
@@ -32,14 +33,21 @@ import org.neo4j.logging.internal.LogService;
  * Queue monitor that changes {@link Channel} auto-read setting based on the job queue size.
  * Methods {@link #enqueued(BoltConnection, Job)} and {@link #drained(BoltConnection, Collection)} are synchronized to make sure
  * queue size and channel auto-read are modified together as an atomic operation.
+ * <p>
+ * Reading can additionally be paused by a {@link BoltScheduler} which can't keep up with the connections it serves, see
+ * {@link #pause(BoltConnection)}. Reading is then only enabled again once both the scheduler has resumed it and the job queue
+ * is below the low watermark.
  */
 public class BoltConnectionReadLimiter implements BoltConnectionQueueMonitor
 {
+    private static final AttributeKey<BoltConnectionReadLimiter> LIMITER_KEY = AttributeKey.valueOf( "BOLT.READ_LIMITER" );
+
     private final Log log;
     private final int lowWatermark;
     private final int highWatermark;
 
     private int queueSize;
+    private boolean paused;
 
     public BoltConnectionReadLimiter( LogService logService, int lowWatermark, int highWatermark )
     {
@@ -58,6 +66,55 @@ public class BoltConnectionReadLimiter implements BoltConnectionQueueMonitor
         this.highWatermark = highWatermark;
     }
 
+    /**
+     * Make this limiter the one found by {@link #of(Channel)} for the given channel.
+     */
+    public void bindTo( Channel channel )
+    {
+        channel.attr( LIMITER_KEY ).set( this );
+    }
+
+    /**
+     * @return the limiter bound to the given channel, or {@code null} if there is none.
+     */
+    public static BoltConnectionReadLimiter of( Channel channel )
+    {
+        return channel.attr( LIMITER_KEY ).get();
+    }
+
+    /**
+     * Stop reading from the channel of the connection regardless of the size of its job queue, until {@link #resume(BoltConnection)}.
+     */
+    public synchronized void pause( BoltConnection connection )
+    {
+        paused = true;
+        Channel channel = connection.channel();
+        if ( channel.config().isAutoRead() )
+        {
+            if ( log != null )
+            {
+                log.debug( "Channel [%s]: scheduler can't keep up, auto-read is being disabled.", channel.remoteAddress() );
+            }
+
+            channel.config().setAutoRead( false );
+        }
+    }
+
+    public synchronized void resume( BoltConnection connection )
+    {
+        paused = false;
+        Channel channel = connection.channel();
+        if ( queueSize <= lowWatermark && !channel.config().isAutoRead() )
+        {
+            if ( log != null )
+            {
+                log.debug( "Channel [%s]: scheduler caught up, auto-read is being enabled.", channel.remoteAddress() );
+            }
+
+            channel.config().setAutoRead( true );
+        }
+    }
+
     @Override
     public synchronized void enqueued( BoltConnection to, Job job )
     {
@@ -91,7 +148,7 @@ public class BoltConnectionReadLimiter implements BoltConnectionQueueMonitor
     {
         Channel channel = connection.channel();
 
-        if ( queueSize <= lowWatermark && !channel.config().isAutoRead() )
+        if ( queueSize <= lowWatermark && !paused && !channel.config().isAutoRead() )
         {
             if ( log != null )
             {
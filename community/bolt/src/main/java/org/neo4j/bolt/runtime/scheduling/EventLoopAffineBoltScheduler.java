@@ -0,0 +1,434 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.runtime.scheduling;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.bolt.runtime.BoltConnection;
+import org.neo4j.bolt.runtime.BoltConnectionMetricsMonitor;
+import org.neo4j.bolt.runtime.Job;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.internal.LogService;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobScheduler;
+
+import static java.lang.Math.floorMod;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.neo4j.bolt.runtime.scheduling.CachedThreadPoolExecutorFactory.SYNCHRONOUS_QUEUE;
+
+/**
+ * Schedules the work of bolt connections fairly over a bounded pool of worker threads, as opposed to {@link ExecutorBoltScheduler}
+ * which hands every busy connection a thread of its own, or rejects it once all threads are taken.
+ * <ul>
+ * <li>The connections are split into partitions, each with its own queue and a share of the threads of the pool. All connections
+ * of a netty event loop are served by the same partition, which spreads the hand-off between event loops and workers evenly
+ * and keeps a burst on one event loop from competing with the connections of all others.</li>
+ * <li>A partition borrows the threads other partitions don't use as long as it has connections waiting, and returns them once
+ * it is back within its share. This keeps connections with an open transaction, which keep their worker between messages since
+ * kernel transactions are bound to threads, from starving the other connections of their partition. Only when all threads of
+ * the pool are taken do connections wait, or are rejected like with {@link ExecutorBoltScheduler} if no worker of their
+ * partition is left to take them.</li>
+ * <li>A connection is queued at most once in its partition and gets one batch of messages processed per turn. If it has more
+ * messages after that it is queued again, at the back, so that a busy connection can't starve the others.</li>
+ * <li>Instead of rejecting work when a partition can't keep up, reading from the channels of connections which get queued
+ * beyond a high watermark is paused through their {@link BoltConnectionReadLimiter}. Reading is resumed once half as many
+ * connections are waiting.</li>
+ * </ul>
+ */
+public class EventLoopAffineBoltScheduler extends LifecycleAdapter implements BoltScheduler
+{
+    private final String connector;
+    private final ExecutorFactory executorFactory;
+    private final JobScheduler scheduler;
+    private final Log log;
+    private final BoltConnectionMetricsMonitor metricsMonitor;
+    private final Clock clock;
+    private final int maxPoolSize;
+    private final int numberOfPartitions;
+    private final int backlogHighWatermark;
+    private final Duration keepAlive;
+    private final Duration shutdownWaitTime;
+    private final ConcurrentHashMap<String,ScheduledConnection> activeConnections = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<EventLoop,Partition> partitionsByEventLoop = new ConcurrentHashMap<>();
+    private final AtomicInteger nextPartition = new AtomicInteger();
+
+    private ExecutorService workers;
+    private Partition[] partitions;
+
+    /**
+     * @param numberOfPartitions number of partitions to share the {@code maxPoolSize} worker threads between, {@code 0} for
+     * the number of available processors.
+     * @param backlogHighWatermark number of connections waiting for a worker in a partition above which reading from the channels
+     * of newly waiting connections is paused.
+     */
+    public EventLoopAffineBoltScheduler( String connector, ExecutorFactory executorFactory, JobScheduler scheduler, LogService logService,
+            BoltConnectionMetricsMonitor metricsMonitor, Clock clock, int maxPoolSize, int numberOfPartitions, int backlogHighWatermark,
+            Duration keepAlive, Duration shutdownWaitTime )
+    {
+        this.connector = connector;
+        this.executorFactory = executorFactory;
+        this.scheduler = scheduler;
+        this.log = logService.getInternalLog( getClass() );
+        this.metricsMonitor = metricsMonitor;
+        this.clock = clock;
+        this.maxPoolSize = maxPoolSize;
+        this.numberOfPartitions = numberOfPartitions;
+        this.backlogHighWatermark = backlogHighWatermark;
+        this.keepAlive = keepAlive;
+        this.shutdownWaitTime = shutdownWaitTime;
+    }
+
+    boolean isRegistered( BoltConnection connection )
+    {
+        return activeConnections.containsKey( connection.id() );
+    }
+
+    int partition( BoltConnection connection )
+    {
+        Partition partition = activeConnections.get( connection.id() ).partition;
+        for ( int i = 0; i < partitions.length; i++ )
+        {
+            if ( partitions[i] == partition )
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String connector()
+    {
+        return connector;
+    }
+
+    @Override
+    public void init()
+    {
+        int partitionCount = numberOfPartitions > 0 ? numberOfPartitions : Runtime.getRuntime().availableProcessors();
+        partitionCount = max( 1, min( partitionCount, maxPoolSize ) );
+        ThreadFactory threadFactory = new ExecutorBoltScheduler.NameAppendingThreadFactory( connector, scheduler.threadFactory( Group.BOLT_WORKER ) );
+        workers = executorFactory.create( 0, maxPoolSize, keepAlive, SYNCHRONOUS_QUEUE, false, threadFactory );
+
+        partitions = new Partition[partitionCount];
+        for ( int i = 0; i < partitionCount; i++ )
+        {
+            // the first partitions get one thread more than the others, so that the shares add up to the whole pool
+            partitions[i] = new Partition( maxPoolSize / partitionCount + (i < maxPoolSize % partitionCount ? 1 : 0) );
+        }
+        log.debug( "Initialized bolt worker pool of %d threads shared by %d partitions", maxPoolSize, partitionCount );
+    }
+
+    @Override
+    public void start()
+    {
+    }
+
+    @Override
+    public void stop()
+    {
+        // Close all idle connections
+        log.debug( "Stopping idle connections" );
+        activeConnections.values().stream().map( scheduled -> scheduled.connection ).filter( BoltConnection::idle ).forEach( this::stopConnection );
+        log.debug( "Idle connections stopped" );
+    }
+
+    @Override
+    public void shutdown()
+    {
+        // Close all connections
+        log.debug( "Stopping connections" );
+        activeConnections.values().forEach( scheduled -> stopConnection( scheduled.connection ) );
+        log.debug( "Connections stopped" );
+
+        if ( workers != null )
+        {
+            log.debug( "Shutting down worker pool" );
+            workers.shutdown();
+            try
+            {
+                if ( !workers.awaitTermination( shutdownWaitTime.toNanos(), NANOSECONDS ) )
+                {
+                    log.warn( "Waited %s for the worker pool to shutdown cleanly, but timed out waiting for existing work to finish cleanly",
+                            shutdownWaitTime );
+                }
+                else
+                {
+                    log.debug( "Worker pool shut down" );
+                }
+            }
+            catch ( InterruptedException ex )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void created( BoltConnection connection )
+    {
+        ScheduledConnection previous = activeConnections.put( connection.id(), new ScheduledConnection( connection, partitionOf( connection.channel() ) ) );
+        // We do not expect the same (keyed) connection twice
+        assert previous == null;
+    }
+
+    @Override
+    public void closed( BoltConnection connection )
+    {
+        ScheduledConnection scheduled = activeConnections.remove( connection.id() );
+        if ( scheduled != null )
+        {
+            scheduled.partition.paused.remove( scheduled );
+        }
+    }
+
+    @Override
+    public void enqueued( BoltConnection to, Job job )
+    {
+        ScheduledConnection scheduled = activeConnections.get( to.id() );
+        if ( scheduled != null )
+        {
+            schedule( scheduled );
+        }
+    }
+
+    @Override
+    public void drained( BoltConnection from, Collection<Job> batch )
+    {
+        // the batch is taken by the worker which already runs the connection, so there is nothing to schedule
+    }
+
+    private Partition partitionOf( Channel channel )
+    {
+        return partitionsByEventLoop.computeIfAbsent( channel.eventLoop(),
+                eventLoop -> partitions[floorMod( nextPartition.getAndIncrement(), partitions.length )] );
+    }
+
+    private void schedule( ScheduledConnection scheduled )
+    {
+        // a connection is only ever queued once, its later messages are handled by the batch which is already queued or running
+        if ( scheduled.queued.compareAndSet( false, true ) )
+        {
+            scheduled.queuedAt = clock.millis();
+            scheduled.partition.submit( scheduled );
+        }
+    }
+
+    private void run( ScheduledConnection scheduled )
+    {
+        metricsMonitor.connectionScheduled( clock.millis() - scheduled.queuedAt );
+
+        BoltConnection connection = scheduled.connection;
+        boolean shouldContinueScheduling = false;
+        try
+        {
+            if ( activeConnections.get( connection.id() ) == scheduled )
+            {
+                shouldContinueScheduling = executeBatch( connection );
+            }
+        }
+        catch ( Throwable t )
+        {
+            log.error( String.format( "Unexpected error during job scheduling for session '%s'.", connection.id() ), t );
+            stopConnection( connection );
+        }
+        finally
+        {
+            scheduled.queued.set( false );
+        }
+
+        // messages which arrived after the batch was taken didn't get to queue the connection, so have to be picked up here
+        if ( shouldContinueScheduling && connection.hasPendingJobs() )
+        {
+            schedule( scheduled );
+        }
+    }
+
+    private static boolean executeBatch( BoltConnection connection )
+    {
+        Thread currentThread = Thread.currentThread();
+        String originalName = currentThread.getName();
+        String newName = String.format( "%s [%s] ", originalName, connection.remoteAddress() );
+
+        currentThread.setName( newName );
+        try
+        {
+            return connection.processNextBatch();
+        }
+        finally
+        {
+            currentThread.setName( originalName );
+        }
+    }
+
+    private void stopConnection( BoltConnection connection )
+    {
+        try
+        {
+            connection.stop();
+        }
+        catch ( Throwable t )
+        {
+            log.warn( String.format( "An unexpected error occurred while stopping BoltConnection [%s]", connection.id() ), t );
+        }
+    }
+
+    private static void pauseReading( BoltConnection connection )
+    {
+        BoltConnectionReadLimiter limiter = BoltConnectionReadLimiter.of( connection.channel() );
+        if ( limiter != null )
+        {
+            limiter.pause( connection );
+        }
+    }
+
+    private static void resumeReading( BoltConnection connection )
+    {
+        BoltConnectionReadLimiter limiter = BoltConnectionReadLimiter.of( connection.channel() );
+        if ( limiter != null )
+        {
+            limiter.resume( connection );
+        }
+    }
+
+    private class Partition
+    {
+        private final int share;
+        private final Queue<ScheduledConnection> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger backlog = new AtomicInteger();
+        private final AtomicInteger activeWorkers = new AtomicInteger();
+        private final Set<ScheduledConnection> paused = ConcurrentHashMap.newKeySet();
+
+        Partition( int share )
+        {
+            this.share = share;
+        }
+
+        void submit( ScheduledConnection scheduled )
+        {
+            if ( backlog.incrementAndGet() > backlogHighWatermark && paused.add( scheduled ) )
+            {
+                pauseReading( scheduled.connection );
+            }
+            queue.offer( scheduled );
+
+            activeWorkers.incrementAndGet();
+            try
+            {
+                workers.execute( this::work );
+            }
+            catch ( RejectedExecutionException e )
+            {
+                // all threads of the pool are taken, so the connection waits for a worker of this partition to take it. Unless there is
+                // none, because other partitions hold all threads or because the scheduler shuts down.
+                if ( activeWorkers.decrementAndGet() == 0 && queue.remove( scheduled ) )
+                {
+                    dequeued();
+                    scheduled.queued.set( false );
+                    scheduled.connection.handleSchedulingError( e );
+                }
+            }
+        }
+
+        private void work()
+        {
+            ScheduledConnection scheduled;
+            while ( (scheduled = next()) != null )
+            {
+                run( scheduled );
+                if ( returnBorrowedThread() )
+                {
+                    return;
+                }
+            }
+        }
+
+        private ScheduledConnection next()
+        {
+            while ( true )
+            {
+                ScheduledConnection scheduled = queue.poll();
+                if ( scheduled != null )
+                {
+                    dequeued();
+                    return scheduled;
+                }
+                activeWorkers.decrementAndGet();
+                // a connection queued before this worker stopped counting as active may not have got a worker of its own
+                if ( queue.isEmpty() )
+                {
+                    return null;
+                }
+                activeWorkers.incrementAndGet();
+            }
+        }
+
+        private boolean returnBorrowedThread()
+        {
+            int active = activeWorkers.get();
+            return active > share && activeWorkers.compareAndSet( active, active - 1 );
+        }
+
+        private void dequeued()
+        {
+            if ( backlog.decrementAndGet() <= backlogHighWatermark / 2 && !paused.isEmpty() )
+            {
+                for ( ScheduledConnection scheduled : paused )
+                {
+                    if ( paused.remove( scheduled ) )
+                    {
+                        resumeReading( scheduled.connection );
+                    }
+                }
+            }
+        }
+    }
+
+    private static class ScheduledConnection
+    {
+        private final BoltConnection connection;
+        private final Partition partition;
+        private final AtomicBoolean queued = new AtomicBoolean();
+        private volatile long queuedAt;
+
+        ScheduledConnection( BoltConnection connection, Partition partition )
+        {
+            this.connection = connection;
+            this.partition = partition;
+        }
+    }
+}
@@ -261,12 +261,12 @@ public class ExecutorBoltScheduler extends LifecycleAdapter implements BoltSched
         }
     }
 
-    private static class NameAppendingThreadFactory implements ThreadFactory
+    static class NameAppendingThreadFactory implements ThreadFactory
     {
         private final String nameToAppend;
         private final ThreadFactory factory;
 
-        private NameAppendingThreadFactory( String nameToAppend, ThreadFactory factory )
+        NameAppendingThreadFactory( String nameToAppend, ThreadFactory factory )
         {
             this.nameToAppend = nameToAppend;
             this.factory = factory;
@@ -19,15 +19,18 @@
  */
 package org.neo4j.bolt.runtime.scheduling;
 
+import java.time.Clock;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ForkJoinPool;
 
 import org.neo4j.bolt.BoltChannel;
+import org.neo4j.bolt.runtime.BoltConnectionMetricsMonitor;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.connectors.BoltConnector;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.internal.LogService;
+import org.neo4j.monitoring.Monitors;
 import org.neo4j.scheduler.Group;
 import org.neo4j.scheduler.JobScheduler;
 
@@ -39,17 +42,22 @@ public class ExecutorBoltSchedulerProvider extends LifecycleAdapter implements B
     private final ExecutorFactory executorFactory;
     private final JobScheduler scheduler;
     private final LogService logService;
+    private final Clock clock;
+    private final Monitors monitors;
     private final Log internalLog;
     private volatile BoltScheduler boltScheduler;
 
     private ExecutorService forkJoinThreadPool;
 
-    public ExecutorBoltSchedulerProvider( Config config, ExecutorFactory executorFactory, JobScheduler scheduler, LogService logService )
+    public ExecutorBoltSchedulerProvider( Config config, ExecutorFactory executorFactory, JobScheduler scheduler, LogService logService, Clock clock,
+            Monitors monitors )
     {
         this.config = config;
         this.executorFactory = executorFactory;
         this.scheduler = scheduler;
         this.logService = logService;
+        this.clock = clock;
+        this.monitors = monitors;
         this.internalLog = logService.getInternalLog( getClass() );
     }
 
@@ -57,7 +65,17 @@ public class ExecutorBoltSchedulerProvider extends LifecycleAdapter implements B
     public void init()
     {
         scheduler.setThreadFactory( Group.BOLT_WORKER, NettyThreadFactory::new );
-        if ( config.get( BoltConnector.enabled ) )
+        if ( config.get( BoltConnector.enabled ) && config.get( BoltConnector.unsupported_event_loop_affine_scheduler ) )
+        {
+            this.boltScheduler =
+                    new EventLoopAffineBoltScheduler( BoltConnector.NAME, executorFactory, scheduler, logService,
+                            monitors.newMonitor( BoltConnectionMetricsMonitor.class ), clock, config.get( BoltConnector.thread_pool_max_size ),
+                            config.get( BoltConnector.unsupported_scheduler_partitions ),
+                            config.get( BoltConnector.unsupported_scheduler_backlog_high_watermark ), config.get( BoltConnector.thread_pool_keep_alive ),
+                            config.get( BoltConnector.thread_pool_shutdown_wait_time ) );
+            this.boltScheduler.init();
+        }
+        else if ( config.get( BoltConnector.enabled ) )
         {
             checkState( forkJoinThreadPool == null, "ForkJoinPool already initialized, this should only be done once." );
             forkJoinThreadPool = new ForkJoinPool();
@@ -35,6 +35,8 @@ public interface BoltStateMachine extends AutoCloseable
 
     boolean hasOpenStatement();
 
+    boolean prefetch();
+
     void interrupt();
 
     boolean reset() throws BoltConnectionFatality;
@@ -56,6 +56,13 @@ public interface StatementProcessor
 
     Status validateTransaction() throws KernelException;
 
+    /**
+     * Let open results produce records ahead of the next PULL, see {@link org.neo4j.bolt.runtime.BoltResult#prefetch()}.
+     *
+     * @return {@code true} if calling this method again could prefetch more records, {@code false} otherwise.
+     */
+    boolean prefetch();
+
     String databaseName();
 
     StatementProcessor EMPTY = new StatementProcessor()
@@ -125,6 +132,12 @@ public interface StatementProcessor
             return null;
         }
 
+        @Override
+        public boolean prefetch()
+        {
+            return false;
+        }
+
         @Override
         public String databaseName()
         {
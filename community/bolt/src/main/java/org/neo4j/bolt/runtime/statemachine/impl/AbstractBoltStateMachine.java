@@ -265,6 +265,12 @@ public abstract class AbstractBoltStateMachine implements BoltStateMachine
         return statementProcessor().hasOpenStatement();
     }
 
+    @Override
+    public boolean prefetch()
+    {
+        return statementProcessor().prefetch();
+    }
+
     @Override
     public boolean reset() throws BoltConnectionFatality
     {
@@ -45,6 +45,7 @@ public class BoltStateMachineFactoryImpl implements BoltStateMachineFactory
     private final SystemNanoClock clock;
     private final String defaultDatabaseName;
     private final boolean renameThreads;
+    private final int maxPrefetchedRecords;
 
     public BoltStateMachineFactoryImpl( BoltGraphDatabaseManagementServiceSPI boltGraphDatabaseManagementServiceSPI, Authentication authentication,
             SystemNanoClock clock, Config config, LogService logging )
@@ -56,6 +57,7 @@ public class BoltStateMachineFactoryImpl implements BoltStateMachineFactory
         this.clock = clock;
         this.defaultDatabaseName = config.get( GraphDatabaseSettings.default_database );
         this.renameThreads = config.get( GraphDatabaseSettings.bolt_worker_threads_contain_database_name );
+        this.maxPrefetchedRecords = config.get( GraphDatabaseSettings.bolt_result_prefetch_records );
     }
 
     @Override
@@ -84,7 +86,8 @@ public class BoltStateMachineFactoryImpl implements BoltStateMachineFactory
 
     private BoltStateMachine newStateMachineV4( BoltChannel boltChannel )
     {
-        var transactionSpiProvider = new TransactionStateMachineSPIProviderV4( boltGraphDatabaseManagementServiceSPI, defaultDatabaseName, boltChannel, clock );
+        var transactionSpiProvider = new TransactionStateMachineSPIProviderV4( boltGraphDatabaseManagementServiceSPI, defaultDatabaseName, boltChannel, clock,
+                maxPrefetchedRecords );
         var boltSPI = new BoltStateMachineSPIImpl( logging, authentication, transactionSpiProvider );
         return new BoltStateMachineV4( boltSPI, boltChannel, clock , renameThreads, defaultDatabaseName );
     }
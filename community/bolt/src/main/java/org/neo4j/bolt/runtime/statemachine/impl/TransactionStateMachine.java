@@ -167,6 +167,17 @@ public class TransactionStateMachine implements StatementProcessor
         return null;
     }
 
+    @Override
+    public boolean prefetch()
+    {
+        boolean more = false;
+        for ( StatementOutcome outcome : ctx.statementOutcomes.values() )
+        {
+            more |= outcome.result.prefetch();
+        }
+        return more;
+    }
+
     @Override
     public String databaseName()
     {
@@ -30,17 +30,25 @@ import org.apache.commons.lang3.time.DurationFormatUtils;
 
 import java.time.Clock;
 import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 /**
  * Throttle that blocks write operations to the channel based on channel's isWritable
  * property. Buffer sizes based on which the channel will change its isWritable property
  * and whether to apply this throttle are configurable through GraphDatabaseSettings.
+ * <p>
+ * The maximum duration is measured from the last time the client was seen draining the outgoing buffers, so that a client which
+ * reads slowly is throttled for as long as it keeps reading, while one which stopped reading altogether gets disconnected.
+ * Producers that are able to stop early, like results streamed in batches, can check {@link #isThrottled(Channel)} to
+ * suspend producing instead of blocking in {@link #acquire(Channel)}. How long writes to a channel were blocked in total is
+ * available through {@link #throttledTimeMillis(Channel)}.
  */
 public class TransportWriteThrottle implements TransportThrottle
 {
     static final AttributeKey<ThrottleLock> LOCK_KEY = AttributeKey.valueOf( "BOLT.WRITE_THROTTLE.LOCK" );
     static final AttributeKey<Boolean> MAX_DURATION_EXCEEDED_KEY = AttributeKey.valueOf( "BOLT.WRITE_THROTTLE.MAX_DURATION_EXCEEDED" );
+    static final AttributeKey<AtomicLong> THROTTLED_TIME_KEY = AttributeKey.valueOf( "BOLT.WRITE_THROTTLE.THROTTLED_TIME" );
     private final int lowWaterMark;
     private final int highWaterMark;
     private final Clock clock;
@@ -63,12 +71,30 @@ public class TransportWriteThrottle implements TransportThrottle
         this.listener = new ChannelStatusListener();
     }
 
+    /**
+     * @return {@code true} if the given channel has a write throttle installed and writing to it would currently block.
+     */
+    public static boolean isThrottled( Channel channel )
+    {
+        return channel != null && !channel.isWritable() && channel.attr( LOCK_KEY ).get() != null;
+    }
+
+    /**
+     * @return the time in milliseconds writes to the given channel were blocked by its write throttle in total.
+     */
+    public static long throttledTimeMillis( Channel channel )
+    {
+        AtomicLong throttledTime = channel.attr( THROTTLED_TIME_KEY ).get();
+        return throttledTime == null ? 0 : throttledTime.get();
+    }
+
     @Override
     public void install( Channel channel )
     {
         ThrottleLock lock = lockSupplier.get();
 
         channel.attr( LOCK_KEY ).set( lock );
+        channel.attr( THROTTLED_TIME_KEY ).set( new AtomicLong() );
         channel.config().setWriteBufferWaterMark( new WriteBufferWaterMark( lowWaterMark, highWaterMark ) );
         channel.pipeline().addLast( listener );
     }
@@ -82,19 +108,31 @@ public class TransportWriteThrottle implements TransportThrottle
         {
             ThrottleLock lock = channel.attr( LOCK_KEY ).get();
 
-            long startTimeMillis = 0;
-            while ( channel.isOpen() && !channel.isWritable() )
+            long throttledSinceMillis = 0;
+            long lastDrainMillis = 0;
+            long bytesBeforeWritable = 0;
+            try
             {
-                if ( maxLockDuration > 0 )
+                while ( channel.isOpen() && !channel.isWritable() )
                 {
                     long currentTimeMillis = clock.millis();
-                    if ( startTimeMillis == 0 )
+                    if ( throttledSinceMillis == 0 )
                     {
-                        startTimeMillis = currentTimeMillis;
+                        throttledSinceMillis = currentTimeMillis;
+                        lastDrainMillis = currentTimeMillis;
+                        bytesBeforeWritable = channel.bytesBeforeWritable();
                     }
                     else
                     {
-                        if ( currentTimeMillis - startTimeMillis > maxLockDuration )
+                        // the client reading anything at all since the last check, however slowly, counts as draining
+                        long currentBytesBeforeWritable = channel.bytesBeforeWritable();
+                        if ( currentBytesBeforeWritable < bytesBeforeWritable )
+                        {
+                            lastDrainMillis = currentTimeMillis;
+                        }
+                        bytesBeforeWritable = currentBytesBeforeWritable;
+
+                        if ( maxLockDuration > 0 && currentTimeMillis - lastDrainMillis > maxLockDuration )
                         {
                             setDurationExceeded( channel );
 
@@ -103,16 +141,24 @@ public class TransportWriteThrottle implements TransportThrottle
                                     channel.remoteAddress(), DurationFormatUtils.formatDurationHMS( maxLockDuration ) ) );
                         }
                     }
-                }
 
-                try
-                {
-                    lock.lock( channel, 1000 );
+                    try
+                    {
+                        lock.lock( channel, 1000 );
+                    }
+                    catch ( InterruptedException ex )
+                    {
+                        Thread.currentThread().interrupt();
+                        throw new RuntimeException( ex );
+                    }
                 }
-                catch ( InterruptedException ex )
+            }
+            finally
+            {
+                AtomicLong throttledTime = channel.attr( THROTTLED_TIME_KEY ).get();
+                if ( throttledSinceMillis != 0 && throttledTime != null )
                 {
-                    Thread.currentThread().interrupt();
-                    throw new RuntimeException( ex );
+                    throttledTime.addAndGet( clock.millis() - throttledSinceMillis );
                 }
             }
         }
@@ -24,6 +24,7 @@ import java.io.IOException;
 import org.neo4j.bolt.messaging.BoltResponseMessageWriter;
 import org.neo4j.bolt.runtime.BoltConnection;
 import org.neo4j.bolt.runtime.BoltResult;
+import org.neo4j.bolt.transport.TransportWriteThrottle;
 import org.neo4j.logging.Log;
 import org.neo4j.values.AnyValue;
 import org.neo4j.values.storable.BooleanValue;
@@ -78,6 +79,12 @@ public class ResultHandler extends MessageProcessingHandler
         {
             messageWriter.onError();
         }
+
+        @Override
+        public boolean isThrottled()
+        {
+            return TransportWriteThrottle.isThrottled( connection.channel() );
+        }
     }
 
     private class RecordDiscardingBoltResultRecordConsumer extends BoltResult.DiscardingRecordConsumer
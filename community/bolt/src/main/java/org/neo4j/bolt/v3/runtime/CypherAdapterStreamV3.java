@@ -36,6 +36,11 @@ public class CypherAdapterStreamV3 extends AbstractCypherAdapterStream
         super( delegate, subscriber, clock );
     }
 
+    protected CypherAdapterStreamV3( QueryExecution delegate, BoltAdapterSubscriber subscriber, Clock clock, int maxPrefetchedRecords )
+    {
+        super( delegate, subscriber, clock, maxPrefetchedRecords );
+    }
+
     @Override
     protected void addDatabaseName( RecordConsumer recordConsumer )
     {
@@ -34,7 +34,13 @@ public class CypherAdapterStreamV4 extends CypherAdapterStreamV3
 
     public CypherAdapterStreamV4( QueryExecution delegate, BoltAdapterSubscriber subscriber, Clock clock, String databaseName )
     {
-        super( delegate, subscriber, clock );
+        this( delegate, subscriber, clock, databaseName, 0 );
+    }
+
+    public CypherAdapterStreamV4( QueryExecution delegate, BoltAdapterSubscriber subscriber, Clock clock, String databaseName,
+            int maxPrefetchedRecords )
+    {
+        super( delegate, subscriber, clock, maxPrefetchedRecords );
         this.databaseName = databaseName;
     }
 
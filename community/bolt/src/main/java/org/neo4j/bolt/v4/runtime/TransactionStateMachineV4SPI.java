@@ -40,12 +40,20 @@ import org.neo4j.values.virtual.MapValue;
 public class TransactionStateMachineV4SPI extends AbstractTransactionStateMachineSPI
 {
     private final NamedDatabaseId namedDatabaseId;
+    private final int maxPrefetchedRecords;
 
     public TransactionStateMachineV4SPI( BoltGraphDatabaseServiceSPI boltGraphDatabaseServiceSPI, BoltChannel boltChannel, SystemNanoClock clock,
             StatementProcessorReleaseManager resourceReleaseManger )
+    {
+        this( boltGraphDatabaseServiceSPI, boltChannel, clock, resourceReleaseManger, 0 );
+    }
+
+    public TransactionStateMachineV4SPI( BoltGraphDatabaseServiceSPI boltGraphDatabaseServiceSPI, BoltChannel boltChannel, SystemNanoClock clock,
+            StatementProcessorReleaseManager resourceReleaseManger, int maxPrefetchedRecords )
     {
         super( boltGraphDatabaseServiceSPI, boltChannel, clock, resourceReleaseManger );
         this.namedDatabaseId = boltGraphDatabaseServiceSPI.getNamedDatabaseId();
+        this.maxPrefetchedRecords = maxPrefetchedRecords;
     }
 
     @Override
@@ -78,7 +86,7 @@ public class TransactionStateMachineV4SPI extends AbstractTransactionStateMachin
         @Override
         protected BoltResult newBoltResult( QueryExecution result, BoltAdapterSubscriber subscriber, Clock clock )
         {
-            return new CypherAdapterStreamV4( result, subscriber, clock, namedDatabaseId.name() );
+            return new CypherAdapterStreamV4( result, subscriber, clock, namedDatabaseId.name(), maxPrefetchedRecords );
         }
     }
 }
@@ -259,6 +259,29 @@ public class ChunkedOutputTest
         assertByteBufEqual( outboundMessage, chunkContaining( chunk1Body ) + chunkContaining( chunk2Body ) + messageBoundary() );
     }
 
+    @Test
+    void shouldChunkByteArrayRangeSpanningMultipleChunks() throws IOException
+    {
+        out.beginMessage();
+        out.writeByte( (byte) 1 );
+        byte[] bytes = new byte[20];
+        Arrays.fill( bytes, (byte) 42 );
+        out.writeBytes( bytes, 2, 16 );
+        out.messageSucceeded();
+        out.flush();
+
+        ByteBuf outboundMessage = peekSingleOutboundMessage();
+
+        Number[] chunk1Body = new Number[14];
+        Arrays.fill( chunk1Body, (byte) 42 );
+        chunk1Body[0] = (byte) 1;
+
+        Number[] chunk2Body = new Number[3];
+        Arrays.fill( chunk2Body, (byte) 42 );
+
+        assertByteBufEqual( outboundMessage, chunkContaining( chunk1Body ) + chunkContaining( chunk2Body ) + messageBoundary() );
+    }
+
     @Test
     void shouldNotThrowIfOutOfSyncFlush() throws Throwable
     {
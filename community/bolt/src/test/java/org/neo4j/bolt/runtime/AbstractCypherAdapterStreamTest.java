@@ -19,9 +19,11 @@
  */
 package org.neo4j.bolt.runtime;
 
+import org.apache.commons.lang3.mutable.MutableLong;
 import org.junit.jupiter.api.Test;
 
 import java.time.Clock;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -46,7 +48,12 @@ import static java.util.Collections.singletonList;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.closeTo;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -172,6 +179,149 @@ class AbstractCypherAdapterStreamTest
         verify( queryExecution, times( 1 ) ).await();
     }
 
+    @Test
+    void shouldHandOutPrefetchedRecordsBeforeRequestingMore() throws Throwable
+    {
+        // Given
+        QueryExecution queryExecution = mock( QueryExecution.class );
+        when( queryExecution.fieldNames() ).thenReturn( new String[]{ "n" } );
+        when( queryExecution.executionType() ).thenReturn( query( READ_ONLY ) );
+        when( queryExecution.await() ).thenReturn( true );
+        BoltAdapterSubscriber subscriber = new BoltAdapterSubscriber();
+        subscriber.onResult( 1 );
+        produceRecordsOnRequest( queryExecution, subscriber );
+
+        var stream = new TestAbstractCypherAdapterStream( queryExecution, subscriber, Clock.systemUTC(), 3 );
+
+        // When
+        assertFalse( stream.prefetch() );
+        List<AnyValue> records = new ArrayList<>();
+        boolean hasMore = stream.handleRecords( recordingConsumer( records ), 5 );
+
+        // Then
+        assertTrue( hasMore );
+        assertThat( records, equalTo( asList( longValue( 0 ), longValue( 1 ), longValue( 2 ), longValue( 3 ), longValue( 4 ) ) ) );
+        verify( queryExecution ).request( 3 );
+        verify( queryExecution ).request( 2 );
+    }
+
+    @Test
+    void shouldNotPrefetchWhenDisabled() throws Throwable
+    {
+        // Given
+        QueryExecution queryExecution = mock( QueryExecution.class );
+        when( queryExecution.fieldNames() ).thenReturn( new String[]{ "n" } );
+        var stream = new TestAbstractCypherAdapterStream( queryExecution, new BoltAdapterSubscriber(), Clock.systemUTC() );
+
+        // When
+        assertFalse( stream.prefetch() );
+
+        // Then
+        verify( queryExecution, never() ).request( anyLong() );
+    }
+
+    @Test
+    void shouldCompleteStreamExhaustedByPrefetching() throws Throwable
+    {
+        // Given
+        QueryExecution queryExecution = mock( QueryExecution.class );
+        when( queryExecution.fieldNames() ).thenReturn( new String[]{ "n" } );
+        when( queryExecution.executionType() ).thenReturn( query( READ_ONLY ) );
+        when( queryExecution.getNotifications() ).thenReturn( Collections.emptyList() );
+        when( queryExecution.await() ).thenReturn( false );
+        BoltAdapterSubscriber subscriber = new BoltAdapterSubscriber();
+        subscriber.onResult( 1 );
+        produceRecordsOnRequest( queryExecution, subscriber );
+        subscriber.onResultCompleted( QueryStatistics.EMPTY );
+
+        var stream = new TestAbstractCypherAdapterStream( queryExecution, subscriber, Clock.systemUTC(), 10 );
+
+        // When
+        assertFalse( stream.prefetch() );
+        List<AnyValue> records = new ArrayList<>();
+        boolean hasMore = stream.handleRecords( recordingConsumer( records ), STREAM_LIMIT_UNLIMITED );
+
+        // Then
+        assertFalse( hasMore );
+        assertThat( records.size(), equalTo( 10 ) );
+        verify( queryExecution ).request( anyLong() );
+    }
+
+    @Test
+    void shouldSuspendDemandWhenConsumerIsThrottled() throws Throwable
+    {
+        // Given
+        QueryExecution queryExecution = mock( QueryExecution.class );
+        when( queryExecution.fieldNames() ).thenReturn( new String[]{ "n" } );
+        when( queryExecution.await() ).thenReturn( true );
+        BoltAdapterSubscriber subscriber = new BoltAdapterSubscriber();
+        subscriber.onResult( 1 );
+        produceRecordsOnRequest( queryExecution, subscriber );
+
+        var stream = new TestAbstractCypherAdapterStream( queryExecution, subscriber, Clock.systemUTC() );
+        List<AnyValue> records = new ArrayList<>();
+        BoltResult.RecordConsumer consumer = new BoltResult.DiscardingRecordConsumer()
+        {
+            @Override
+            public void consumeField( AnyValue value )
+            {
+                records.add( value );
+            }
+
+            @Override
+            public void addMetadata( String key, AnyValue value )
+            {
+            }
+
+            @Override
+            public boolean isThrottled()
+            {
+                return records.size() > 1500;
+            }
+        };
+
+        // When
+        boolean hasMore = stream.handleRecords( consumer, 5000 );
+
+        // Then the records of the first two requests are handed out, the rest are left for the next pull
+        assertTrue( hasMore );
+        assertThat( records.size(), equalTo( 2000 ) );
+        verify( queryExecution, times( 2 ) ).request( 1000 );
+    }
+
+    private static void produceRecordsOnRequest( QueryExecution queryExecution, BoltAdapterSubscriber subscriber ) throws Exception
+    {
+        MutableLong produced = new MutableLong();
+        doAnswer( invocation ->
+        {
+            long n = invocation.getArgument( 0 );
+            for ( long i = 0; i < n; i++ )
+            {
+                subscriber.onRecord();
+                subscriber.onField( longValue( produced.getAndIncrement() ) );
+                subscriber.onRecordCompleted();
+            }
+            return null;
+        } ).when( queryExecution ).request( anyLong() );
+    }
+
+    private static BoltResult.RecordConsumer recordingConsumer( List<AnyValue> values )
+    {
+        return new BoltResult.DiscardingRecordConsumer()
+        {
+            @Override
+            public void consumeField( AnyValue value )
+            {
+                values.add( value );
+            }
+
+            @Override
+            public void addMetadata( String key, AnyValue value )
+            {
+            }
+        };
+    }
+
     @Test
     void shouldIncludeBasicMetadata() throws Throwable
     {
@@ -559,6 +709,11 @@ class AbstractCypherAdapterStreamTest
             super( queryExecution, querySubscriber, clock );
         }
 
+        TestAbstractCypherAdapterStream( QueryExecution queryExecution, BoltAdapterSubscriber querySubscriber, Clock clock, int maxPrefetchedRecords )
+        {
+            super( queryExecution, querySubscriber, clock, maxPrefetchedRecords );
+        }
+
         @Override
         protected void addDatabaseName( RecordConsumer recordConsumer )
         {
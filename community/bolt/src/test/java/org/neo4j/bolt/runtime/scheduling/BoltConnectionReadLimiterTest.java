@@ -37,6 +37,7 @@ import static java.util.Collections.singleton;
 import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -185,6 +186,34 @@ class BoltConnectionReadLimiterTest
         assertTrue( channel.config().isAutoRead() );
     }
 
+    @Test
+    void shouldKeepAutoReadDisabledWhilePaused()
+    {
+        BoltConnectionReadLimiter limiter = newLimiter( 1, 2 );
+
+        limiter.pause( connection );
+        assertFalse( channel.config().isAutoRead() );
+
+        limiter.enqueued( connection, job );
+        limiter.enqueued( connection, job );
+        limiter.enqueued( connection, job );
+        limiter.drained( connection, Arrays.asList( job, job, job ) );
+        assertFalse( channel.config().isAutoRead() );
+
+        limiter.resume( connection );
+        assertTrue( channel.config().isAutoRead() );
+    }
+
+    @Test
+    void shouldBeFoundThroughChannelItIsBoundTo()
+    {
+        BoltConnectionReadLimiter limiter = newLimiter( 1, 2 );
+
+        limiter.bindTo( channel );
+
+        assertSame( limiter, BoltConnectionReadLimiter.of( channel ) );
+    }
+
     @Test
     void shouldNotAcceptNegativeLowWatermark()
     {
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.runtime.scheduling;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.bolt.runtime.BoltConnection;
+import org.neo4j.bolt.runtime.BoltConnectionMetricsMonitor;
+import org.neo4j.bolt.testing.Jobs;
+import org.neo4j.function.Predicates;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.logging.internal.LogService;
+import org.neo4j.logging.internal.SimpleLogService;
+import org.neo4j.scheduler.JobScheduler;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EventLoopAffineBoltSchedulerTest
+{
+    private static final String CONNECTOR_KEY = "connector-id";
+
+    private final LogService logService = new SimpleLogService( NullLogProvider.getInstance() );
+    private final JobScheduler jobScheduler = mock( JobScheduler.class );
+    private final BoltConnectionMetricsMonitor metricsMonitor = mock( BoltConnectionMetricsMonitor.class );
+    private EventLoopAffineBoltScheduler boltScheduler;
+
+    @BeforeEach
+    void setup()
+    {
+        when( jobScheduler.threadFactory( any() ) ).thenReturn( Executors.defaultThreadFactory() );
+        startScheduler( 2, 2 );
+    }
+
+    @AfterEach
+    void cleanup()
+    {
+        boltScheduler.stop();
+        boltScheduler.shutdown();
+    }
+
+    @Test
+    void enqueuedShouldProcessBatchAndReportSchedulingWaitTime() throws Throwable
+    {
+        CountDownLatch processed = new CountDownLatch( 1 );
+        BoltConnection connection = newConnection( new EmbeddedChannel() );
+        when( connection.processNextBatch() ).thenAnswer( inv ->
+        {
+            processed.countDown();
+            return true;
+        } );
+
+        boltScheduler.created( connection );
+        boltScheduler.enqueued( connection, Jobs.noop() );
+
+        assertTrue( processed.await( 1, MINUTES ) );
+        verify( metricsMonitor, atLeastOnce() ).connectionScheduled( anyLong() );
+    }
+
+    @Test
+    void successfulBatchShouldRescheduleConnectionWithPendingJobs() throws Throwable
+    {
+        AtomicInteger counter = new AtomicInteger();
+        BoltConnection connection = newConnection( new EmbeddedChannel() );
+        when( connection.processNextBatch() ).thenAnswer( inv -> counter.incrementAndGet() > 0 );
+        when( connection.hasPendingJobs() ).thenReturn( true ).thenReturn( false );
+
+        boltScheduler.created( connection );
+        boltScheduler.enqueued( connection, Jobs.noop() );
+
+        Predicates.await( () -> counter.get() == 2, 1, MINUTES );
+    }
+
+    @Test
+    void connectionsOfSameEventLoopShouldShareWorkerPartition()
+    {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        BoltConnection connection1 = newConnection( channel );
+        BoltConnection connection2 = newConnection( channel );
+        BoltConnection connection3 = newConnection( new EmbeddedChannel() );
+
+        boltScheduler.created( connection1 );
+        boltScheduler.created( connection2 );
+        boltScheduler.created( connection3 );
+
+        assertEquals( boltScheduler.partition( connection1 ), boltScheduler.partition( connection2 ) );
+        assertNotEquals( boltScheduler.partition( connection1 ), boltScheduler.partition( connection3 ) );
+    }
+
+    @Test
+    void openTransactionsShouldNotStarveOtherConnectionsOfTheirPartition() throws Throwable
+    {
+        startScheduler( 4, 2 );
+
+        // more connections holding on to their worker than the partition of their event loop has threads
+        CountDownLatch started = new CountDownLatch( 3 );
+        CountDownLatch release = new CountDownLatch( 1 );
+        EmbeddedChannel channel = new EmbeddedChannel();
+        for ( int i = 0; i < 3; i++ )
+        {
+            BoltConnection inTransaction = newConnection( channel );
+            when( inTransaction.processNextBatch() ).thenAnswer( inv ->
+            {
+                started.countDown();
+                return release.await( 1, MINUTES );
+            } );
+            boltScheduler.created( inTransaction );
+            boltScheduler.enqueued( inTransaction, Jobs.noop() );
+        }
+
+        try
+        {
+            assertTrue( started.await( 1, MINUTES ) );
+        }
+        finally
+        {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void shouldRejectConnectionsWithoutWorkerOfTheirPartitionWhenAllThreadsAreTaken() throws Throwable
+    {
+        // both threads held by connections of the partition of one event loop
+        CountDownLatch started = new CountDownLatch( 2 );
+        CountDownLatch release = new CountDownLatch( 1 );
+        EmbeddedChannel channel = new EmbeddedChannel();
+        for ( int i = 0; i < 2; i++ )
+        {
+            BoltConnection inTransaction = newConnection( channel );
+            when( inTransaction.processNextBatch() ).thenAnswer( inv ->
+            {
+                started.countDown();
+                return release.await( 1, MINUTES );
+            } );
+            boltScheduler.created( inTransaction );
+            boltScheduler.enqueued( inTransaction, Jobs.noop() );
+        }
+        assertTrue( started.await( 1, MINUTES ) );
+
+        // waits for one of the workers of its partition
+        CountDownLatch processed = new CountDownLatch( 1 );
+        BoltConnection waiting = newConnection( channel );
+        when( waiting.processNextBatch() ).thenAnswer( inv ->
+        {
+            processed.countDown();
+            return true;
+        } );
+        boltScheduler.created( waiting );
+        boltScheduler.enqueued( waiting, Jobs.noop() );
+
+        // has no worker of its partition to wait for
+        BoltConnection rejected = newConnection( new EmbeddedChannel() );
+        boltScheduler.created( rejected );
+        boltScheduler.enqueued( rejected, Jobs.noop() );
+
+        assertNotEquals( boltScheduler.partition( waiting ), boltScheduler.partition( rejected ) );
+        verify( rejected ).handleSchedulingError( any( RejectedExecutionException.class ) );
+        verify( waiting, never() ).handleSchedulingError( any() );
+
+        release.countDown();
+        assertTrue( processed.await( 1, MINUTES ) );
+    }
+
+    @Test
+    void shouldPauseReadingOfConnectionsQueuedAboveHighWatermarkUntilBacklogDrains() throws Throwable
+    {
+        startScheduler( 1, 1 );
+
+        // the only worker, held by the first connection
+        CountDownLatch started = new CountDownLatch( 1 );
+        CountDownLatch release = new CountDownLatch( 1 );
+        EmbeddedChannel channel = new EmbeddedChannel();
+        BoltConnection busy = newConnection( channel );
+        when( busy.processNextBatch() ).thenAnswer( inv ->
+        {
+            started.countDown();
+            return release.await( 1, MINUTES );
+        } );
+        boltScheduler.created( busy );
+        boltScheduler.enqueued( busy, Jobs.noop() );
+        assertTrue( started.await( 1, MINUTES ) );
+
+        EmbeddedChannel[] channels = new EmbeddedChannel[3];
+        for ( int i = 0; i < channels.length; i++ )
+        {
+            // share the event loop of the busy connection, but have a channel of their own to pause reading of
+            channels[i] = new EmbeddedChannel();
+            BoltConnection waiting = newConnection( channel );
+            when( waiting.channel() ).thenReturn( channel, channels[i] );
+            new BoltConnectionReadLimiter( logService, 1, 2 ).bindTo( channels[i] );
+            when( waiting.processNextBatch() ).thenReturn( true );
+            boltScheduler.created( waiting );
+            boltScheduler.enqueued( waiting, Jobs.noop() );
+        }
+
+        assertTrue( channels[0].config().isAutoRead() );
+        assertTrue( channels[1].config().isAutoRead() );
+        assertFalse( channels[2].config().isAutoRead() );
+
+        release.countDown();
+        Predicates.await( () -> channels[2].config().isAutoRead(), 1, MINUTES );
+    }
+
+    private void startScheduler( int maxPoolSize, int numberOfPartitions )
+    {
+        if ( boltScheduler != null )
+        {
+            cleanup();
+        }
+        boltScheduler = new EventLoopAffineBoltScheduler( CONNECTOR_KEY, new CachedThreadPoolExecutorFactory(), jobScheduler, logService, metricsMonitor,
+                Clock.systemUTC(), maxPoolSize, numberOfPartitions, 2, Duration.ofMinutes( 1 ), Duration.ZERO );
+        boltScheduler.init();
+        boltScheduler.start();
+    }
+
+    private static BoltConnection newConnection( EmbeddedChannel channel )
+    {
+        BoltConnection result = mock( BoltConnection.class );
+        when( result.id() ).thenReturn( UUID.randomUUID().toString() );
+        when( result.remoteAddress() ).thenReturn( new InetSocketAddress( "localhost", 32_000 ) );
+        when( result.channel() ).thenReturn( channel );
+        return result;
+    }
+}
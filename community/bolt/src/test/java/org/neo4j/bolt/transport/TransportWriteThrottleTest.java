@@ -42,6 +42,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.test.rule.OtherThreadRule;
 import org.neo4j.time.Clocks;
@@ -75,6 +76,7 @@ public class TransportWriteThrottleTest
     private SocketChannelConfig config;
     private ThrottleLock lock;
     private Attribute lockAttribute;
+    private AtomicLong throttledTime;
 
     @Before
     public void setup() throws Exception
@@ -89,12 +91,17 @@ public class TransportWriteThrottleTest
         Attribute durationExceedAttribute = mock( Attribute.class );
         when( durationExceedAttribute.get() ).thenReturn( null );
 
+        throttledTime = new AtomicLong();
+        Attribute throttledTimeAttribute = mock( Attribute.class );
+        when( throttledTimeAttribute.get() ).thenReturn( throttledTime );
+
         channel = mock( SocketChannel.class, Answers.RETURNS_MOCKS );
         when( channel.config() ).thenReturn( config );
         when( channel.isOpen() ).thenReturn( true );
         when( channel.remoteAddress() ).thenReturn( InetSocketAddress.createUnresolved( "localhost", 32000 ) );
         when( channel.attr( TransportWriteThrottle.LOCK_KEY ) ).thenReturn( lockAttribute );
         when( channel.attr( TransportWriteThrottle.MAX_DURATION_EXCEEDED_KEY ) ).thenReturn( durationExceedAttribute );
+        when( channel.attr( TransportWriteThrottle.THROTTLED_TIME_KEY ) ).thenReturn( throttledTimeAttribute );
 
         ChannelPipeline pipeline = channel.pipeline();
         when( channel.pipeline() ).thenReturn( pipeline );
@@ -271,6 +278,49 @@ public class TransportWriteThrottleTest
         }
     }
 
+    @Test
+    public void shouldKeepThrottlingClientThatIsDrainingSlowly() throws Exception
+    {
+        // given
+        FakeClock clock = Clocks.fakeClock( 1, TimeUnit.SECONDS );
+        ThrottleLock slowLock = mock( ThrottleLock.class );
+        doAnswer( invocation ->
+        {
+            clock.forward( 3, TimeUnit.SECONDS );
+            return null;
+        } ).when( slowLock ).lock( any(), anyLong() );
+        when( lockAttribute.get() ).thenReturn( slowLock );
+        TransportThrottle throttle = new TransportWriteThrottle( 64, 256, clock, Duration.ofSeconds( 5 ), () -> slowLock );
+        throttle.install( channel );
+
+        // the client reads a little bit every 3 seconds, it takes 12 seconds in total before the channel is writable again
+        when( channel.isWritable() ).thenReturn( false, false, false, false, true );
+        when( channel.bytesBeforeWritable() ).thenReturn( 200L, 150L, 100L, 50L );
+
+        // when
+        throttle.acquire( channel );
+        throttle.acquire( channel );
+
+        // then the time is added up for the channel
+        assertEquals( 12_000, TransportWriteThrottle.throttledTimeMillis( channel ) );
+    }
+
+    @Test
+    public void shouldReportThrottledOnlyWhenInstalledAndNotWritable()
+    {
+        TransportThrottle throttle = newThrottle();
+        when( channel.isWritable() ).thenReturn( false );
+        when( lockAttribute.get() ).thenReturn( null );
+        assertFalse( TransportWriteThrottle.isThrottled( channel ) );
+
+        throttle.install( channel );
+        when( lockAttribute.get() ).thenReturn( lock );
+        assertTrue( TransportWriteThrottle.isThrottled( channel ) );
+
+        when( channel.isWritable() ).thenReturn( true );
+        assertFalse( TransportWriteThrottle.isThrottled( channel ) );
+    }
+
     private TransportThrottle newThrottle()
     {
         return newThrottle( null, Clocks.systemClock(), Duration.ZERO );
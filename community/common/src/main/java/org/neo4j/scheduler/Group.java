@@ -62,6 +62,8 @@ public enum Group
     // CYPHER.
     /** Thread pool for parallel Cypher query execution. */
     CYPHER_WORKER( "CypherWorker", ExecutorServiceFactory.workStealing() ),
+    /** Saving the keys of the query plan cache, and planning the saved queries again after a restart. */
+    CYPHER_CACHE_WARMUP( "CypherCacheWarmup" ),
 
     // DATA COLLECTOR
     DATA_COLLECTOR( "DataCollector" ),
@@ -40,6 +40,7 @@ import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.consistency.ConsistencyCheckService.Result;
 import org.neo4j.consistency.checking.GraphStoreFixture;
 import org.neo4j.consistency.checking.full.ConsistencyCheckIncompleteException;
+import org.neo4j.consistency.checking.full.ConsistencyFlags;
 import org.neo4j.dbms.api.DatabaseManagementService;
 import org.neo4j.exceptions.KernelException;
 import org.neo4j.graphdb.GraphDatabaseService;
@@ -55,14 +56,19 @@ import org.neo4j.internal.recordstorage.RecordStorageEngine;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.FileUtils;
 import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.impl.store.MetaDataStore;
 import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.RecordLoad;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.kernel.impl.transaction.log.files.LogFilesBuilder;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.AssertableLogProvider;
+import org.neo4j.logging.LogProvider;
 import org.neo4j.logging.NullLogProvider;
 import org.neo4j.test.TestDatabaseManagementServiceBuilder;
 import org.neo4j.test.extension.Inject;
@@ -225,6 +231,152 @@ public class ConsistencyCheckServiceIntegrationTest
         assertTrue( result.reportFile().exists(), "Inconsistency report file not generated" );
     }
 
+    @Test
+    void incrementalCheckShouldDoFullCheckWithoutRecordOfPreviousCheck() throws Exception
+    {
+        // given
+        AssertableLogProvider logProvider = new AssertableLogProvider();
+        File reportDir = testDirectory.directory( "reports" );
+
+        // when
+        Result result = runIncrementalConsistencyCheck( logProvider, reportDir );
+
+        // then
+        assertTrue( result.isSuccessful() );
+        logProvider.rawMessageMatcher().assertContains( "No previous successful consistency check recorded in '%s', doing a full check" );
+        assertEquals( lastCommittedTransactionId(), lastCheckedTransactionId( reportDir ) );
+    }
+
+    @Test
+    void incrementalCheckShouldNotCheckAnythingIfNoTransactionsCommittedSinceLastCheck() throws Exception
+    {
+        // given
+        File reportDir = testDirectory.directory( "reports" );
+        assertTrue( runIncrementalConsistencyCheck( new AssertableLogProvider(), reportDir ).isSuccessful() );
+
+        // when
+        AssertableLogProvider logProvider = new AssertableLogProvider();
+        Result result = runIncrementalConsistencyCheck( logProvider, reportDir );
+
+        // then
+        assertTrue( result.isSuccessful() );
+        logProvider.rawMessageMatcher().assertContains( "No transactions committed since last consistency check at transaction %d" );
+        logProvider.rawMessageMatcher().assertNotContains( "doing a full check" );
+        logProvider.rawMessageMatcher().assertNotContains( "Checking records touched by transactions %d-%d: %s" );
+    }
+
+    @Test
+    void incrementalCheckShouldFindInconsistenciesInTransactionsCommittedSinceLastCheck() throws Exception
+    {
+        // given
+        File reportDir = testDirectory.directory( "reports" );
+        assertTrue( runIncrementalConsistencyCheck( new AssertableLogProvider(), reportDir ).isSuccessful() );
+        long lastCheckedTransactionId = lastCheckedTransactionId( reportDir );
+        breakNodeStore();
+
+        // when
+        AssertableLogProvider logProvider = new AssertableLogProvider();
+        Result result = runIncrementalConsistencyCheck( logProvider, reportDir );
+
+        // then
+        assertFalse( result.isSuccessful() );
+        logProvider.rawMessageMatcher().assertContains( "Checking records touched by transactions %d-%d: %s" );
+        logProvider.rawMessageMatcher().assertNotContains( "doing a full check" );
+        assertEquals( 1, result.summary().getInconsistencyCountForRecordType( RecordType.NODE ) );
+        assertEquals( lastCheckedTransactionId, lastCheckedTransactionId( reportDir ) );
+    }
+
+    @Test
+    void incrementalCheckShouldRecordCheckedTransactionsCommittedSinceLastCheck() throws Exception
+    {
+        // given
+        File reportDir = testDirectory.directory( "reports" );
+        assertTrue( runIncrementalConsistencyCheck( new AssertableLogProvider(), reportDir ).isSuccessful() );
+        fixture.apply( new GraphStoreFixture.Transaction()
+        {
+            @Override
+            protected void transactionData( GraphStoreFixture.TransactionDataBuilder tx, GraphStoreFixture.IdGenerator next )
+            {
+                tx.create( new NodeRecord( next.node(), false, -1, -1 ) );
+            }
+        } );
+
+        // when
+        AssertableLogProvider logProvider = new AssertableLogProvider();
+        Result result = runIncrementalConsistencyCheck( logProvider, reportDir );
+
+        // then
+        assertTrue( result.isSuccessful() );
+        logProvider.rawMessageMatcher().assertContains( "Checking records touched by transactions %d-%d: %s" );
+        assertEquals( lastCommittedTransactionId(), lastCheckedTransactionId( reportDir ) );
+    }
+
+    @Test
+    void incrementalCheckShouldDoFullCheckIfTransactionLogsNoLongerContainTransactionsSinceLastCheck() throws Exception
+    {
+        // given transaction 1, which is never in the transaction log, being the first transaction not checked
+        File reportDir = testDirectory.directory( "reports" );
+        ConsistencyCheckService.writeLastCheckedTransactionId( fs,
+                ConsistencyCheckService.lastCheckedTransactionFile( reportDir, fixture.databaseLayout() ), 0 );
+
+        // when
+        AssertableLogProvider logProvider = new AssertableLogProvider();
+        Result result = runIncrementalConsistencyCheck( logProvider, reportDir );
+
+        // then
+        assertTrue( result.isSuccessful() );
+        logProvider.rawMessageMatcher().assertContains( "Transaction logs no longer contain transaction %d, doing a full check" );
+        assertEquals( lastCommittedTransactionId(), lastCheckedTransactionId( reportDir ) );
+    }
+
+    @Test
+    void onlineCheckShouldSucceedOnConsistentRunningDatabase()
+    {
+        // given
+        GraphDatabaseAPI db = (GraphDatabaseAPI) getGraphDatabaseService( testDirectory.homeDir() );
+        try
+        {
+            // when
+            Result result = new ConsistencyCheckService().runOnlineConsistencyCheck( db, IOLimiter.UNLIMITED, () -> false,
+                    NullLogProvider.getInstance(), fs, testDirectory.directory( "reports" ) );
+
+            // then
+            assertTrue( result.isSuccessful() );
+            assertFalse( result.reportFile().exists() );
+        }
+        finally
+        {
+            managementService.shutdown();
+        }
+    }
+
+    @Test
+    void onlineCheckShouldFindCorruptedRecordInRunningDatabase()
+    {
+        // given
+        GraphDatabaseAPI db = (GraphDatabaseAPI) getGraphDatabaseService( testDirectory.homeDir() );
+        try
+        {
+            NeoStores neoStores = db.getDependencyResolver().resolveDependency( RecordStorageEngine.class ).testAccessNeoStores();
+            NodeStore nodeStore = neoStores.getNodeStore();
+            long unusedRelationship = neoStores.getRelationshipStore().nextId();
+            nodeStore.updateRecord( new NodeRecord( nodeStore.nextId() ).initialize( true, -1, false, unusedRelationship, 0 ) );
+
+            // when
+            Result result = new ConsistencyCheckService().runOnlineConsistencyCheck( db, IOLimiter.UNLIMITED, () -> false,
+                    NullLogProvider.getInstance(), fs, testDirectory.directory( "reports" ) );
+
+            // then
+            assertFalse( result.isSuccessful() );
+            assertEquals( 1, result.summary().getInconsistencyCountForRecordType( RecordType.NODE ) );
+            assertTrue( result.reportFile().exists() );
+        }
+        finally
+        {
+            managementService.shutdown();
+        }
+    }
+
     @Test
     void shouldNotReportDuplicateForHugeLongValues() throws Exception
     {
@@ -449,6 +601,23 @@ public class ConsistencyCheckServiceIntegrationTest
         } );
     }
 
+    private Result runIncrementalConsistencyCheck( LogProvider logProvider, File reportDir ) throws ConsistencyCheckIncompleteException
+    {
+        return new ConsistencyCheckService().runIncrementalConsistencyCheck( fixture.databaseLayout(), Config.defaults( settings() ),
+                ProgressMonitorFactory.NONE, logProvider, fs, pageCache, false, reportDir, ConsistencyFlags.DEFAULT );
+    }
+
+    private long lastCheckedTransactionId( File reportDir ) throws IOException
+    {
+        return ConsistencyCheckService.readLastCheckedTransactionId( fs,
+                ConsistencyCheckService.lastCheckedTransactionFile( reportDir, fixture.databaseLayout() ) );
+    }
+
+    private long lastCommittedTransactionId() throws IOException
+    {
+        return MetaDataStore.getRecord( pageCache, fixture.databaseLayout().metadataStore(), MetaDataStore.Position.LAST_TRANSACTION_ID );
+    }
+
     private Result runFullConsistencyCheck( ConsistencyCheckService service, Config configuration )
             throws ConsistencyCheckIncompleteException
     {
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.consistency.checking.full.ConsistencyFlags;
+import org.neo4j.dbms.api.DatabaseManagementService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.kernel.impl.store.format.inlined.InlinedPropertiesV4_0;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.test.TestDatabaseManagementServiceBuilder;
+import org.neo4j.test.extension.DbmsExtension;
+import org.neo4j.test.extension.ExtensionCallback;
+import org.neo4j.test.extension.Inject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.configuration.GraphDatabaseSettings.experimental_consistency_checker;
+import static org.neo4j.configuration.GraphDatabaseSettings.record_format;
+import static org.neo4j.internal.helpers.progress.ProgressMonitorFactory.NONE;
+
+@DbmsExtension( configurationCallback = "configure" )
+class InlinedPropertiesConsistencyIT
+{
+    private static final Label LABEL = Label.label( "L" );
+    private static final RelationshipType TYPE = RelationshipType.withName( "T" );
+    private static final String LONG_STRING = "a string long enough to never be stored in a property block itself";
+
+    @Inject
+    private GraphDatabaseAPI db;
+    @Inject
+    private DatabaseManagementService managementService;
+
+    @ExtensionCallback
+    void configure( TestDatabaseManagementServiceBuilder builder )
+    {
+        builder.setConfig( record_format, InlinedPropertiesV4_0.NAME );
+    }
+
+    @Test
+    void shouldReadChangeAndCheckInlinedProperties() throws Exception
+    {
+        // given
+        try ( Transaction tx = db.beginTx() )
+        {
+            tx.schema().indexFor( LABEL ).on( "prop" ).create();
+            tx.commit();
+        }
+        try ( Transaction tx = db.beginTx() )
+        {
+            tx.schema().awaitIndexesOnline( 1, TimeUnit.MINUTES );
+        }
+        long nodeId;
+        long relationshipId;
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node node = tx.createNode( LABEL );
+            node.setProperty( "prop", 1 );
+            node.setProperty( "name", LONG_STRING );
+            node.setProperty( "big", Long.MAX_VALUE );
+            node.setProperty( "flag", true );
+            node.setProperty( "other", Long.MIN_VALUE );
+            Relationship relationship = node.createRelationshipTo( tx.createNode(), TYPE );
+            relationship.setProperty( "weight", 0.5d );
+            relationship.setProperty( "since", 2020 );
+            nodeId = node.getId();
+            relationshipId = relationship.getId();
+            tx.commit();
+        }
+
+        // when
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node node = tx.getNodeById( nodeId );
+            node.setProperty( "prop", 2 );
+            node.removeProperty( "flag" );
+            node.setProperty( "big", LONG_STRING );
+            tx.getRelationshipById( relationshipId ).removeProperty( "weight" );
+            tx.commit();
+        }
+
+        // then
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node node = tx.getNodeById( nodeId );
+            assertEquals( Map.of( "prop", 2, "name", LONG_STRING, "big", LONG_STRING, "other", Long.MIN_VALUE ), node.getAllProperties() );
+            assertFalse( node.hasProperty( "flag" ) );
+            assertEquals( node, tx.findNode( LABEL, "prop", 2 ) );
+            assertNull( tx.findNode( LABEL, "prop", 1 ) );
+            assertEquals( Map.of( "since", 2020 ), tx.getRelationshipById( relationshipId ).getAllProperties() );
+        }
+        try ( Transaction tx = db.beginTx() )
+        {
+            assertNotNull( tx.execute( "MATCH (n:L) WHERE n.prop = 2 RETURN n" ).next().get( "n" ) );
+        }
+        DatabaseLayout databaseLayout = db.databaseLayout();
+        managementService.shutdown();
+
+        assertConsistent( databaseLayout, false );
+        assertConsistent( databaseLayout, true );
+    }
+
+    private static void assertConsistent( DatabaseLayout databaseLayout, boolean experimentalChecker ) throws Exception
+    {
+        Config config = Config.defaults( Map.of( record_format, InlinedPropertiesV4_0.NAME, experimental_consistency_checker, experimentalChecker ) );
+        ConsistencyCheckService.Result result = new ConsistencyCheckService().runFullConsistencyCheck( databaseLayout, config, NONE,
+                NullLogProvider.getInstance(), false, ConsistencyFlags.DEFAULT );
+        assertTrue( result.isSuccessful(), "Consistency check found inconsistencies, see " + result.reportFile() );
+    }
+}
@@ -174,7 +174,7 @@ public class FullCheckIntegrationTest
     @Inject
     private PageCache pageCache;
     @Inject
-    private TestDirectory testDirectory;
+    protected TestDirectory testDirectory;
     protected GraphStoreFixture fixture;
 
     protected int label1;
@@ -0,0 +1,543 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency.newchecker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Consumer;
+
+import org.neo4j.consistency.report.ConsistencyReport.NodeConsistencyReport;
+import org.neo4j.consistency.report.ConsistencyReport.PropertyConsistencyReport;
+import org.neo4j.consistency.report.ConsistencyReport.RelationshipConsistencyReport;
+import org.neo4j.consistency.report.ConsistencyReport.RelationshipGroupConsistencyReport;
+import org.neo4j.exceptions.KernelException;
+import org.neo4j.internal.recordstorage.Command;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.neo4j.values.storable.Values.intValue;
+
+class IncrementalRecordCheckerTest extends CheckerTestBase
+{
+    private int type1;
+    private int type2;
+    private int propertyKey;
+
+    @Override
+    void initialData( KernelTransaction tx ) throws KernelException
+    {
+        type1 = tx.tokenWrite().relationshipTypeGetOrCreateForName( "A" );
+        type2 = tx.tokenWrite().relationshipTypeGetOrCreateForName( "B" );
+        propertyKey = tx.tokenWrite().propertyKeyGetOrCreateForName( "key" );
+    }
+
+    @Test
+    void shouldNotReportAnythingForConsistentRecords() throws Exception
+    {
+        // given
+        try ( KernelTransaction tx = ktx() )
+        {
+            long node1 = tx.dataWrite().nodeCreate();
+            long node2 = tx.dataWrite().nodeCreate();
+            long relationship = tx.dataWrite().relationshipCreate( node1, type1, node2 );
+            tx.dataWrite().relationshipCreate( node1, type1, node2 );
+            tx.dataWrite().nodeSetProperty( node1, propertyKey, intValue( 1 ) );
+            tx.dataWrite().relationshipSetProperty( relationship, propertyKey, intValue( 2 ) );
+            tx.commit();
+        }
+
+        // when
+        check( checker ->
+        {
+            for ( long id = 0; id < nodeStore.getHighId(); id++ )
+            {
+                checker.checkNode( id );
+            }
+            for ( long id = 0; id < relationshipStore.getHighId(); id++ )
+            {
+                checker.checkRelationship( id );
+            }
+            for ( long id = 0; id < propertyStore.getHighId(); id++ )
+            {
+                checker.checkProperty( id );
+            }
+        } );
+
+        // then
+        verify( monitor, never() ).reported( any(), anyString(), anyString() );
+    }
+
+    @Test
+    void shouldCheckRecordsOfTouchedRecords() throws Exception
+    {
+        // given
+        long nodeId;
+        try ( AutoCloseable ignored = tx() )
+        {
+            nodeId = nodeWithRelationships( nodeStore.nextId(), relationshipStore.nextId(), false );
+        }
+        TouchedRecords touched = new TouchedRecords( 0 );
+        touched.add( new Command.NodeCommand( new NodeRecord( nodeId ), loadNode( nodeId ) ) );
+
+        // when
+        check( checker -> checker.check( touched ) );
+
+        // then
+        expect( NodeConsistencyReport.class, report -> report.relationshipNotInUse( any() ) );
+    }
+
+    // Node -> relationship / relationship group
+
+    @Test
+    void shouldReportNodeRelationshipNotInUse() throws Exception
+    {
+        // given
+        long nodeId;
+        try ( AutoCloseable ignored = tx() )
+        {
+            nodeId = nodeWithRelationships( nodeStore.nextId(), relationshipStore.nextId(), false );
+        }
+
+        // when
+        check( checker -> checker.checkNode( nodeId ) );
+
+        // then
+        expect( NodeConsistencyReport.class, report -> report.relationshipNotInUse( any() ) );
+    }
+
+    @Test
+    void shouldReportNodeRelationshipForOtherNode() throws Exception
+    {
+        // given
+        long nodeId;
+        try ( AutoCloseable ignored = tx() )
+        {
+            long node1 = node( nodeStore.nextId(), NULL, NULL );
+            long node2 = node( nodeStore.nextId(), NULL, NULL );
+            long relationship = relationship( relationshipStore.nextId(), node1, node2, type1, NULL, NULL, NULL, NULL, true, true );
+            nodeId = nodeWithRelationships( nodeStore.nextId(), relationship, false );
+        }
+
+        // when
+        check( checker -> checker.checkNode( nodeId ) );
+
+        // then
+        expect( NodeConsistencyReport.class, report -> report.relationshipForOtherNode( any() ) );
+    }
+
+    @Test
+    void shouldReportNodeRelationshipNotFirstInSourceChain() throws Exception
+    {
+        // given
+        long nodeId = nodeStore.nextId();
+        try ( AutoCloseable ignored = tx() )
+        {
+            long otherNode = node( nodeStore.nextId(), NULL, NULL );
+            long relationship = relationship( relationshipStore.nextId(), nodeId, otherNode, type1, NULL, NULL, NULL, NULL, false, true );
+            nodeWithRelationships( nodeId, relationship, false );
+        }
+
+        // when
+        check( checker -> checker.checkNode( nodeId ) );
+
+        // then
+        expect( NodeConsistencyReport.class, report -> report.relationshipNotFirstInSourceChain( any() ) );
+    }
+
+    @Test
+    void shouldReportNodeRelationshipNotFirstInTargetChain() throws Exception
+    {
+        // given
+        long nodeId = nodeStore.nextId();
+        try ( AutoCloseable ignored = tx() )
+        {
+            long otherNode = node( nodeStore.nextId(), NULL, NULL );
+            long relationship = relationship( relationshipStore.nextId(), otherNode, nodeId, type1, NULL, NULL, NULL, NULL, true, false );
+            nodeWithRelationships( nodeId, relationship, false );
+        }
+
+        // when
+        check( checker -> checker.checkNode( nodeId ) );
+
+        // then
+        expect( NodeConsistencyReport.class, report -> report.relationshipNotFirstInTargetChain( any() ) );
+    }
+
+    @Test
+    void shouldReportNodeRelationshipGroupNotInUse() throws Exception
+    {
+        // given
+        long nodeId;
+        try ( AutoCloseable ignored = tx() )
+        {
+            nodeId = nodeWithRelationships( nodeStore.nextId(), relationshipGroupStore.nextId(), true );
+        }
+
+        // when
+        check( checker -> checker.checkNode( nodeId ) );
+
+        // then
+        expect( NodeConsistencyReport.class, report -> report.relationshipGroupNotInUse( any() ) );
+    }
+
+    @Test
+    void shouldReportNodeRelationshipGroupHasOtherOwner() throws Exception
+    {
+        // given
+        long nodeId;
+        try ( AutoCloseable ignored = tx() )
+        {
+            long otherNode = nodeWithRelationships( nodeStore.nextId(), NULL, true );
+            long group = relationshipGroup( relationshipGroupStore.nextId(), NULL, otherNode, type1, NULL, NULL, NULL );
+            nodeId = nodeWithRelationships( nodeStore.nextId(), group, true );
+        }
+
+        // when
+        check( checker -> checker.checkNode( nodeId ) );
+
+        // then
+        expect( NodeConsistencyReport.class, report -> report.relationshipGroupHasOtherOwner( any() ) );
+    }
+
+    @Test
+    void shouldReportNodePropertyNotFirstInChain() throws Exception
+    {
+        // given
+        long nodeId;
+        try ( AutoCloseable ignored = tx() )
+        {
+            long property1 = propertyStore.nextId();
+            long property2 = propertyStore.nextId();
+            property( property1, NULL, property2, propertyValue( propertyKey, intValue( 1 ) ) );
+            property( property2, property1, NULL, propertyValue( propertyKey, intValue( 2 ) ) );
+            nodeId = node( nodeStore.nextId(), property2, NULL );
+        }
+
+        // when
+        check( checker -> checker.checkNode( nodeId ) );
+
+        // then
+        expect( NodeConsistencyReport.class, report -> report.propertyNotFirstInChain( any() ) );
+    }
+
+    // Relationship chains
+
+    @Test
+    void shouldReportRelationshipSourceNodeNotInUse() throws Exception
+    {
+        // given
+        long relationshipId;
+        try ( AutoCloseable ignored = tx() )
+        {
+            long node = node( nodeStore.nextId(), NULL, NULL );
+            relationshipId = relationship( relationshipStore.nextId(), nodeStore.nextId(), node, type1, NULL, NULL, NULL, NULL, true, true );
+        }
+
+        // when
+        check( checker -> checker.checkRelationship( relationshipId ) );
+
+        // then
+        expect( RelationshipConsistencyReport.class, report -> report.sourceNodeNotInUse( any() ) );
+    }
+
+    @Test
+    void shouldReportRelationshipSourceNextDoesNotReferenceBack() throws Exception
+    {
+        // given
+        long relationship1 = relationshipStore.nextId();
+        long relationship2 = relationshipStore.nextId();
+        try ( AutoCloseable ignored = tx() )
+        {
+            long node1 = node( nodeStore.nextId(), NULL, NULL );
+            long node2 = node( nodeStore.nextId(), NULL, NULL );
+            long node3 = node( nodeStore.nextId(), NULL, NULL );
+            relationship( relationship1, node1, node2, type1, NULL, relationship2, NULL, NULL, true, true );
+            relationship( relationship2, node1, node3, type1, NULL, NULL, NULL, NULL, false, true );
+        }
+
+        // when
+        check( checker -> checker.checkRelationship( relationship1 ) );
+
+        // then
+        expect( RelationshipConsistencyReport.class, report -> report.sourceNextDoesNotReferenceBack( any() ) );
+    }
+
+    @Test
+    void shouldReportRelationshipSourcePrevDoesNotReferenceBack() throws Exception
+    {
+        // given
+        long relationship1 = relationshipStore.nextId();
+        long relationship2 = relationshipStore.nextId();
+        try ( AutoCloseable ignored = tx() )
+        {
+            long node1 = node( nodeStore.nextId(), NULL, NULL );
+            long node2 = node( nodeStore.nextId(), NULL, NULL );
+            long node3 = node( nodeStore.nextId(), NULL, NULL );
+            relationship( relationship1, node1, node2, type1, NULL, NULL, NULL, NULL, true, true );
+            relationship( relationship2, node1, node3, type1, relationship1, NULL, NULL, NULL, false, true );
+        }
+
+        // when
+        check( checker -> checker.checkRelationship( relationship2 ) );
+
+        // then
+        expect( RelationshipConsistencyReport.class, report -> report.sourcePrevDoesNotReferenceBack( any() ) );
+    }
+
+    @Test
+    void shouldReportRelationshipTargetNextReferencingOtherNodes() throws Exception
+    {
+        // given
+        long relationship1 = relationshipStore.nextId();
+        long relationship2 = relationshipStore.nextId();
+        try ( AutoCloseable ignored = tx() )
+        {
+            long node1 = node( nodeStore.nextId(), NULL, NULL );
+            long node2 = node( nodeStore.nextId(), NULL, NULL );
+            long node3 = node( nodeStore.nextId(), NULL, NULL );
+            relationship( relationship1, node1, node2, type1, NULL, NULL, NULL, relationship2, true, true );
+            relationship( relationship2, node1, node3, type1, NULL, NULL, NULL, NULL, true, true );
+        }
+
+        // when
+        check( checker -> checker.checkRelationship( relationship1 ) );
+
+        // then
+        expect( RelationshipConsistencyReport.class, report -> report.targetNextReferencesOtherNodes( any() ) );
+    }
+
+    @Test
+    void shouldReportNotUsedRelationshipReferencedInChain() throws Exception
+    {
+        // given
+        long relationshipId;
+        try ( AutoCloseable ignored = tx() )
+        {
+            long node1 = node( nodeStore.nextId(), NULL, NULL );
+            long node2 = node( nodeStore.nextId(), NULL, NULL );
+            relationshipId = relationship( relationshipStore.nextId(), node1, node2, type1, NULL, relationshipStore.nextId(), NULL, NULL, true, true );
+        }
+
+        // when
+        check( checker -> checker.checkRelationship( relationshipId ) );
+
+        // then
+        expect( RelationshipConsistencyReport.class, report -> report.notUsedRelationshipReferencedInChain( any() ) );
+    }
+
+    // Relationship groups
+
+    @Test
+    void shouldReportRelationshipGroupOwnerNotInUse() throws Exception
+    {
+        // given
+        long groupId;
+        try ( AutoCloseable ignored = tx() )
+        {
+            groupId = relationshipGroup( relationshipGroupStore.nextId(), NULL, nodeStore.nextId(), type1, NULL, NULL, NULL );
+        }
+
+        // when
+        check( checker -> checker.checkRelationshipGroup( groupId ) );
+
+        // then
+        expect( RelationshipGroupConsistencyReport.class, RelationshipGroupConsistencyReport::ownerNotInUse );
+    }
+
+    @Test
+    void shouldReportRelationshipGroupNextNotInUse() throws Exception
+    {
+        // given
+        long groupId;
+        try ( AutoCloseable ignored = tx() )
+        {
+            long owner = nodeWithRelationships( nodeStore.nextId(), NULL, true );
+            groupId = relationshipGroup( relationshipGroupStore.nextId(), relationshipGroupStore.nextId(), owner, type1, NULL, NULL, NULL );
+        }
+
+        // when
+        check( checker -> checker.checkRelationshipGroup( groupId ) );
+
+        // then
+        expect( RelationshipGroupConsistencyReport.class, RelationshipGroupConsistencyReport::nextGroupNotInUse );
+    }
+
+    @Test
+    void shouldReportRelationshipGroupNextHasOtherOwner() throws Exception
+    {
+        // given
+        long group1 = relationshipGroupStore.nextId();
+        long group2 = relationshipGroupStore.nextId();
+        try ( AutoCloseable ignored = tx() )
+        {
+            long owner = nodeWithRelationships( nodeStore.nextId(), group1, true );
+            long otherOwner = nodeWithRelationships( nodeStore.nextId(), group2, true );
+            relationshipGroup( group1, group2, owner, type1, NULL, NULL, NULL );
+            relationshipGroup( group2, NULL, otherOwner, type2, NULL, NULL, NULL );
+        }
+
+        // when
+        check( checker -> checker.checkRelationshipGroup( group1 ) );
+
+        // then
+        expect( RelationshipGroupConsistencyReport.class, report -> report.nextHasOtherOwner( any() ) );
+    }
+
+    @Test
+    void shouldReportRelationshipGroupInvalidTypeSortOrder() throws Exception
+    {
+        // given
+        long group1 = relationshipGroupStore.nextId();
+        long group2 = relationshipGroupStore.nextId();
+        try ( AutoCloseable ignored = tx() )
+        {
+            long owner = nodeWithRelationships( nodeStore.nextId(), group1, true );
+            relationshipGroup( group1, group2, owner, type2, NULL, NULL, NULL );
+            relationshipGroup( group2, NULL, owner, type1, NULL, NULL, NULL );
+        }
+
+        // when
+        check( checker -> checker.checkRelationshipGroup( group1 ) );
+
+        // then
+        expect( RelationshipGroupConsistencyReport.class, RelationshipGroupConsistencyReport::invalidTypeSortOrder );
+    }
+
+    @Test
+    void shouldReportRelationshipGroupFirstOutgoingRelationshipNotInUse() throws Exception
+    {
+        // given
+        long groupId = relationshipGroupStore.nextId();
+        try ( AutoCloseable ignored = tx() )
+        {
+            long owner = nodeWithRelationships( nodeStore.nextId(), groupId, true );
+            relationshipGroup( groupId, NULL, owner, type1, relationshipStore.nextId(), NULL, NULL );
+        }
+
+        // when
+        check( checker -> checker.checkRelationshipGroup( groupId ) );
+
+        // then
+        expect( RelationshipGroupConsistencyReport.class, RelationshipGroupConsistencyReport::firstOutgoingRelationshipNotInUse );
+    }
+
+    @Test
+    void shouldReportRelationshipGroupFirstIncomingRelationshipNotFirstInChain() throws Exception
+    {
+        // given
+        long groupId = relationshipGroupStore.nextId();
+        try ( AutoCloseable ignored = tx() )
+        {
+            long owner = nodeWithRelationships( nodeStore.nextId(), groupId, true );
+            long otherNode = node( nodeStore.nextId(), NULL, NULL );
+            long relationship = relationship( relationshipStore.nextId(), otherNode, owner, type1, NULL, NULL, NULL, NULL, true, false );
+            relationshipGroup( groupId, NULL, owner, type1, NULL, relationship, NULL );
+        }
+
+        // when
+        check( checker -> checker.checkRelationshipGroup( groupId ) );
+
+        // then
+        expect( RelationshipGroupConsistencyReport.class, RelationshipGroupConsistencyReport::firstIncomingRelationshipNotFirstInChain );
+    }
+
+    // Property chains
+
+    @Test
+    void shouldReportPropertyPrevNotInUse() throws Exception
+    {
+        testPropertyChainInconsistency( ( property1, property2 ) -> property( property2, propertyStore.nextId(), NULL, value( 2 ) ),
+                report -> report.prevNotInUse( any() ) );
+    }
+
+    @Test
+    void shouldReportPropertyPreviousDoesNotReferenceBack() throws Exception
+    {
+        testPropertyChainInconsistency( ( property1, property2 ) ->
+        {
+            property( property1, NULL, NULL, value( 1 ) );
+            property( property2, property1, NULL, value( 2 ) );
+        }, report -> report.previousDoesNotReferenceBack( any() ) );
+    }
+
+    @Test
+    void shouldReportPropertyNextNotInUse() throws Exception
+    {
+        testPropertyChainInconsistency( ( property1, property2 ) -> property( property2, NULL, propertyStore.nextId(), value( 2 ) ),
+                report -> report.nextNotInUse( any() ) );
+    }
+
+    @Test
+    void shouldReportPropertyNextDoesNotReferenceBack() throws Exception
+    {
+        testPropertyChainInconsistency( ( property1, property2 ) ->
+        {
+            property( property1, NULL, NULL, value( 1 ) );
+            property( property2, NULL, property1, value( 2 ) );
+        }, report -> report.nextDoesNotReferenceBack( any() ) );
+    }
+
+    private void testPropertyChainInconsistency( PropertyChainCorruption corruption, Consumer<PropertyConsistencyReport> expectedReport ) throws Exception
+    {
+        // given
+        long property1 = propertyStore.nextId();
+        long property2 = propertyStore.nextId();
+        try ( AutoCloseable ignored = tx() )
+        {
+            corruption.corrupt( property1, property2 );
+        }
+
+        // when
+        check( checker -> checker.checkProperty( property2 ) );
+
+        // then
+        expect( PropertyConsistencyReport.class, expectedReport );
+    }
+
+    private void check( Consumer<IncrementalRecordChecker> check ) throws Exception
+    {
+        context();
+        try ( IncrementalRecordChecker checker = new IncrementalRecordChecker( neoStores, reporter ) )
+        {
+            check.accept( checker );
+        }
+    }
+
+    private long nodeWithRelationships( long id, long nextRel, boolean dense )
+    {
+        nodeStore.updateRecord( new NodeRecord( id ).initialize( true, NULL, dense, nextRel, 0 ) );
+        return id;
+    }
+
+    private PropertyBlock value( int value )
+    {
+        return propertyValue( propertyKey, intValue( value ) );
+    }
+
+    private interface PropertyChainCorruption
+    {
+        void corrupt( long property1, long property2 );
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency.newchecker;
+
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.consistency.report.ConsistencyReport.NodeConsistencyReport;
+import org.neo4j.exceptions.KernelException;
+import org.neo4j.internal.helpers.CancellationRequest;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.store.RecordStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.storageengine.api.TransactionIdStore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.consistency.newchecker.OnlineRecordChecker.CONFIRMATION_ROUNDS;
+
+class OnlineRecordCheckerTest extends CheckerTestBase
+{
+    private static final CancellationRequest NOT_CANCELLED = () -> false;
+
+    private final TransactionIdStore transactionIdStore = mock( TransactionIdStore.class );
+    private int type;
+
+    @Override
+    void initialData( KernelTransaction tx ) throws KernelException
+    {
+        type = tx.tokenWrite().relationshipTypeGetOrCreateForName( "A" );
+    }
+
+    @Test
+    void shouldNotReportAnythingForConsistentStore() throws Exception
+    {
+        // given
+        try ( KernelTransaction tx = ktx() )
+        {
+            for ( int i = 0; i < 10; i++ )
+            {
+                tx.dataWrite().relationshipCreate( tx.dataWrite().nodeCreate(), type, tx.dataWrite().nodeCreate() );
+            }
+            tx.commit();
+        }
+
+        // when
+        check( IOLimiter.UNLIMITED, NOT_CANCELLED, 10 );
+
+        // then
+        verify( monitor, never() ).reported( any(), anyString(), anyString() );
+        verify( transactionIdStore, never() ).getLastCommittedTransactionId();
+    }
+
+    @Test
+    void shouldReportInconsistencySeenInAllConfirmationRounds() throws Exception
+    {
+        // given
+        try ( AutoCloseable ignored = tx() )
+        {
+            brokenNode();
+        }
+
+        // when
+        check( IOLimiter.UNLIMITED, NOT_CANCELLED, 10 );
+
+        // then
+        verify( transactionIdStore, times( CONFIRMATION_ROUNDS ) ).getLastCommittedTransactionId();
+        verify( monitor, times( 1 ) ).reported( eq( NodeConsistencyReport.class ), anyString(), anyString() );
+        expect( NodeConsistencyReport.class, report -> report.relationshipNotInUse( any() ) );
+    }
+
+    @Test
+    void shouldNotReportInconsistencyWhichIsGoneInLastConfirmationRound() throws Exception
+    {
+        shouldNotReportInconsistencyWhichIsGoneInConfirmationRound( CONFIRMATION_ROUNDS );
+    }
+
+    @Test
+    void shouldNotReportInconsistencyWhichIsGoneInFirstConfirmationRound() throws Exception
+    {
+        shouldNotReportInconsistencyWhichIsGoneInConfirmationRound( 1 );
+    }
+
+    private void shouldNotReportInconsistencyWhichIsGoneInConfirmationRound( int round ) throws Exception
+    {
+        // given a node which looks broken until the given confirmation round, like one in the middle of being changed by a transaction
+        long nodeId;
+        try ( AutoCloseable ignored = tx() )
+        {
+            nodeId = brokenNode();
+        }
+        AtomicInteger rounds = new AtomicInteger();
+        when( transactionIdStore.getLastCommittedTransactionId() ).then( invocation ->
+        {
+            if ( rounds.incrementAndGet() == round )
+            {
+                nodeStore.updateRecord( new NodeRecord( nodeId ).initialize( true, NULL, false, NULL, 0 ) );
+            }
+            return 0L;
+        } );
+
+        // when
+        check( IOLimiter.UNLIMITED, NOT_CANCELLED, 10 );
+
+        // then
+        assertEquals( round, rounds.get() );
+        verify( monitor, never() ).reported( any(), anyString(), anyString() );
+    }
+
+    @Test
+    void shouldLimitIOOncePerChunkWithNumberOfPagesInChunk() throws Exception
+    {
+        // given
+        context();
+        int recordsPerPage = nodeStore.getRecordsPerPage();
+        int idsPerChunk = recordsPerPage * 2;
+        nodeStore.setHighId( idsPerChunk + recordsPerPage / 2 );
+        MutableLongList stamps = LongLists.mutable.empty();
+        MutableIntList pages = IntLists.mutable.empty();
+        IOLimiter ioLimiter = ( previousStamp, recentlyCompletedIOs, flushable ) ->
+        {
+            stamps.add( previousStamp );
+            pages.add( recentlyCompletedIOs );
+            return previousStamp + 1;
+        };
+
+        // when
+        check( ioLimiter, NOT_CANCELLED, idsPerChunk );
+
+        // then
+        MutableIntList expectedPages = IntLists.mutable.empty();
+        for ( RecordStore<?> store : List.of( nodeStore, relationshipStore, relationshipGroupStore, propertyStore ) )
+        {
+            for ( long from = 0; from < store.getHighId(); from += idsPerChunk )
+            {
+                long ids = Math.min( store.getHighId(), from + idsPerChunk ) - from;
+                expectedPages.add( (int) ((ids + store.getRecordsPerPage() - 1) / store.getRecordsPerPage()) );
+            }
+        }
+        assertEquals( expectedPages, pages );
+        // the first chunk of the node store spans two full pages, the second only half a page
+        assertEquals( 2, pages.get( 0 ) );
+        assertEquals( 1, pages.get( 1 ) );
+        for ( int i = 0; i < stamps.size(); i++ )
+        {
+            assertEquals( IOLimiter.INITIAL_STAMP + i, stamps.get( i ) );
+        }
+    }
+
+    @Test
+    void shouldStopAfterChunkWhenCancelled() throws Exception
+    {
+        // given a broken node in the second chunk
+        context();
+        int idsPerChunk = 10;
+        nodeStore.setHighId( idsPerChunk );
+        try ( AutoCloseable ignored = tx() )
+        {
+            brokenNode();
+        }
+        assertTrue( nodeStore.getHighId() > idsPerChunk );
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicInteger chunks = new AtomicInteger();
+        IOLimiter ioLimiter = ( previousStamp, recentlyCompletedIOs, flushable ) ->
+        {
+            chunks.incrementAndGet();
+            cancelled.set( true );
+            return previousStamp;
+        };
+
+        // when
+        check( ioLimiter, cancelled::get, idsPerChunk );
+
+        // then
+        assertEquals( 1, chunks.get() );
+        verify( monitor, never() ).reported( any(), anyString(), anyString() );
+    }
+
+    @Test
+    void shouldNotReportSuspectsWhenCancelledWhileConfirming() throws Exception
+    {
+        // given
+        try ( AutoCloseable ignored = tx() )
+        {
+            brokenNode();
+        }
+        AtomicBoolean cancelled = new AtomicBoolean();
+        when( transactionIdStore.getLastCommittedTransactionId() ).then( invocation ->
+        {
+            cancelled.set( true );
+            return 0L;
+        } );
+
+        // when
+        check( IOLimiter.UNLIMITED, cancelled::get, 10 );
+
+        // then
+        verify( monitor, never() ).reported( any(), anyString(), anyString() );
+    }
+
+    @Test
+    void shouldAwaitTransactionToBeClosed() throws Exception
+    {
+        // given a last closed transaction which catches up one transaction per call
+        AtomicLong lastClosed = new AtomicLong( 5 );
+        when( transactionIdStore.getLastClosedTransactionId() ).then( invocation -> lastClosed.getAndIncrement() );
+        OnlineRecordChecker checker = checker( IOLimiter.UNLIMITED, NOT_CANCELLED, 10 );
+
+        // when
+        boolean closed = checker.awaitClosed( 10 );
+
+        // then
+        assertTrue( closed );
+        assertEquals( 11, lastClosed.get() );
+    }
+
+    @Test
+    void shouldNotAwaitAlreadyClosedTransaction() throws Exception
+    {
+        // given
+        when( transactionIdStore.getLastClosedTransactionId() ).thenReturn( 10L );
+        OnlineRecordChecker checker = checker( IOLimiter.UNLIMITED, NOT_CANCELLED, 10 );
+
+        // when/then
+        assertTrue( checker.awaitClosed( 10 ) );
+        verify( transactionIdStore, times( 1 ) ).getLastClosedTransactionId();
+    }
+
+    @Test
+    void shouldGiveUpAwaitingTransactionWhichIsNeverClosed() throws Exception
+    {
+        // given
+        when( transactionIdStore.getLastClosedTransactionId() ).thenReturn( 5L );
+        OnlineRecordChecker checker = checker( IOLimiter.UNLIMITED, NOT_CANCELLED, 10 );
+
+        // when/then
+        assertFalse( checker.awaitClosed( 10, TimeUnit.MILLISECONDS.toNanos( 50 ) ) );
+    }
+
+    @Test
+    void shouldStopAwaitingTransactionWhenCancelled() throws Exception
+    {
+        // given
+        when( transactionIdStore.getLastClosedTransactionId() ).thenReturn( 5L );
+        OnlineRecordChecker checker = checker( IOLimiter.UNLIMITED, () -> true, 10 );
+
+        // when/then
+        assertFalse( checker.awaitClosed( 10, TimeUnit.HOURS.toNanos( 1 ) ) );
+    }
+
+    private void check( IOLimiter ioLimiter, CancellationRequest cancellation, int idsPerChunk ) throws Exception
+    {
+        checker( ioLimiter, cancellation, idsPerChunk ).check();
+    }
+
+    private OnlineRecordChecker checker( IOLimiter ioLimiter, CancellationRequest cancellation, int idsPerChunk ) throws Exception
+    {
+        context();
+        return new OnlineRecordChecker( neoStores, transactionIdStore, ioLimiter, cancellation, reporter, idsPerChunk );
+    }
+
+    /**
+     * @return id of a node in use which points to a relationship which isn't.
+     */
+    private long brokenNode()
+    {
+        long nodeId = nodeStore.nextId();
+        nodeStore.updateRecord( new NodeRecord( nodeId ).initialize( true, NULL, false, relationshipStore.nextId(), 0 ) );
+        return nodeId;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency.newchecker.full;
+
+import org.junit.jupiter.api.AfterEach;
+
+import java.io.File;
+
+import org.neo4j.consistency.newchecker.NodeBasedMemoryLimiter;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.neo4j.consistency.checking.cache.CacheSlots.CACHE_LINE_SIZE_BYTES;
+
+class ExperimentalPageCachedFullCheckIT extends ExperimentalFullCheckIntegrationTest
+{
+    @Override
+    protected NodeBasedMemoryLimiter.Factory memoryLimit()
+    {
+        // Make it so that the node cache doesn't fit in memory and will have to be backed by the page cache
+        return ( pageCacheMemory, highNodeId ) ->
+                new NodeBasedMemoryLimiter( pageCacheMemory, 0, pageCacheMemory + highNodeId * CACHE_LINE_SIZE_BYTES / 3, CACHE_LINE_SIZE_BYTES, highNodeId,
+                        nodeCacheDirectory() );
+    }
+
+    @AfterEach
+    void shouldDeleteNodeCacheFile()
+    {
+        // The temporary file backing the node cache is deleted when the checker is closed
+        assertThat( nodeCacheDirectory().list(), emptyArray() );
+    }
+
+    private File nodeCacheDirectory()
+    {
+        return testDirectory.directory( "nodeCache" );
+    }
+}
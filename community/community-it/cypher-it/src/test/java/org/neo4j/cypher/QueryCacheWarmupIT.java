@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.cypher.internal.javacompat.ExecutionEngine;
+import org.neo4j.internal.helpers.collection.Pair;
+import org.neo4j.kernel.impl.query.QueryExecutionEngine;
+import org.neo4j.test.rule.DbmsRule;
+import org.neo4j.test.rule.EmbeddedDbmsRule;
+
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.hamcrest.Matchers.hasItem;
+import static org.neo4j.test.assertion.Assert.assertEventually;
+
+public class QueryCacheWarmupIT
+{
+    private static final String QUERY = "MATCH (u:User) WHERE u.userId = $userId RETURN u";
+
+    @Rule
+    public final DbmsRule db = new EmbeddedDbmsRule()
+            .withSetting( GraphDatabaseSettings.cypher_plan_cache_warmup, true );
+
+    @Test
+    public void shouldPlanCachedQueriesAgainAfterRestart() throws Exception
+    {
+        // GIVEN
+        db.executeTransactionally( QUERY, singletonMap( "userId", 42L ) );
+        List<Pair<String,Map<String,Class<?>>>> cachedBeforeRestart = cachedQueries();
+        Pair<String,Map<String,Class<?>>> cached = cachedBeforeRestart.stream()
+                .filter( query -> query.first().endsWith( QUERY ) )
+                .findFirst()
+                .orElseThrow( AssertionError::new );
+
+        // WHEN
+        db.restartDatabase();
+
+        // THEN
+        assertEventually( "Query should have been planned again after restart", this::cachedQueries, hasItem( cached ), 1, MINUTES );
+    }
+
+    private List<Pair<String,Map<String,Class<?>>>> cachedQueries()
+    {
+        return ((ExecutionEngine) db.resolveDependency( QueryExecutionEngine.class )).cachedQueries();
+    }
+}
@@ -244,6 +244,54 @@ class DenseNodeIT
         }
     }
 
+    @Test
+    void degreesOfTypeAndDirectionOfDenseNodeIncludeLoopsAndTransactionState()
+    {
+        // GIVEN
+        Node root;
+        Relationship loopToDelete;
+        try ( Transaction tx = db.beginTx() )
+        {
+            root = tx.createNode();
+            createRelationshipsOnNode( tx, root, denseNodeThreshold( db ) );
+            Node other = tx.createNode();
+            other.createRelationshipTo( root, MyRelTypes.TEST );
+            root.createRelationshipTo( root, MyRelTypes.TEST );
+            loopToDelete = root.createRelationshipTo( root, MyRelTypes.TEST );
+            tx.commit();
+        }
+
+        // WHEN
+        try ( Transaction tx = db.beginTx() )
+        {
+            root = tx.getNodeById( root.getId() );
+            tx.getRelationshipById( loopToDelete.getId() ).delete();
+            root.createRelationshipTo( tx.createNode(), MyRelTypes.TEST );
+            root.createRelationshipTo( root, MyRelTypes.TEST );
+            root.createRelationshipTo( tx.createNode(), MyRelTypes.TEST2 );
+
+            // THEN loops are counted in both directions, but only once in total
+            assertEquals( 3, root.getDegree( MyRelTypes.TEST, Direction.OUTGOING ) );
+            assertEquals( 3, root.getDegree( MyRelTypes.TEST, Direction.INCOMING ) );
+            assertEquals( 4, root.getDegree( MyRelTypes.TEST, Direction.BOTH ) );
+            assertEquals( 4, root.getDegree( MyRelTypes.TEST ) );
+            assertEquals( 1, root.getDegree( MyRelTypes.TEST2, Direction.OUTGOING ) );
+            assertEquals( 0, root.getDegree( MyRelTypes.TEST2, Direction.INCOMING ) );
+            assertEquals( 0, root.getDegree( MyRelTypes.TEST_TRAVERSAL ) );
+            tx.commit();
+        }
+
+        try ( Transaction tx = db.beginTx() )
+        {
+            root = tx.getNodeById( root.getId() );
+            assertEquals( 3, root.getDegree( MyRelTypes.TEST, Direction.OUTGOING ) );
+            assertEquals( 3, root.getDegree( MyRelTypes.TEST, Direction.INCOMING ) );
+            assertEquals( 4, root.getDegree( MyRelTypes.TEST, Direction.BOTH ) );
+            assertEquals( 1, root.getDegree( MyRelTypes.TEST2 ) );
+            tx.commit();
+        }
+    }
+
     private int denseNodeThreshold( GraphDatabaseAPI db )
     {
         return db.getDependencyResolver()
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.neo4j.batchinsert.internal.NativeIndexImporterFactory;
+import org.neo4j.batchinsert.internal.TransactionLogsInitializer;
+import org.neo4j.configuration.Config;
+import org.neo4j.dbms.api.DatabaseManagementService;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.schema.ConstraintDefinition;
+import org.neo4j.graphdb.schema.IndexDefinition;
+import org.neo4j.internal.batchimport.input.Collector;
+import org.neo4j.internal.batchimport.input.IdType;
+import org.neo4j.internal.batchimport.input.Input;
+import org.neo4j.internal.batchimport.input.csv.CsvInput;
+import org.neo4j.internal.batchimport.staging.ExecutionMonitors;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.impl.api.index.stats.IndexStatisticsStore;
+import org.neo4j.logging.internal.NullLogService;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.test.TestDatabaseManagementServiceBuilder;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.Neo4jLayoutExtension;
+import org.neo4j.test.extension.pagecache.PageCacheExtension;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.test.scheduler.ThreadPoolJobScheduler;
+
+import static java.nio.charset.Charset.defaultCharset;
+import static java.util.Comparator.comparingLong;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
+import static org.neo4j.csv.reader.Configuration.COMMAS;
+import static org.neo4j.graphdb.Label.label;
+import static org.neo4j.graphdb.schema.Schema.IndexState.ONLINE;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.batchimport.AdditionalInitialIds.EMPTY;
+import static org.neo4j.internal.batchimport.IndexDeclaration.index;
+import static org.neo4j.internal.batchimport.IndexDeclaration.uniquenessConstraint;
+import static org.neo4j.internal.batchimport.input.InputEntityDecorators.NO_DECORATOR;
+import static org.neo4j.internal.batchimport.input.csv.DataFactories.data;
+import static org.neo4j.internal.batchimport.input.csv.DataFactories.datas;
+import static org.neo4j.internal.batchimport.input.csv.DataFactories.defaultFormatNodeFileHeader;
+import static org.neo4j.internal.batchimport.input.csv.DataFactories.defaultFormatRelationshipFileHeader;
+import static org.neo4j.internal.helpers.collection.Iterables.asList;
+import static org.neo4j.internal.helpers.collection.Iterators.count;
+import static org.neo4j.kernel.impl.store.format.RecordFormatSelector.defaultFormat;
+
+@PageCacheExtension
+@Neo4jLayoutExtension
+class IndexImportIT
+{
+    private static final int NODE_COUNT = 1_000;
+    private static final int DISTINCT_NAMES = 100;
+
+    @Inject
+    private TestDirectory testDirectory;
+    @Inject
+    private FileSystemAbstraction fileSystem;
+    @Inject
+    private PageCache pageCache;
+    @Inject
+    private DatabaseLayout databaseLayout;
+
+    @Test
+    void shouldBuildDeclaredIndexesOnlineWithSampledStatistics() throws Exception
+    {
+        // given
+        Configuration config = withIndexes( index( "Person", "name" ), uniquenessConstraint( "Person", "id" ) );
+
+        // when
+        try ( JobScheduler scheduler = new ThreadPoolJobScheduler() )
+        {
+            new ParallelBatchImporter( databaseLayout, fileSystem, null, config, NullLogService.getInstance(), ExecutionMonitors.invisible(), EMPTY,
+                    Config.defaults(), defaultFormat(), ImportLogic.NO_MONITOR, scheduler, Collector.EMPTY, TransactionLogsInitializer.INSTANCE,
+                    NativeIndexImporterFactory.INSTANCE ).doImport( input() );
+        }
+
+        // then the samples are there already before the database gets a chance to sample the indexes itself
+        List<long[]> statistics = indexStatistics();
+        statistics.sort( comparingLong( stats -> stats[0] ) );
+        assertEquals( 2, statistics.size() );
+        assertArrayEquals( new long[]{DISTINCT_NAMES, NODE_COUNT, NODE_COUNT}, statistics.get( 0 ) );
+        assertArrayEquals( new long[]{NODE_COUNT, NODE_COUNT, NODE_COUNT}, statistics.get( 1 ) );
+
+        // and the indexes come online without having to be populated
+        DatabaseManagementService managementService = new TestDatabaseManagementServiceBuilder( testDirectory.homeDir() ).build();
+        try
+        {
+            GraphDatabaseService db = managementService.database( DEFAULT_DATABASE_NAME );
+            try ( Transaction tx = db.beginTx() )
+            {
+                tx.schema().awaitIndexesOnline( 1, MINUTES );
+                List<IndexDefinition> indexes = asList( tx.schema().getIndexes( label( "Person" ) ) );
+                assertEquals( 2, indexes.size() );
+                for ( IndexDefinition index : indexes )
+                {
+                    assertEquals( ONLINE, tx.schema().getIndexState( index ) );
+                }
+                List<ConstraintDefinition> constraints = asList( tx.schema().getConstraints( label( "Person" ) ) );
+                assertEquals( 1, constraints.size() );
+                assertEquals( NODE_COUNT / DISTINCT_NAMES, count( tx.findNodes( label( "Person" ), "name", "Person 7" ) ) );
+                tx.commit();
+            }
+        }
+        finally
+        {
+            managementService.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRejectDeclaredIndexesWithoutIndexImporterFactory()
+    {
+        Configuration config = withIndexes( index( "Person", "name" ) );
+        assertThrows( IllegalArgumentException.class, () -> new ImportLogic( databaseLayout, null, config, Config.defaults(),
+                NullLogService.getInstance(), ExecutionMonitors.invisible(), defaultFormat(), Collector.EMPTY, ImportLogic.NO_MONITOR ) );
+    }
+
+    private List<long[]> indexStatistics() throws IOException
+    {
+        List<long[]> statistics = new ArrayList<>();
+        IndexStatisticsStore statisticsStore = new IndexStatisticsStore( pageCache, databaseLayout, immediate(), true );
+        statisticsStore.init();
+        try
+        {
+            statisticsStore.visit( ( indexId, sampleUniqueValues, sampleSize, updatesCount, indexSize ) ->
+                    statistics.add( new long[]{sampleUniqueValues, sampleSize, indexSize} ) );
+        }
+        finally
+        {
+            statisticsStore.shutdown();
+        }
+        return statistics;
+    }
+
+    private Input input() throws IOException
+    {
+        File nodes = testDirectory.file( "nodes.csv" );
+        try ( Writer writer = fileSystem.openAsWriter( nodes, StandardCharsets.UTF_8, false ) )
+        {
+            writer.write( "id:ID,name,:LABEL\n" );
+            for ( int i = 0; i < NODE_COUNT; i++ )
+            {
+                writer.write( i + ",Person " + i % DISTINCT_NAMES + ",Person\n" );
+            }
+        }
+        File relationships = testDirectory.file( "relationships.csv" );
+        try ( Writer writer = fileSystem.openAsWriter( relationships, StandardCharsets.UTF_8, false ) )
+        {
+            writer.write( ":START_ID,:END_ID,:TYPE\n" );
+        }
+        return new CsvInput( datas( data( NO_DECORATOR, defaultCharset(), nodes ) ), defaultFormatNodeFileHeader(),
+                datas( data( NO_DECORATOR, defaultCharset(), relationships ) ), defaultFormatRelationshipFileHeader(),
+                IdType.STRING, COMMAS, CsvInput.NO_MONITOR );
+    }
+
+    private static Configuration withIndexes( IndexDeclaration... declarations )
+    {
+        return new Configuration()
+        {
+            @Override
+            public Collection<IndexDeclaration> indexes()
+            {
+                return List.of( declarations );
+            }
+        };
+    }
+}
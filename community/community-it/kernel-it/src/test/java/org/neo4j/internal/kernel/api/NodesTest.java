@@ -167,15 +167,16 @@ class NodesTest
     void shouldCountOutgoingDenseWithType()
     {
         // Given
-        StubGroupCursor groupCursor = new StubGroupCursor(
+        // The degree is read from the node cursor, so no group cursor is needed
+        StubNodeCursor nodeCursor = new StubNodeCursor( true ).withGroups(
                 group( 1 ).withOutCount( 1 ).withInCount( 1 ).withLoopCount( 5 ),
                 group( 2 ).withOutCount( 1 ).withInCount( 1 ).withLoopCount( 3 )
         );
-        StubCursorFactory cursors = new StubCursorFactory().withGroupCursors( groupCursor, groupCursor );
+        StubCursorFactory cursors = new StubCursorFactory();
 
         // Then
-        assertThat( countOutgoing( new StubNodeCursor( true ), cursors, 1, fullMode ), equalTo( 6 ) );
-        assertThat( countOutgoing( new StubNodeCursor( true ), cursors, 2, fullMode ), equalTo( 4 ) );
+        assertThat( countOutgoing( nodeCursor, cursors, 1, fullMode ), equalTo( 6 ) );
+        assertThat( countOutgoing( nodeCursor, cursors, 2, fullMode ), equalTo( 4 ) );
     }
 
     @Test
@@ -204,15 +205,16 @@ class NodesTest
     void shouldCountIncomingWithTypeDense()
     {
         // Given
-        StubGroupCursor groupCursor = new StubGroupCursor(
+        // The degree is read from the node cursor, so no group cursor is needed
+        StubNodeCursor nodeCursor = new StubNodeCursor( true ).withGroups(
                 group( 1 ).withOutCount( 1 ).withInCount( 1 ).withLoopCount( 5 ),
                 group( 2 ).withOutCount( 1 ).withInCount( 1 ).withLoopCount( 3 )
         );
-        StubCursorFactory cursors = new StubCursorFactory().withGroupCursors( groupCursor, groupCursor );
+        StubCursorFactory cursors = new StubCursorFactory();
 
         // Then
-        assertThat( countIncoming( new StubNodeCursor( true ), cursors, 1, fullMode ), equalTo( 6 ) );
-        assertThat( countIncoming( new StubNodeCursor( true ), cursors, 2, fullMode ), equalTo( 4 ) );
+        assertThat( countIncoming( nodeCursor, cursors, 1, fullMode ), equalTo( 6 ) );
+        assertThat( countIncoming( nodeCursor, cursors, 2, fullMode ), equalTo( 4 ) );
     }
     @Test
     void shouldCountIncomingWithTypeSparse()
@@ -240,15 +242,16 @@ class NodesTest
     void shouldCountAllWithTypeDense()
     {
         // Given
-        StubGroupCursor groupCursor = new StubGroupCursor(
+        // The degree is read from the node cursor, so no group cursor is needed
+        StubNodeCursor nodeCursor = new StubNodeCursor( true ).withGroups(
                 group( 1 ).withOutCount( 1 ).withInCount( 1 ).withLoopCount( 5 ),
                 group( 2 ).withOutCount( 1 ).withInCount( 1 ).withLoopCount( 3 )
         );
-        StubCursorFactory cursors = new StubCursorFactory().withGroupCursors( groupCursor, groupCursor );
+        StubCursorFactory cursors = new StubCursorFactory();
 
         // Then
-        assertThat( countAll( new StubNodeCursor( true ), cursors, 1, fullMode ), equalTo( 7 ) );
-        assertThat( countAll( new StubNodeCursor( true ), cursors, 2, fullMode ), equalTo( 5 ) );
+        assertThat( countAll( nodeCursor, cursors, 1, fullMode ), equalTo( 7 ) );
+        assertThat( countAll( nodeCursor, cursors, 2, fullMode ), equalTo( 5 ) );
     }
 
     @Test
@@ -45,6 +45,7 @@ import org.neo4j.test.rule.RecordStorageEngineRule;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -171,6 +172,29 @@ class RecordStorageReaderRelTypesAndDegreeTest extends RecordStorageReaderTestBa
         testDegreeByDirectionAndTypeForDenseNodeWithPartiallyDeletedRelChains( true, true, true );
     }
 
+    @Test
+    void degreesOfSingleTypeForDenseNode() throws Exception
+    {
+        testDegreesOfSingleType( randomRelCount(), randomRelCount(), randomRelCount() );
+    }
+
+    @Test
+    void degreesOfSingleTypeForSparseNode() throws Exception
+    {
+        testDegreesOfSingleType( 1, 2, 3 );
+    }
+
+    private void testDegreesOfSingleType( int inRelCount, int outRelCount, int loopRelCount ) throws Exception
+    {
+        long nodeId = createNode( inRelCount, outRelCount, loopRelCount );
+        StorageNodeCursor cursor = newCursor( nodeId );
+
+        assertEquals( singleton( new TestDegreeItem( relTypeId( OUT ), outRelCount, 0 ) ), degrees( cursor, relTypeId( OUT ) ) );
+        assertEquals( singleton( new TestDegreeItem( relTypeId( IN ), 0, inRelCount ) ), degrees( cursor, relTypeId( IN ) ) );
+        assertEquals( singleton( new TestDegreeItem( relTypeId( LOOP ), loopRelCount, loopRelCount ) ), degrees( cursor, relTypeId( LOOP ) ) );
+        assertEquals( emptySet(), degrees( cursor, Integer.MAX_VALUE ) );
+    }
+
     private void testDegreeByDirectionForDenseNodeWithPartiallyDeletedRelGroupChain( TestRelType... typesToDelete ) throws Exception
     {
         int inRelCount = randomRelCount();
@@ -496,6 +520,14 @@ class RecordStorageReaderRelTypesAndDegreeTest extends RecordStorageReaderTestBa
                 degrees.add( new TestDegreeItem( groups.type(), groups.outgoingCount() + groups.loopCount(), groups.incomingCount() + groups.loopCount() ) );
             }
         }
+        assertEquals( degrees, degrees( nodeCursor, ANY_RELATIONSHIP_TYPE ) );
+        return degrees;
+    }
+
+    private Set<TestDegreeItem> degrees( StorageNodeCursor nodeCursor, int type )
+    {
+        Set<TestDegreeItem> degrees = new HashSet<>();
+        nodeCursor.degrees( type, ( relType, outgoing, incoming ) -> assertTrue( degrees.add( new TestDegreeItem( relType, outgoing, incoming ) ) ) );
         return degrees;
     }
 
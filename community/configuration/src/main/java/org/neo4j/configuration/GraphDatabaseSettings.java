@@ -149,7 +149,9 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     @Description( "Whether to allow an upgrade in case the current version of the database starts against an older version." )
     public static final Setting<Boolean> allow_upgrade = newBuilder( "dbms.allow_upgrade", BOOL, false ).build();
 
-    @Description( "Database record format. Valid values: `standard`, `high_limit`. " +
+    @Description( "Database record format. Valid values: `standard`, `inlined_properties`, `high_limit`. " +
+            "The `inlined_properties` format keeps a few small property values in the node and relationship records themselves, " +
+            "which makes reading them cheaper at the cost of larger node and relationship stores. " +
             "The `high_limit` format is available for Enterprise Edition only. " +
             "It is required if you have a graph that is larger than 34 billion nodes, 34 billion relationships, or 68 billion properties. " +
             "A change of the record format is irreversible. " +
@@ -343,11 +345,46 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     public static final Setting<CypherReplanAlgorithm> cypher_replan_algorithm =
             newBuilder( "unsupported.cypher.replan_algorithm", ofEnum( CypherReplanAlgorithm.class ), CypherReplanAlgorithm.DEFAULT ).build();
 
+    @Description( "Save the keys of the query plan cache in the database directory, on shutdown and periodically while running, " +
+            "and plan the saved queries again in the background after the next start of the database, " +
+            "so that the first executions of frequent queries after a restart do not have to wait for planning." )
+    @Internal
+    public static final Setting<Boolean> cypher_plan_cache_warmup =
+            newBuilder( "unsupported.cypher.plan_cache_warmup", BOOL, false ).build();
+
+    @Description( "How often the keys of the query plan cache are saved while the database is running, " +
+            "when unsupported.cypher.plan_cache_warmup is enabled." )
+    @Internal
+    public static final Setting<Duration> cypher_plan_cache_persist_interval =
+            newBuilder( "unsupported.cypher.plan_cache_persist_interval", DURATION, ofMinutes( 10 ) )
+                    .addConstraint( min( ofSeconds( 1 ) ) )
+                    .build();
+
     @Description( "Set this to enable monitors in the Cypher runtime." )
     @Internal
     public static final Setting<Boolean> cypher_enable_runtime_monitors =
             newBuilder( "unsupported.cypher.enable_runtime_monitors", BOOL, false ).build();
 
+    @Description( "Set this to make the interpreted Cypher runtime keep the variables of each row in an array, " +
+            "at offsets allocated once per query plan, instead of in a map per row." )
+    @Internal
+    public static final Setting<Boolean> cypher_interpreted_slotted_rows =
+            newBuilder( "unsupported.cypher.interpreted_slotted_rows", BOOL, false ).build();
+
+    @Description( "The amount of heap memory, in bytes, that the rows held by sort, aggregation, distinct and hash join operators of " +
+            "the interpreted Cypher runtime may take up for a single query. Once it is used up, these operators move rows to temporary " +
+            "files and process them from there. Zero means that the rows are always kept on the heap." )
+    @Internal
+    public static final Setting<Long> cypher_spill_threshold =
+            newBuilder( "unsupported.cypher.spill_threshold", BYTES, 0L ).addConstraint( min( 0L ) ).build();
+
+    @Description( "The number of worker threads that the interpreted Cypher runtime may use for a single read-only query which " +
+            "aggregates over a scan of all nodes or of a label. The scan is split into batches of nodes that the workers take turns to " +
+            "match and aggregate. Zero means that queries always run on the calling thread only." )
+    @Internal
+    public static final Setting<Integer> cypher_parallel_workers =
+            newBuilder( "unsupported.cypher.parallel_workers", INT, 0 ).addConstraint( min( 0 ) ).build();
+
     @Description( "Determines if Cypher will allow using file URLs when loading data using `LOAD CSV`. Setting this "
             + "value to `false` will cause Neo4j to fail `LOAD CSV` clauses that load data from the file system." )
     public static final Setting<Boolean> allow_file_urls =
@@ -374,6 +411,13 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     public static final Setting<Long> csv_buffer_size =
             newBuilder( "dbms.import.csv.buffer_size", LONG, mebiBytes( 2 ) ).addConstraint( min( 1L ) ).build();
 
+    @Description( "The number of threads used by `LOAD CSV` to parse a file. With more than one thread the file is cut into chunks " +
+            "of the size of `dbms.import.csv.buffer_size` at line breaks, which are parsed ahead of the query in parallel and handed to it " +
+            "in the order of the file. Quoted fields spanning several lines are not supported in that mode. " +
+            "Zero or one means that the file is parsed row by row by the query itself." )
+    public static final Setting<Integer> csv_parser_threads =
+            newBuilder( "dbms.import.csv.parser_threads", INT, 0 ).addConstraint( min( 0 ) ).build();
+
     @Description( "Enables or disables tracking of how much time a query spends actively executing on the CPU. " +
             "Calling `dbms.listQueries` will display the time. " +
             "This can also be logged in the query log by using `log_queries_detailed_time_logging_enabled`." )
@@ -864,6 +908,12 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     public static final Setting<Integer> experimental_consistency_checker_stop_threshold =
             newBuilder( "unsupported.consistency_checker.experimental.fail_fast", INT, 0 ).addConstraint( min( 0 ) ).build();
 
+    @Description( "Specifies if the experimental consistency checker should back its per-node cache by the page cache when the cache doesn't fit " +
+            "in the available memory, so that all nodes can be checked in a single pass instead of one pass per range of nodes that fits. " +
+            "The file backing the cache is created in the directory of the consistency check report and deleted when the check is done" )
+    public static final Setting<Boolean> experimental_consistency_checker_page_cached_node_cache =
+            newBuilder( "unsupported.consistency_checker.experimental.page_cached_node_cache", BOOL, false ).build();
+
     @Description( "Log executed queries. Valid values are 'OFF', 'INFO' & 'VERBOSE'.\n" +
             "OFF:  no logging.\n" +
             "INFO: log queries at the end of execution, that take longer than the configured threshold, dbms.logs.query.threshold.\n" +
@@ -1080,6 +1130,13 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     public static final Setting<Boolean> bolt_worker_threads_contain_database_name =
             newBuilder( "unsupported.dbms.bolt.worker_threads_contain_database", BOOL, false ).dynamic().build();
 
+    @Description( "The maximum number of records of an open Bolt v4 result that are produced ahead of the next PULL, " +
+            "while the worker thread bound to the transaction waits for that PULL to arrive. Prefetched records are handed out " +
+            "first by the next PULL, which hides the time spent producing them from the client. 0 disables prefetching." )
+    @Internal
+    public static final Setting<Integer> bolt_result_prefetch_records =
+            newBuilder( "unsupported.dbms.bolt.result_prefetch_records", INT, 0 ).addConstraint( min( 0 ) ).build();
+
     @Description( "Create an archive of an index before re-creating it if failing to load on startup." )
     @Internal
     public static final Setting<Boolean> archive_failed_index =
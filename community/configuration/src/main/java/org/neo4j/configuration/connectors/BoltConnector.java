@@ -34,6 +34,7 @@ import static java.time.Duration.ofMinutes;
 import static java.time.Duration.ofSeconds;
 import static org.neo4j.configuration.GraphDatabaseSettings.default_advertised_address;
 import static org.neo4j.configuration.GraphDatabaseSettings.default_listen_address;
+import static org.neo4j.configuration.SettingConstraints.min;
 import static org.neo4j.configuration.SettingImpl.newBuilder;
 import static org.neo4j.configuration.SettingValueParsers.BOOL;
 import static org.neo4j.configuration.SettingValueParsers.DURATION;
@@ -88,6 +89,23 @@ public final class BoltConnector implements SettingsDeclaration
     public static final Setting<Integer> unsupported_thread_pool_queue_size =
             newBuilder( "dbms.connector.bolt.unsupported_thread_pool_queue_size", INT, 0 ).build();
 
+    @Description( "Schedule the work of bolt connections on fixed size worker pools, one partition per group of network event loops, " +
+            "instead of on a single growing thread pool. The total number of worker threads is the maximum thread pool size of this connector." )
+    @Internal
+    public static final Setting<Boolean> unsupported_event_loop_affine_scheduler =
+            newBuilder( "dbms.connector.bolt.unsupported_event_loop_affine_scheduler", BOOL, false ).build();
+
+    @Description( "The number of worker pool partitions of the event loop affine scheduler, 0 for the number of available processors." )
+    @Internal
+    public static final Setting<Integer> unsupported_scheduler_partitions =
+            newBuilder( "dbms.connector.bolt.unsupported_scheduler_partitions", INT, 0 ).addConstraint( min( 0 ) ).build();
+
+    @Description( "The number of connections waiting for a worker of a partition of the event loop affine scheduler above which reading " +
+            "from the channels of newly waiting connections is paused. Reading is resumed when half as many connections are waiting." )
+    @Internal
+    public static final Setting<Integer> unsupported_scheduler_backlog_high_watermark =
+            newBuilder( "dbms.connector.bolt.unsupported_scheduler_backlog_high_watermark", INT, 1000 ).addConstraint( min( 2 ) ).build();
+
     public enum EncryptionLevel
     {
         REQUIRED,
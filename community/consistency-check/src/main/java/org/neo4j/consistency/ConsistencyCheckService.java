@@ -19,24 +19,35 @@
  */
 package org.neo4j.consistency;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.Writer;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.function.Consumer;
 
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.consistency.checking.full.ConsistencyCheckIncompleteException;
 import org.neo4j.consistency.checking.full.ConsistencyFlags;
 import org.neo4j.consistency.checking.full.FullCheck;
+import org.neo4j.consistency.newchecker.IncrementalRecordChecker;
 import org.neo4j.consistency.newchecker.NodeBasedMemoryLimiter;
+import org.neo4j.consistency.newchecker.OnlineRecordChecker;
+import org.neo4j.consistency.newchecker.TouchedRecords;
+import org.neo4j.consistency.report.ConsistencyReport;
+import org.neo4j.consistency.report.ConsistencyReporter;
 import org.neo4j.consistency.report.ConsistencySummaryStatistics;
+import org.neo4j.consistency.report.InconsistencyMessageLogger;
+import org.neo4j.consistency.report.InconsistencyReport;
 import org.neo4j.consistency.statistics.AccessStatistics;
 import org.neo4j.consistency.statistics.AccessStatsKeepingStoreAccess;
 import org.neo4j.consistency.statistics.DefaultCounts;
 import org.neo4j.consistency.statistics.Statistics;
 import org.neo4j.consistency.statistics.VerboseStatistics;
+import org.neo4j.consistency.store.DirectRecordAccess;
 import org.neo4j.consistency.store.DirectStoreAccess;
 import org.neo4j.counts.CountsAccessor;
 import org.neo4j.counts.CountsStore;
@@ -45,15 +56,18 @@ import org.neo4j.function.ThrowingSupplier;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.internal.counts.CountsBuilder;
 import org.neo4j.internal.counts.GBPTreeCountsStore;
+import org.neo4j.internal.helpers.CancellationRequest;
 import org.neo4j.internal.helpers.progress.ProgressMonitorFactory;
 import org.neo4j.internal.id.DefaultIdGeneratorFactory;
 import org.neo4j.internal.index.label.FullStoreChangeStream;
 import org.neo4j.internal.index.label.LabelScanStore;
 import org.neo4j.internal.index.label.NativeLabelScanStore;
+import org.neo4j.internal.recordstorage.RecordStorageEngine;
 import org.neo4j.internal.recordstorage.StoreTokens;
 import org.neo4j.io.fs.DefaultFileSystemAbstraction;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
@@ -62,10 +76,14 @@ import org.neo4j.kernel.extension.DatabaseExtensions;
 import org.neo4j.kernel.impl.api.index.stats.IndexStatisticsStore;
 import org.neo4j.kernel.impl.pagecache.ConfiguringPageCacheFactory;
 import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
+import org.neo4j.kernel.impl.store.MetaDataStore;
 import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.kernel.impl.store.StoreAccess;
 import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.transaction.log.NoSuchTransactionException;
+import org.neo4j.kernel.impl.transaction.log.ReadOnlyTransactionStore;
 import org.neo4j.kernel.impl.transaction.state.DefaultIndexProviderMap;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 import org.neo4j.logging.DuplicatingLog;
@@ -80,16 +98,21 @@ import org.neo4j.token.TokenHolders;
 import org.neo4j.token.api.TokenHolder;
 
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static org.neo4j.consistency.checking.full.ConsistencyFlags.DEFAULT;
 import static org.neo4j.consistency.internal.SchemaIndexExtensionLoader.instantiateExtensions;
 import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
 import static org.neo4j.internal.helpers.Strings.joinAsLines;
 import static org.neo4j.io.fs.FileSystemUtils.createOrOpenAsOutputStream;
 import static org.neo4j.kernel.impl.factory.DatabaseInfo.TOOL;
+import static org.neo4j.kernel.impl.store.MetaDataStore.Position.LAST_TRANSACTION_ID;
 import static org.neo4j.kernel.recovery.Recovery.isRecoveryRequired;
 
 public class ConsistencyCheckService
 {
+    static final long NO_CHECKED_TRANSACTION = -1;
+
     private final Date timestamp;
 
     public ConsistencyCheckService()
@@ -253,7 +276,9 @@ public class ConsistencyCheckService
             }
             storeAccess.initialize();
             DirectStoreAccess stores = new DirectStoreAccess( storeAccess, labelScanStore, indexes, tokenHolders, indexStatisticsStore, idGeneratorFactory );
-            FullCheck check = new FullCheck( progressFactory, statistics, numberOfThreads, consistencyFlags, config, verbose, NodeBasedMemoryLimiter.DEFAULT );
+            NodeBasedMemoryLimiter.Factory memoryLimit = config.get( GraphDatabaseSettings.experimental_consistency_checker_page_cached_node_cache )
+                                                         ? NodeBasedMemoryLimiter.pageCachedWhenNeeded( reportDir ) : NodeBasedMemoryLimiter.DEFAULT;
+            FullCheck check = new FullCheck( progressFactory, statistics, numberOfThreads, consistencyFlags, config, verbose, memoryLimit );
             summary = check.execute( pageCache, stores, countsManager, new DuplicatingLog( log, reportLog ) );
         }
         finally
@@ -273,6 +298,207 @@ public class ConsistencyCheckService
         return Result.success( reportFile, summary );
     }
 
+    /**
+     * Checks only the records touched by the transactions committed since the last successful check of this database, see {@link TouchedRecords}
+     * and {@link IncrementalRecordChecker} for what is and isn't covered. Falls back to a full check if there's no record of a previous successful
+     * check, or if the transaction logs don't go back far enough. The id of the last checked transaction is recorded in {@code reportDir}
+     * after every successful check made through this method, full or incremental.
+     */
+    public Result runIncrementalConsistencyCheck( DatabaseLayout databaseLayout, Config config, ProgressMonitorFactory progressFactory,
+            LogProvider logProvider, FileSystemAbstraction fileSystem, PageCache pageCache, boolean verbose, File reportDir,
+            ConsistencyFlags consistencyFlags ) throws ConsistencyCheckIncompleteException
+    {
+        assertRecovered( databaseLayout, config, fileSystem );
+        Log log = logProvider.getLog( getClass() );
+        File lastCheckedTransactionFile = lastCheckedTransactionFile( reportDir, databaseLayout );
+        long lastCheckedTransactionId;
+        long lastCommittedTransactionId;
+        try
+        {
+            lastCheckedTransactionId = readLastCheckedTransactionId( fileSystem, lastCheckedTransactionFile );
+            lastCommittedTransactionId = MetaDataStore.getRecord( pageCache, databaseLayout.metadataStore(), LAST_TRANSACTION_ID );
+        }
+        catch ( IOException e )
+        {
+            throw new ConsistencyCheckIncompleteException( e );
+        }
+
+        TouchedRecords touched = null;
+        if ( lastCheckedTransactionId == NO_CHECKED_TRANSACTION )
+        {
+            log.info( "No previous successful consistency check recorded in '%s', doing a full check", lastCheckedTransactionFile.getPath() );
+        }
+        else if ( lastCheckedTransactionId >= lastCommittedTransactionId )
+        {
+            log.info( "No transactions committed since last consistency check at transaction %d", lastCheckedTransactionId );
+            return Result.success( chooseReportPath( reportDir ), new ConsistencySummaryStatistics() );
+        }
+        else
+        {
+            touched = collectTouchedRecords( databaseLayout, config, fileSystem, pageCache, lastCheckedTransactionId, log );
+        }
+
+        Result result;
+        long checkedTransactionId;
+        if ( touched != null )
+        {
+            log.info( "Checking records touched by transactions %d-%d: %s", lastCheckedTransactionId + 1, touched.lastTransactionId(), touched );
+            result = runIncrementalConsistencyCheck( databaseLayout, config, logProvider, fileSystem, pageCache, reportDir, touched );
+            checkedTransactionId = touched.lastTransactionId();
+        }
+        else
+        {
+            result = runFullConsistencyCheck( databaseLayout, config, progressFactory, logProvider, fileSystem, pageCache, verbose, reportDir,
+                    consistencyFlags );
+            checkedTransactionId = lastCommittedTransactionId;
+        }
+
+        if ( result.isSuccessful() )
+        {
+            try
+            {
+                writeLastCheckedTransactionId( fileSystem, lastCheckedTransactionFile, checkedTransactionId );
+            }
+            catch ( IOException e )
+            {
+                log.warn( format( "Unable to record last checked transaction %d in '%s'", checkedTransactionId, lastCheckedTransactionFile.getPath() ), e );
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the records touched by the transactions following {@code lastCheckedTransactionId}, or {@code null} if the transaction logs
+     * no longer contain those transactions.
+     */
+    private static TouchedRecords collectTouchedRecords( DatabaseLayout databaseLayout, Config config, FileSystemAbstraction fileSystem,
+            PageCache pageCache, long lastCheckedTransactionId, Log log ) throws ConsistencyCheckIncompleteException
+    {
+        ReadOnlyTransactionStore transactionStore = null;
+        try
+        {
+            transactionStore = new ReadOnlyTransactionStore( pageCache, fileSystem, databaseLayout, config, new Monitors() );
+            transactionStore.init();
+            transactionStore.start();
+            return TouchedRecords.collect( transactionStore, lastCheckedTransactionId );
+        }
+        catch ( NoSuchTransactionException e )
+        {
+            log.info( "Transaction logs no longer contain transaction %d, doing a full check", lastCheckedTransactionId + 1 );
+            return null;
+        }
+        catch ( IOException e )
+        {
+            throw new ConsistencyCheckIncompleteException( e );
+        }
+        finally
+        {
+            if ( transactionStore != null )
+            {
+                transactionStore.shutdown();
+            }
+        }
+    }
+
+    private Result runIncrementalConsistencyCheck( DatabaseLayout databaseLayout, Config config, LogProvider logProvider,
+            FileSystemAbstraction fileSystem, PageCache pageCache, File reportDir, TouchedRecords touched )
+    {
+        config.set( GraphDatabaseSettings.read_only, true );
+        final DefaultIdGeneratorFactory idGeneratorFactory = new DefaultIdGeneratorFactory( fileSystem, immediate() );
+        StoreFactory factory = new StoreFactory( databaseLayout, config, idGeneratorFactory, pageCache, fileSystem, logProvider );
+        try ( NeoStores neoStores = factory.openAllNeoStores() )
+        {
+            return checkRecords( neoStores, fileSystem, reportDir, logProvider.getLog( getClass() ), reporter ->
+            {
+                try ( IncrementalRecordChecker checker = new IncrementalRecordChecker( neoStores, reporter ) )
+                {
+                    checker.check( touched );
+                }
+            } );
+        }
+    }
+
+    /**
+     * Checks the record stores of a running database, without requiring it to be shut down or copied. See {@link OnlineRecordChecker}
+     * for how concurrent changes are dealt with and what is covered. I/O done by the check is throttled by the given {@link IOLimiter},
+     * typically the one that the database itself uses for check pointing. The check stops early, with what it has found so far,
+     * when the given {@link CancellationRequest} is cancelled.
+     */
+    public Result runOnlineConsistencyCheck( GraphDatabaseAPI database, IOLimiter ioLimiter, CancellationRequest cancellation, LogProvider logProvider,
+            FileSystemAbstraction fileSystem, File reportDir )
+    {
+        RecordStorageEngine storageEngine = database.getDependencyResolver().resolveDependency( RecordStorageEngine.class );
+        NeoStores neoStores = storageEngine.readAccessNeoStores();
+        return checkRecords( neoStores, fileSystem, reportDir, logProvider.getLog( getClass() ),
+                reporter -> new OnlineRecordChecker( neoStores, storageEngine.transactionIdStore(), ioLimiter, cancellation, reporter ).check() );
+    }
+
+    private Result checkRecords( NeoStores neoStores, FileSystemAbstraction fileSystem, File reportDir, Log log,
+            Consumer<ConsistencyReport.Reporter> check )
+    {
+        ConsistencySummaryStatistics summary = new ConsistencySummaryStatistics();
+        final File reportFile = chooseReportPath( reportDir );
+        Suppliers.Lazy<PrintWriter> reportWriterSupplier = getReportWriterSupplier( fileSystem, reportFile );
+        Log reportLog = new ConsistencyReportLog( reportWriterSupplier );
+        try
+        {
+            InconsistencyReport report = new InconsistencyReport( new InconsistencyMessageLogger( new DuplicatingLog( log, reportLog ) ), summary );
+            check.accept( new ConsistencyReporter( new DirectRecordAccess( new StoreAccess( neoStores ), null ), report ) );
+        }
+        finally
+        {
+            if ( reportWriterSupplier.isInitialised() )
+            {
+                reportWriterSupplier.get().close();
+            }
+        }
+
+        if ( !summary.isConsistent() )
+        {
+            log.warn( "See '%s' for a detailed consistency report.", reportFile.getPath() );
+            return Result.failure( reportFile, summary );
+        }
+        return Result.success( reportFile, summary );
+    }
+
+    static File lastCheckedTransactionFile( File reportDir, DatabaseLayout databaseLayout )
+    {
+        return new File( reportDir, format( "last-checked-transaction-%s", databaseLayout.getDatabaseName() ) );
+    }
+
+    /**
+     * @return the id of the last checked transaction recorded in {@code file}, or {@link #NO_CHECKED_TRANSACTION} if there is no such file
+     * or it doesn't contain a transaction id.
+     */
+    static long readLastCheckedTransactionId( FileSystemAbstraction fileSystem, File file ) throws IOException
+    {
+        if ( !fileSystem.fileExists( file ) )
+        {
+            return NO_CHECKED_TRANSACTION;
+        }
+        try ( BufferedReader reader = new BufferedReader( fileSystem.openAsReader( file, UTF_8 ) ) )
+        {
+            String line = reader.readLine();
+            return line != null ? Long.parseLong( line.trim() ) : NO_CHECKED_TRANSACTION;
+        }
+        catch ( NumberFormatException e )
+        {
+            return NO_CHECKED_TRANSACTION;
+        }
+    }
+
+    static void writeLastCheckedTransactionId( FileSystemAbstraction fileSystem, File file, long transactionId ) throws IOException
+    {
+        // Write to a temporary file first so that a crash half way through writing doesn't leave a broken file behind
+        File tempFile = new File( file.getParentFile(), file.getName() + ".tmp" );
+        fileSystem.mkdirs( file.getParentFile() );
+        try ( Writer writer = fileSystem.openAsWriter( tempFile, UTF_8, false ) )
+        {
+            writer.write( Long.toString( transactionId ) );
+        }
+        fileSystem.renameFile( tempFile, file, REPLACE_EXISTING );
+    }
+
     private void assertRecovered( DatabaseLayout databaseLayout, Config config, FileSystemAbstraction fileSystem )
             throws ConsistencyCheckIncompleteException
     {
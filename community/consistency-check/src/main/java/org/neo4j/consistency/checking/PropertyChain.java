@@ -48,39 +48,57 @@ public class PropertyChain<RECORD extends PrimitiveRecord, REPORT extends Consis
     public void checkConsistency( RECORD record, CheckerEngine<RECORD, REPORT> engine,
                                   RecordAccess records )
     {
-        if ( !Record.NO_NEXT_PROPERTY.is( record.getNextProp() ) )
+        if ( record.hasInlinedProperties() )
         {
-            // Check the whole chain here instead of scattered during multiple checks.
-            // This type of check obviously favors chains with good locality, performance-wise.
-            Iterator<PropertyRecord> props = records.rawPropertyChain( record.getNextProp() );
-            PropertyRecord firstProp = props.next();
-            if ( !Record.NO_PREVIOUS_PROPERTY.is( firstProp.getPrevProp() ) )
-            {
-                engine.report().propertyNotFirstInChain( firstProp );
-            }
-
+            // Properties inlined in the record itself count towards the same key uniqueness and mandatory properties as the chain
             final MutableIntSet keys = new IntHashSet();
-            final MutableLongSet propertyRecordIds = new LongHashSet( 8 );
-            propertyRecordIds.add( firstProp.getId() );
             try ( MandatoryProperties.Check<RECORD,REPORT> mandatory = mandatoryProperties.apply( record ) )
             {
-                checkChainItem( firstProp, engine, keys, mandatory );
-
-                // Check the whole chain here. We also take the opportunity to check mandatory property constraints.
-                PropertyRecord prop = firstProp;
-                while ( props.hasNext() )
+                checkChainItem( record.getInlinedProperties(), engine, keys, mandatory );
+                if ( !Record.NO_NEXT_PROPERTY.is( record.getNextProp() ) )
                 {
-                    PropertyRecord nextProp = props.next();
-                    if ( !propertyRecordIds.add( nextProp.getId() ) )
-                    {
-                        engine.report().propertyChainContainsCircularReference( prop );
-                        break;
-                    }
-                    checkChainItem( nextProp, engine, keys, mandatory );
-                    prop = nextProp;
+                    checkChain( record, engine, records, keys, mandatory );
                 }
             }
         }
+        else if ( !Record.NO_NEXT_PROPERTY.is( record.getNextProp() ) )
+        {
+            try ( MandatoryProperties.Check<RECORD,REPORT> mandatory = mandatoryProperties.apply( record ) )
+            {
+                checkChain( record, engine, records, new IntHashSet(), mandatory );
+            }
+        }
+    }
+
+    private void checkChain( RECORD record, CheckerEngine<RECORD,REPORT> engine, RecordAccess records,
+            MutableIntSet keys, MandatoryProperties.Check<RECORD,REPORT> mandatory )
+    {
+        // Check the whole chain here instead of scattered during multiple checks.
+        // This type of check obviously favors chains with good locality, performance-wise.
+        Iterator<PropertyRecord> props = records.rawPropertyChain( record.getNextProp() );
+        PropertyRecord firstProp = props.next();
+        if ( !Record.NO_PREVIOUS_PROPERTY.is( firstProp.getPrevProp() ) )
+        {
+            engine.report().propertyNotFirstInChain( firstProp );
+        }
+
+        final MutableLongSet propertyRecordIds = new LongHashSet( 8 );
+        propertyRecordIds.add( firstProp.getId() );
+        checkChainItem( firstProp, engine, keys, mandatory );
+
+        // Check the whole chain here. We also take the opportunity to check mandatory property constraints.
+        PropertyRecord prop = firstProp;
+        while ( props.hasNext() )
+        {
+            PropertyRecord nextProp = props.next();
+            if ( !propertyRecordIds.add( nextProp.getId() ) )
+            {
+                engine.report().propertyChainContainsCircularReference( prop );
+                break;
+            }
+            checkChainItem( nextProp, engine, keys, mandatory );
+            prop = nextProp;
+        }
     }
 
     private void checkChainItem( PropertyRecord property, CheckerEngine<RECORD,REPORT> engine,
@@ -116,7 +116,7 @@ public class PropertyAndNodeIndexedCheck implements RecordCheck<NodeRecord, Cons
             {
                 if ( nodePropertyMap == null )
                 {
-                    nodePropertyMap = properties( propertyReader.propertyBlocks( propertyRecs ) );
+                    nodePropertyMap = properties( propertyReader.propertyBlocks( record, propertyRecs ) );
                 }
 
                 if ( entityIntersectsSchema( nodePropertyMap, schema ) )
@@ -185,6 +185,11 @@ public class PropertyAndNodeIndexedCheck implements RecordCheck<NodeRecord, Cons
             CheckerEngine<NodeRecord, ConsistencyReport.NodeConsistencyReport> engine,
             Collection<PropertyRecord> props )
     {
+        final MutableIntSet keys = new IntHashSet();
+        if ( record.hasInlinedProperties() )
+        {
+            checkKeysUnique( engine, record.getInlinedProperties(), keys );
+        }
         if ( !Record.NO_NEXT_PROPERTY.is( record.getNextProp() ) )
         {
             PropertyRecord firstProp = props.iterator().next();
@@ -193,7 +198,6 @@ public class PropertyAndNodeIndexedCheck implements RecordCheck<NodeRecord, Cons
                 engine.report().propertyNotFirstInChain( firstProp );
             }
 
-            final MutableIntSet keys = new IntHashSet();
             for ( PropertyRecord property : props )
             {
                 if ( !property.inUse() )
@@ -202,18 +206,24 @@ public class PropertyAndNodeIndexedCheck implements RecordCheck<NodeRecord, Cons
                 }
                 else
                 {
-                    for ( int key : ChainCheck.keys( property ) )
-                    {
-                        if ( !keys.add( key ) )
-                        {
-                            engine.report().propertyKeyNotUniqueInChain();
-                        }
-                    }
+                    checkKeysUnique( engine, property, keys );
                 }
             }
         }
     }
 
+    private static void checkKeysUnique( CheckerEngine<NodeRecord, ConsistencyReport.NodeConsistencyReport> engine,
+            PropertyRecord property, MutableIntSet keys )
+    {
+        for ( int key : ChainCheck.keys( property ) )
+        {
+            if ( !keys.add( key ) )
+            {
+                engine.report().propertyKeyNotUniqueInChain();
+            }
+        }
+    }
+
     static Value[] getPropertyValues( PropertyReader propertyReader, IntObjectMap<PropertyBlock> propertyMap, int[] indexPropertyIds )
     {
         Value[] values = new Value[indexPropertyIds.length];
@@ -31,6 +31,7 @@ import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.StoreAccess;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PrimitiveRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
 import org.neo4j.kernel.impl.store.record.Record;
@@ -62,9 +63,19 @@ class PropertyReader implements NodePropertyAccessor
         return records;
     }
 
-    List<PropertyBlock> propertyBlocks( Collection<PropertyRecord> records )
+    /**
+     * @return the property blocks inlined in the owner record, followed by the ones in its property chain.
+     */
+    List<PropertyBlock> propertyBlocks( PrimitiveRecord owner, Collection<PropertyRecord> records )
     {
         List<PropertyBlock> propertyBlocks = new ArrayList<>();
+        if ( owner.hasInlinedProperties() )
+        {
+            for ( PropertyBlock block : owner.getInlinedProperties() )
+            {
+                propertyBlocks.add( block );
+            }
+        }
         for ( PropertyRecord record : records )
         {
             for ( PropertyBlock block : record )
@@ -114,6 +125,10 @@ class PropertyReader implements NodePropertyAccessor
         if ( nodeStore.getRecord( nodeId, nodeRecord, FORCE ).inUse() )
         {
             SpecificValueVisitor visitor = new SpecificValueVisitor( propertyKeyId );
+            if ( nodeRecord.hasInlinedProperties() && visitor.visit( nodeRecord.getInlinedProperties() ) )
+            {
+                return visitor.foundPropertyValue;
+            }
             try
             {
                 if ( visitPropertyRecordChain( nodeRecord.getNextProp(), visitor ) )
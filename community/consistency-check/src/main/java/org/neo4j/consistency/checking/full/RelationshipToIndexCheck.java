@@ -71,7 +71,7 @@ public class RelationshipToIndexCheck implements RecordCheck<RelationshipRecord,
                     if ( propertyMap == null )
                     {
                         Collection<PropertyRecord> propertyRecs = propertyReader.getPropertyRecordChain( record.getNextProp() );
-                        propertyMap = properties( propertyReader.propertyBlocks( propertyRecs ) );
+                        propertyMap = properties( propertyReader.propertyBlocks( record, propertyRecs ) );
                     }
 
                     if ( entityIntersectsSchema( propertyMap, schema ) )
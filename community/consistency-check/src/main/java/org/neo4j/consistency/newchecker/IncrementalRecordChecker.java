@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency.newchecker;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.neo4j.consistency.report.ConsistencyReport;
+import org.neo4j.io.IOUtils;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PrimitiveRecord;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+
+import static org.neo4j.kernel.impl.store.record.Record.NULL_REFERENCE;
+
+/**
+ * Checks the structural consistency of a set of {@link TouchedRecords} by following every pointer out of those records one step
+ * and verifying that the referenced record is in use and, where applicable, points back. Contrary to the full checker this doesn't
+ * keep any cache and makes no sequential passes over the stores; it does random reads of only the touched records and their neighbours,
+ * which is what makes it cheap to run regularly over the transactions committed since the previous check.
+ * <p>
+ * What this checker does not cover, compared to {@link RecordStorageConsistencyChecker}: index and label index entries, counts,
+ * dynamic records (labels and property values), tokens and schema. Those are only verified by a full check.
+ */
+public class IncrementalRecordChecker implements AutoCloseable
+{
+    private final ConsistencyReport.Reporter reporter;
+    private final RecordReader<NodeRecord> nodeReader;
+    private final RecordReader<RelationshipRecord> relationshipReader;
+    private final RecordReader<RelationshipRecord> otherRelationshipReader;
+    private final RecordReader<RelationshipGroupRecord> groupReader;
+    private final RecordReader<RelationshipGroupRecord> otherGroupReader;
+    private final RecordReader<PropertyRecord> propertyReader;
+    private final RecordReader<PropertyRecord> otherPropertyReader;
+
+    public IncrementalRecordChecker( NeoStores neoStores, ConsistencyReport.Reporter reporter )
+    {
+        this.reporter = reporter;
+        this.nodeReader = new RecordReader<>( neoStores.getNodeStore() );
+        this.relationshipReader = new RecordReader<>( neoStores.getRelationshipStore() );
+        this.otherRelationshipReader = new RecordReader<>( neoStores.getRelationshipStore() );
+        this.groupReader = new RecordReader<>( neoStores.getRelationshipGroupStore() );
+        this.otherGroupReader = new RecordReader<>( neoStores.getRelationshipGroupStore() );
+        this.propertyReader = new RecordReader<>( neoStores.getPropertyStore() );
+        this.otherPropertyReader = new RecordReader<>( neoStores.getPropertyStore() );
+    }
+
+    public void check( TouchedRecords touched )
+    {
+        touched.nodes().forEach( this::checkNode );
+        touched.relationships().forEach( this::checkRelationship );
+        touched.relationshipGroups().forEach( this::checkRelationshipGroup );
+        touched.properties().forEach( this::checkProperty );
+    }
+
+    void checkNode( long id )
+    {
+        checkNode( nodeReader.read( id ) );
+    }
+
+    void checkRelationship( long id )
+    {
+        checkRelationship( relationshipReader.read( id ) );
+    }
+
+    void checkRelationshipGroup( long id )
+    {
+        checkRelationshipGroup( groupReader.read( id ) );
+    }
+
+    void checkProperty( long id )
+    {
+        checkProperty( propertyReader.read( id ) );
+    }
+
+    @Override
+    public void close()
+    {
+        IOUtils.closeAllUnchecked( nodeReader, relationshipReader, otherRelationshipReader, groupReader, otherGroupReader, propertyReader,
+                otherPropertyReader );
+    }
+
+    private void checkNode( NodeRecord node )
+    {
+        if ( !node.inUse() )
+        {
+            return;
+        }
+
+        long nextRel = node.getNextRel();
+        if ( !NULL_REFERENCE.is( nextRel ) )
+        {
+            if ( node.isDense() )
+            {
+                RelationshipGroupRecord group = groupReader.read( nextRel );
+                if ( !group.inUse() )
+                {
+                    reporter.forNode( node ).relationshipGroupNotInUse( group );
+                }
+                else if ( group.getOwningNode() != node.getId() )
+                {
+                    reporter.forNode( node ).relationshipGroupHasOtherOwner( group );
+                }
+            }
+            else
+            {
+                RelationshipRecord relationship = relationshipReader.read( nextRel );
+                NodeLink nodeLink = NodeLink.select( relationship, node.getId() );
+                if ( !relationship.inUse() )
+                {
+                    reporter.forNode( node ).relationshipNotInUse( relationship );
+                }
+                else if ( nodeLink == null )
+                {
+                    reporter.forNode( node ).relationshipForOtherNode( relationship );
+                }
+                else if ( nodeLink == NodeLink.SOURCE && !relationship.isFirstInFirstChain() )
+                {
+                    reporter.forNode( node ).relationshipNotFirstInSourceChain( relationship );
+                }
+                else if ( nodeLink == NodeLink.TARGET && !relationship.isFirstInSecondChain() )
+                {
+                    reporter.forNode( node ).relationshipNotFirstInTargetChain( relationship );
+                }
+            }
+        }
+        checkFirstProperty( node, propertyReader, () -> reporter.forNode( node ) );
+    }
+
+    private void checkRelationship( RelationshipRecord relationship )
+    {
+        if ( !relationship.inUse() )
+        {
+            return;
+        }
+
+        if ( relationship.getType() < 0 )
+        {
+            reporter.forRelationship( relationship ).illegalRelationshipType();
+        }
+        if ( relationship.getFirstNode() < 0 )
+        {
+            reporter.forRelationship( relationship ).illegalSourceNode();
+        }
+        else if ( !nodeReader.read( relationship.getFirstNode() ).inUse() )
+        {
+            reporter.forRelationship( relationship ).sourceNodeNotInUse( nodeReader.record() );
+        }
+        if ( relationship.getSecondNode() < 0 )
+        {
+            reporter.forRelationship( relationship ).illegalTargetNode();
+        }
+        else if ( !nodeReader.read( relationship.getSecondNode() ).inUse() )
+        {
+            reporter.forRelationship( relationship ).targetNodeNotInUse( nodeReader.record() );
+        }
+
+        for ( RelationshipLink link : RelationshipLink.values() )
+        {
+            long otherId = link.link( relationship );
+            if ( link.endOfChain( relationship ) || NULL_REFERENCE.is( otherId ) )
+            {
+                continue;
+            }
+            RelationshipRecord other = otherRelationshipReader.read( otherId );
+            if ( !other.inUse() )
+            {
+                link.reportNotUsedRelationshipReferencedInChain( reporter, relationship, other );
+                continue;
+            }
+            NodeLink nodeLink = NodeLink.select( other, link.node( relationship ) );
+            if ( nodeLink == null )
+            {
+                link.reportOtherNode( reporter, relationship, other );
+            }
+            else if ( link.other( other, nodeLink ) != relationship.getId() )
+            {
+                link.reportDoesNotReferenceBack( reporter, relationship, other );
+            }
+        }
+        checkFirstProperty( relationship, propertyReader, () -> reporter.forRelationship( relationship ) );
+    }
+
+    private void checkRelationshipGroup( RelationshipGroupRecord group )
+    {
+        if ( !group.inUse() )
+        {
+            return;
+        }
+
+        long owningNode = group.getOwningNode();
+        if ( owningNode < 0 )
+        {
+            reporter.forRelationshipGroup( group ).illegalOwner();
+        }
+        else if ( !nodeReader.read( owningNode ).inUse() )
+        {
+            reporter.forRelationshipGroup( group ).ownerNotInUse();
+        }
+
+        if ( !NULL_REFERENCE.is( group.getNext() ) )
+        {
+            RelationshipGroupRecord next = otherGroupReader.read( group.getNext() );
+            if ( !next.inUse() )
+            {
+                reporter.forRelationshipGroup( group ).nextGroupNotInUse();
+            }
+            else
+            {
+                if ( group.getType() >= next.getType() )
+                {
+                    reporter.forRelationshipGroup( group ).invalidTypeSortOrder();
+                }
+                if ( owningNode != next.getOwningNode() )
+                {
+                    reporter.forRelationshipGroup( group ).nextHasOtherOwner( next );
+                }
+            }
+        }
+
+        checkRelationshipGroupRelationshipLink( relationshipReader, group, group.getFirstOut(), RelationshipGroupLink.OUT,
+                g -> reporter.forRelationshipGroup( g ).firstOutgoingRelationshipNotInUse(),
+                g -> reporter.forRelationshipGroup( g ).firstOutgoingRelationshipNotFirstInChain(),
+                g -> reporter.forRelationshipGroup( g ).firstOutgoingRelationshipOfOtherType(),
+                ( g, rel ) -> reporter.forRelationshipGroup( g ).firstOutgoingRelationshipDoesNotShareNodeWithGroup( rel ) );
+        checkRelationshipGroupRelationshipLink( relationshipReader, group, group.getFirstIn(), RelationshipGroupLink.IN,
+                g -> reporter.forRelationshipGroup( g ).firstIncomingRelationshipNotInUse(),
+                g -> reporter.forRelationshipGroup( g ).firstIncomingRelationshipNotFirstInChain(),
+                g -> reporter.forRelationshipGroup( g ).firstIncomingRelationshipOfOtherType(),
+                ( g, rel ) -> reporter.forRelationshipGroup( g ).firstIncomingRelationshipDoesNotShareNodeWithGroup( rel ) );
+        checkRelationshipGroupRelationshipLink( relationshipReader, group, group.getFirstLoop(), RelationshipGroupLink.LOOP,
+                g -> reporter.forRelationshipGroup( g ).firstLoopRelationshipNotInUse(),
+                g -> reporter.forRelationshipGroup( g ).firstLoopRelationshipNotFirstInChain(),
+                g -> reporter.forRelationshipGroup( g ).firstLoopRelationshipOfOtherType(),
+                ( g, rel ) -> reporter.forRelationshipGroup( g ).firstLoopRelationshipDoesNotShareNodeWithGroup( rel ) );
+    }
+
+    private static void checkRelationshipGroupRelationshipLink( RecordReader<RelationshipRecord> relationshipReader, RelationshipGroupRecord group,
+            long relationshipId, RelationshipGroupLink relationshipGroupLink, Consumer<RelationshipGroupRecord> reportRelationshipNotInUse,
+            Consumer<RelationshipGroupRecord> reportRelationshipNotFirstInChain, Consumer<RelationshipGroupRecord> reportRelationshipOfOtherType,
+            BiConsumer<RelationshipGroupRecord,RelationshipRecord> reportNodeNotSharedWithGroup )
+    {
+        if ( NULL_REFERENCE.is( relationshipId ) )
+        {
+            return;
+        }
+
+        RelationshipRecord relationship = relationshipReader.read( relationshipId );
+        if ( !relationship.inUse() )
+        {
+            reportRelationshipNotInUse.accept( group );
+            return;
+        }
+        if ( !relationshipGroupLink.isFirstInChain( relationship ) )
+        {
+            reportRelationshipNotFirstInChain.accept( group );
+        }
+        if ( relationship.getType() != group.getType() )
+        {
+            reportRelationshipOfOtherType.accept( group );
+        }
+        if ( relationship.getFirstNode() != group.getOwningNode() && relationship.getSecondNode() != group.getOwningNode() )
+        {
+            reportNodeNotSharedWithGroup.accept( group, relationship );
+        }
+    }
+
+    private void checkProperty( PropertyRecord property )
+    {
+        if ( !property.inUse() )
+        {
+            return;
+        }
+
+        if ( !NULL_REFERENCE.is( property.getPrevProp() ) )
+        {
+            PropertyRecord prev = otherPropertyReader.read( property.getPrevProp() );
+            if ( !prev.inUse() )
+            {
+                reporter.forProperty( property ).prevNotInUse( prev );
+            }
+            else if ( prev.getNextProp() != property.getId() )
+            {
+                reporter.forProperty( property ).previousDoesNotReferenceBack( prev );
+            }
+        }
+        if ( !NULL_REFERENCE.is( property.getNextProp() ) )
+        {
+            PropertyRecord next = otherPropertyReader.read( property.getNextProp() );
+            if ( !next.inUse() )
+            {
+                reporter.forProperty( property ).nextNotInUse( next );
+            }
+            else if ( next.getPrevProp() != property.getId() )
+            {
+                reporter.forProperty( property ).nextDoesNotReferenceBack( next );
+            }
+        }
+    }
+
+    private static void checkFirstProperty( PrimitiveRecord owner, RecordReader<PropertyRecord> propertyReader,
+            Supplier<? extends ConsistencyReport.PrimitiveConsistencyReport> report )
+    {
+        long firstProperty = owner.getNextProp();
+        if ( NULL_REFERENCE.is( firstProperty ) )
+        {
+            return;
+        }
+
+        PropertyRecord property = propertyReader.read( firstProperty );
+        if ( !property.inUse() )
+        {
+            report.get().propertyNotInUse( property );
+        }
+        else if ( !NULL_REFERENCE.is( property.getPrevProp() ) )
+        {
+            report.get().propertyNotFirstInChain( property );
+        }
+    }
+}
@@ -19,6 +19,8 @@
  */
 package org.neo4j.consistency.newchecker;
 
+import java.io.File;
+
 import org.neo4j.consistency.checking.cache.CacheSlots;
 import org.neo4j.internal.helpers.collection.LongRange;
 import org.neo4j.internal.helpers.collection.PrefetchingIterator;
@@ -39,13 +41,31 @@ public class NodeBasedMemoryLimiter extends PrefetchingIterator<LongRange>
         NodeBasedMemoryLimiter create( long pageCacheMemory, long highNodeId );
     }
 
-    public static Factory DEFAULT = ( pageCacheMemory, highNodeId ) ->
+    public static Factory DEFAULT = defaultFactory( null );
+
+    /**
+     * Like {@link #DEFAULT}, but instead of splitting the node id space into multiple ranges when the per-node cache doesn't fit
+     * in the available memory, the whole node id space is checked in one range with the cache backed by a file in the page cache.
+     * This trades multiple sequential passes over the other stores for random access into the page cached node cache.
+     *
+     * @param nodeCacheDirectory directory to create the temporary node cache file in, it's deleted when the check is done.
+     * @return factory of limiters which can choose a page cached node cache.
+     */
+    public static Factory pageCachedWhenNeeded( File nodeCacheDirectory )
+    {
+        return defaultFactory( nodeCacheDirectory );
+    }
+
+    private static Factory defaultFactory( File pageCachedNodeCacheDirectory )
     {
-        long jvmMemory = Runtime.getRuntime().maxMemory();
-        long machineMemory = OsBeanUtil.getTotalPhysicalMemory();
-        long perNodeMemory = CacheSlots.CACHE_LINE_SIZE_BYTES;
-        return new NodeBasedMemoryLimiter( pageCacheMemory, jvmMemory, machineMemory, perNodeMemory, highNodeId );
-    };
+        return ( pageCacheMemory, highNodeId ) ->
+        {
+            long jvmMemory = Runtime.getRuntime().maxMemory();
+            long machineMemory = OsBeanUtil.getTotalPhysicalMemory();
+            long perNodeMemory = CacheSlots.CACHE_LINE_SIZE_BYTES;
+            return new NodeBasedMemoryLimiter( pageCacheMemory, jvmMemory, machineMemory, perNodeMemory, highNodeId, pageCachedNodeCacheDirectory );
+        };
+    }
 
     // Original parameters
     private final long pageCacheMemory;
@@ -60,10 +80,22 @@ public class NodeBasedMemoryLimiter extends PrefetchingIterator<LongRange>
 
     private final long highNodeId;
     private final long nodesPerRange;
+    private final boolean pageCachedNodeCache;
+    private final File nodeCacheDirectory;
     private long currentRangeStart;
     private long currentRangeEnd;
 
     public NodeBasedMemoryLimiter( long pageCacheMemory, long jvmMemory, long machineMemory, long requiredMemoryPerNode, long highNodeId )
+    {
+        this( pageCacheMemory, jvmMemory, machineMemory, requiredMemoryPerNode, highNodeId, null );
+    }
+
+    /**
+     * @param pageCachedNodeCacheDirectory directory to back the node cache by a file in the page cache in, if it doesn't fit in memory,
+     * or {@code null} to split the node id space into multiple ranges instead.
+     */
+    public NodeBasedMemoryLimiter( long pageCacheMemory, long jvmMemory, long machineMemory, long requiredMemoryPerNode, long highNodeId,
+            File pageCachedNodeCacheDirectory )
     {
         // Store the original parameters so that they can be printed for reference later
         this.pageCacheMemory = pageCacheMemory;
@@ -85,7 +117,11 @@ public class NodeBasedMemoryLimiter extends PrefetchingIterator<LongRange>
         assert requiredMemoryPerNode > 0;
 
         this.highNodeId = highNodeId;
-        this.nodesPerRange = max( 1, min( highNodeId, availableMemory / requiredMemoryPerNode ) );
+        long nodesFittingInMemory = max( 1, min( highNodeId, availableMemory / requiredMemoryPerNode ) );
+        // Only back the node cache by the page cache if it actually saves passes, otherwise the off-heap cache is always faster
+        this.pageCachedNodeCache = pageCachedNodeCacheDirectory != null && nodesFittingInMemory < highNodeId;
+        this.nodeCacheDirectory = pageCachedNodeCacheDirectory;
+        this.nodesPerRange = pageCachedNodeCache ? max( 1, highNodeId ) : nodesFittingInMemory;
         this.currentRangeStart = 0;
         this.currentRangeEnd = min( this.highNodeId, nodesPerRange );
     }
@@ -100,6 +136,22 @@ public class NodeBasedMemoryLimiter extends PrefetchingIterator<LongRange>
         return nodesPerRange;
     }
 
+    /**
+     * @return whether or not the per-node cache should be backed by the page cache rather than off-heap memory.
+     */
+    boolean isPageCachedNodeCache()
+    {
+        return pageCachedNodeCache;
+    }
+
+    /**
+     * @return directory to create the file backing a {@link #isPageCachedNodeCache() page cached} node cache in.
+     */
+    File nodeCacheDirectory()
+    {
+        return nodeCacheDirectory;
+    }
+
     @Override
     protected LongRange fetchNextOrNull()
     {
@@ -134,6 +186,7 @@ public class NodeBasedMemoryLimiter extends PrefetchingIterator<LongRange>
         builder.append( format( "%n  occupiedMemory:%s", bytesToString( occupiedMemory ) ) );
         builder.append( format( "%n  ==> numberOfRanges:%d", numberOfRanges() ) );
         builder.append( format( "%n  ==> numberOfNodesPerRange:%d", nodesPerRange ) );
+        builder.append( format( "%n  ==> nodeCache:%s", pageCachedNodeCache ? "page cached" : "off-heap" ) );
         return builder.toString();
     }
 
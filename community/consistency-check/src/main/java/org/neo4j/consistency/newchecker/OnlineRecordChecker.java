@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency.newchecker;
+
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+
+import java.io.Flushable;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.consistency.report.ConsistencyReport;
+import org.neo4j.consistency.report.ConsistencyReporter;
+import org.neo4j.consistency.report.ConsistencySummaryStatistics;
+import org.neo4j.consistency.report.InconsistencyMessageLogger;
+import org.neo4j.consistency.report.InconsistencyReport;
+import org.neo4j.consistency.store.DirectRecordAccess;
+import org.neo4j.internal.helpers.CancellationRequest;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.RecordStore;
+import org.neo4j.kernel.impl.store.StoreAccess;
+import org.neo4j.logging.NullLog;
+import org.neo4j.storageengine.api.TransactionIdStore;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static org.neo4j.consistency.newchecker.ParallelExecution.DEFAULT_IDS_PER_CHUNK;
+
+/**
+ * Checks the node, relationship, relationship group and property stores of a running database, i.e. without requiring it to be
+ * shut down or copied. The stores are scanned in chunks of ids using the same one-step pointer checks as {@link IncrementalRecordChecker}.
+ * <p>
+ * Since records are read while transactions are being applied, a record may look inconsistent just because a transaction has only
+ * been partially applied at the time of reading. Therefore each chunk is first checked silently and the records which looked inconsistent
+ * are checked again after all transactions committed at that point have been closed, a couple of times over. Only inconsistencies which
+ * are seen in all of those rounds are reported.
+ * <p>
+ * After each chunk the {@link IOLimiter} is consulted with the number of pages of that chunk, so that the checking can be throttled
+ * to not compete with live traffic for I/O, like how check pointing is throttled.
+ * <p>
+ * The check can be stopped through the {@link CancellationRequest} it's given, which is consulted between chunks and while waiting
+ * for transactions to close.
+ */
+public class OnlineRecordChecker
+{
+    static final int CONFIRMATION_ROUNDS = 3;
+    private static final long MAX_CLOSED_TRANSACTION_WAIT_NANOS = TimeUnit.SECONDS.toNanos( 10 );
+    private static final Flushable NO_FLUSH = () -> {};
+
+    private final NeoStores neoStores;
+    private final TransactionIdStore transactionIdStore;
+    private final IOLimiter ioLimiter;
+    private final ConsistencyReport.Reporter reporter;
+    private final int idsPerChunk;
+    private final ConsistencySummaryStatistics probeSummary = new ConsistencySummaryStatistics();
+    private final ConsistencyReport.Reporter probeReporter;
+    private final CancellationRequest cancellation;
+
+    public OnlineRecordChecker( NeoStores neoStores, TransactionIdStore transactionIdStore, IOLimiter ioLimiter, CancellationRequest cancellation,
+            ConsistencyReport.Reporter reporter )
+    {
+        this( neoStores, transactionIdStore, ioLimiter, cancellation, reporter, DEFAULT_IDS_PER_CHUNK );
+    }
+
+    OnlineRecordChecker( NeoStores neoStores, TransactionIdStore transactionIdStore, IOLimiter ioLimiter, CancellationRequest cancellation,
+            ConsistencyReport.Reporter reporter, int idsPerChunk )
+    {
+        this.neoStores = neoStores;
+        this.transactionIdStore = transactionIdStore;
+        this.ioLimiter = ioLimiter;
+        this.cancellation = cancellation;
+        this.reporter = reporter;
+        this.idsPerChunk = idsPerChunk;
+        this.probeReporter = new ConsistencyReporter( new DirectRecordAccess( new StoreAccess( neoStores ), null ),
+                new InconsistencyReport( new InconsistencyMessageLogger( NullLog.getInstance() ), probeSummary ) );
+    }
+
+    public void check()
+    {
+        try ( IncrementalRecordChecker probe = new IncrementalRecordChecker( neoStores, probeReporter );
+                IncrementalRecordChecker checker = new IncrementalRecordChecker( neoStores, reporter ) )
+        {
+            long stamp = IOLimiter.INITIAL_STAMP;
+            for ( Store store : Store.values() )
+            {
+                RecordStore<?> recordStore = store.recordStore( neoStores );
+                long highId = recordStore.getHighId();
+                int recordsPerPage = recordStore.getRecordsPerPage();
+                for ( long from = 0; from < highId && !cancellation.cancellationRequested(); from += idsPerChunk )
+                {
+                    long to = min( highId, from + idsPerChunk );
+                    MutableLongList suspects = new LongArrayList();
+                    for ( long id = from; id < to; id++ )
+                    {
+                        probe( probe, store, id, suspects );
+                    }
+                    for ( int round = 0; round < CONFIRMATION_ROUNDS && !suspects.isEmpty(); round++ )
+                    {
+                        awaitClosed( transactionIdStore.getLastCommittedTransactionId() );
+                        MutableLongList confirmed = new LongArrayList();
+                        suspects.forEach( id -> probe( probe, store, id, confirmed ) );
+                        suspects = confirmed;
+                    }
+                    if ( cancellation.cancellationRequested() )
+                    {
+                        // The suspects may not have been given the chance to be confirmed, so don't report them
+                        return;
+                    }
+                    suspects.forEach( id -> store.check( checker, id ) );
+                    stamp = ioLimiter.maybeLimitIO( stamp, toIntExact( (to - from + recordsPerPage - 1) / recordsPerPage ), NO_FLUSH );
+                }
+            }
+        }
+    }
+
+    private void probe( IncrementalRecordChecker probe, Store store, long id, MutableLongList suspects )
+    {
+        long reportedBefore = probeSummary.getTotalInconsistencyCount() + probeSummary.getTotalWarningCount();
+        store.check( probe, id );
+        if ( probeSummary.getTotalInconsistencyCount() + probeSummary.getTotalWarningCount() != reportedBefore )
+        {
+            suspects.add( id );
+        }
+    }
+
+    /**
+     * Waits, for a limited time, until the given transaction and all before it have been closed, i.e. applied to the store.
+     *
+     * @return whether or not the transaction was closed before giving up.
+     */
+    boolean awaitClosed( long transactionId )
+    {
+        return awaitClosed( transactionId, MAX_CLOSED_TRANSACTION_WAIT_NANOS );
+    }
+
+    boolean awaitClosed( long transactionId, long maxWaitNanos )
+    {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while ( transactionIdStore.getLastClosedTransactionId() < transactionId )
+        {
+            if ( System.nanoTime() >= deadline || cancellation.cancellationRequested() )
+            {
+                return false;
+            }
+            parkNanos( TimeUnit.MILLISECONDS.toNanos( 1 ) );
+        }
+        return true;
+    }
+
+    private enum Store
+    {
+        NODE
+        {
+            @Override
+            RecordStore<?> recordStore( NeoStores neoStores )
+            {
+                return neoStores.getNodeStore();
+            }
+
+            @Override
+            void check( IncrementalRecordChecker checker, long id )
+            {
+                checker.checkNode( id );
+            }
+        },
+        RELATIONSHIP
+        {
+            @Override
+            RecordStore<?> recordStore( NeoStores neoStores )
+            {
+                return neoStores.getRelationshipStore();
+            }
+
+            @Override
+            void check( IncrementalRecordChecker checker, long id )
+            {
+                checker.checkRelationship( id );
+            }
+        },
+        RELATIONSHIP_GROUP
+        {
+            @Override
+            RecordStore<?> recordStore( NeoStores neoStores )
+            {
+                return neoStores.getRelationshipGroupStore();
+            }
+
+            @Override
+            void check( IncrementalRecordChecker checker, long id )
+            {
+                checker.checkRelationshipGroup( id );
+            }
+        },
+        PROPERTY
+        {
+            @Override
+            RecordStore<?> recordStore( NeoStores neoStores )
+            {
+                return neoStores.getPropertyStore();
+            }
+
+            @Override
+            void check( IncrementalRecordChecker checker, long id )
+            {
+                checker.checkProperty( id );
+            }
+        };
+
+        abstract RecordStore<?> recordStore( NeoStores neoStores );
+
+        abstract void check( IncrementalRecordChecker checker, long id );
+    }
+}
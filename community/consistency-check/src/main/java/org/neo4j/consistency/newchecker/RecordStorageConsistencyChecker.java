@@ -23,11 +23,16 @@ import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
 import org.eclipse.collections.api.set.primitive.MutableIntSet;
 import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.common.EntityType;
 import org.neo4j.configuration.Config;
 import org.neo4j.consistency.RecordType;
+import org.neo4j.consistency.checking.ByteArrayBitsManipulator;
 import org.neo4j.consistency.checking.cache.CacheAccess;
 import org.neo4j.consistency.checking.cache.DefaultCacheAccess;
 import org.neo4j.consistency.checking.full.ConsistencyCheckIncompleteException;
@@ -40,10 +45,13 @@ import org.neo4j.consistency.statistics.Counts;
 import org.neo4j.consistency.store.DirectRecordAccess;
 import org.neo4j.consistency.store.synthetic.LabelScanIndex;
 import org.neo4j.counts.CountsStore;
+import org.neo4j.internal.batchimport.cache.ByteArray;
+import org.neo4j.internal.batchimport.cache.PageCachedNumberArrayFactory;
 import org.neo4j.internal.helpers.collection.LongRange;
 import org.neo4j.internal.helpers.progress.ProgressMonitorFactory;
 import org.neo4j.internal.index.label.LabelScanStore;
 import org.neo4j.internal.recordstorage.RecordStorageEngine;
+import org.neo4j.io.IOUtils;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.kernel.impl.store.StoreAccess;
@@ -72,6 +80,7 @@ public class RecordStorageConsistencyChecker implements AutoCloseable
     private final TokenHolders tokenHolders;
     private final CountsStore counts;
     private final LabelScanStore labelScanStore;
+    private final ByteArray nodeCache;
     private final CacheAccess cacheAccess;
     private final ConsistencyReporter reporter;
     private final CountsState observedCounts;
@@ -113,7 +122,8 @@ public class RecordStorageConsistencyChecker implements AutoCloseable
                 DEFAULT_IDS_PER_CHUNK );
         RecordLoading recordLoading = new RecordLoading( neoStores );
         this.limiter = instantiateMemoryLimiter( memoryLimit );
-        this.cacheAccess = new DefaultCacheAccess( defaultByteArray( limiter.rangeSize() ), Counts.NONE, numberOfThreads );
+        this.nodeCache = instantiateNodeCache( pageCache, limiter );
+        this.cacheAccess = new DefaultCacheAccess( nodeCache, Counts.NONE, numberOfThreads );
         this.observedCounts = new CountsState( neoStores, cacheAccess );
         this.progress = progressFactory.multipleParts( "Consistency check" );
         this.context = new CheckerContext( neoStores, indexAccessors, labelScanStore, execution, reporter,
@@ -201,11 +211,32 @@ public class RecordStorageConsistencyChecker implements AutoCloseable
         return memoryLimit.create( pageCacheMemory, nodeCount );
     }
 
+    private static ByteArray instantiateNodeCache( PageCache pageCache, NodeBasedMemoryLimiter limiter )
+    {
+        if ( limiter.isPageCachedNodeCache() )
+        {
+            // Temporary file in the configured node cache directory, deleted when the array is closed.
+            // The checker threads access the cache randomly and a lot, so let each of them keep its page cursor open
+            File directory = limiter.nodeCacheDirectory();
+            try
+            {
+                Files.createDirectories( directory.toPath() );
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+            return new PageCachedNumberArrayFactory( pageCache, directory, true )
+                    .newByteArray( limiter.rangeSize(), new byte[ByteArrayBitsManipulator.MAX_BYTES] );
+        }
+        return defaultByteArray( limiter.rangeSize() );
+    }
+
     @Override
     public void close() throws Exception
     {
         context.cancel();
-        observedCounts.close();
+        IOUtils.closeAll( observedCounts, nodeCache );
     }
 
     private void checkCounts()
@@ -87,7 +87,8 @@ class SafePropertyChainReader implements AutoCloseable
         lightClear( seenRecords );
         long propertyRecordId = entity.getNextProp();
         long previousRecordId = NULL_REFERENCE.longValue();
-        boolean chainIsOk = true;
+        // Properties inlined in the entity record come before, and share key uniqueness with, the ones in its chain
+        boolean chainIsOk = !entity.hasInlinedProperties() || readBlocks( intoValues, entity, primitiveReporter, entity.getInlinedProperties() );
         while ( !NULL_REFERENCE.is( propertyRecordId ) && !context.isCancelled() )
         {
             if ( !seenRecords.add( propertyRecordId ) )
@@ -120,78 +121,89 @@ class SafePropertyChainReader implements AutoCloseable
                     chainIsOk = false;
                 }
 
-                for ( PropertyBlock block : propertyRecord )
+                if ( !readBlocks( intoValues, entity, primitiveReporter, propertyRecord ) )
                 {
-                    int propertyKeyId = block.getKeyIndexId();
-                    if ( !checkValidToken( propertyRecord, propertyKeyId, context.tokenHolders.propertyKeyTokens(), neoStores.getPropertyKeyTokenStore(),
-                            ( property, token ) -> reporter.forProperty( property ).invalidPropertyKey( block ),
-                            ( property, token ) -> reporter.forProperty( property ).keyNotInUse( block, token ) ) )
-                    {
-                        chainIsOk = false;
-                    }
-                    PropertyType type = block.forceGetType();
-                    Value value = Values.NO_VALUE;
-                    if ( type == null )
-                    {
-                        reporter.forProperty( propertyRecord ).invalidPropertyType( block );
-                    }
-                    else
+                    chainIsOk = false;
+                }
+            }
+            previousRecordId = propertyRecordId;
+            propertyRecordId = propertyRecord.getNextProp();
+        }
+        return chainIsOk;
+    }
+
+    private <PRIMITIVE extends PrimitiveRecord> boolean readBlocks( MutableIntObjectMap<Value> intoValues, PRIMITIVE entity,
+            Function<PRIMITIVE,ConsistencyReport.PrimitiveConsistencyReport> primitiveReporter, PropertyRecord propertyRecord )
+    {
+        boolean blocksAreOk = true;
+        for ( PropertyBlock block : propertyRecord )
+        {
+            int propertyKeyId = block.getKeyIndexId();
+            if ( !checkValidToken( propertyRecord, propertyKeyId, context.tokenHolders.propertyKeyTokens(), neoStores.getPropertyKeyTokenStore(),
+                    ( property, token ) -> reporter.forProperty( property ).invalidPropertyKey( block ),
+                    ( property, token ) -> reporter.forProperty( property ).keyNotInUse( block, token ) ) )
+            {
+                blocksAreOk = false;
+            }
+            PropertyType type = block.forceGetType();
+            Value value = Values.NO_VALUE;
+            if ( type == null )
+            {
+                reporter.forProperty( propertyRecord ).invalidPropertyType( block );
+            }
+            else
+            {
+                try
+                {
+                    switch ( type )
                     {
-                        try
+                    case STRING:
+                        dynamicRecords.clear();
+                        if ( safeLoadDynamicRecordChain( record -> dynamicRecords.add( record.clone() ), stringReader, seenDynamicRecordIds,
+                                block.getSingleValueLong(), stringStoreBlockSize, NO_DYNAMIC_HANDLER,
+                                ( id, record ) -> reporter.forProperty( propertyRecord ).stringNotInUse( block, record ),
+                                ( id, record ) -> reporter.forDynamicBlock( RecordType.STRING_PROPERTY, stringReader.record() ).nextNotInUse( record ),
+                                ( id, record ) -> reporter.forProperty( propertyRecord ).stringEmpty( block, record ),
+                                record -> reporter.forDynamicBlock( RecordType.STRING_PROPERTY, record ).recordNotFullReferencesNext(),
+                                record -> reporter.forDynamicBlock( RecordType.STRING_PROPERTY, record ).invalidLength() ) )
                         {
-                            switch ( type )
-                            {
-                            case STRING:
-                                dynamicRecords.clear();
-                                if ( safeLoadDynamicRecordChain( record -> dynamicRecords.add( record.clone() ), stringReader, seenDynamicRecordIds,
-                                        block.getSingleValueLong(), stringStoreBlockSize, NO_DYNAMIC_HANDLER,
-                                        ( id, record ) -> reporter.forProperty( propertyRecord ).stringNotInUse( block, record ),
-                                        ( id, record ) -> reporter.forDynamicBlock( RecordType.STRING_PROPERTY, stringReader.record() ).nextNotInUse( record ),
-                                        ( id, record ) -> reporter.forProperty( propertyRecord ).stringEmpty( block, record ),
-                                        record -> reporter.forDynamicBlock( RecordType.STRING_PROPERTY, record ).recordNotFullReferencesNext(),
-                                        record -> reporter.forDynamicBlock( RecordType.STRING_PROPERTY, record ).invalidLength() ) )
-                                {
-                                    value = Values.stringValue( propertyStore.getStringFor( dynamicRecords ) );
-                                }
-                                break;
-                            case ARRAY:
-                                dynamicRecords.clear();
-                                if ( safeLoadDynamicRecordChain( record -> dynamicRecords.add( record.clone() ), arrayReader, seenDynamicRecordIds,
-                                        block.getSingleValueLong(), arrayStoreBlockSize, NO_DYNAMIC_HANDLER,
-                                        ( id, record ) -> reporter.forProperty( propertyRecord ).arrayNotInUse( block, record ),
-                                        ( id, record ) -> reporter.forDynamicBlock( RecordType.ARRAY_PROPERTY, arrayReader.record() ).nextNotInUse( record ),
-                                        ( id, record ) -> reporter.forProperty( propertyRecord ).arrayEmpty( block, record ),
-                                        record -> reporter.forDynamicBlock( RecordType.ARRAY_PROPERTY, record ).recordNotFullReferencesNext(),
-                                        record -> reporter.forDynamicBlock( RecordType.ARRAY_PROPERTY, record ).invalidLength() ) )
-                                {
-                                    value = propertyStore.getArrayFor( dynamicRecords );
-                                }
-                                break;
-                            default:
-                                value = type.value( block, null );
-                                break;
-                            }
+                            value = Values.stringValue( propertyStore.getStringFor( dynamicRecords ) );
                         }
-                        catch ( Exception e )
+                        break;
+                    case ARRAY:
+                        dynamicRecords.clear();
+                        if ( safeLoadDynamicRecordChain( record -> dynamicRecords.add( record.clone() ), arrayReader, seenDynamicRecordIds,
+                                block.getSingleValueLong(), arrayStoreBlockSize, NO_DYNAMIC_HANDLER,
+                                ( id, record ) -> reporter.forProperty( propertyRecord ).arrayNotInUse( block, record ),
+                                ( id, record ) -> reporter.forDynamicBlock( RecordType.ARRAY_PROPERTY, arrayReader.record() ).nextNotInUse( record ),
+                                ( id, record ) -> reporter.forProperty( propertyRecord ).arrayEmpty( block, record ),
+                                record -> reporter.forDynamicBlock( RecordType.ARRAY_PROPERTY, record ).recordNotFullReferencesNext(),
+                                record -> reporter.forDynamicBlock( RecordType.ARRAY_PROPERTY, record ).invalidLength() ) )
                         {
-                            reporter.forProperty( propertyRecord ).invalidPropertyValue( propertyRecord.getId(), block.getKeyIndexId() );
+                            value = propertyStore.getArrayFor( dynamicRecords );
                         }
-                    }
-                    if ( value == Values.NO_VALUE )
-                    {
-                        chainIsOk = false;
-                    }
-                    else if ( propertyKeyId >= 0 && intoValues.put( propertyKeyId, value ) != null )
-                    {
-                        primitiveReporter.apply( entity ).propertyKeyNotUniqueInChain();
-                        chainIsOk = false;
+                        break;
+                    default:
+                        value = type.value( block, null );
+                        break;
                     }
                 }
+                catch ( Exception e )
+                {
+                    reporter.forProperty( propertyRecord ).invalidPropertyValue( propertyRecord.getId(), block.getKeyIndexId() );
+                }
+            }
+            if ( value == Values.NO_VALUE )
+            {
+                blocksAreOk = false;
+            }
+            else if ( propertyKeyId >= 0 && intoValues.put( propertyKeyId, value ) != null )
+            {
+                primitiveReporter.apply( entity ).propertyKeyNotUniqueInChain();
+                blocksAreOk = false;
             }
-            previousRecordId = propertyRecordId;
-            propertyRecordId = propertyRecord.getNextProp();
         }
-        return chainIsOk;
+        return blocksAreOk;
     }
 
     @Override
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency.newchecker;
+
+import org.eclipse.collections.api.set.primitive.LongSet;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+
+import java.io.IOException;
+
+import org.neo4j.internal.recordstorage.Command;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
+import org.neo4j.kernel.impl.transaction.log.TransactionCursor;
+import org.neo4j.storageengine.api.StorageCommand;
+
+import static org.neo4j.kernel.impl.store.record.Record.NULL_REFERENCE;
+
+/**
+ * The ids of all node, relationship, relationship group and property records which were changed by a range of transactions,
+ * together with the ids of records directly linked to them, both before and after the change. This is what an incremental
+ * consistency check, see {@link IncrementalRecordChecker}, needs to look at to verify that those transactions left the store consistent.
+ */
+public class TouchedRecords
+{
+    private final MutableLongSet nodes = new LongHashSet();
+    private final MutableLongSet relationships = new LongHashSet();
+    private final MutableLongSet relationshipGroups = new LongHashSet();
+    private final MutableLongSet properties = new LongHashSet();
+    private long lastTransactionId;
+
+    TouchedRecords( long lastTransactionId )
+    {
+        this.lastTransactionId = lastTransactionId;
+    }
+
+    /**
+     * Reads all transactions committed after {@code afterTransactionId} from the transaction log and collects the records they touched.
+     *
+     * @param transactionStore the transaction log to read from.
+     * @param afterTransactionId the last transaction id which has already been checked, transactions after this one will be collected.
+     * @return the records touched by the transactions after {@code afterTransactionId}.
+     * @throws IOException on I/O error reading the log, or {@link org.neo4j.kernel.impl.transaction.log.NoSuchTransactionException}
+     * if the log no longer contains the transaction following {@code afterTransactionId}.
+     */
+    public static TouchedRecords collect( LogicalTransactionStore transactionStore, long afterTransactionId ) throws IOException
+    {
+        TouchedRecords touched = new TouchedRecords( afterTransactionId );
+        try ( TransactionCursor transactions = transactionStore.getTransactions( afterTransactionId + 1 ) )
+        {
+            while ( transactions.next() )
+            {
+                CommittedTransactionRepresentation transaction = transactions.get();
+                transaction.accept( touched::add );
+                touched.lastTransactionId = transaction.getCommitEntry().getTxId();
+            }
+        }
+        return touched;
+    }
+
+    boolean add( StorageCommand command )
+    {
+        if ( command instanceof Command.NodeCommand )
+        {
+            Command.NodeCommand nodeCommand = (Command.NodeCommand) command;
+            nodes.add( nodeCommand.getKey() );
+        }
+        else if ( command instanceof Command.RelationshipCommand )
+        {
+            Command.RelationshipCommand relationshipCommand = (Command.RelationshipCommand) command;
+            relationships.add( relationshipCommand.getKey() );
+            addRelationshipNeighbours( relationshipCommand.getBefore() );
+            addRelationshipNeighbours( relationshipCommand.getAfter() );
+        }
+        else if ( command instanceof Command.RelationshipGroupCommand )
+        {
+            Command.RelationshipGroupCommand groupCommand = (Command.RelationshipGroupCommand) command;
+            relationshipGroups.add( groupCommand.getKey() );
+            addRelationshipGroupNeighbours( groupCommand.getBefore() );
+            addRelationshipGroupNeighbours( groupCommand.getAfter() );
+        }
+        else if ( command instanceof Command.PropertyCommand )
+        {
+            Command.PropertyCommand propertyCommand = (Command.PropertyCommand) command;
+            properties.add( propertyCommand.getKey() );
+            addPropertyNeighbours( propertyCommand.getBefore() );
+            addPropertyNeighbours( propertyCommand.getAfter() );
+        }
+        return false;
+    }
+
+    private void addRelationshipNeighbours( RelationshipRecord relationship )
+    {
+        if ( !relationship.inUse() )
+        {
+            return;
+        }
+        addIfNotNull( nodes, relationship.getFirstNode() );
+        addIfNotNull( nodes, relationship.getSecondNode() );
+        if ( !relationship.isFirstInFirstChain() )
+        {
+            addIfNotNull( relationships, relationship.getFirstPrevRel() );
+        }
+        if ( !relationship.isFirstInSecondChain() )
+        {
+            addIfNotNull( relationships, relationship.getSecondPrevRel() );
+        }
+        addIfNotNull( relationships, relationship.getFirstNextRel() );
+        addIfNotNull( relationships, relationship.getSecondNextRel() );
+    }
+
+    private void addRelationshipGroupNeighbours( RelationshipGroupRecord group )
+    {
+        if ( !group.inUse() )
+        {
+            return;
+        }
+        addIfNotNull( nodes, group.getOwningNode() );
+        addIfNotNull( relationshipGroups, group.getNext() );
+    }
+
+    private void addPropertyNeighbours( PropertyRecord property )
+    {
+        if ( property.isNodeSet() )
+        {
+            nodes.add( property.getNodeId() );
+        }
+        else if ( property.isRelSet() )
+        {
+            relationships.add( property.getRelId() );
+        }
+        if ( !property.inUse() )
+        {
+            return;
+        }
+        addIfNotNull( properties, property.getPrevProp() );
+        addIfNotNull( properties, property.getNextProp() );
+    }
+
+    private static void addIfNotNull( MutableLongSet set, long id )
+    {
+        if ( !NULL_REFERENCE.is( id ) )
+        {
+            set.add( id );
+        }
+    }
+
+    LongSet nodes()
+    {
+        return nodes;
+    }
+
+    LongSet relationships()
+    {
+        return relationships;
+    }
+
+    LongSet relationshipGroups()
+    {
+        return relationshipGroups;
+    }
+
+    LongSet properties()
+    {
+        return properties;
+    }
+
+    /**
+     * @return the id of the last transaction which was read, or the transaction id given to {@link #collect(LogicalTransactionStore, long)}
+     * if there were no transactions after it.
+     */
+    public long lastTransactionId()
+    {
+        return lastTransactionId;
+    }
+
+    /**
+     * @return the total number of touched records.
+     */
+    public long size()
+    {
+        return nodes.size() + relationships.size() + relationshipGroups.size() + properties.size();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format( "%s[lastTx:%d, nodes:%d, relationships:%d, relationshipGroups:%d, properties:%d]", getClass().getSimpleName(),
+                lastTransactionId, nodes.size(), relationships.size(), relationshipGroups.size(), properties.size() );
+    }
+}
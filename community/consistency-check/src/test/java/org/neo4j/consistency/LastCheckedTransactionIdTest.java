@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.rule.TestDirectory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.neo4j.consistency.ConsistencyCheckService.NO_CHECKED_TRANSACTION;
+import static org.neo4j.consistency.ConsistencyCheckService.readLastCheckedTransactionId;
+import static org.neo4j.consistency.ConsistencyCheckService.writeLastCheckedTransactionId;
+
+@EphemeralTestDirectoryExtension
+class LastCheckedTransactionIdTest
+{
+    @Inject
+    private TestDirectory directory;
+    @Inject
+    private EphemeralFileSystemAbstraction fs;
+
+    @Test
+    void shouldReadNoCheckedTransactionIfThereIsNoFile() throws IOException
+    {
+        assertEquals( NO_CHECKED_TRANSACTION, readLastCheckedTransactionId( fs, directory.file( "last-checked-transaction-neo4j" ) ) );
+    }
+
+    @Test
+    void shouldReadWrittenTransactionId() throws IOException
+    {
+        // given
+        File file = directory.file( "last-checked-transaction-neo4j" );
+
+        // when
+        writeLastCheckedTransactionId( fs, file, 42 );
+
+        // then
+        assertEquals( 42, readLastCheckedTransactionId( fs, file ) );
+    }
+
+    @Test
+    void shouldReplaceWrittenTransactionIdWithoutLeavingTemporaryFileBehind() throws IOException
+    {
+        // given
+        File file = directory.file( "last-checked-transaction-neo4j" );
+        writeLastCheckedTransactionId( fs, file, 42 );
+
+        // when
+        writeLastCheckedTransactionId( fs, file, 1337 );
+
+        // then
+        assertEquals( 1337, readLastCheckedTransactionId( fs, file ) );
+        assertFalse( fs.fileExists( new File( file.getParentFile(), file.getName() + ".tmp" ) ) );
+    }
+
+    @Test
+    void shouldNotLetTemporaryFileOfInterruptedWriteAffectTransactionId() throws IOException
+    {
+        // given
+        File file = directory.file( "last-checked-transaction-neo4j" );
+        writeLastCheckedTransactionId( fs, file, 42 );
+        write( new File( file.getParentFile(), file.getName() + ".tmp" ), "13" );
+
+        // then
+        assertEquals( 42, readLastCheckedTransactionId( fs, file ) );
+
+        // and when
+        writeLastCheckedTransactionId( fs, file, 50 );
+
+        // then
+        assertEquals( 50, readLastCheckedTransactionId( fs, file ) );
+    }
+
+    @Test
+    void shouldCreateMissingReportDirectory() throws IOException
+    {
+        // given
+        File file = new File( directory.directory( "reports" ), "sub/last-checked-transaction-neo4j" );
+
+        // when
+        writeLastCheckedTransactionId( fs, file, 42 );
+
+        // then
+        assertEquals( 42, readLastCheckedTransactionId( fs, file ) );
+    }
+
+    @Test
+    void shouldReadNoCheckedTransactionFromMalformedFile() throws IOException
+    {
+        File file = directory.file( "last-checked-transaction-neo4j" );
+
+        write( file, "not a transaction id" );
+        assertEquals( NO_CHECKED_TRANSACTION, readLastCheckedTransactionId( fs, file ) );
+
+        write( file, "" );
+        assertEquals( NO_CHECKED_TRANSACTION, readLastCheckedTransactionId( fs, file ) );
+    }
+
+    @Test
+    void shouldTolerateSurroundingWhitespace() throws IOException
+    {
+        File file = directory.file( "last-checked-transaction-neo4j" );
+        write( file, " 42 \n" );
+        assertEquals( 42, readLastCheckedTransactionId( fs, file ) );
+    }
+
+    private void write( File file, String contents ) throws IOException
+    {
+        try ( Writer writer = fs.openAsWriter( file, UTF_8, false ) )
+        {
+            writer.write( contents );
+        }
+    }
+}
@@ -21,10 +21,13 @@ package org.neo4j.consistency.newchecker;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
+
 import org.neo4j.internal.helpers.collection.LongRange;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class NodeBasedMemoryLimiterTest
 {
@@ -67,6 +70,31 @@ class NodeBasedMemoryLimiterTest
         assertEquals( 10, limiter.numberOfRanges() );
     }
 
+    @Test
+    void shouldUseSingleRangeWithPageCachedNodeCacheIfWholeRangeDontFit()
+    {
+        // given
+        NodeBasedMemoryLimiter limiter = new NodeBasedMemoryLimiter( 100, 100, 1000, 10, 200, new File( "nodeCache" ) );
+
+        // then
+        assertTrue( limiter.isPageCachedNodeCache() );
+        assertEquals( 1, limiter.numberOfRanges() );
+        assertRange( limiter.next(), 0, 200 );
+        assertFalse( limiter.hasNext() );
+    }
+
+    @Test
+    void shouldNotUsePageCachedNodeCacheIfWholeRangeFits()
+    {
+        // given
+        NodeBasedMemoryLimiter limiter = new NodeBasedMemoryLimiter( 100, 100, 250, 1, 40, new File( "nodeCache" ) );
+
+        // then
+        assertFalse( limiter.isPageCachedNodeCache() );
+        assertEquals( 1, limiter.numberOfRanges() );
+        assertRange( limiter.next(), 0, 40 );
+    }
+
     private void assertRange( LongRange range, long from, long to )
     {
         assertEquals( from, range.from() );
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency.newchecker;
+
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.internal.recordstorage.Command;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.kernel.impl.store.record.Record.NULL_REFERENCE;
+
+class TouchedRecordsTest
+{
+    private final TouchedRecords touched = new TouchedRecords( 5 );
+
+    @Test
+    void shouldCollectNodeFromNodeCommand()
+    {
+        // when
+        touched.add( new Command.NodeCommand( new NodeRecord( 3 ), new NodeRecord( 3 ).initialize( true, NULL_REFERENCE.longValue(), false,
+                NULL_REFERENCE.longValue(), 0 ) ) );
+
+        // then
+        assertTrue( touched.nodes().contains( 3 ) );
+        assertEquals( 1, touched.size() );
+        assertEquals( 5, touched.lastTransactionId() );
+    }
+
+    @Test
+    void shouldCollectNodesAndChainNeighboursOfRelationship()
+    {
+        // given
+        RelationshipRecord before = new RelationshipRecord( 10 );
+        RelationshipRecord after = new RelationshipRecord( 10 ).initialize( true, NULL_REFERENCE.longValue(), 1, 2, 0,
+                3, 11, 12, 13, true, false );
+
+        // when
+        touched.add( new Command.RelationshipCommand( before, after ) );
+
+        // then
+        assertTrue( touched.nodes().containsAll( 1, 2 ) );
+        // firstPrevRel of a relationship which is first in its chain is the degree, not a relationship reference
+        assertFalse( touched.relationships().contains( 3 ) );
+        assertTrue( touched.relationships().containsAll( 10, 11, 12, 13 ) );
+    }
+
+    @Test
+    void shouldCollectOwnerAndNextOfRelationshipGroup()
+    {
+        // given
+        RelationshipGroupRecord after = new RelationshipGroupRecord( 4 ).initialize( true, 1, NULL_REFERENCE.longValue(), NULL_REFERENCE.longValue(),
+                NULL_REFERENCE.longValue(), 7, 5 );
+
+        // when
+        touched.add( new Command.RelationshipGroupCommand( new RelationshipGroupRecord( 4 ), after ) );
+
+        // then
+        assertTrue( touched.relationshipGroups().containsAll( 4, 5 ) );
+        assertTrue( touched.nodes().contains( 7 ) );
+    }
+
+    @Test
+    void shouldCollectOwnerAndChainNeighboursOfProperty()
+    {
+        // given
+        PropertyRecord before = new PropertyRecord( 20 ).initialize( true, 19, NULL_REFERENCE.longValue() );
+        before.setRelId( 8 );
+        PropertyRecord after = new PropertyRecord( 20 ).initialize( true, 19, 21 );
+        after.setRelId( 8 );
+
+        // when
+        touched.add( new Command.PropertyCommand( before, after ) );
+
+        // then
+        assertTrue( touched.properties().containsAll( 19, 20, 21 ) );
+        assertTrue( touched.relationships().contains( 8 ) );
+        assertTrue( touched.nodes().isEmpty() );
+    }
+}
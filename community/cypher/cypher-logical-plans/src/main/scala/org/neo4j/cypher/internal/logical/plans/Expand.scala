@@ -116,6 +116,32 @@ case class PruningVarExpand(source: LogicalPlan,
   override val availableSymbols: Set[String] = source.availableSymbols + to
 }
 
+/**
+  * Serves DISTINCT VarExpands between two nodes which are both already bound, where the individual paths are not of
+  * interest. For every source row, a breadth first search is done from both 'from' and 'to', always continuing from
+  * the side with the smaller frontier, until the two searches meet. The source row is produced once if there is a
+  * path between the nodes of length between minLength and maxLength, and not at all otherwise.
+  *
+  * Only used for minLength of zero or one, since a breadth first search only finds the shortest paths.
+  */
+case class BidirectionalVarExpandInto(source: LogicalPlan,
+                                      from: String,
+                                      dir: SemanticDirection,
+                                      types: Seq[RelTypeName],
+                                      to: String,
+                                      minLength: Int,
+                                      maxLength: Int,
+                                      nodePredicate: Option[VariablePredicate] = None,
+                                      relationshipPredicate: Option[VariablePredicate] = None)
+                                     (implicit idGen: IdGen)
+  extends LogicalPlan(idGen) with LazyLogicalPlan {
+
+  override val lhs = Some(source)
+  override def rhs = None
+
+  override val availableSymbols: Set[String] = source.availableSymbols
+}
+
 sealed trait ExpansionMode
 
 /**
@@ -22,14 +22,14 @@ package org.neo4j.cypher.internal.compiler.planner.logical
 import org.neo4j.csv.reader.Configuration.DEFAULT_LEGACY_STYLE_QUOTING
 import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.{CardinalityModel, CostModel, QueryGraphSolverInput}
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.{CostComparisonListener, LogicalPlanProducer}
-import org.neo4j.cypher.internal.ir.StrictnessMode
+import org.neo4j.cypher.internal.ir.{InterestingOrder, StrictnessMode}
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
 import org.neo4j.cypher.internal.planner.spi.{GraphStatistics, PlanContext, PlanningAttributes}
 import org.neo4j.cypher.internal.v4_0.ast.semantics.SemanticTable
 import org.neo4j.cypher.internal.v4_0.expressions.Variable
 import org.neo4j.cypher.internal.v4_0.frontend.phases.InternalNotificationLogger
 import org.neo4j.cypher.internal.v4_0.rewriting.rewriters.InnerVariableNamer
-import org.neo4j.cypher.internal.v4_0.util.Cardinality
+import org.neo4j.cypher.internal.v4_0.util.{Cardinality, Selectivity}
 import org.neo4j.cypher.internal.v4_0.util.attribution.IdGen
 
 case class LogicalPlanningContext(planContext: PlanContext,
@@ -55,6 +55,12 @@ case class LogicalPlanningContext(planContext: PlanContext,
                                    * E.g. WITH n.prop1 AS prop RETURN min(prop), count(m.prop2) => Set(("n", "prop1"), ("m", "prop2"))
                                    */
                                   aggregatingProperties: Set[(String, String)] = Set.empty,
+                                  /*
+                                   * The required order of the query part being planned, if that part is followed by a LIMIT,
+                                   * together with the fraction of the rows of the part that are needed to fill the LIMIT.
+                                   * E.g. MATCH (n:A) RETURN n ORDER BY n.prop LIMIT 10 with 1000 :A nodes => Some((ORDER BY n.prop, 0.01))
+                                   */
+                                  limitSelectivityForOrder: Option[(InterestingOrder, Selectivity)] = None,
                                   idGen: IdGen) {
   def withStrictness(strictness: StrictnessMode): LogicalPlanningContext =
     copy(input = input.withPreferredStrictness(strictness))
@@ -62,6 +68,9 @@ case class LogicalPlanningContext(planContext: PlanContext,
   def withAggregationProperties(properties: Set[(String, String)]): LogicalPlanningContext =
     copy(aggregatingProperties = properties)
 
+  def withLimitSelectivityForOrder(limitSelectivity: Option[(InterestingOrder, Selectivity)]): LogicalPlanningContext =
+    copy(limitSelectivityForOrder = limitSelectivity)
+
   def withUpdatedCardinalityInformation(plan: LogicalPlan): LogicalPlanningContext =
     copy(input = input.recurse(plan, planningAttributes.solveds, planningAttributes.cardinalities))
 
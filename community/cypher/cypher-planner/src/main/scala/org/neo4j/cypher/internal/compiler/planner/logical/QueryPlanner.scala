@@ -27,7 +27,8 @@ import org.neo4j.cypher.internal.logical.plans.LogicalPlan
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.Cardinalities
 import org.neo4j.cypher.internal.v4_0.frontend.phases.CompilationPhaseTracer.CompilationPhase.LOGICAL_PLANNING
 import org.neo4j.cypher.internal.v4_0.frontend.phases.Phase
-import org.neo4j.cypher.internal.v4_0.util.Cost
+import org.neo4j.cypher.internal.v4_0.expressions.{Expression, IntegerLiteral}
+import org.neo4j.cypher.internal.v4_0.util.{Cost, Selectivity}
 
 case object QueryPlanner
   extends Phase[PlannerContext, LogicalPlanState, LogicalPlanState] {
@@ -148,7 +149,30 @@ case object planPart extends PartPlanner {
       case Some(mode) if !context.input.strictness.contains(mode) => context.withStrictness(mode)
       case _ => context
     }
-    ctx.strategy.plan(query.queryGraph, interestingOrderForPart(query, rhsPart), ctx)
+    val interestingOrder = interestingOrderForPart(query, rhsPart)
+    val ctxWithLimit = ctx.withLimitSelectivityForOrder(limitSelectivityForOrder(query, interestingOrder, ctx))
+    ctx.strategy.plan(query.queryGraph, interestingOrder, ctxWithLimit)
+  }
+
+  // If the required order is solved in this part and the horizon has a LIMIT, a lazy plan already providing the order
+  // stops reading after the rows needed to fill the LIMIT. Compute the fraction of the rows of the part that are needed.
+  private def limitSelectivityForOrder(query: SinglePlannerQuery,
+                                       interestingOrder: InterestingOrder,
+                                       context: LogicalPlanningContext): Option[(InterestingOrder, Selectivity)] =
+    query.horizon match {
+      case RegularQueryProjection(_, QueryPagination(skip, Some(limit)), _)
+        if interestingOrder.requiredOrderCandidate.nonEmpty && query.queryGraph.mutatingPatterns.isEmpty =>
+        val neededRows = rowCount(limit) + skip.map(rowCount).getOrElse(0.0)
+        val partCardinality = context.metrics.queryGraphCardinalityModel(query.queryGraph, context.input, context.semanticTable)
+        Selectivity.of(neededRows / partCardinality.amount).map(interestingOrder -> _)
+
+      case _ =>
+        None
+    }
+
+  private def rowCount(expression: Expression): Double = expression match {
+    case literal: IntegerLiteral => literal.value.toDouble
+    case _ => PlannerDefaults.DEFAULT_LIMIT_CARDINALITY.amount
   }
 
   // Extract the interesting InterestingOrder for this part of the query
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.cardinality
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+
+import org.neo4j.cypher.internal.ir.{PatternRelationship, QueryGraph, SinglePlannerQuery}
+import org.neo4j.cypher.internal.logical.plans.{LogicalPlan, Selection}
+import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.{Cardinalities, Solveds}
+import org.neo4j.cypher.internal.v4_0.expressions.{ASTCachedProperty, Expression, Property, Variable}
+import org.neo4j.cypher.internal.v4_0.util.Foldable._
+import org.neo4j.cypher.internal.v4_0.util.Rewritable._
+import org.neo4j.cypher.internal.v4_0.util.attribution.Id
+import org.neo4j.cypher.internal.v4_0.util.{Rewriter, Selectivity, bottomUp}
+
+/**
+  * Selectivities of combinations of predicates as observed when executing plans, where they turned out to be far
+  * off the estimate that assumes the predicates to be independent, e.g. because the predicates are correlated.
+  *
+  * An observed selectivity is conditional on everything else the plan had solved before the selection, like its labels
+  * and the predicates solved by an index seek. It is therefore recorded for the query graph that the selection solved,
+  * and only used instead of the estimate when estimating that very same query graph again, i.e. with the same pattern,
+  * labels and predicates.
+  */
+class CardinalityFeedback(maxEntries: Int = CardinalityFeedback.MAX_ENTRIES) {
+  import CardinalityFeedback._
+
+  private val observed = new ConcurrentHashMap[QueryGraphKey, Map[Set[Expression], Selectivity]]()
+  private val entries = new AtomicInteger()
+
+  /**
+    * Compares the estimated and the actual selectivity of every selection of several predicates in an executed plan,
+    * and records the actual ones that diverge from the estimate.
+    *
+    * @param actualRows the number of rows an operator of the plan produced, or a negative number if that is not known
+    * @return `true` if anything was recorded, i.e. if planning the query again could give a different plan
+    */
+  def recordExecution(plan: LogicalPlan, solveds: Solveds, cardinalities: Cardinalities, actualRows: Id => Long): Boolean =
+    plan.findByAllClass[Selection].map {
+      case selection @ Selection(predicate, source) if predicate.exprs.size > 1 && isPlanned(selection, solveds, cardinalities) =>
+        val rowsIn = actualRows(source.id)
+        val rowsOut = actualRows(selection.id)
+        val estimatedIn = cardinalities.get(source.id).amount
+        (solveds.get(selection.id), rowsIn >= MIN_ROWS && rowsOut >= 0 && estimatedIn > 0) match {
+          case (solved: SinglePlannerQuery, true) =>
+            val estimated = Selectivity.of(cardinalities.get(selection.id).amount / estimatedIn).getOrElse(Selectivity.ONE)
+            // Never record an empty result as selectivity zero, fewer rows than one in the sample is all we know
+            val actual = Selectivity(Math.min(1.0, Math.max(rowsOut, 1L).toDouble / rowsIn))
+            diverges(estimated, actual) && record(solved.lastQueryGraph, predicate.exprs.map(normalized), actual)
+          case _ =>
+            false
+        }
+      case _ =>
+        false
+    }.foldLeft(false)(_ || _)
+
+  /**
+    * Records an observed selectivity of a combination of predicates of a query graph.
+    *
+    * @return `true` if this changes the estimates of the cardinality model
+    */
+  def record(queryGraph: QueryGraph, predicates: Set[Expression], selectivity: Selectivity): Boolean = {
+    val key = QueryGraphKey(queryGraph)
+    val combinations = observed.getOrDefault(key, Map.empty)
+    val previous = combinations.get(predicates)
+    if (!predicates.subsetOf(key.predicates)) {
+      // Selections rewritten after planning may not match the query graph anymore
+      false
+    } else if (previous.exists(!diverges(_, selectivity))) {
+      false
+    } else if (previous.isEmpty && entries.get() >= maxEntries) {
+      false
+    } else {
+      if (previous.isEmpty) {
+        entries.incrementAndGet()
+      }
+      observed.put(key, combinations.updated(predicates, selectivity))
+      true
+    }
+  }
+
+  /**
+    * The observed selectivities of combinations of predicates of the given query graph, together with the predicates of
+    * each combination. Every predicate is part of at most one combination, larger combinations are preferred.
+    */
+  def observedSelectivities(queryGraph: QueryGraph): Seq[(Set[Expression], Selectivity)] =
+    if (observed.isEmpty) {
+      Seq.empty
+    } else {
+      val combinations = observed.getOrDefault(QueryGraphKey(queryGraph), Map.empty)
+      combinations.toSeq.sortBy(-_._1.size).foldLeft((Set.empty[Expression], Seq.empty[(Set[Expression], Selectivity)])) {
+        case ((covered, result), (combination, selectivity)) =>
+          if (combination.exists(covered)) (covered, result)
+          else (covered ++ combination, result :+ (combination -> selectivity))
+      }._2
+    }
+
+  def clear(): Unit = {
+    observed.clear()
+    entries.set(0)
+  }
+}
+
+object CardinalityFeedback {
+  val MAX_ENTRIES = 10000
+
+  // Fewer rows than this going into a selection are too few to tell its selectivity
+  val MIN_ROWS = 100
+
+  // How many times larger or smaller than the estimate an observed selectivity has to be to be recorded
+  val DIVERGENCE_FACTOR = 10.0
+
+  val NONE: CardinalityFeedback = new CardinalityFeedback(0)
+
+  private def diverges(estimated: Selectivity, actual: Selectivity): Boolean = {
+    val (smaller, larger) = if (estimated.factor < actual.factor) (estimated.factor, actual.factor) else (actual.factor, estimated.factor)
+    larger >= smaller * DIVERGENCE_FACTOR && larger > 0
+  }
+
+  // Predicates of executed plans may read properties cached by earlier operators, while the query graph reads them directly
+  private val uncacheProperties: Rewriter = bottomUp(Rewriter.lift {
+    case cached: ASTCachedProperty => Property(Variable(cached.entityName)(cached.position), cached.propertyKey)(cached.position)
+  })
+
+  private def normalized(predicate: Expression): Expression = predicate.endoRewrite(uncacheProperties)
+
+  private def isPlanned(selection: Selection, solveds: Solveds, cardinalities: Cardinalities): Boolean =
+    solveds.isDefinedAt(selection.id) && cardinalities.isDefinedAt(selection.id) && cardinalities.isDefinedAt(selection.source.id)
+
+  /**
+    * What an observation is recorded for: the nodes, relationships, and all predicates, including the labels, of a query graph.
+    */
+  private case class QueryGraphKey(patternNodes: Set[String],
+                                   patternRelationships: Set[PatternRelationship],
+                                   argumentIds: Set[String],
+                                   predicates: Set[Expression])
+
+  private object QueryGraphKey {
+    def apply(queryGraph: QueryGraph): QueryGraphKey =
+      QueryGraphKey(queryGraph.patternNodes, queryGraph.patternRelationships, queryGraph.argumentIds,
+                    queryGraph.selections.flatPredicates.map(normalized).toSet)
+  }
+}
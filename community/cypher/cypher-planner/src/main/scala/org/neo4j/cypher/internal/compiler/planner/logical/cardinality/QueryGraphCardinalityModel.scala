@@ -24,6 +24,6 @@ import org.neo4j.cypher.internal.compiler.planner.logical.cardinality.assumeInde
 import org.neo4j.cypher.internal.planner.spi.GraphStatistics
 
 object QueryGraphCardinalityModel {
-  def default(statistics: GraphStatistics): QueryGraphCardinalityModel =
-    AssumeIndependenceQueryGraphCardinalityModel(statistics, IndependenceCombiner)
+  def default(statistics: GraphStatistics, feedback: CardinalityFeedback = CardinalityFeedback.NONE): QueryGraphCardinalityModel =
+    AssumeIndependenceQueryGraphCardinalityModel(statistics, IndependenceCombiner, feedback)
 }
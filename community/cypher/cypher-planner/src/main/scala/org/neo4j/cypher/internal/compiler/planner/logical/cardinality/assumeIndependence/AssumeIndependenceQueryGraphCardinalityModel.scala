@@ -20,14 +20,15 @@
 package org.neo4j.cypher.internal.compiler.planner.logical.cardinality.assumeIndependence
 
 import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.{QueryGraphCardinalityModel, QueryGraphSolverInput}
-import org.neo4j.cypher.internal.compiler.planner.logical.cardinality.{ExpressionSelectivityCalculator, SelectivityCombiner}
+import org.neo4j.cypher.internal.compiler.planner.logical.cardinality.{CardinalityFeedback, ExpressionSelectivityCalculator, SelectivityCombiner}
 import org.neo4j.cypher.internal.v4_0.ast.semantics.SemanticTable
 import org.neo4j.cypher.internal.ir.{QueryGraph, Selections, SimplePatternLength, VarPatternLength}
 import org.neo4j.cypher.internal.planner.spi.GraphStatistics
 import org.neo4j.cypher.internal.v4_0.util.{Cardinality, Selectivity}
 import org.neo4j.cypher.internal.v4_0.expressions.LabelName
 
-case class AssumeIndependenceQueryGraphCardinalityModel(stats: GraphStatistics, combiner: SelectivityCombiner)
+case class AssumeIndependenceQueryGraphCardinalityModel(stats: GraphStatistics, combiner: SelectivityCombiner,
+                                                        feedback: CardinalityFeedback = CardinalityFeedback.NONE)
   extends QueryGraphCardinalityModel {
   import AssumeIndependenceQueryGraphCardinalityModel.MAX_OPTIONAL_MATCH
 
@@ -90,7 +91,12 @@ case class AssumeIndependenceQueryGraphCardinalityModel(stats: GraphStatistics,
                                   (implicit semanticTable: SemanticTable): (Selectivity, Int) = {
     implicit val selections: Selections = qg.selections
 
-    val expressionSelectivities = selections.flatPredicates.map(expressionSelectivityCalculator(_))
+    // Combinations of predicates that were observed to be far off when assumed independent are not estimated again
+    val predicates = selections.flatPredicates
+    val observedSelectivities = feedback.observedSelectivities(qg)
+    val observedPredicates = observedSelectivities.flatMap(_._1).toSet
+    val expressionSelectivities =
+      predicates.filterNot(observedPredicates).map(expressionSelectivityCalculator(_)) ++ observedSelectivities.map(_._2)
 
     val patternSelectivities = qg.patternRelationships.toIndexedSeq.map {
       /* This is here to handle the *0..0 case.
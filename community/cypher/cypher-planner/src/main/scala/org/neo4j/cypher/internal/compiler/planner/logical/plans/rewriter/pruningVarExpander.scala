@@ -120,6 +120,27 @@ case object pruningVarExpander extends Rewriter {
                                nodePredicate,
                                relationshipPredicate)(SameId(expand.id))
             else expand
+
+          case expand@VarExpand(lhs,
+                                fromId,
+                                dir,
+                                _,
+                                relTypes,
+                                toId,
+                                _,
+                                length,
+                                ExpandInto,
+                                nodePredicate,
+                                relationshipPredicate) if distinctSet(expand) && length.min <= 1 =>
+            BidirectionalVarExpandInto(lhs,
+                                       fromId,
+                                       dir,
+                                       relTypes,
+                                       toId,
+                                       length.min,
+                                       length.max.get,
+                                       nodePredicate,
+                                       relationshipPredicate)(SameId(expand.id))
         })
         plan.endoRewrite(innerRewriter)
 
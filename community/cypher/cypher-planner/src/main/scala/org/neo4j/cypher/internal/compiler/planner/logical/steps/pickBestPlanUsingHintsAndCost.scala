@@ -19,8 +19,10 @@
  */
 package org.neo4j.cypher.internal.compiler.planner.logical.steps
 
-import org.neo4j.cypher.internal.compiler.planner.logical.{CandidateSelector, LogicalPlanningContext}
-import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.compiler.planner.logical.{CandidateSelector, LogicalPlanningContext, SortPlanner}
+import org.neo4j.cypher.internal.ir.InterestingOrder.FullSatisfaction
+import org.neo4j.cypher.internal.logical.plans.{EagerLogicalPlan, LogicalPlan}
+import org.neo4j.cypher.internal.v4_0.util.Foldable._
 
 trait CandidateSelectorFactory {
   def apply(context: LogicalPlanningContext): CandidateSelector
@@ -50,6 +52,21 @@ object pickBestPlanUsingHintsAndCost extends CandidateSelectorFactory {
   private def score[X](projector: X => LogicalPlan, input: X, context: LogicalPlanningContext) = {
     val costs = context.cost
     val plan = projector(input)
-    (-context.planningAttributes.solveds.get(plan.id).numHints, costs(plan, context.input, context.planningAttributes.cardinalities).gummyBears)
+    val cost = costs(plan, context.input, context.planningAttributes.cardinalities).gummyBears
+    (-context.planningAttributes.solveds.get(plan.id).numHints, cost * limitSelectivity(plan, context))
   }
+
+  /*
+   * A plan that already produces rows in the required order, and does not buffer them anywhere, is only pulled from
+   * until a following LIMIT is filled. Only that fraction of its cost will actually be spent.
+   */
+  private def limitSelectivity(plan: LogicalPlan, context: LogicalPlanningContext): Double =
+    context.limitSelectivityForOrder match {
+      case Some((interestingOrder, selectivity)) =>
+        SortPlanner.orderSatisfaction(interestingOrder, context, plan) match {
+          case FullSatisfaction() if !plan.treeExists { case _: EagerLogicalPlan => true } => selectivity.factor
+          case _ => 1.0
+        }
+      case None => 1.0
+    }
 }
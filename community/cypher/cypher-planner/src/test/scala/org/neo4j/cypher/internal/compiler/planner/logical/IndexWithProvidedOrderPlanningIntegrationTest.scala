@@ -188,6 +188,29 @@ class IndexWithProvidedOrderPlanningIntegrationTest extends CypherFunSuite with
       )
     }
 
+    test(s"$cypherToken-$orderCapability: Order by index backed property with LIMIT should plan Limit on top of provided order") {
+      val plan = new given {
+        indexOn("Awesome", "prop").providesOrder(orderCapability)
+      } getLogicalPlanFor s"MATCH (n:Awesome) WHERE n.prop > 0 RETURN n ORDER BY n.prop $cypherToken LIMIT 10"
+
+      plan._2 should equal(
+        LimitPlan(
+          IndexSeek("n:Awesome(prop > 0)", indexOrder = plannedOrder),
+          literalInt(10),
+          DoNotIncludeTies)
+      )
+    }
+
+    test(s"$cypherToken-$orderCapability: Order by index backed property without LIMIT should plan the same provided order as before") {
+      val plan = new given {
+        indexOn("Awesome", "prop").providesOrder(orderCapability)
+      } getLogicalPlanFor s"MATCH (n:Awesome) WHERE n.prop > 0 RETURN n ORDER BY n.prop $cypherToken"
+
+      plan._2 should equal(
+        IndexSeek("n:Awesome(prop > 0)", indexOrder = plannedOrder)
+      )
+    }
+
     // This is supported because internally all kernel indexes which support ordering will just scan and filter to serve contains
     test(s"$cypherToken-$orderCapability: Order by index backed property should plan with provided order (contains scan)") {
       val plan = new given {
@@ -507,6 +530,50 @@ class IndexWithProvidedOrderPlanningIntegrationTest extends CypherFunSuite with
     }
   }
 
+  test("Order by index backed for composite index prefix with LIMIT should plan Limit on top of provided order") {
+    val expr = ands(lessThanOrEqual(prop("n", "prop2"), literalInt(3)))
+
+    Seq(
+      ("ASC", ASC, IndexOrderAscending),
+      ("DESC", DESC, IndexOrderDescending),
+      ("ASC", BOTH, IndexOrderAscending),
+      ("DESC", BOTH, IndexOrderDescending)
+    ).foreach {
+      case (cypherToken, orderCapability, indexOrder) =>
+        // When
+        val query =
+          s"""MATCH (n:Label)
+             |WHERE n.prop1 >= 42 AND n.prop2 <= 3
+             |RETURN n
+             |ORDER BY n.prop1 $cypherToken
+             |LIMIT 10""".stripMargin
+        val plan = new given {
+          indexOn("Label", "prop1", "prop2").providesOrder(orderCapability)
+        } getLogicalPlanFor query
+
+        // Then
+        plan._2 should equal(
+          LimitPlan(
+            Selection(expr, IndexSeek("n:Label(prop1 >= 42, prop2 <= 3)", indexOrder = indexOrder)),
+            literalInt(10),
+            DoNotIncludeTies)
+        )
+    }
+  }
+
+  test("LIMIT without ORDER BY should not plan any index order") {
+    val plan = new given {
+      indexOn("Awesome", "prop").providesOrder(BOTH)
+    } getLogicalPlanFor "MATCH (n:Awesome) WHERE n.prop > 0 RETURN n LIMIT 10"
+
+    plan._2 should equal(
+      LimitPlan(
+        IndexSeek("n:Awesome(prop > 0)", indexOrder = IndexOrderNone),
+        literalInt(10),
+        DoNotIncludeTies)
+    )
+  }
+
   test("Order by partially index backed for composite index on part of the order by") {
     val asc = Seq(Ascending("n.prop1"), Ascending("n.prop2"))
     val ascProp3 = Seq(Ascending("n.prop3"))
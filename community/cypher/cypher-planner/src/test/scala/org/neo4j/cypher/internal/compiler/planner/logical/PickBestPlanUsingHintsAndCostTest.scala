@@ -21,14 +21,14 @@ package org.neo4j.cypher.internal.compiler.planner.logical
 
 import org.neo4j.cypher.internal.compiler.planner.LogicalPlanningTestSupport2
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.{LogicalPlanProducer, devNullListener, pickBestPlanUsingHintsAndCost}
-import org.neo4j.cypher.internal.ir.SinglePlannerQuery
-import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.ir.{InterestingOrder, ProvidedOrder, RequiredOrderCandidate, SinglePlannerQuery}
+import org.neo4j.cypher.internal.logical.plans.{Ascending, LogicalPlan, Sort}
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes
-import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.Solveds
+import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.{ProvidedOrders, Solveds}
 import org.neo4j.cypher.internal.v4_0.ast.UsingIndexHint
 import org.neo4j.cypher.internal.v4_0.expressions.PropertyKeyName
 import org.neo4j.cypher.internal.v4_0.frontend.phases.devNullLogger
-import org.neo4j.cypher.internal.v4_0.util.Cost
+import org.neo4j.cypher.internal.v4_0.util.{Cost, Selectivity}
 import org.neo4j.cypher.internal.v4_0.util.test_helpers.CypherFunSuite
 
 class PickBestPlanUsingHintsAndCostTest extends CypherFunSuite with LogicalPlanningTestSupport2 {
@@ -84,7 +84,45 @@ class PickBestPlanUsingHintsAndCostTest extends CypherFunSuite with LogicalPlann
     assertTopPlan(winner = b, PlanningAttributes(solveds, new StubCardinalities, new StubProvidedOrders), a, b)(GIVEN_FIXED_COST)
   }
 
-  private def assertTopPlan(winner: LogicalPlan, planningAttributes: PlanningAttributes, candidates: LogicalPlan*)(GIVEN: given): Unit = {
+  test("Prefers plans that provide the required order when a LIMIT only needs some of their rows") {
+    val providedOrders = new ProvidedOrders
+    val order = InterestingOrder.required(RequiredOrderCandidate.asc(prop("n", "prop")))
+    val a = fakeLogicalPlanFor("n")
+    providedOrders.set(a.id, ProvidedOrder.asc(prop("n", "prop")))
+    val b = fakeLogicalPlanFor("n")
+    providedOrders.set(b.id, ProvidedOrder.empty)
+
+    assertTopPlan(winner = a, PlanningAttributes(new StubSolveds, new StubCardinalities, providedOrders), Some(order -> Selectivity(0.1)), a, b)(new given {
+      cost = {
+        case (p, _, _) if p == a => Cost(100)
+        case (p, _, _) if p == b => Cost(50)
+      }
+    })
+  }
+
+  test("Does not discount plans that provide the required order after an eager plan") {
+    val providedOrders = new ProvidedOrders
+    val order = InterestingOrder.required(RequiredOrderCandidate.asc(prop("n", "prop")))
+    val a = Sort(fakeLogicalPlanFor("n"), Seq(Ascending("n.prop")))
+    providedOrders.set(a.id, ProvidedOrder.asc(prop("n", "prop")))
+    val b = fakeLogicalPlanFor("n")
+    providedOrders.set(b.id, ProvidedOrder.empty)
+
+    assertTopPlan(winner = b, PlanningAttributes(new StubSolveds, new StubCardinalities, providedOrders), Some(order -> Selectivity(0.1)), a, b)(new given {
+      cost = {
+        case (p, _, _) if p == a => Cost(100)
+        case (p, _, _) if p == b => Cost(50)
+      }
+    })
+  }
+
+  private def assertTopPlan(winner: LogicalPlan, planningAttributes: PlanningAttributes, candidates: LogicalPlan*)(GIVEN: given): Unit =
+    assertTopPlan(winner, planningAttributes, None, candidates: _*)(GIVEN)
+
+  private def assertTopPlan(winner: LogicalPlan,
+                            planningAttributes: PlanningAttributes,
+                            limitSelectivityForOrder: Option[(InterestingOrder, Selectivity)],
+                            candidates: LogicalPlan*)(GIVEN: given): Unit = {
     val environment = LogicalPlanningEnvironment(GIVEN)
     val metrics: Metrics = environment.metricsFactory.newMetrics(GIVEN.statistics, GIVEN.expressionEvaluator, cypherCompilerConfig)
     val producer = LogicalPlanProducer(metrics.cardinality, planningAttributes, idGen)
@@ -97,6 +135,7 @@ class PickBestPlanUsingHintsAndCostTest extends CypherFunSuite with LogicalPlann
       costComparisonListener = devNullListener,
       planningAttributes = planningAttributes,
       innerVariableNamer = innerVariableNamer,
+      limitSelectivityForOrder = limitSelectivityForOrder,
       idGen = idGen
     )
     pickBestPlanUsingHintsAndCost(context)(candidates).get shouldBe theSameInstanceAs(winner)
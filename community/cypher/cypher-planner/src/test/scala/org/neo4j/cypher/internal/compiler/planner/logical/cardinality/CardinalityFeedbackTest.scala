@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.cardinality
+
+import org.neo4j.cypher.internal.compiler.planner.LogicalPlanningTestSupport2
+import org.neo4j.cypher.internal.ir.{QueryGraph, RegularSinglePlannerQuery, Selections}
+import org.neo4j.cypher.internal.logical.plans.{NodeByLabelScan, Selection}
+import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.{Cardinalities, Solveds}
+import org.neo4j.cypher.internal.v4_0.expressions.Expression
+import org.neo4j.cypher.internal.v4_0.util.Selectivity
+import org.neo4j.cypher.internal.v4_0.util.attribution.Id
+import org.neo4j.cypher.internal.v4_0.util.test_helpers.CypherFunSuite
+
+class CardinalityFeedbackTest extends CypherFunSuite with LogicalPlanningTestSupport2 {
+
+  private val a = propEquality("n", "a", 1)
+  private val b = propEquality("n", "b", 2)
+  private val c = propGreaterThan("n", "c", 3)
+
+  test("should record the selectivity of a selection which is far off the estimate") {
+    val feedback = new CardinalityFeedback
+    val (plan, solveds, cardinalities) = selection(estimatedIn = 1000.0, estimatedOut = 1.0)
+
+    feedback.recordExecution(plan, solveds, cardinalities, rows(plan, in = 1000, out = 500)) should be(true)
+
+    feedback.observedSelectivities(queryGraph("N", a, b)) should equal(Seq(Set(a, b) -> Selectivity(0.5)))
+  }
+
+  test("should only use an observed selectivity for the query graph it was observed for") {
+    val feedback = new CardinalityFeedback
+    val (plan, solveds, cardinalities) = selection(estimatedIn = 1000.0, estimatedOut = 1.0)
+
+    feedback.recordExecution(plan, solveds, cardinalities, rows(plan, in = 1000, out = 500)) should be(true)
+
+    feedback.observedSelectivities(queryGraph("M", a, b)) should be(empty)
+    feedback.observedSelectivities(queryGraph("N", a, b, c)) should be(empty)
+    feedback.observedSelectivities(QueryGraph(patternNodes = Set("n"), selections = Selections.from(Seq(a, b)))) should be(empty)
+  }
+
+  test("should not record the selectivity of a selection which is close to the estimate") {
+    val feedback = new CardinalityFeedback
+    val (plan, solveds, cardinalities) = selection(estimatedIn = 1000.0, estimatedOut = 100.0)
+
+    feedback.recordExecution(plan, solveds, cardinalities, rows(plan, in = 1000, out = 500)) should be(false)
+
+    feedback.observedSelectivities(queryGraph("N", a, b)) should be(empty)
+  }
+
+  test("should not record the selectivity of a selection with too few rows or no profile") {
+    val feedback = new CardinalityFeedback
+    val (plan, solveds, cardinalities) = selection(estimatedIn = 1000.0, estimatedOut = 1.0)
+
+    feedback.recordExecution(plan, solveds, cardinalities, rows(plan, in = 10, out = 5)) should be(false)
+    feedback.recordExecution(plan, solveds, cardinalities, _ => -1L) should be(false)
+
+    feedback.observedSelectivities(queryGraph("N", a, b)) should be(empty)
+  }
+
+  test("should ignore selections without estimates or solved query graphs") {
+    val feedback = new CardinalityFeedback
+    val (plan, solveds, _) = selection(estimatedIn = 1000.0, estimatedOut = 1.0)
+    val (_, _, cardinalities) = selection(estimatedIn = 1000.0, estimatedOut = 1.0)
+
+    feedback.recordExecution(plan, solveds, cardinalities, rows(plan, in = 1000, out = 500)) should be(false)
+    feedback.recordExecution(plan, new Solveds, new Cardinalities, rows(plan, in = 1000, out = 500)) should be(false)
+
+    feedback.observedSelectivities(queryGraph("N", a, b)) should be(empty)
+  }
+
+  test("should not report a change when the same selectivity is observed again") {
+    val feedback = new CardinalityFeedback
+    val (plan, solveds, cardinalities) = selection(estimatedIn = 1000.0, estimatedOut = 1.0)
+
+    feedback.recordExecution(plan, solveds, cardinalities, rows(plan, in = 1000, out = 500)) should be(true)
+    feedback.recordExecution(plan, solveds, cardinalities, rows(plan, in = 2000, out = 900)) should be(false)
+  }
+
+  test("should record predicates reading cached properties as reading the properties") {
+    val feedback = new CardinalityFeedback
+    val (plan, solveds, cardinalities) = selection(estimatedIn = 1000.0, estimatedOut = 1.0,
+      equals(cachedNodeProp("n", "a"), literalInt(1)), b)
+
+    feedback.recordExecution(plan, solveds, cardinalities, rows(plan, in = 1000, out = 500)) should be(true)
+
+    feedback.observedSelectivities(queryGraph("N", a, b)) should equal(Seq(Set(a, b) -> Selectivity(0.5)))
+  }
+
+  test("should not record predicates the query graph does not have") {
+    val feedback = new CardinalityFeedback
+
+    feedback.record(queryGraph("N", a, b), Set(a, c), Selectivity(0.5)) should be(false)
+
+    feedback.observedSelectivities(queryGraph("N", a, b)) should be(empty)
+  }
+
+  test("should prefer larger combinations of predicates and use every predicate at most once") {
+    val feedback = new CardinalityFeedback
+    val qg = queryGraph("N", a, b, c)
+    feedback.record(qg, Set(a, b), Selectivity(0.5))
+    feedback.record(qg, Set(a, b, c), Selectivity(0.2))
+    feedback.record(qg, Set(b, c), Selectivity(0.1))
+
+    feedback.observedSelectivities(qg) should equal(Seq(Set(a, b, c) -> Selectivity(0.2)))
+  }
+
+  test("should not record more than the maximum number of observations") {
+    val feedback = new CardinalityFeedback(maxEntries = 1)
+
+    feedback.record(queryGraph("N", a, b), Set(a, b), Selectivity(0.5)) should be(true)
+    feedback.record(queryGraph("M", a, b), Set(a, b), Selectivity(0.5)) should be(false)
+    feedback.record(queryGraph("N", a, b), Set(a, b), Selectivity(0.01)) should be(true)
+
+    feedback.observedSelectivities(queryGraph("N", a, b)) should equal(Seq(Set(a, b) -> Selectivity(0.01)))
+    feedback.observedSelectivities(queryGraph("M", a, b)) should be(empty)
+  }
+
+  private def queryGraph(label: String, predicates: Expression*): QueryGraph =
+    QueryGraph(patternNodes = Set("n"), selections = Selections.from(hasLabels("n", label) +: predicates))
+
+  private def selection(estimatedIn: Double, estimatedOut: Double, predicates: Expression*): (Selection, Solveds, Cardinalities) = {
+    val solveds = new Solveds
+    val cardinalities = new Cardinalities
+    val scan = setC(NodeByLabelScan("n", labelName("N"), Set.empty), cardinalities, estimatedIn)
+    val selection = Selection(ands(if (predicates.isEmpty) Seq(a, b) else predicates: _*), scan)
+    setC(selection, cardinalities, estimatedOut)
+    solveds.set(selection.id, RegularSinglePlannerQuery(queryGraph("N", a, b)))
+    (selection, solveds, cardinalities)
+  }
+
+  private def rows(selection: Selection, in: Long, out: Long): Id => Long = {
+    case id if id == selection.id => out
+    case id if id == selection.source.id => in
+  }
+}
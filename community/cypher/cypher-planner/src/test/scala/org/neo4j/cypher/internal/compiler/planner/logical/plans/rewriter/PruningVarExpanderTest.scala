@@ -259,7 +259,7 @@ class PruningVarExpanderTest extends CypherFunSuite with LogicalPlanningTestSupp
     assertNotRewritten(distinct)
   }
 
-  test("do not use pruning-varexpand when both sides of the var-length-relationship are already known") {
+  test("use bidirectional var expand when both sides of the var-length-relationship are already known") {
     val fromId = "from"
     val toId = "to"
     val fromPlan = AllNodesScan(fromId, Set.empty)
@@ -271,6 +271,39 @@ class PruningVarExpanderTest extends CypherFunSuite with LogicalPlanningTestSupp
     val originalExpand = VarExpand(xJoin, fromId, dir, dir, Seq.empty, toId, relId, length, ExpandInto)
     val input = Aggregation(originalExpand, Map("to" -> varFor("to")), Map.empty)
 
+    val rewrittenExpand = BidirectionalVarExpandInto(xJoin, fromId, dir, Seq.empty, toId, 1, 3)
+    val expectedOutput = Aggregation(rewrittenExpand, Map("to" -> varFor("to")), Map.empty)
+
+    rewrite(input) should equal(expectedOutput)
+  }
+
+  test("do not use bidirectional var expand when the min length is more than one") {
+    val fromId = "from"
+    val toId = "to"
+    val fromPlan = AllNodesScan(fromId, Set.empty)
+    val toPlan = AllNodesScan(toId, Set.empty)
+    val xJoin = CartesianProduct(fromPlan, toPlan)
+    val dir = SemanticDirection.BOTH
+    val length = VarPatternLength(2, Some(3))
+    val relId = "r"
+    val originalExpand = VarExpand(xJoin, fromId, dir, dir, Seq.empty, toId, relId, length, ExpandInto)
+    val input = Aggregation(originalExpand, Map("to" -> varFor("to")), Map.empty)
+
+    assertNotRewritten(input)
+  }
+
+  test("do not use bidirectional var expand when the relationships are needed") {
+    val fromId = "from"
+    val toId = "to"
+    val fromPlan = AllNodesScan(fromId, Set.empty)
+    val toPlan = AllNodesScan(toId, Set.empty)
+    val xJoin = CartesianProduct(fromPlan, toPlan)
+    val dir = SemanticDirection.BOTH
+    val length = VarPatternLength(1, Some(3))
+    val relId = "r"
+    val originalExpand = VarExpand(xJoin, fromId, dir, dir, Seq.empty, toId, relId, length, ExpandInto)
+    val input = Aggregation(originalExpand, Map("r" -> varFor("r")), Map.empty)
+
     assertNotRewritten(input)
   }
 
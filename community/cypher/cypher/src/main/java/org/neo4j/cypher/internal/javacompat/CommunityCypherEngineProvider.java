@@ -25,7 +25,9 @@ import org.neo4j.cypher.internal.CommunityCompilerFactory;
 import org.neo4j.cypher.internal.CompilerFactory;
 import org.neo4j.cypher.internal.CypherConfiguration;
 import org.neo4j.cypher.internal.CypherRuntimeConfiguration;
+import org.neo4j.cypher.internal.StringCacheMonitor;
 import org.neo4j.cypher.internal.compiler.CypherPlannerConfiguration;
+import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.impl.query.QueryEngineProvider;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
@@ -65,13 +67,15 @@ public class CommunityCypherEngineProvider extends QueryEngineProvider
                     new CommunityCompilerFactory( queryService,spi.monitors(), spi.logProvider(), innerPlannerConfig, runtimeConfig );
             return new SystemExecutionEngine( queryService, spi.logProvider(), compilerFactory, innerCompilerFactory );
         }
-        else if ( spi.config().get( GraphDatabaseSettings.snapshot_query ) )
+        ExecutionEngine engine = spi.config().get( GraphDatabaseSettings.snapshot_query )
+                                 ? new SnapshotExecutionEngine( queryService, spi.config(), spi.logProvider(), compilerFactory )
+                                 : new ExecutionEngine( queryService, spi.logProvider(), compilerFactory );
+        if ( spi.config().get( GraphDatabaseSettings.cypher_plan_cache_warmup ) )
         {
-            return new SnapshotExecutionEngine( queryService, spi.config(), spi.logProvider(), compilerFactory );
-        }
-        else
-        {
-            return new ExecutionEngine( queryService, spi.logProvider(), compilerFactory );
+            spi.lifeSupport().add( new QueryCacheWarmup( engine, queryService, graphAPI, deps.resolveDependency( FileSystemAbstraction.class ),
+                    spi.jobScheduler(), spi.config().get( GraphDatabaseSettings.cypher_plan_cache_persist_interval ),
+                    spi.monitors().newMonitor( StringCacheMonitor.class ), spi.logProvider() ) );
         }
+        return engine;
     }
 }
@@ -21,6 +21,7 @@ package org.neo4j.cypher.internal.javacompat;
 
 import java.time.Clock;
 import java.util.List;
+import java.util.Map;
 
 import org.neo4j.common.DependencyResolver;
 import org.neo4j.configuration.Config;
@@ -35,6 +36,7 @@ import org.neo4j.cypher.internal.tracing.CompilationTracer;
 import org.neo4j.cypher.internal.tracing.TimingCompilationTracer;
 import org.neo4j.exceptions.Neo4jException;
 import org.neo4j.graphdb.Result;
+import org.neo4j.internal.helpers.collection.Pair;
 import org.neo4j.kernel.GraphDatabaseQueryService;
 import org.neo4j.kernel.impl.query.FunctionInformation;
 import org.neo4j.kernel.impl.query.QueryExecution;
@@ -145,6 +147,14 @@ public class ExecutionEngine implements QueryExecutionEngine
         return cypherExecutionEngine.isPeriodicCommit( query );
     }
 
+    /**
+     * @return the query strings and parameter types of the queries currently in the query cache
+     */
+    public List<Pair<String,Map<String,Class<?>>>> cachedQueries()
+    {
+        return cypherExecutionEngine.cachedQueries();
+    }
+
     @Override
     public long clearQueryCaches()
     {
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.javacompat;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+
+import org.neo4j.cypher.internal.StringCacheMonitor;
+import org.neo4j.internal.helpers.collection.Pair;
+import org.neo4j.internal.kernel.api.security.LoginContext;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.GraphDatabaseQueryService;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.kernel.impl.query.Neo4jTransactionalContextFactory;
+import org.neo4j.kernel.impl.query.QueryExecutionKernelException;
+import org.neo4j.kernel.impl.query.TransactionalContext;
+import org.neo4j.kernel.impl.query.TransactionalContextFactory;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.MapValueBuilder;
+import org.neo4j.values.virtual.VirtualValues;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Saves the keys of the query plan cache of an {@link ExecutionEngine} to a file in the database directory, periodically while
+ * the database is running and when it shuts down, and plans the saved queries again in the background when the database starts,
+ * so that clients don't have to wait for the planning of the queries they run all the time after a restart.
+ * <p>
+ * The cache keys are query strings prefixed with all the options they were planned with, together with the types of their parameters.
+ * The saved queries are planned again by running them with {@code EXPLAIN} and representative parameter values of the saved types,
+ * which puts the plans in the cache under the same keys as the original executions.
+ * Transactions can't be started before the database is available, so the queries are planned as soon as it is,
+ * while first client queries may already be running.
+ */
+public class QueryCacheWarmup extends LifecycleAdapter
+{
+    static final String FILE_NAME = "cypher-plan-cache";
+    private static final int FORMAT_VERSION = 1;
+    private static final long AVAILABILITY_POLL_MILLIS = 1000;
+
+    /**
+     * Values to use for parameters of a saved type, by the name of their class. Parameters of other types are rare,
+     * queries with parameters of other types are skipped.
+     */
+    private static final Map<String,AnyValue> PARAMETER_VALUES = Stream.of(
+            Values.longValue( 0 ), Values.intValue( 0 ), Values.shortValue( (short) 0 ), Values.byteValue( (byte) 0 ),
+            Values.doubleValue( 0 ), Values.floatValue( 0 ), Values.TRUE, Values.FALSE,
+            Values.stringValue( "a" ), Values.utf8Value( "a".getBytes( UTF_8 ) ), Values.EMPTY_STRING, Values.NO_VALUE,
+            Values.longArray( new long[0] ), Values.stringArray(),
+            VirtualValues.EMPTY_LIST, VirtualValues.fromList( new ArrayList<>() ),
+            VirtualValues.EMPTY_MAP, new MapValueBuilder().build() )
+            .collect( toMap( value -> value.getClass().getName(), identity(), ( first, second ) -> first ) );
+
+    private final ExecutionEngine engine;
+    private final GraphDatabaseAPI graph;
+    private final TransactionalContextFactory contextFactory;
+    private final GraphDatabaseQueryService queryService;
+    private final FileSystemAbstraction fs;
+    private final File file;
+    private final JobScheduler scheduler;
+    private final Duration persistInterval;
+    private final StringCacheMonitor monitor;
+    private final Log log;
+
+    private volatile boolean stopped;
+    private volatile boolean warmedUp;
+    private JobHandle warmupJob;
+    private JobHandle persistJob;
+
+    public QueryCacheWarmup( ExecutionEngine engine, GraphDatabaseQueryService queryService, GraphDatabaseAPI graph, FileSystemAbstraction fs,
+            JobScheduler scheduler, Duration persistInterval, StringCacheMonitor monitor, LogProvider logProvider )
+    {
+        this.engine = engine;
+        this.graph = graph;
+        this.queryService = queryService;
+        this.contextFactory = Neo4jTransactionalContextFactory.create( queryService );
+        this.fs = fs;
+        this.file = graph.databaseLayout().file( FILE_NAME );
+        this.scheduler = scheduler;
+        this.persistInterval = persistInterval;
+        this.monitor = monitor;
+        this.log = logProvider.getLog( getClass() );
+    }
+
+    @Override
+    public void start()
+    {
+        stopped = false;
+        warmedUp = false;
+        warmupJob = scheduler.schedule( Group.CYPHER_CACHE_WARMUP, this::warmup );
+        long interval = persistInterval.toMillis();
+        persistJob = scheduler.scheduleRecurring( Group.CYPHER_CACHE_WARMUP, this::persistIfWarmedUp, interval, interval, MILLISECONDS );
+    }
+
+    @Override
+    public void stop()
+    {
+        stopped = true;
+        persistJob.cancel();
+        try
+        {
+            warmupJob.waitTermination();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch ( ExecutionException | CancellationException e )
+        {
+            log.warn( "Query plan cache warmup failed", e );
+        }
+        // Would otherwise replace the saved queries with the ones that made it into the cache before the database was stopped again
+        persistIfWarmedUp();
+    }
+
+    private void warmup()
+    {
+        while ( !graph.isAvailable( AVAILABILITY_POLL_MILLIS ) )
+        {
+            if ( stopped )
+            {
+                return;
+            }
+        }
+
+        List<Pair<String,Map<String,String>>> queries;
+        try
+        {
+            queries = read();
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Could not read saved query plan cache keys from " + file, e );
+            warmedUp = true;
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        long planned = 0;
+        long failed = 0;
+        for ( Pair<String,Map<String,String>> query : queries )
+        {
+            if ( stopped )
+            {
+                return;
+            }
+            MapValue parameters = parameters( query.other() );
+            if ( parameters == null )
+            {
+                failed++;
+                continue;
+            }
+            try
+            {
+                plan( query.first(), parameters );
+                planned++;
+            }
+            catch ( Exception e )
+            {
+                // The schema may have changed since the query was saved
+                log.debug( "Could not plan saved query: " + query.first(), e );
+                failed++;
+            }
+        }
+        long elapsedMillis = NANOSECONDS.toMillis( System.nanoTime() - startTime );
+        monitor.cacheWarmupCompleted( planned, failed, elapsedMillis );
+        if ( !queries.isEmpty() )
+        {
+            log.info( "Planned %d of %d saved queries for the query plan cache in %d ms", planned, queries.size(), elapsedMillis );
+        }
+        warmedUp = true;
+    }
+
+    private void plan( String query, MapValue parameters ) throws QueryExecutionKernelException
+    {
+        String explainQuery = "EXPLAIN " + query;
+        try ( InternalTransaction tx = queryService.beginTransaction( KernelTransaction.Type.explicit, LoginContext.AUTH_DISABLED ) )
+        {
+            TransactionalContext context = contextFactory.newContext( tx, explainQuery, parameters );
+            engine.executeQuery( explainQuery, parameters, context, false ).close();
+        }
+    }
+
+    private static MapValue parameters( Map<String,String> types )
+    {
+        MapValueBuilder parameters = new MapValueBuilder( types.size() );
+        for ( Map.Entry<String,String> type : types.entrySet() )
+        {
+            AnyValue value = PARAMETER_VALUES.get( type.getValue() );
+            if ( value == null )
+            {
+                return null;
+            }
+            parameters.add( type.getKey(), value );
+        }
+        return parameters.build();
+    }
+
+    private synchronized void persistIfWarmedUp()
+    {
+        if ( !warmedUp )
+        {
+            return;
+        }
+        File tempFile = new File( file.getPath() + ".tmp" );
+        try
+        {
+            List<Pair<String,Map<String,Class<?>>>> queries = engine.cachedQueries();
+            try ( DataOutputStream out = new DataOutputStream( fs.openAsOutputStream( tempFile, false ) ) )
+            {
+                out.writeInt( FORMAT_VERSION );
+                out.writeInt( queries.size() );
+                for ( Pair<String,Map<String,Class<?>>> query : queries )
+                {
+                    // Query strings can be longer than what writeUTF supports
+                    byte[] queryBytes = query.first().getBytes( UTF_8 );
+                    out.writeInt( queryBytes.length );
+                    out.write( queryBytes );
+                    out.writeInt( query.other().size() );
+                    for ( Map.Entry<String,Class<?>> parameter : query.other().entrySet() )
+                    {
+                        out.writeUTF( parameter.getKey() );
+                        out.writeUTF( parameter.getValue().getName() );
+                    }
+                }
+            }
+            fs.renameFile( tempFile, file, REPLACE_EXISTING );
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Could not save query plan cache keys to " + file, e );
+        }
+    }
+
+    private List<Pair<String,Map<String,String>>> read() throws IOException
+    {
+        List<Pair<String,Map<String,String>>> queries = new ArrayList<>();
+        if ( !fs.fileExists( file ) )
+        {
+            return queries;
+        }
+        try ( DataInputStream in = new DataInputStream( fs.openAsInputStream( file ) ) )
+        {
+            if ( in.readInt() != FORMAT_VERSION )
+            {
+                return queries;
+            }
+            int count = in.readInt();
+            for ( int i = 0; i < count; i++ )
+            {
+                byte[] queryBytes = new byte[in.readInt()];
+                in.readFully( queryBytes );
+                int parameterCount = in.readInt();
+                Map<String,String> parameterTypes = new HashMap<>();
+                for ( int p = 0; p < parameterCount; p++ )
+                {
+                    parameterTypes.put( in.readUTF(), in.readUTF() );
+                }
+                queries.add( Pair.of( new String( queryBytes, UTF_8 ), parameterTypes ) );
+            }
+        }
+        catch ( EOFException e )
+        {
+            // A truncated file, plan what could be read
+        }
+        return queries;
+    }
+}
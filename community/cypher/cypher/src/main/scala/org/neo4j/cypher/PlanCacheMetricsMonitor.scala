@@ -28,13 +28,24 @@ import org.neo4j.internal.helpers.collection.Pair
 class PlanCacheMetricsMonitor extends StringCacheMonitor {
   private val counter = new AtomicLong()
   private val waitTime = new AtomicLong()
+  private val warmedUp = new AtomicLong()
+  private val warmupTime = new AtomicLong()
 
   override def cacheDiscard(ignored1: Pair[String, ParameterTypeMap], ignored2: String, secondsSinceReplan: Int): Unit = {
     counter.incrementAndGet()
     waitTime.addAndGet(secondsSinceReplan)
   }
 
+  override def cacheWarmupCompleted(plannedQueries: Long, failedQueries: Long, elapsedMillis: Long): Unit = {
+    warmedUp.addAndGet(plannedQueries)
+    warmupTime.addAndGet(elapsedMillis)
+  }
+
   def numberOfReplans: Long = counter.get()
 
   def replanWaitTime: Long = waitTime.get()
+
+  def numberOfWarmedUpPlans: Long = warmedUp.get()
+
+  def warmupTimeMillis: Long = warmupTime.get()
 }
@@ -55,7 +55,11 @@ object CypherConfiguration {
       CypherOperatorEngineOption(config.get(GraphDatabaseSettings.cypher_operator_engine).toString),
       CypherInterpretedPipesFallbackOption(config.get(GraphDatabaseSettings.cypher_pipelined_interpreted_pipes_fallback).toString),
       new ConfigMemoryTrackingController(config),
-      config.get(GraphDatabaseSettings.cypher_enable_runtime_monitors)
+      config.get(GraphDatabaseSettings.cypher_enable_runtime_monitors),
+      config.get(GraphDatabaseSettings.cypher_interpreted_slotted_rows),
+      config.get(GraphDatabaseSettings.cypher_spill_threshold),
+      config.get(GraphDatabaseSettings.cypher_parallel_workers),
+      config.get(GraphDatabaseSettings.csv_parser_threads)
     )
   }
 
@@ -123,7 +127,11 @@ case class CypherConfiguration(version: CypherVersion,
                                operatorEngine: CypherOperatorEngineOption,
                                interpretedPipesFallback: CypherInterpretedPipesFallbackOption,
                                memoryTrackingController: MemoryTrackingController,
-                               enableMonitors: Boolean) {
+                               enableMonitors: Boolean,
+                               interpretedSlottedRows: Boolean,
+                               spillThreshold: Long,
+                               parallelWorkers: Int,
+                               csvParserThreads: Int) {
 
   def toCypherRuntimeConfiguration: CypherRuntimeConfiguration =
     CypherRuntimeConfiguration(
@@ -133,7 +141,11 @@ case class CypherConfiguration(version: CypherVersion,
       schedulerTracing = toSchedulerTracingConfiguration(doSchedulerTracing, schedulerTracingFile),
       lenientCreateRelationship = lenientCreateRelationship,
       memoryTrackingController = memoryTrackingController,
-      enableMonitors
+      enableMonitors,
+      interpretedSlottedRows,
+      spillThreshold,
+      parallelWorkers,
+      csvParserThreads
     )
 
   def toSchedulerTracingConfiguration(doSchedulerTracing: Boolean,
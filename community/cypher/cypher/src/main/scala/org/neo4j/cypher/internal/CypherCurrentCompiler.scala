@@ -23,7 +23,7 @@ import org.neo4j.cypher.internal.NotificationWrapping.asKernelNotification
 import org.neo4j.cypher.internal.compiler.phases.LogicalPlanState
 import org.neo4j.cypher.internal.logical.plans._
 import org.neo4j.cypher.internal.plandescription.{InternalPlanDescription, PlanDescriptionBuilder}
-import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.{Cardinalities, ProvidedOrders}
+import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.{Cardinalities, ProvidedOrders, Solveds}
 import org.neo4j.cypher.internal.planning._
 import org.neo4j.cypher.internal.result.{ClosingExecutionResult, ExplainExecutionResult, StandardInternalExecutionResult, _}
 import org.neo4j.cypher.internal.runtime.interpreted.TransactionBoundQueryContext.IndexSearchMonitor
@@ -34,6 +34,7 @@ import org.neo4j.cypher.internal.v4_0.frontend.PlannerName
 import org.neo4j.cypher.internal.v4_0.frontend.phases.CompilationPhaseTracer
 import org.neo4j.cypher.internal.v4_0.util.attribution.SequentialIdGen
 import org.neo4j.cypher.internal.v4_0.util.{InternalNotification, TaskCloser}
+import org.neo4j.cypher.result.RuntimeResult
 import org.neo4j.cypher.{CypherExecutionMode, CypherVersion}
 import org.neo4j.exceptions.{Neo4jException, ParameterNotFoundException, ParameterWrongTypeException}
 import org.neo4j.graphdb.{Notification, QueryExecutionType}
@@ -141,6 +142,7 @@ case class CypherCurrentCompiler[CONTEXT <: RuntimeContext](planner: CypherPlann
     new CypherExecutableQuery(
       logicalPlan,
       logicalQuery.readOnly,
+      logicalPlanResult.logicalPlanState.planningAttributes.solveds,
       logicalPlanResult.logicalPlanState.planningAttributes.cardinalities,
       logicalPlanResult.logicalPlanState.planningAttributes.providedOrders,
       executionPlan,
@@ -200,6 +202,7 @@ case class CypherCurrentCompiler[CONTEXT <: RuntimeContext](planner: CypherPlann
 
   protected class CypherExecutableQuery(logicalPlan: LogicalPlan,
                                         readOnly: Boolean,
+                                        solveds: Solveds,
                                         cardinalities: Cardinalities,
                                         providedOrders: ProvidedOrders,
                                         executionPlan: ExecutionPlan,
@@ -306,6 +309,13 @@ case class CypherCurrentCompiler[CONTEXT <: RuntimeContext](planner: CypherPlann
 
         taskCloser.addTask(_ => runtimeResult.close())
 
+        // Tasks run in reverse order, so this reads the profile before the result is closed
+        (innerExecutionMode, reusabilityState) match {
+          case (ProfileMode, MaybeReusable(fingerprint)) =>
+            taskCloser.addTask(success => if (success) recordCardinalityFeedback(runtimeResult, fingerprint))
+          case _ =>
+        }
+
         new StandardInternalExecutionResult(queryContext,
                                             executionPlan.runtimeName,
                                             runtimeResult,
@@ -324,6 +334,19 @@ case class CypherCurrentCompiler[CONTEXT <: RuntimeContext](planner: CypherPlann
       )
     }
 
+    /**
+      * Compares the rows of the profiled execution with the estimated cardinalities, and marks the plan to be replanned
+      * if that taught the planner something new. Failing to do so must never fail the query, which has already succeeded.
+      */
+    private def recordCardinalityFeedback(runtimeResult: RuntimeResult, fingerprint: PlanFingerprintReference): Unit =
+      try {
+        val profile = runtimeResult.queryProfile()
+        if (planner.cardinalityFeedback.recordExecution(logicalPlan, solveds, cardinalities, id => profile.operatorProfile(id.x).rows()))
+          fingerprint.cardinalitiesDiverged = true
+      } catch {
+        case NonFatalCypherError(_) => // the plan is only kept as it is
+      }
+
     override def reusabilityState(lastCommittedTxId: () => Long, ctx: TransactionalContext): ReusabilityState = reusabilityState
 
     override def planDescription(): InternalPlanDescription = planDescriptionBuilder.explain()
@@ -196,7 +196,11 @@ case class CypherRuntimeConfiguration(workers: Int,
                                       schedulerTracing: SchedulerTracingConfiguration,
                                       lenientCreateRelationship: Boolean,
                                       memoryTrackingController: MemoryTrackingController,
-                                      enableMonitors: Boolean) {
+                                      enableMonitors: Boolean,
+                                      interpretedSlottedRows: Boolean,
+                                      spillThreshold: Long,
+                                      parallelWorkers: Int,
+                                      csvParserThreads: Int) {
 
   Preconditions.checkArgument(pipelinedBatchSizeSmall <= pipelinedBatchSizeBig, s"pipelinedBatchSizeSmall (got $pipelinedBatchSizeSmall) must be <= pipelinedBatchSizeBig (got $pipelinedBatchSizeBig)")
 }
@@ -294,6 +294,17 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
     throw new IllegalStateException("Could not compile query due to insanely frequent schema changes")
   }
 
+  /**
+    * The query strings and parameter types of the queries currently in the query cache. The query strings include the
+    * options they were planned with, so executing them plans the queries for the same cache entries. Queries that were
+    * not given as query strings, i.e. fully parsed queries, are left out.
+    */
+  def cachedQueries: util.List[Pair[String, util.Map[String, Class[_]]]] =
+    queryCache.keys.flatMap(key => key.first() match {
+      case query: String => Some(Pair.of[String, util.Map[String, Class[_]]](query, key.other().asJava))
+      case _ => None
+    }).asJava
+
   def clearQueryCaches(): Long =
     List(masterCompiler.clearCaches(), queryCache.clear(), preParser.clearCache()).max
 
@@ -23,7 +23,7 @@ import org.neo4j.cypher.internal.plandescription.Argument
 import org.neo4j.cypher.internal.runtime._
 import org.neo4j.cypher.internal.runtime.expressionVariableAllocation.Result
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.{CommunityExpressionConverter, ExpressionConverters}
-import org.neo4j.cypher.internal.runtime.interpreted.pipes.{NestedPipeExpressions, PipeTreeBuilder}
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.{ArrayExecutionContextFactory, ExecutionContextFactoryPipeMapper, NestedPipeExpressions, PipeTreeBuilder}
 import org.neo4j.cypher.internal.runtime.interpreted.profiler.{InterpretedProfileInformation, Profiler}
 import org.neo4j.cypher.internal.runtime.interpreted.{ExecutionResultBuilderFactory, InterpretedExecutionResultBuilderFactory, InterpretedPipeMapper, UpdateCountingQueryContext}
 import org.neo4j.cypher.internal.v4_0.util.InternalNotification
@@ -42,7 +42,13 @@ object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
 
     val converters = new ExpressionConverters(CommunityExpressionConverter(context.tokenContext))
     val queryIndexRegistrator = new QueryIndexRegistrator(context.schemaRead)
-    val pipeMapper = InterpretedPipeMapper(query.readOnly, converters, context.tokenContext, queryIndexRegistrator)(query.semanticTable)
+    val interpretedPipeMapper = InterpretedPipeMapper(query.readOnly, converters, context.tokenContext, queryIndexRegistrator,
+                                                      context.config.parallelWorkers, context.compileExpressions,
+                                                      context.config.csvParserThreads)(query.semanticTable)
+    val pipeMapper =
+      if (context.config.interpretedSlottedRows)
+        ExecutionContextFactoryPipeMapper(interpretedPipeMapper, ArrayExecutionContextFactory(variableSlotAllocation.allocate(logicalPlan)))
+      else interpretedPipeMapper
     val pipeTreeBuilder = PipeTreeBuilder(pipeMapper)
     val logicalPlanWithConvertedNestedPlans = NestedPipeExpressions.build(pipeTreeBuilder, withSlottedParameters, availableExpressionVars)
     val pipe = pipeTreeBuilder.build(logicalPlanWithConvertedNestedPlans)
@@ -56,6 +62,7 @@ object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
                                                                         withSlottedParameters,
                                                                         context.config.lenientCreateRelationship,
                                                                         context.config.memoryTrackingController,
+                                                                        context.config.spillThreshold,
                                                                         query.hasLoadCSV)
 
     new InterpretedExecutionPlan(query.periodicCommitInfo,
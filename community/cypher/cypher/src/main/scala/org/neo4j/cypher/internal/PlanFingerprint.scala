@@ -37,4 +37,10 @@ object PlanFingerprint {
     PlanFingerprint(clock.millis(), txIdProvider(), graphStatistics.snapshot.freeze)
 }
 
-class PlanFingerprintReference(var fingerprint: PlanFingerprint)
+class PlanFingerprintReference(var fingerprint: PlanFingerprint) {
+  /**
+    * Set when executing the plan showed cardinalities far off the estimates it was planned with, and replanning
+    * with the observed cardinalities could give a better plan.
+    */
+  @volatile var cardinalitiesDiverged: Boolean = false
+}
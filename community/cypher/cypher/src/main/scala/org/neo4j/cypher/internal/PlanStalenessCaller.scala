@@ -60,7 +60,8 @@ class PlanStalenessCaller[EXECUTABLE_QUERY](clock: Clock,
     // because for us to plan a query this tx has to be open, e.g. not committed.
     lazy val currentTxId = lastCommittedTxIdProvider()
 
-    val stale = divergence.shouldCheck(currentTimeMillis, f.lastCheckTimeMillis) &&
+    // Executing the plan already showed it was planned with cardinalities far off, no need to look at the statistics
+    val stale = ref.cardinalitiesDiverged || divergence.shouldCheck(currentTimeMillis, f.lastCheckTimeMillis) &&
       check(currentTxId != f.txId,
             () => {
               ref.fingerprint = f.copy(lastCheckTimeMillis = currentTimeMillis)
@@ -106,8 +106,7 @@ object PreParser {
   private final val ILLEGAL_PLANNER_VERSION_COMBINATIONS: Set[(CypherPlannerOption, CypherVersion)] = Set.empty
   private final val ILLEGAL_EXPRESSION_ENGINE_RUNTIME_COMBINATIONS: Set[(CypherExpressionEngineOption, CypherRuntimeOption)] =
     Set(
-      (CypherExpressionEngineOption.compiled, CypherRuntimeOption.compiled),
-      (CypherExpressionEngineOption.compiled, CypherRuntimeOption.interpreted))
+      (CypherExpressionEngineOption.compiled, CypherRuntimeOption.compiled))
   private final val ILLEGAL_OPERATOR_ENGINE_RUNTIME_COMBINATIONS: Set[(CypherOperatorEngineOption, CypherRuntimeOption)] =
     Set(
       (CypherOperatorEngineOption.compiled, CypherRuntimeOption.compiled),
@@ -211,6 +211,11 @@ class QueryCache[QUERY_REP <: AnyRef, QUERY_KEY <: Pair[QUERY_REP, ParameterType
     CacheMiss(newExecutableQuery)
   }
 
+  /**
+    * @return the keys of all entries currently in the cache
+    */
+  def keys: Seq[QUERY_KEY] = inner.asMap().keySet().toList
+
   /**
     * Method for clearing the LRUCache
     *
@@ -498,6 +498,12 @@ case class LogicalPlan2PlanDescription(readOnly: Boolean, cardinalities: Cardina
         val predicatesDescription = buildPredicatesDescription(maybeNodePredicate, maybeRelationshipPredicate)
         PlanDescriptionImpl(id, s"VarLengthExpand(Pruning)", children, Seq(expandSpec) ++ predicatesDescription, variables)
 
+      case BidirectionalVarExpandInto(_, fromName, dir, types, toName, min, max, maybeNodePredicate, maybeRelationshipPredicate) =>
+        val expandSpec = ExpandExpression(fromName, "", types.map(_.name), toName, dir, minLength = min,
+                                          maxLength = Some(max))
+        val predicatesDescription = buildPredicatesDescription(maybeNodePredicate, maybeRelationshipPredicate)
+        PlanDescriptionImpl(id, s"VarLengthExpand(Bidirectional)", children, Seq(expandSpec) ++ predicatesDescription, variables)
+
       case _: RemoveLabels =>
         PlanDescriptionImpl(id, "RemoveLabels", children, Seq.empty, variables)
 
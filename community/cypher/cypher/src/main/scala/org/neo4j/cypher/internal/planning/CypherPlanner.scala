@@ -28,7 +28,8 @@ import org.neo4j.cypher.internal.cache.LFUCache
 import org.neo4j.cypher.internal.compiler._
 import org.neo4j.cypher.internal.compiler.phases.{LogicalPlanState, PlannerContext, PlannerContextCreator}
 import org.neo4j.cypher.internal.compiler.planner.logical.idp._
-import org.neo4j.cypher.internal.compiler.planner.logical.{CachedMetricsFactory, SimpleMetricsFactory, simpleExpressionEvaluator}
+import org.neo4j.cypher.internal.compiler.planner.logical.cardinality.CardinalityFeedback
+import org.neo4j.cypher.internal.compiler.planner.logical.{CachedMetricsFactory, CardinalityFeedbackMetricsFactory, simpleExpressionEvaluator}
 import org.neo4j.cypher.internal.logical.plans._
 import org.neo4j.cypher.internal.planner.spi.{CostBasedPlannerName, DPPlannerName, IDPPlannerName, PlanContext}
 import org.neo4j.cypher.internal.runtime.interpreted._
@@ -113,12 +114,18 @@ case class CypherPlanner(config: CypherPlannerConfiguration,
 
   private val schemaStateKey: SchemaStateKey = SchemaStateKey.newKey()
 
+  /**
+    * Selectivities observed in profiled executions of plans of this planner, used when estimating cardinalities of later plans.
+    */
+  val cardinalityFeedback: CardinalityFeedback = new CardinalityFeedback
+
   /**
     * Clear the caches of this caching compiler.
     *
     * @return the number of entries that were cleared
     */
   def clearCaches(): Long = {
+    cardinalityFeedback.clear()
     Math.max(parsedQueries.clear(), planCache.clear())
   }
 
@@ -222,7 +229,7 @@ case class CypherPlanner(config: CypherPlannerConfiguration,
       options.debugOptions,
       Some(options.offset),
       monitors,
-      CachedMetricsFactory(SimpleMetricsFactory),
+      CachedMetricsFactory(CardinalityFeedbackMetricsFactory(cardinalityFeedback)),
       createQueryGraphSolver(),
       config,
       maybeUpdateStrategy.getOrElse(defaultUpdateStrategy),
@@ -352,4 +359,8 @@ trait CypherCacheHitMonitor[T] {
   def cacheRecompile(key: T) {}
 }
 
-trait CypherCacheMonitor[T] extends CypherCacheHitMonitor[T] with CypherCacheFlushingMonitor
+trait CypherCacheWarmupMonitor {
+  def cacheWarmupCompleted(plannedQueries: Long, failedQueries: Long, elapsedMillis: Long) {}
+}
+
+trait CypherCacheMonitor[T] extends CypherCacheHitMonitor[T] with CypherCacheFlushingMonitor with CypherCacheWarmupMonitor
@@ -27,6 +27,7 @@ import org.neo4j.cypher.internal.runtime._
 import org.neo4j.cypher.internal.runtime.interpreted.DelegatingQueryTransactionalContext
 import org.neo4j.cypher.internal.v4_0.expressions.SemanticDirection
 import org.neo4j.graphdb.{Entity, Path}
+import org.neo4j.internal.kernel.api.helpers.ReusableRelationshipSelectionCursor
 import org.neo4j.internal.kernel.api.procs.ProcedureCallContext
 import org.neo4j.internal.kernel.api.{QueryContext => _, _}
 import org.neo4j.internal.schema.IndexDescriptor
@@ -43,6 +44,9 @@ class ExceptionTranslatingQueryContext(val inner: QueryContext) extends QueryCon
 
   override def resources: ResourceManager = inner.resources
 
+  override def createNewQueryContext(): Option[QueryContext] =
+    translateException(inner.createNewQueryContext()).map(new ExceptionTranslatingQueryContext(_))
+
   override def transactionalContext =
     new ExceptionTranslatingTransactionalContext(inner.transactionalContext)
 
@@ -223,6 +227,10 @@ class ExceptionTranslatingQueryContext(val inner: QueryContext) extends QueryCon
   override def getRelationshipsForIdsPrimitive(node: Long, dir: SemanticDirection, types: Array[Int]): RelationshipIterator =
     translateException(inner.getRelationshipsForIdsPrimitive(node, dir, types))
 
+  override def getRelationshipsForIdsPrimitive(node: Long, dir: SemanticDirection, types: Array[Int],
+                                               cursor: ReusableRelationshipSelectionCursor): RelationshipIterator =
+    translateException(inner.getRelationshipsForIdsPrimitive(node, dir, types, cursor))
+
   override def relationshipById(relationshipId: Long, startNodeId: Long, endNodeId: Long, typeId: Int): RelationshipValue =
     translateException(inner.relationshipById(relationshipId, startNodeId, endNodeId, typeId))
 
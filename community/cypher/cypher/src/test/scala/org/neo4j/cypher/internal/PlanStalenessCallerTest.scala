@@ -93,6 +93,23 @@ class PlanStalenessCallerTest extends CypherFunSuite {
     }
   }
 
+  test("should be stale if execution showed cardinalities diverging from the estimates") {
+    testAll { (name, clock) =>
+      val snapshot = GraphStatisticsSnapshot(Map(NodesWithLabelCardinality(label(21)) -> 5.0))
+      val fingerprintRef = new PlanFingerprintReference(PlanFingerprint(clock.millis(), 17, snapshot))
+      val divergenceCalculator = StatsDivergenceCalculator.divergenceCalculatorFor(name, 0.5, 0.1, 1000, 100000)
+
+      // neither the statistics nor the transaction id changed
+      val stats: GraphStatistics = nodesWithLabelCardinality(21, 5.0)
+      val planStalenessCaller = new PlanStalenessCaller(clock, divergenceCalculator, TransactionIdSupplier(17), not_used)
+
+      planStalenessCaller.staleness(fingerprintRef, stats) shouldBe NotStale
+
+      fingerprintRef.cardinalitiesDiverged = true
+      planStalenessCaller.staleness(fingerprintRef, stats) shouldBe a[Stale]
+    }
+  }
+
   test("should not be stale if txId didn't change") {
     testAll { (name, clock) =>
       val snapshot = GraphStatisticsSnapshot(Map(NodesWithLabelCardinality(label(21)) -> 5.0))
@@ -23,10 +23,12 @@ import java.io._
 import java.net.{CookieHandler, CookieManager, CookiePolicy, URL}
 import java.nio.charset.StandardCharsets
 import java.nio.file.Paths
+import java.util.concurrent.Executor
 import java.util.zip.{GZIPInputStream, InflaterInputStream}
 
 import org.neo4j.csv.reader._
 import org.neo4j.cypher.internal.runtime.ResourceManager
+import org.neo4j.cypher.internal.runtime.interpreted.load_csv.ParallelLoadCsvIterator
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.{ExternalCSVResource, LoadCsvIterator}
 import org.neo4j.exceptions.{CypherExecutionException, LoadExternalResourceException}
 import org.neo4j.internal.kernel.api.{AutoCloseablePlus, DefaultCloseListenable}
@@ -40,10 +42,10 @@ object CSVResources {
   val DEFAULT_BUFFER_SIZE: Int = 2 * 1024 * 1024
   val DEFAULT_QUOTE_CHAR: Char = '"'
 
-  private def config(legacyCsvQuoteEscaping: Boolean, csvBufferSize: Int) = Configuration.newBuilder()
+  private def config(legacyCsvQuoteEscaping: Boolean, csvBufferSize: Int, multilineFields: Boolean = true) = Configuration.newBuilder()
     .withQuotationCharacter(DEFAULT_QUOTE_CHAR)
     .withBufferSize(csvBufferSize)
-    .withMultilineFields(true)
+    .withMultilineFields(multilineFields)
     .withTrimStrings(false)
     .withEmptyQuotedStringsAsNull(true)
     .withLegacyStyleQuoting(legacyCsvQuoteEscaping)
@@ -119,6 +121,18 @@ class CSVResources(resourceManager: ResourceManager) extends ExternalCSVResource
     }
   }
 
+  override def getParallelCsvIterator(url: URL, fieldTerminator: Option[String], legacyCsvQuoteEscaping: Boolean, bufferSize: Int,
+                                      headers: Boolean, parserThreads: Int, executor: Executor): LoadCsvIterator = {
+    // Chunks are cut at line breaks, so a field can not span several lines
+    val chunker = new ClosestNewLineChunker(getReader(url), bufferSize)
+    val delimiter: Char = fieldTerminator.map(_.charAt(0)).getOrElse(CSVResources.DEFAULT_FIELD_TERMINATOR)
+    val config = CSVResources.config(legacyCsvQuoteEscaping, bufferSize, multilineFields = false)
+    val iterator = new ParallelLoadCsvIterator(chunker, config, delimiter, parserThreads, executor)
+
+    resourceManager.trace(CSVResource(url, iterator))
+    iterator
+  }
+
   private def getReader(url: URL) = try {
     val reader = if (url.getProtocol == "file") {
       Readables.files(StandardCharsets.UTF_8, Paths.get(url.toURI).toFile)
@@ -23,6 +23,7 @@ import org.neo4j.cypher.internal.logical.plans.LogicalPlan
 import org.neo4j.cypher.internal.runtime._
 import org.neo4j.cypher.internal.runtime.interpreted.load_csv.LoadCsvPeriodicCommitObserver
 import org.neo4j.cypher.internal.runtime.interpreted.pipes._
+import org.neo4j.cypher.internal.runtime.interpreted.spill.QuerySpilling
 import org.neo4j.cypher.result.{QueryProfile, RuntimeResult}
 import org.neo4j.kernel.impl.query.QuerySubscriber
 import org.neo4j.values.AnyValue
@@ -76,6 +77,7 @@ case class InterpretedExecutionResultBuilderFactory(pipe: Pipe,
                                                     logicalPlan: LogicalPlan,
                                                     lenientCreateRelationship: Boolean,
                                                     memoryTrackingController: MemoryTrackingController,
+                                                    spillThreshold: Long,
                                                     hasLoadCSV: Boolean = false)
   extends BaseExecutionResultBuilderFactory(pipe, readOnly, columns, logicalPlan, hasLoadCSV) {
 
@@ -96,7 +98,8 @@ case class InterpretedExecutionResultBuilderFactory(pipe: Pipe,
                      pipeDecorator,
                      lenientCreateRelationship = lenientCreateRelationship,
                      prePopulateResults = prePopulateResults,
-                     input = input)
+                     input = input,
+                     spilling = QuerySpilling(spillThreshold, queryContext.resources))
     }
   }
 
@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.runtime.interpreted
 
 import java.net.URL
+import java.util.concurrent.Executor
 
 import org.eclipse.collections.api.iterator.LongIterator
 import org.neo4j.cypher.internal.logical.plans.IndexOrder
@@ -27,7 +28,7 @@ import org.neo4j.cypher.internal.profiling.KernelStatisticProvider
 import org.neo4j.cypher.internal.runtime._
 import org.neo4j.cypher.internal.v4_0.expressions.SemanticDirection
 import org.neo4j.graphdb.{Entity, Path}
-import org.neo4j.internal.kernel.api.helpers.RelationshipSelectionCursor
+import org.neo4j.internal.kernel.api.helpers.{RelationshipSelectionCursor, ReusableRelationshipSelectionCursor}
 import org.neo4j.internal.kernel.api.procs.ProcedureCallContext
 import org.neo4j.internal.kernel.api.{QueryContext => _, _}
 import org.neo4j.internal.schema.IndexDescriptor
@@ -58,6 +59,12 @@ abstract class DelegatingQueryContext(val inner: QueryContext) extends QueryCont
 
   override def transactionalContext: QueryTransactionalContext = inner.transactionalContext
 
+  /**
+    * The subclasses count what goes through them, like db hits or updates, in counters that are neither shared with nor
+    * safe to use from other threads. Handing out a context of the inner one would silently lose whatever it reads.
+    */
+  override def createNewQueryContext(): Option[QueryContext] = None
+
   override def entityAccessor: TransactionalEntityFactory = inner.entityAccessor
 
   override def setLabelsOnNode(node: Long, labelIds: Iterator[Int]): Int =
@@ -90,6 +97,10 @@ abstract class DelegatingQueryContext(val inner: QueryContext) extends QueryCont
   override def getRelationshipsForIdsPrimitive(node: Long, dir: SemanticDirection, types: Array[Int]): RelationshipIterator =
   manyDbHits(inner.getRelationshipsForIdsPrimitive(node, dir, types))
 
+  override def getRelationshipsForIdsPrimitive(node: Long, dir: SemanticDirection, types: Array[Int],
+                                               cursor: ReusableRelationshipSelectionCursor): RelationshipIterator =
+  manyDbHits(inner.getRelationshipsForIdsPrimitive(node, dir, types, cursor))
+
   override def singleRelationship(id: Long, cursor: RelationshipScanCursor): Unit =  singleDbHit(inner.singleRelationship(id, cursor))
 
   override def relationshipById(relationshipId: Long, startNodeId: Long, endNodeId: Long, typeId: Int): RelationshipValue =
@@ -338,6 +349,8 @@ class DelegatingQueryTransactionalContext(val inner: QueryTransactionalContext)
 
   override def databaseId: NamedDatabaseId = inner.databaseId
 
+  override def workerExecutor: Executor = inner.workerExecutor
+
   override def transaction: KernelTransaction = inner.transaction
 
   override def cursors: CursorFactory = inner.cursors
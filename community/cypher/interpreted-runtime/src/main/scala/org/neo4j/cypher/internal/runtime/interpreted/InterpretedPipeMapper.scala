@@ -25,6 +25,7 @@ import org.neo4j.cypher.internal.logical.plans.{Limit => LimitPlan, LoadCSV => L
 import org.neo4j.cypher.internal.planner.spi.TokenContext
 import org.neo4j.cypher.internal.runtime.ast.ExpressionVariable
 import org.neo4j.cypher.internal.runtime.interpreted.commands.KeyTokenResolver
+import org.neo4j.cypher.internal.runtime.interpreted.commands.compiled.ExpressionCompiler
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.PatternConverters._
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.{ExpressionConverters, InterpretedCommandProjection}
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.{AggregationExpression, Expression, Literal, ShortestPathExpression}
@@ -47,13 +48,19 @@ import org.neo4j.values.virtual.{NodeValue, RelationshipValue}
 case class InterpretedPipeMapper(readOnly: Boolean,
                                  expressionConverters: ExpressionConverters,
                                  tokenContext: TokenContext,
-                                 indexRegistrator: QueryIndexRegistrator)
+                                 indexRegistrator: QueryIndexRegistrator,
+                                 parallelWorkers: Int = 0,
+                                 compileExpressions: Boolean = false,
+                                 csvParserThreads: Int = 0)
                                 (implicit semanticTable: SemanticTable) extends PipeMapper {
 
   private def getBuildExpression(id: Id): ASTExpression => Expression =
     ((e: ASTExpression) => expressionConverters.toCommandExpression(id, e)) andThen
     (expression => expression.rewrite(KeyTokenResolver.resolveExpressions(_, tokenContext)))
 
+  private def compiled(expression: Expression): Expression =
+    if (compileExpressions) ExpressionCompiler.compile(expression) else expression
+
   def onLeaf(plan: LogicalPlan): Pipe = {
     val id = plan.id
     val buildExpression = getBuildExpression(id)
@@ -115,7 +122,7 @@ case class InterpretedPipeMapper(readOnly: Boolean,
     val buildExpression = getBuildExpression(id)
     plan match {
       case Projection(_, expressions) =>
-        ProjectionPipe(source,  InterpretedCommandProjection(Eagerly.immutableMapValues(expressions, buildExpression)))(id = id)
+        ProjectionPipe(source,  InterpretedCommandProjection(Eagerly.immutableMapValues(expressions, buildExpression andThen compiled)))(id = id)
 
       case ProjectEndpoints(_, rel, start, startInScope, end, endInScope, types, directed, length) =>
         ProjectEndpointsPipe(source, rel,
@@ -132,14 +139,15 @@ case class InterpretedPipeMapper(readOnly: Boolean,
       case Selection(predicate, _) =>
         val predicateExpression =
           if (predicate.exprs.size == 1) buildExpression(predicate.exprs.head) else buildExpression(predicate)
-        FilterPipe(source, predicateExpression)(id = id)
+        FilterPipe(source, compiled(predicateExpression))(id = id)
 
       case CacheProperties(_, properties) =>
         val runtimeProperties = properties.toArray.map(buildExpression(_))
         CachePropertiesPipe(source, runtimeProperties)(id = id)
 
       case Expand(_, fromName, dir, types: Seq[RelTypeName], toName, relName, ExpandAll) =>
-        ExpandAllPipe(source, fromName, relName, toName, dir, RelationshipTypes(types.toArray))(id = id)
+        val batchSize = if (readOnly) ExpandAllPipe.BATCH_SIZE else 1
+        ExpandAllPipe(source, fromName, relName, toName, dir, RelationshipTypes(types.toArray), batchSize)(id = id)
 
       case Expand(_, fromName, dir, types: Seq[RelTypeName], toName, relName, ExpandInto) =>
         ExpandIntoPipe(source, fromName, relName, toName, dir, RelationshipTypes(types.toArray))(id = id)
@@ -189,6 +197,18 @@ case class InterpretedPipeMapper(readOnly: Boolean,
         val predicate = varLengthPredicate(id, nodePredicate, relationshipPredicate)
         PruningVarLengthExpandPipe(source, from, toName, RelationshipTypes(types.toArray), dir, minLength, maxLength, predicate)(id = id)
 
+      case BidirectionalVarExpandInto(_,
+                                      from,
+                                      dir,
+                                      types,
+                                      toName,
+                                      minLength,
+                                      maxLength,
+                                      nodePredicate,
+                                      relationshipPredicate) =>
+        val predicate = varLengthPredicate(id, nodePredicate, relationshipPredicate)
+        BidirectionalVarLengthExpandPipe(source, from, toName, RelationshipTypes(types.toArray), dir, minLength, maxLength, predicate)(id = id)
+
       case Sort(_, sortItems) =>
         SortPipe(source, InterpretedExecutionContextOrdering.asComparator(sortItems.map(translateColumnOrder)))(id = id)
 
@@ -258,7 +278,7 @@ case class InterpretedPipeMapper(readOnly: Boolean,
         }.toArray
         OrderedDistinctPipe(source, projection)(id = id)
 
-      case Aggregation(_, groupingExpressions, aggregatingExpressions) =>
+      case Aggregation(sourcePlan, groupingExpressions, aggregatingExpressions) =>
         val aggregationColumns = aggregatingExpressions.map {
           case (key, value) => AggregationPipe.AggregatingCol(key, buildExpression(value).asInstanceOf[AggregationExpression])
         }.toArray
@@ -273,7 +293,14 @@ case class InterpretedPipeMapper(readOnly: Boolean,
             val groupingFunction: (ExecutionContext, QueryState) => AnyValue = AggregationPipe.computeGroupingFunction(groupingColumns)
             GroupingAggTable.Factory(groupingColumns, groupingFunction, aggregationColumns)
           }
-        EagerAggregationPipe(source, tableFactory)(id = id)
+        val mergeTableFactory =
+          if (parallelWorkers > 1 && readOnly && isParallelScan(sourcePlan))
+            ParallelAggregationPipe.mergeTableFactory(groupingExpressions.keys.toArray, aggregationColumns)
+          else None
+        mergeTableFactory match {
+          case Some(mergeTable) => ParallelAggregationPipe(source, tableFactory, mergeTable, parallelWorkers)(id = id)
+          case None => EagerAggregationPipe(source, tableFactory)(id = id)
+        }
 
       case OrderedAggregation(_, groupingExpressions, aggregatingExpressions, orderToLeverage) =>
         val aggregationColumns = aggregatingExpressions.map {
@@ -327,7 +354,8 @@ case class InterpretedPipeMapper(readOnly: Boolean,
         ProcedureCallPipe(source, signature, callMode, callArgumentCommands, rowProcessing, call.callResultTypes, call.callResultIndices)(id = id)
 
       case LoadCSVPlan(_, url, variableName, format, fieldTerminator, legacyCsvQuoteEscaping, bufferSize) =>
-        LoadCSVPipe(source, format, buildExpression(url), variableName, fieldTerminator, legacyCsvQuoteEscaping, bufferSize)(id = id)
+        LoadCSVPipe(source, format, buildExpression(url), variableName, fieldTerminator, legacyCsvQuoteEscaping, bufferSize,
+                    csvParserThreads)(id = id)
 
       case ProduceResult(_, columns) =>
         ProduceResultsPipe(source, columns.toArray)(id = id)
@@ -520,6 +548,24 @@ case class InterpretedPipeMapper(readOnly: Boolean,
     }
   }
 
+  /**
+    * Whether the plan only reads nodes from a scan of all nodes or of a label, and filters, expands and projects them,
+    * which the workers of a parallel query can each do on their own share of the scan.
+    */
+  private def isParallelScan(plan: LogicalPlan): Boolean = {
+    def scanChain(plan: LogicalPlan): Boolean = plan match {
+      case Selection(_, source) => scanChain(source)
+      case Projection(source, _) => scanChain(source)
+      case Expand(source, _, _, _, _, _, _) => scanChain(source)
+      case AllNodesScan(_, argumentIds) => argumentIds.isEmpty
+      case NodeByLabelScan(_, _, argumentIds) => argumentIds.isEmpty
+      case _ => false
+    }
+    scanChain(plan) && !plan.treeExists {
+      case _: ResolvedFunctionInvocation | _: NestedPlanExpression | _: NestedPipeExpression => true
+    }
+  }
+
   private def buildPredicate(id: Id, expr: ASTExpression): Predicate =
     expressionConverters.toCommandPredicate(id, expr)
       .rewrite(KeyTokenResolver.resolveExpressions(_, tokenContext))
@@ -78,6 +78,12 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
   if (trackResourcesInTransaction)
     transactionalContext.tc.statement().registerCloseableResource(resources)
 
+  override def createNewQueryContext(): Option[QueryContext] = {
+    val kernel = transactionalContext.graph.getDependencyResolver.resolveDependency(classOf[Kernel])
+    val threadSafeContext = TransactionalContextWrapper(transactionalContext.tc, kernel.cursors())
+    Some(new TransactionBoundQueryContext(threadSafeContext, new ResourceManager, trackResourcesInTransaction = false))
+  }
+
   override def setLabelsOnNode(node: Long, labelIds: Iterator[Int]): Int = labelIds.foldLeft(0) {
     case (count, labelId) => if (writes().nodeAddLabel(node, labelId)) count + 1 else count
   }
@@ -204,6 +210,18 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
     }
   }
 
+  override def getRelationshipsForIdsPrimitive(node: Long, dir: SemanticDirection, types: Array[Int],
+                                               cursor: ReusableRelationshipSelectionCursor): RelationshipIterator = {
+    val read = reads()
+    val positioned = dir match {
+      case OUTGOING => cursor.outgoing(read, node, types)
+      case INCOMING => cursor.incoming(read, node, types)
+      case BOTH => cursor.all(read, node, types)
+    }
+    if (!positioned) RelationshipIterator.EMPTY
+    else new RelationshipCursorIterator(cursor, ownsCursor = false)
+  }
+
   override def relationshipById(relationshipId: Long,
                                 startNodeId: Long,
                                 endNodeId: Long,
@@ -927,7 +945,10 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
     }
   }
 
-  class RelationshipCursorIterator(selectionCursor: RelationshipSelectionCursor) extends RelationshipIterator with AutoCloseable {
+  /**
+    * @param ownsCursor if `false` the cursor is closed by the caller, and kept open when this iterator is exhausted or closed
+    */
+  class RelationshipCursorIterator(selectionCursor: RelationshipSelectionCursor, ownsCursor: Boolean = true) extends RelationshipIterator with AutoCloseable {
 
     import RelationshipCursorIterator.{NOT_INITIALIZED, NO_ID}
 
@@ -935,7 +956,7 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
     private var typeId: Int = NO_ID
     private var source: Long = NO_ID
     private var target: Long = NO_ID
-    resources.trace(selectionCursor)
+    if (ownsCursor) resources.trace(selectionCursor)
 
     override def relationshipVisit[EXCEPTION <: Exception](relationshipId: Long,
                                                            visitor: RelationshipVisitor[EXCEPTION]): Boolean = {
@@ -963,7 +984,7 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
 
     override def next(): Long = {
       if (!hasNext) {
-        selectionCursor.close()
+        close()
         Iterator.empty.next()
       }
 
@@ -976,7 +997,7 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
       current
     }
 
-    override def close(): Unit = selectionCursor.close()
+    override def close(): Unit = if (ownsCursor) selectionCursor.close()
   }
 
   object RelationshipCursorIterator {
@@ -19,6 +19,8 @@
  */
 package org.neo4j.cypher.internal.runtime.interpreted
 
+import java.util.concurrent.Executor
+
 import org.neo4j.cypher.internal.profiling.KernelStatisticProvider
 import org.neo4j.cypher.internal.runtime.QueryTransactionalContext
 import org.neo4j.internal.kernel.api._
@@ -29,10 +31,9 @@ import org.neo4j.kernel.database.NamedDatabaseId
 import org.neo4j.kernel.impl.api.SchemaStateKey
 import org.neo4j.kernel.impl.factory.DatabaseInfo
 import org.neo4j.kernel.impl.query.TransactionalContext
+import org.neo4j.scheduler.{Group, JobScheduler}
 
 /**
-  * TODO: Currently threadSafeCursors is entirely unused (always null), so we should consider removing it
-  *
   * @param threadSafeCursors use this instead of the cursors of the current transaction, unless this is `null`.
   */
 case class TransactionalContextWrapper(tc: TransactionalContext, threadSafeCursors: CursorFactory = null) extends QueryTransactionalContext {
@@ -67,6 +68,8 @@ case class TransactionalContextWrapper(tc: TransactionalContext, threadSafeCurso
 
   override def databaseId: NamedDatabaseId = tc.databaseId()
 
+  override def workerExecutor: Executor = tc.graph().getDependencyResolver.resolveDependency(classOf[JobScheduler]).executor(Group.CYPHER_WORKER)
+
   def getOrCreateFromSchemaState[T](key: SchemaStateKey, f: => T): T = {
     val javaCreator = new java.util.function.Function[SchemaStateKey, T]() {
       def apply(key: SchemaStateKey) = f
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.commands.compiled
+
+import org.neo4j.cypher.internal.runtime.interpreted.commands.AstNode
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.runtime.{ExecutionContext, IsFalseValue, IsNoValue, IsTrueValue}
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Value
+
+/**
+  * Implemented by the classes that [[ExpressionCompiler]] generates.
+  */
+trait CompiledExpression {
+  def evaluate(ctx: ExecutionContext, state: QueryState): AnyValue
+}
+
+/**
+  * Evaluates an expression through the class compiled for it. The original expression is the only child, so that
+  * profiling and plan descriptions still see it, and rewriting falls back to the original expression.
+  */
+case class CompiledExpressionCommand(original: Expression, compiled: CompiledExpression) extends Expression {
+
+  override def apply(ctx: ExecutionContext, state: QueryState): AnyValue = compiled.evaluate(ctx, state)
+
+  override def rewrite(f: Expression => Expression): Expression = original.rewrite(f)
+
+  override def arguments: Seq[Expression] = Seq(original)
+
+  override def children: Seq[AstNode[_]] = Seq(original)
+
+  override def toString: String = original.toString
+}
+
+/**
+  * Like [[CompiledExpressionCommand]], for predicates. The compiled class returns `true`, `false` or `NO_VALUE`.
+  */
+case class CompiledPredicateCommand(original: Predicate, compiled: CompiledExpression) extends Predicate {
+
+  override def apply(ctx: ExecutionContext, state: QueryState): Value = compiled.evaluate(ctx, state).asInstanceOf[Value]
+
+  override def isMatch(m: ExecutionContext, state: QueryState): Option[Boolean] = compiled.evaluate(m, state) match {
+    case IsTrueValue() => Some(true)
+    case IsFalseValue() => Some(false)
+    case IsNoValue() => None
+  }
+
+  override def containsIsNull: Boolean = original.containsIsNull
+
+  override def rewrite(f: Expression => Expression): Expression = original.rewrite(f)
+
+  override def arguments: Seq[Expression] = Seq(original)
+
+  override def children: Seq[AstNode[_]] = Seq(original)
+
+  override def toString: String = original.toString
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.commands.compiled
+
+import java.util.concurrent.atomic.AtomicLong
+
+import org.neo4j.codegen.CodeGenerator.generateCode
+import org.neo4j.codegen.Expression.{arrayLoad, cast, constant, constantInt, equal, getStatic, invoke, or, ternary}
+import org.neo4j.codegen.FieldReference.staticField
+import org.neo4j.codegen.MethodDeclaration.method
+import org.neo4j.codegen.MethodReference.methodReference
+import org.neo4j.codegen.Parameter.param
+import org.neo4j.codegen.TypeReference.typeReference
+import org.neo4j.codegen.bytecode.ByteCode.BYTECODE
+import org.neo4j.codegen.{CodeBlock, FieldReference, MethodReference, Expression => CodeExpression}
+import org.neo4j.cypher.internal.runtime.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions._
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates._
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.operations.{CypherBoolean, CypherMath}
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.{BooleanValue, Value, Values}
+
+import scala.collection.mutable.ArrayBuffer
+import scala.util.control.NonFatal
+
+/**
+  * Compiles predicates and projections to bytecode, so that evaluating the operators of an expression is a sequence
+  * of static calls into [[CypherMath]] and [[CypherBoolean]] instead of a virtual call and a pattern match per node.
+  *
+  * Arithmetics, comparisons, NOT and IS NULL are generated, as well as the literals, variables and parameters they
+  * operate on. Any other operand, e.g. a property lookup or a function call, is kept as it is and called from the
+  * generated code. An expression which does not have one of the generated operators at its root is not compiled,
+  * neither is one for which code generation fails. In those cases the interpreted expression is returned.
+  *
+  * Every compiled expression gets a class loader of its own, which is referenced only by the plan the expression was
+  * compiled for. The classes are thus cached together with the plan and unloaded when it is evicted.
+  */
+object ExpressionCompiler {
+
+  private val PACKAGE = "org.neo4j.cypher.internal.runtime.interpreted.commands.compiled"
+  private val LITERALS = "LITERALS"
+  private val OPERANDS = "OPERANDS"
+  private val CTX = "ctx"
+  private val STATE = "state"
+
+  private val classes = new AtomicLong()
+
+  private val EVALUATE = method(classOf[AnyValue], "evaluate", param(classOf[ExecutionContext], CTX), param(classOf[QueryState], STATE))
+
+  private val ANY_VALUE = typeReference(classOf[AnyValue])
+  private val NO_VALUE = cast(ANY_VALUE, getStatic(staticField(classOf[Values], classOf[Value], "NO_VALUE")))
+  private val TRUE = cast(ANY_VALUE, getStatic(staticField(classOf[Values], classOf[BooleanValue], "TRUE")))
+  private val FALSE = cast(ANY_VALUE, getStatic(staticField(classOf[Values], classOf[BooleanValue], "FALSE")))
+
+  private val GET_BY_NAME = methodReference(classOf[ExecutionContext], classOf[AnyValue], "getByName", classOf[String])
+  private val PARAMS = methodReference(classOf[QueryState], classOf[Array[AnyValue]], "params")
+  private val APPLY = methodReference(classOf[Expression], classOf[AnyValue], "apply", classOf[ExecutionContext], classOf[QueryState])
+
+  private val ADD = math("add")
+  private val SUBTRACT = math("subtract")
+  private val MULTIPLY = math("multiply")
+  private val DIVIDE = math("divide")
+  private val MODULO = math("modulo")
+  private val POW = math("pow")
+  private val DIVIDE_CHECK_FOR_NULL =
+    methodReference(classOf[CypherMath], classOf[Boolean], "divideCheckForNull", classOf[AnyValue], classOf[AnyValue])
+
+  private val EQUALS = boolean("equals")
+  private val LESS_THAN = boolean("lessThan")
+  private val LESS_THAN_OR_EQUAL = boolean("lessThanOrEqual")
+  private val GREATER_THAN = boolean("greaterThan")
+  private val GREATER_THAN_OR_EQUAL = boolean("greaterThanOrEqual")
+  private val NOT = methodReference(classOf[CypherBoolean], classOf[Value], "not", classOf[AnyValue])
+
+  /**
+    * Compiles the expression, or the conjuncts and disjuncts of it, if it is an AND or OR of predicates.
+    */
+  def compile(expression: Expression): Expression = expression match {
+    case predicate: Predicate => compilePredicate(predicate)
+    case e if isCompiled(e) => generate(e).map(CompiledExpressionCommand(e, _)).getOrElse(e)
+    case e => e
+  }
+
+  /**
+    * Compiles the predicate, or the conjuncts and disjuncts of it. These are compiled one by one rather than as a
+    * whole, since [[CompositeBooleanPredicate]] defers errors in a way which is not worth generating code for.
+    */
+  def compilePredicate(predicate: Predicate): Predicate = predicate match {
+    case Ands(predicates) => Ands(predicates.map(compilePredicate))
+    case Ors(predicates) => Ors(predicates.map(compilePredicate))
+    case p if isCompiled(p) => generate(p).map(CompiledPredicateCommand(p, _)).getOrElse(p)
+    case p => p
+  }
+
+  private def isCompiled(expression: Expression): Boolean = expression match {
+    case _: Add | _: Subtract | _: Multiply | _: Divide | _: Modulo | _: Pow => true
+    case _: Equals | _: LessThan | _: LessThanOrEqual | _: GreaterThan | _: GreaterThanOrEqual => true
+    case _: Not | _: IsNull => true
+    case _ => false
+  }
+
+  private def generate(expression: Expression): Option[CompiledExpression] =
+    try {
+      val generator = generateCode(classOf[CompiledExpression].getClassLoader, BYTECODE)
+      val clazz = generator.generateClass(PACKAGE, "CompiledExpression" + classes.incrementAndGet(), classOf[CompiledExpression])
+      val literals = clazz.publicStaticField(typeReference(classOf[Array[AnyValue]]), LITERALS)
+      val operands = clazz.publicStaticField(typeReference(classOf[Array[Expression]]), OPERANDS)
+      val body = clazz.generate(EVALUATE)
+      val generation = new Generation(body, literals, operands)
+      body.returns(generation.value(expression))
+      body.close()
+      val handle = clazz.handle()
+      clazz.close()
+
+      val loaded = handle.loadClass()
+      loaded.getField(LITERALS).set(null, generation.literalValues.toArray)
+      loaded.getField(OPERANDS).set(null, generation.operandExpressions.toArray)
+      Some(loaded.getConstructor().newInstance().asInstanceOf[CompiledExpression])
+    } catch {
+      case NonFatal(_) => None
+    }
+
+  /**
+    * Generates the body of `evaluate` for one expression. Every operand is stored in a local variable before the
+    * operator is applied, so that operands are evaluated once each, and in the same order as by the interpreter.
+    */
+  private class Generation(body: CodeBlock, literals: FieldReference, operands: FieldReference) {
+    val literalValues = new ArrayBuffer[AnyValue]
+    val operandExpressions = new ArrayBuffer[Expression]
+    private var locals = 0
+
+    def value(expression: Expression): CodeExpression = expression match {
+      case literal: Literal =>
+        literalValues += literal.anyVal
+        arrayLoad(getStatic(literals), constantInt(literalValues.size - 1))
+      case Variable(name) => invoke(body.load(CTX), GET_BY_NAME, constant(name))
+      case ParameterFromSlot(offset, _) => arrayLoad(invoke(body.load(STATE), PARAMS), constantInt(offset))
+
+      case Add(a, b) => nullInNullOut(a, b, ADD)
+      case Subtract(a, b) => nullInNullOut(a, b, SUBTRACT)
+      case Multiply(a, b) => nullInNullOut(a, b, MULTIPLY)
+      case Modulo(a, b) => nullInNullOut(a, b, MODULO)
+      case Pow(a, b) => nullInNullOut(a, b, POW)
+      case Divide(a, b) =>
+        val lhs = local(value(a))
+        val rhs = local(value(b))
+        ternary(invoke(DIVIDE_CHECK_FOR_NULL, lhs, rhs), NO_VALUE, cast(ANY_VALUE, invoke(DIVIDE, lhs, rhs)))
+
+      case Equals(a, b) => nullInNullOut(a, b, EQUALS)
+      case LessThan(a, b) => compare(a, b, LESS_THAN)
+      case LessThanOrEqual(a, b) => compare(a, b, LESS_THAN_OR_EQUAL)
+      case GreaterThan(a, b) => compare(a, b, GREATER_THAN)
+      case GreaterThanOrEqual(a, b) => compare(a, b, GREATER_THAN_OR_EQUAL)
+      case Not(a) =>
+        val in = local(value(a))
+        ternary(equal(in, NO_VALUE), NO_VALUE, cast(ANY_VALUE, invoke(NOT, in)))
+      case IsNull(a) =>
+        ternary(equal(local(value(a)), NO_VALUE), TRUE, FALSE)
+
+      case other =>
+        operandExpressions += other
+        invoke(arrayLoad(getStatic(operands), constantInt(operandExpressions.size - 1)), APPLY, body.load(CTX), body.load(STATE))
+    }
+
+    private def nullInNullOut(a: Expression, b: Expression, operator: MethodReference): CodeExpression = {
+      val lhs = local(value(a))
+      val rhs = local(value(b))
+      ternary(or(equal(lhs, NO_VALUE), equal(rhs, NO_VALUE)), NO_VALUE, cast(ANY_VALUE, invoke(operator, lhs, rhs)))
+    }
+
+    private def compare(a: Expression, b: Expression, comparator: MethodReference): CodeExpression = {
+      val lhs = local(value(a))
+      val rhs = local(value(b))
+      cast(ANY_VALUE, invoke(comparator, lhs, rhs))
+    }
+
+    private def local(value: CodeExpression): CodeExpression = {
+      val name = "v" + locals
+      locals += 1
+      body.assign(ANY_VALUE, name, value)
+      body.load(name)
+    }
+  }
+
+  private def math(name: String): MethodReference =
+    methodReference(classOf[CypherMath], classOf[AnyValue], name, classOf[AnyValue], classOf[AnyValue])
+
+  private def boolean(name: String): MethodReference =
+    methodReference(classOf[CypherBoolean], classOf[Value], name, classOf[AnyValue], classOf[AnyValue])
+}
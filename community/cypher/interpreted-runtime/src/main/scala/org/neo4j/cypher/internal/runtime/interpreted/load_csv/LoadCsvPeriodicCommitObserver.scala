@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.runtime.interpreted.load_csv
 
 import java.net.URL
+import java.util.concurrent.Executor
 
 import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.interpreted.CSVResource
@@ -34,8 +35,15 @@ class LoadCsvPeriodicCommitObserver(batchRowCount: Long, resources: ExternalCSVR
   var outerLoadCSVIterator: Option[LoadCsvIteratorWithPeriodicCommit] = None
 
   override def getCsvIterator(url: URL, fieldTerminator: Option[String], legacyCsvQuoteEscaping: Boolean, bufferSize: Int,
-                              headers: Boolean = false): LoadCsvIterator = {
-    val innerIterator = resources.getCsvIterator(url, fieldTerminator, legacyCsvQuoteEscaping, bufferSize, headers)
+                              headers: Boolean = false): LoadCsvIterator =
+    withPeriodicCommit(resources.getCsvIterator(url, fieldTerminator, legacyCsvQuoteEscaping, bufferSize, headers), headers)
+
+  override def getParallelCsvIterator(url: URL, fieldTerminator: Option[String], legacyCsvQuoteEscaping: Boolean, bufferSize: Int,
+                                      headers: Boolean, parserThreads: Int, executor: Executor): LoadCsvIterator =
+    withPeriodicCommit(resources.getParallelCsvIterator(url, fieldTerminator, legacyCsvQuoteEscaping, bufferSize, headers,
+                                                        parserThreads, executor), headers)
+
+  private def withPeriodicCommit(innerIterator: LoadCsvIterator, headers: Boolean): LoadCsvIterator = {
     if (outerLoadCSVIterator.isEmpty) {
       if (headers)
         updateCounter.offsetForHeaders()
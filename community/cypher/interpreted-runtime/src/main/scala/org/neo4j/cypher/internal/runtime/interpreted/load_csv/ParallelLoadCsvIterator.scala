@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.load_csv
+
+import java.util.concurrent.{Callable, ExecutionException, Executor, FutureTask}
+
+import org.neo4j.csv.reader.Source.Chunk
+import org.neo4j.csv.reader._
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.LoadCsvIterator
+import org.neo4j.exceptions.CypherExecutionException
+
+import scala.collection.mutable
+import scala.collection.mutable.ArrayBuffer
+
+/**
+  * Parses a CSV file on several threads. The caller reads the file in chunks which end at a line break, and
+  * hands each chunk to a task on the executor which parses all of its rows. The rows are returned chunk by chunk in the
+  * order of the file. At most one chunk more than there are parser threads is read ahead of the caller.
+  *
+  * If no thread of the executor has picked up the parsing of the next chunk by the time its rows are needed,
+  * the caller parses it itself.
+  */
+class ParallelLoadCsvIterator(chunker: Chunker, config: Configuration, delimiter: Char, parserThreads: Int, executor: Executor)
+  extends LoadCsvIterator with AutoCloseable {
+
+  private val inFlight = new mutable.Queue[ParseTask]
+  private var exhausted = false
+  private var rows: Array[Array[String]] = Array.empty
+  private var rowIndex = 0
+
+  private var started = false
+
+  var lastProcessed = 0L
+  var readAll = false
+
+  override def hasNext: Boolean = {
+    if (!started) {
+      started = true
+      (0 to parserThreads).foreach(_ => readAhead(chunker.newChunk()))
+    }
+    while (rowIndex == rows.length && inFlight.nonEmpty) {
+      val task = inFlight.dequeue()
+      rows = task.rows()
+      rowIndex = 0
+      readAhead(task.chunk)
+    }
+    rowIndex < rows.length
+  }
+
+  override def next(): Array[String] = {
+    if (!hasNext) Iterator.empty.next()
+    val row = rows(rowIndex)
+    rows(rowIndex) = null
+    rowIndex += 1
+    lastProcessed += 1
+    readAll = !hasNext
+    row
+  }
+
+  override def close(): Unit = {
+    inFlight.foreach(_.cancel(false))
+    inFlight.clear()
+    exhausted = true
+    chunker.close()
+  }
+
+  private def readAhead(chunk: Chunk): Unit = {
+    if (!exhausted) {
+      val hasData = try {
+        chunker.nextChunk(chunk)
+      } catch {
+        // A line that does not fit in the buffer
+        case e: IllegalStateException => throw new CypherExecutionException(e.getMessage, e)
+      }
+      if (hasData) {
+        val task = new ParseTask(chunk)
+        inFlight.enqueue(task)
+        executor.execute(task)
+      } else {
+        exhausted = true
+      }
+    }
+  }
+
+  private class ParseTask(val chunk: Chunk) extends FutureTask[Array[Array[String]]](new Callable[Array[Array[String]]] {
+    override def call(): Array[Array[String]] = parse(chunk)
+  }) {
+    def rows(): Array[Array[String]] = {
+      // Does nothing if a thread of the executor has already started on it
+      run()
+      try {
+        get()
+      } catch {
+        case e: ExecutionException => throw e.getCause
+      }
+    }
+  }
+
+  private def parse(chunk: Chunk): Array[Array[String]] = {
+    val seeker = new BufferedCharSeeker(Source.singleChunk(chunk), config)
+    val extractor = new Extractors(delimiter).string()
+    val intDelimiter = delimiter.toInt
+    val mark = new Mark
+    val result = new ArrayBuffer[Array[String]]
+    val buffer = new ArrayBuffer[String]
+
+    try {
+      while (seeker.seek(mark, intDelimiter)) {
+        val success = seeker.tryExtract(mark, extractor)
+        buffer += (if (success) extractor.value() else null)
+        if (mark.isEndOfLine) {
+          result += buffer.toArray
+          buffer.clear()
+        }
+      }
+    } catch {
+      case e: BufferOverflowException => throw new CypherExecutionException(e.getMessage, e)
+    }
+
+    if (buffer.nonEmpty) {
+      result += buffer.toArray
+    }
+    result.toArray
+  }
+}
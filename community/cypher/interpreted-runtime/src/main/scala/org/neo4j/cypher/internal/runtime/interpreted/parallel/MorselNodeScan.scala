@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.parallel
+
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.v4_0.util.attribution.Id
+import org.neo4j.internal.kernel.api.{Cursor, CursorFactory, NodeCursor, NodeLabelIndexCursor, Read, Scan}
+import org.neo4j.kernel.impl.util.ValueUtils
+import org.neo4j.values.virtual.NodeValue
+
+/**
+  * A scan of nodes that is shared by the workers of a parallel query. Each worker reads the nodes through its own
+  * cursor, and reserves a morsel of `morselSize` nodes at a time that no other worker will see.
+  *
+  * @param leafId the id of the scan pipe which should read its nodes from here rather than doing a scan of its own.
+  */
+abstract class MorselNodeScan[C <: Cursor](val leafId: Id, scan: Scan[C], morselSize: Int) {
+
+  protected def allocateCursor(cursors: CursorFactory): C
+
+  protected def nodeReference(cursor: C): Long
+
+  /**
+    * The nodes of all morsels that the calling worker gets to reserve, until the scan is exhausted.
+    *
+    * @param query the query context of the calling worker
+    */
+  def nodes(query: QueryContext): Iterator[NodeValue] = {
+    val cursor = allocateCursor(query.transactionalContext.cursors)
+    query.resources.trace(cursor)
+    new Iterator[NodeValue] {
+      private var hasMorsel = scan.reserveBatch(cursor, morselSize)
+      private var hasNode = fetch()
+
+      private def fetch(): Boolean = {
+        while (hasMorsel) {
+          if (cursor.next()) {
+            return true
+          }
+          hasMorsel = scan.reserveBatch(cursor, morselSize)
+        }
+        cursor.close()
+        false
+      }
+
+      override def hasNext: Boolean = hasNode
+
+      override def next(): NodeValue = {
+        if (!hasNode) {
+          Iterator.empty.next()
+        }
+        val node = ValueUtils.fromNodeEntity(query.entityAccessor.newNodeEntity(nodeReference(cursor)))
+        hasNode = fetch()
+        node
+      }
+    }
+  }
+}
+
+object MorselNodeScan {
+
+  def allNodes(leafId: Id, read: Read, morselSize: Int): MorselNodeScan[NodeCursor] =
+    new MorselNodeScan[NodeCursor](leafId, read.allNodesScan(), morselSize) {
+      override protected def allocateCursor(cursors: CursorFactory): NodeCursor = cursors.allocateNodeCursor()
+
+      override protected def nodeReference(cursor: NodeCursor): Long = cursor.nodeReference()
+    }
+
+  def nodesByLabel(leafId: Id, read: Read, label: Int, morselSize: Int): MorselNodeScan[NodeLabelIndexCursor] =
+    new MorselNodeScan[NodeLabelIndexCursor](leafId, read.nodeLabelScan(label), morselSize) {
+      override protected def allocateCursor(cursors: CursorFactory): NodeLabelIndexCursor = cursors.allocateNodeLabelIndexCursor()
+
+      override protected def nodeReference(cursor: NodeLabelIndexCursor): Long = cursor.nodeReference()
+    }
+}
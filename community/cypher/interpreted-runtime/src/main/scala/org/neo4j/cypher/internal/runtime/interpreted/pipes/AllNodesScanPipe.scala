@@ -26,7 +26,10 @@ case class AllNodesScanPipe(ident: String)(val id: Id = Id.INVALID_ID) extends P
 
   protected def internalCreateResults(state: QueryState): Iterator[ExecutionContext] = {
     val baseContext = state.newExecutionContext(executionContextFactory)
-    state.query.nodeOps.all.map(n => executionContextFactory.copyWith(baseContext, ident, n))
+    val nodes =
+      if (state.morselScan != null && state.morselScan.leafId == id) state.morselScan.nodes(state.query)
+      else state.query.nodeOps.all
+    nodes.map(n => executionContextFactory.copyWith(baseContext, ident, n))
   }
 
 }
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet
+import org.neo4j.cypher.internal.runtime.{ExecutionContext, IsNoValue}
+import org.neo4j.cypher.internal.v4_0.expressions.SemanticDirection
+import org.neo4j.cypher.internal.v4_0.util.attribution.Id
+import org.neo4j.exceptions.InternalException
+import org.neo4j.internal.kernel.api.helpers.ReusableRelationshipSelectionCursor
+import org.neo4j.storageengine.api.RelationshipVisitor
+import org.neo4j.values.virtual.VirtualNodeValue
+
+/**
+  * Produces the rows where there is a path of length between min and max from the node at `fromName` to the node
+  * at `toName`, both of which are already bound.
+  *
+  * Instead of following every path from one side, a breadth first search is done from both nodes, always expanding
+  * the smaller of the two frontiers, until a node seen from one side is reached from the other. Since a breadth first
+  * search only finds the shortest paths, min must be zero or one. A path from a node back to itself can only be found
+  * by following relationships though, so that case is searched depth first.
+  */
+case class BidirectionalVarLengthExpandPipe(source: Pipe,
+                                            fromName: String,
+                                            toName: String,
+                                            types: RelationshipTypes,
+                                            dir: SemanticDirection,
+                                            min: Int,
+                                            max: Int,
+                                            filteringStep: VarLengthPredicate = VarLengthPredicate.NONE)
+                                           (val id: Id = Id.INVALID_ID) extends PipeWithSource(source) {
+
+  assert(min <= 1 && min <= max)
+
+  filteringStep.predicateExpressions.foreach(_.registerOwningPipe(this))
+
+  private val hasPredicates = filteringStep.predicateExpressions.nonEmpty
+
+  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
+    val search = new BidirectionalSearch(state)
+    input.filter {
+      row =>
+        (row.getByName(fromName), row.getByName(toName)) match {
+          case (from: VirtualNodeValue, to: VirtualNodeValue) => search.pathExists(row, from.id(), to.id())
+          case (IsNoValue(), _) | (_, IsNoValue()) => false
+          case (from, to) =>
+            throw new InternalException(s"Expected to find nodes at '$fromName' and '$toName' but found $from and $to instead")
+        }
+    }
+  }
+
+  private class BidirectionalSearch(state: QueryState) extends RelationshipVisitor[RuntimeException] {
+    private val fromSeen = new LongHashSet()
+    private val toSeen = new LongHashSet()
+    private var fromFrontier = new LongArrayList()
+    private var toFrontier = new LongArrayList()
+    private var nextFrontier = new LongArrayList()
+    private val cursors = new Array[ReusableRelationshipSelectionCursor](max)
+    private val path = new Array[Long](max)
+    private var relTypes: Array[Int] = _
+    private var relType = 0
+    private var startNode = 0L
+    private var endNode = 0L
+
+    def pathExists(row: ExecutionContext, from: Long, to: Long): Boolean = {
+      relTypes = types.types(state.query)
+      if (!acceptsNode(row, from) || !acceptsNode(row, to)) false
+      else if (from == to) min == 0 || closedPathExists(row, from, from, 0)
+      else {
+        fromSeen.clear()
+        toSeen.clear()
+        fromFrontier.clear()
+        toFrontier.clear()
+        fromSeen.add(from)
+        toSeen.add(to)
+        fromFrontier.add(from)
+        toFrontier.add(to)
+        var length = 0
+        var found = false
+        while (!found && length < max && fromFrontier.notEmpty() && toFrontier.notEmpty()) {
+          if (fromFrontier.size() <= toFrontier.size()) {
+            found = expand(row, fromFrontier, dir, fromSeen, toSeen)
+            val expanded = nextFrontier
+            nextFrontier = fromFrontier
+            fromFrontier = expanded
+          } else {
+            found = expand(row, toFrontier, dir.reversed, toSeen, fromSeen)
+            val expanded = nextFrontier
+            nextFrontier = toFrontier
+            toFrontier = expanded
+          }
+          length += 1
+        }
+        found
+      }
+    }
+
+    /**
+      * Follows the relationships of all nodes of the frontier one step, collecting the nodes seen for the first time
+      * from this side in `nextFrontier`.
+      *
+      * @return `true` if a node seen from the other side was reached
+      */
+    private def expand(row: ExecutionContext, frontier: LongArrayList, direction: SemanticDirection,
+                       seen: LongHashSet, otherSeen: LongHashSet): Boolean = {
+      nextFrontier.clear()
+      val cursor = cursorAt(0)
+      var i = 0
+      while (i < frontier.size()) {
+        val node = frontier.get(i)
+        val relationships = state.query.getRelationshipsForIdsPrimitive(node, direction, relTypes, cursor)
+        while (relationships.hasNext) {
+          val relId = relationships.next()
+          relationships.relationshipVisit(relId, this)
+          val other = otherNode(node)
+          if (!seen.contains(other) && acceptsRelationship(row, relId) && acceptsNode(row, other)) {
+            if (otherSeen.contains(other)) {
+              return true
+            }
+            seen.add(other)
+            nextFrontier.add(other)
+          }
+        }
+        i += 1
+      }
+      false
+    }
+
+    /**
+      * Searches for a path from `node` to `target` that does not use any of the first `length` relationships of `path`.
+      */
+    private def closedPathExists(row: ExecutionContext, node: Long, target: Long, length: Int): Boolean = {
+      if (length == max) {
+        return false
+      }
+      val relationships = state.query.getRelationshipsForIdsPrimitive(node, dir, relTypes, cursorAt(length))
+      while (relationships.hasNext) {
+        val relId = relationships.next()
+        relationships.relationshipVisit(relId, this)
+        val other = otherNode(node)
+        if (!onPath(relId, length) && acceptsRelationship(row, relId) && acceptsNode(row, other)) {
+          if (other == target) {
+            return true
+          }
+          path(length) = relId
+          if (closedPathExists(row, other, target, length + 1)) {
+            return true
+          }
+        }
+      }
+      false
+    }
+
+    private def onPath(relId: Long, length: Int): Boolean = {
+      var i = 0
+      while (i < length) {
+        if (path(i) == relId) {
+          return true
+        }
+        i += 1
+      }
+      false
+    }
+
+    private def cursorAt(depth: Int): ReusableRelationshipSelectionCursor = {
+      if (cursors(depth) == null) {
+        cursors(depth) = new ReusableRelationshipSelectionCursor(state.query.transactionalContext.cursors)
+        state.query.resources.trace(cursors(depth))
+      }
+      cursors(depth)
+    }
+
+    override def visit(relationshipId: Long, typeId: Int, startNodeId: Long, endNodeId: Long): Unit = {
+      relType = typeId
+      startNode = startNodeId
+      endNode = endNodeId
+    }
+
+    // Only valid right after visiting a relationship of the node
+    private def otherNode(node: Long): Long = if (startNode == node) endNode else startNode
+
+    // Only valid right after visiting the relationship
+    private def acceptsRelationship(row: ExecutionContext, relId: Long): Boolean =
+      !hasPredicates ||
+        filteringStep.filterRelationship(row, state)(state.query.relationshipById(relId, startNode, endNode, relType))
+
+    private def acceptsNode(row: ExecutionContext, node: Long): Boolean =
+      !hasPredicates || filteringStep.filterNode(row, state)(state.query.nodeOps.getById(node))
+  }
+}
@@ -19,12 +19,14 @@
  */
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet
 import org.neo4j.cypher.internal.runtime.ExecutionContext
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.GroupingCol
+import org.neo4j.cypher.internal.runtime.interpreted.spill.{SpillMerge, SpillPartitions}
 import org.neo4j.cypher.internal.v4_0.util.attribution.Id
 import org.neo4j.values.AnyValue
-import org.neo4j.values.virtual.VirtualValues
+import org.neo4j.values.virtual.{VirtualNodeValue, VirtualValues}
 
 import scala.collection.mutable
 
@@ -37,6 +39,14 @@ case class DistinctPipe(source: Pipe, groupingColumns: Array[GroupingCol])
 
   protected def internalCreateResults(input: Iterator[ExecutionContext],
                                       state: QueryState): Iterator[ExecutionContext] = {
+    if (state.spilling.isEnabled) {
+      return spillingDistinct(input, state)
+    }
+
+    if (groupingColumns.length == 1) {
+      return singleColumnDistinct(input, state)
+    }
+
     /*
      * The filtering is done by extracting from the context the values of all return expressions, and keeping them
      * in a set.
@@ -44,12 +54,7 @@ case class DistinctPipe(source: Pipe, groupingColumns: Array[GroupingCol])
     val seen = mutable.Set[AnyValue]()
 
     input.filter { ctx =>
-      var i = 0
-      while (i < groupingColumns.length) {
-        ctx.set(groupingColumns(i).key, groupingColumns(i).expression(ctx, state))
-        i += 1
-      }
-      val groupingValue = VirtualValues.list(keyNames.map(ctx.getByName): _*)
+      val groupingValue = computeGroupingValue(ctx, state)
       val added = seen.add(groupingValue)
       if (added) {
         state.memoryTracker.allocated(groupingValue)
@@ -58,6 +63,112 @@ case class DistinctPipe(source: Pipe, groupingColumns: Array[GroupingCol])
     }
   }
 
+  /**
+    * Distinct on a single column keeps the values themselves rather than lists of one value, and the ids of nodes in a
+    * primitive set, so that the very common distinct on a single node neither allocates nor hashes a value per row.
+    */
+  private def singleColumnDistinct(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
+    val GroupingCol(key, expression, _) = groupingColumns.head
+    val seenNodes = new LongHashSet()
+    val seen = mutable.Set[AnyValue]()
+
+    input.filter { ctx =>
+      val value = expression(ctx, state)
+      ctx.set(key, value)
+      value match {
+        case node: VirtualNodeValue =>
+          val added = seenNodes.add(node.id())
+          if (added) {
+            state.memoryTracker.allocated(java.lang.Long.BYTES)
+          }
+          added
+        case _ =>
+          val added = seen.add(value)
+          if (added) {
+            state.memoryTracker.allocated(value)
+          }
+          added
+      }
+    }
+  }
+
+  private def computeGroupingValue(ctx: ExecutionContext, state: QueryState): AnyValue = {
+    var i = 0
+    while (i < groupingColumns.length) {
+      ctx.set(groupingColumns(i).key, groupingColumns(i).expression(ctx, state))
+      i += 1
+    }
+    VirtualValues.list(keyNames.map(ctx.getByName): _*)
+  }
+
+  /**
+    * Filters like the in-memory distinct until the seen values use up the memory budget of the query. From then on,
+    * rows with values not seen before are written to spill partitions by value, which are processed one at a time once
+    * the input is exhausted. The first row of each value in a partition is spilled again, and those rows are merged by
+    * their position in the input, so that the rows come out in input order just like without spilling.
+    */
+  private def spillingDistinct(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
+    val spilling = state.spilling
+    val seen = mutable.Set[AnyValue]()
+    var seenBytes = 0L
+    var partitions: SpillPartitions = null
+    var seq = 0L
+
+    def reserve(groupingValue: AnyValue): Boolean = {
+      val bytes = groupingValue.estimatedHeapUsage()
+      val reserved = spilling.tryReserve(bytes)
+      if (reserved) {
+        seenBytes += bytes
+      }
+      reserved
+    }
+
+    def spill(groupingValue: AnyValue, ctx: ExecutionContext): Unit = {
+      if (partitions == null) {
+        partitions = new SpillPartitions(spilling)
+      }
+      partitions.write(groupingValue.hashCode(), seq, groupingValue, ctx)
+      seq += 1
+    }
+
+    val inMemory = input.filter { ctx =>
+      val groupingValue = computeGroupingValue(ctx, state)
+      if (seen.contains(groupingValue)) {
+        false
+      } else if (partitions == null && reserve(groupingValue)) {
+        seen.add(groupingValue)
+        state.memoryTracker.allocated(groupingValue)
+        true
+      } else {
+        spill(groupingValue, ctx)
+        false
+      }
+    }
+
+    inMemory ++ {
+      spilling.release(seenBytes)
+      seen.clear()
+      if (partitions == null) Iterator.empty else distinctPartitions(partitions, state)
+    }
+  }
+
+  private def distinctPartitions(partitions: SpillPartitions, state: QueryState): Iterator[ExecutionContext] = {
+    val newRow = () => executionContextFactory.newExecutionContext()
+    val firstRows = partitions.nonEmpty.map { partition =>
+      val seen = mutable.Set[AnyValue]()
+      val out = state.spilling.newFile()
+      partition.startReading(state.query, newRow)
+      while (partition.next()) {
+        if (seen.add(partition.key)) {
+          out.write(partition.seq, null, partition.row)
+        }
+      }
+      partition.close()
+      out
+    }
+    SpillMerge.bySeq(firstRows, state.query, newRow)
+  }
+
   override def equals(obj: Any): Boolean = {
     obj match {
       case DistinctPipe(otherSource, otherGroupingColumns) =>
@@ -19,34 +19,146 @@
  */
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
+import java.util.Arrays
+
 import org.neo4j.cypher.internal.runtime.{ExecutionContext, IsNoValue}
 import org.neo4j.cypher.internal.v4_0.expressions.SemanticDirection
 import org.neo4j.cypher.internal.v4_0.util.attribution.Id
 import org.neo4j.exceptions.ParameterWrongTypeException
+import org.neo4j.internal.kernel.api.helpers.ReusableRelationshipSelectionCursor
+import org.neo4j.storageengine.api.RelationshipVisitor
 import org.neo4j.values.virtual.{NodeValue, RelationshipValue}
 
+/**
+  * @param batchSize if larger than one, this many input rows are expanded at a time, reusing one relationship cursor.
+  */
 case class ExpandAllPipe(source: Pipe,
                          fromName: String,
                          relName: String,
                          toName: String,
                          dir: SemanticDirection,
-                         types: RelationshipTypes)
+                         types: RelationshipTypes,
+                         batchSize: Int = 1)
                         (val id: Id = Id.INVALID_ID) extends PipeWithSource(source) {
 
-  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
-    input.flatMap {
+  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] =
+    if (batchSize > 1) batchedResults(input, state)
+    else input.flatMap {
       row =>
-        row.getByName(fromName) match {
-          case n: NodeValue =>
+        fromNode(row) match {
+          case null => None
+          case n =>
             val relationships: Iterator[RelationshipValue] = state.query.getRelationshipsForIds(n.id(), dir, types.types(state.query))
             relationships.map { r =>
                 val other = r.otherNode(n)
                 executionContextFactory.copyWith(row, relName, r, toName, other)
             }
-          case IsNoValue() => None
+        }
+    }
 
-          case value => throw new ParameterWrongTypeException(s"Expected to find a node at '$fromName' but found $value instead")
+  /**
+    * Expands the input rows a batch at a time. The nodes of a batch are traversed in the order of their ids with a
+    * single relationship cursor, keeping only the ids of the relationships found. The rows are then produced in the
+    * order of the input, creating the relationship values as they are pulled.
+    */
+  private def batchedResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
+    val cursor = new ReusableRelationshipSelectionCursor(state.query.transactionalContext.cursors)
+    state.query.resources.trace(cursor)
+    val batch = new ExpandedBatch(batchSize)
+
+    // The next batch is only read once all rows of the previous one have been produced, so its buffers can be reused
+    input.grouped(batchSize).flatMap {
+      group =>
+        val rows = group.toArray
+        val nodes = rows.map(fromNode)
+        batch.expand(nodes, state, cursor)
+        rows.indices.iterator.flatMap {
+          i =>
+            val n = nodes(i)
+            (batch.first(i) until batch.last(i)).iterator.map {
+              k =>
+                val r = batch.relationship(k, state)
+                executionContextFactory.copyWith(rows(i), relName, r, toName, r.otherNode(n))
+            }
         }
     }
   }
+
+  private def fromNode(row: ExecutionContext): NodeValue =
+    row.getByName(fromName) match {
+      case n: NodeValue => n
+      case IsNoValue() => null
+      case value => throw new ParameterWrongTypeException(s"Expected to find a node at '$fromName' but found $value instead")
+    }
+
+  /**
+    * The relationships of the nodes of one batch, by the index of the node in the batch.
+    */
+  private class ExpandedBatch(capacity: Int) extends RelationshipVisitor[RuntimeException] {
+    private val order = new Array[Long](capacity)
+    val first = new Array[Int](capacity)
+    val last = new Array[Int](capacity)
+    private var size = 0
+    private var ids = new Array[Long](capacity)
+    private var starts = new Array[Long](capacity)
+    private var ends = new Array[Long](capacity)
+    private var typeIds = new Array[Int](capacity)
+
+    def expand(nodes: Array[NodeValue], state: QueryState, cursor: ReusableRelationshipSelectionCursor): Unit = {
+      size = 0
+      // Sort by node id, keeping the index of the node in the lower bits
+      val indexBits = 32 - Integer.numberOfLeadingZeros(capacity)
+      var n = 0
+      var i = 0
+      while (i < nodes.length) {
+        first(i) = 0
+        last(i) = 0
+        if (nodes(i) != null) {
+          order(n) = (nodes(i).id() << indexBits) | i
+          n += 1
+        }
+        i += 1
+      }
+      Arrays.sort(order, 0, n)
+
+      val relTypes = types.types(state.query)
+      val indexMask = (1L << indexBits) - 1
+      var j = 0
+      while (j < n) {
+        val index = (order(j) & indexMask).toInt
+        val relationships = state.query.getRelationshipsForIdsPrimitive(nodes(index).id(), dir, relTypes, cursor)
+        first(index) = size
+        while (relationships.hasNext) {
+          relationships.relationshipVisit(relationships.next(), this)
+        }
+        last(index) = size
+        j += 1
+      }
+    }
+
+    override def visit(relationshipId: Long, typeId: Int, startNode: Long, endNode: Long): Unit = {
+      if (size == ids.length) {
+        val newLength = ids.length * 2
+        ids = Arrays.copyOf(ids, newLength)
+        starts = Arrays.copyOf(starts, newLength)
+        ends = Arrays.copyOf(ends, newLength)
+        typeIds = Arrays.copyOf(typeIds, newLength)
+      }
+      ids(size) = relationshipId
+      starts(size) = startNode
+      ends(size) = endNode
+      typeIds(size) = typeId
+      size += 1
+    }
+
+    def relationship(k: Int, state: QueryState): RelationshipValue =
+      state.query.relationshipById(ids(k), starts(k), ends(k), typeIds(k))
+  }
+}
+
+object ExpandAllPipe {
+  /**
+    * The number of rows expanded at a time by read only queries.
+    */
+  val BATCH_SIZE = 128
 }
@@ -20,10 +20,19 @@
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import java.net.URL
+import java.util.concurrent.Executor
 
 trait ExternalCSVResource {
   def getCsvIterator(url: URL, fieldTerminator: Option[String], legacyCsvQuoteEscaping: Boolean, bufferSize: Int,
                      headers: Boolean = false): LoadCsvIterator
+
+  /**
+    * Like [[getCsvIterator]], but the file is cut into chunks at line breaks, which `parserThreads` tasks on the
+    * given executor parse ahead of the caller. Rows are still returned in the order of the file.
+    */
+  def getParallelCsvIterator(url: URL, fieldTerminator: Option[String], legacyCsvQuoteEscaping: Boolean, bufferSize: Int,
+                             headers: Boolean, parserThreads: Int, executor: Executor): LoadCsvIterator =
+    getCsvIterator(url, fieldTerminator, legacyCsvQuoteEscaping, bufferSize, headers)
 }
 
 object ExternalCSVResource {
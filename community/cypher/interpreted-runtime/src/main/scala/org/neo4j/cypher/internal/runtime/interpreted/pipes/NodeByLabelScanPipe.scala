@@ -28,6 +28,11 @@ case class NodeByLabelScanPipe(ident: String, label: LazyLabel)
 
   protected def internalCreateResults(state: QueryState): Iterator[ExecutionContext] = {
 
+    if (state.morselScan != null && state.morselScan.leafId == this.id) {
+      val baseContext = state.newExecutionContext(executionContextFactory)
+      return state.morselScan.nodes(state.query).map(n => executionContextFactory.copyWith(baseContext, ident, n))
+    }
+
     val id = label.getId(state.query)
     if (id != UNKNOWN) {
         val nodes = state.query.getNodesByLabel(id)
@@ -19,6 +19,8 @@
  */
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap
+import org.neo4j.cypher.internal.runtime.interpreted.spill.{SpillMerge, SpillPartitions}
 import org.neo4j.cypher.internal.runtime.{ExecutionContext, IsNoValue}
 import org.neo4j.cypher.internal.v4_0.util.attribution.Id
 import org.neo4j.exceptions.CypherTypeException
@@ -39,11 +41,23 @@ case class NodeHashJoinPipe(nodeVariables: Set[String], left: Pipe, right: Pipe)
     if (rhsIterator.isEmpty)
       return Iterator.empty
 
+    if (state.spilling.isEnabled)
+      return spillingJoin(input, rhsIterator, state)
+
+    if (cachedVariables.length == 1)
+      return singleNodeJoin(input, rhsIterator, state)
+
     val table = buildProbeTable(state.memoryTracker.memoryTrackingIterator(input))
 
     if (table.isEmpty)
       return Iterator.empty
 
+    probe(table, rhsIterator, state)
+  }
+
+  private def probe(table: mutable.HashMap[IndexedSeq[Long], mutable.MutableList[ExecutionContext]],
+                    rhsIterator: Iterator[ExecutionContext],
+                    state: QueryState): Iterator[ExecutionContext] = {
     val result =
       for {rhsRow <- rhsIterator
            joinKey <- computeKey(rhsRow)}
@@ -59,6 +73,46 @@ case class NodeHashJoinPipe(nodeVariables: Set[String], left: Pipe, right: Pipe)
     result.flatten
   }
 
+  /**
+    * The join on a single node, which is by far the most common, keys the probe table by the primitive node id, so that
+    * neither building nor probing the table allocates or hashes a boxed key per row.
+    */
+  private def singleNodeJoin(input: Iterator[ExecutionContext],
+                             rhsIterator: Iterator[ExecutionContext],
+                             state: QueryState): Iterator[ExecutionContext] = {
+    val nodeVariable = cachedVariables.head
+    val table = new LongObjectHashMap[mutable.MutableList[ExecutionContext]]()
+
+    for (context <- state.memoryTracker.memoryTrackingIterator(input)) {
+      val id = nodeId(context, nodeVariable)
+      if (id != -1L) {
+        var rows = table.get(id)
+        if (rows == null) {
+          rows = mutable.MutableList.empty
+          table.put(id, rows)
+        }
+        rows += context
+      }
+    }
+
+    if (table.isEmpty)
+      return Iterator.empty
+
+    rhsIterator.flatMap { rhsRow =>
+      val id = nodeId(rhsRow, nodeVariable)
+      val lhsRows = if (id == -1L) null else table.get(id)
+      if (lhsRows == null) {
+        Iterator.empty
+      } else {
+        lhsRows.iterator.map { lhsRow =>
+          val output = lhsRow.createClone()
+          output.mergeWith(rhsRow, state.query)
+          output
+        }
+      }
+    }
+  }
+
   private def buildProbeTable(input: Iterator[ExecutionContext]): mutable.HashMap[IndexedSeq[Long], mutable.MutableList[ExecutionContext]] = {
     val table = new mutable.HashMap[IndexedSeq[Long], mutable.MutableList[ExecutionContext]]
 
@@ -71,18 +125,114 @@ case class NodeHashJoinPipe(nodeVariables: Set[String], left: Pipe, right: Pipe)
     table
   }
 
+  /**
+    * Builds the probe table like the in-memory join until the rows of the left-hand side use up the memory budget of
+    * the query. Then all rows of both sides are written to spill partitions by join key, the rows of the right-hand
+    * side along with their position. Each partition is joined on its own, and the joined rows of all partitions are
+    * merged by the position of their right-hand side row, so that they come out in the order of the right-hand side,
+    * just like without spilling.
+    */
+  private def spillingJoin(input: Iterator[ExecutionContext],
+                           rhsIterator: Iterator[ExecutionContext],
+                           state: QueryState): Iterator[ExecutionContext] = {
+    val spilling = state.spilling
+    val table = new mutable.HashMap[IndexedSeq[Long], mutable.MutableList[ExecutionContext]]
+    var tableBytes = 0L
+    var lhsPartitions: SpillPartitions = null
+
+    for {context <- input
+         joinKey <- computeKey(context)} {
+      if (lhsPartitions == null) {
+        val bytes = context.estimatedHeapUsage
+        if (spilling.tryReserve(bytes)) {
+          state.memoryTracker.allocated(bytes)
+          table.getOrElseUpdate(joinKey, mutable.MutableList.empty) += context
+          tableBytes += bytes
+        } else {
+          lhsPartitions = new SpillPartitions(spilling)
+          for ((key, rows) <- table; row <- rows) {
+            lhsPartitions.write(key.hashCode(), -1L, null, row)
+          }
+          table.clear()
+          spilling.release(tableBytes)
+          state.memoryTracker.deallocated(tableBytes)
+        }
+      }
+      if (lhsPartitions != null) {
+        lhsPartitions.write(joinKey.hashCode(), -1L, null, context)
+      }
+    }
+
+    if (lhsPartitions == null) {
+      val result = if (table.isEmpty) Iterator.empty else probe(table, rhsIterator, state)
+      result ++ {
+        spilling.release(tableBytes)
+        Iterator.empty
+      }
+    } else {
+      joinPartitions(lhsPartitions, rhsIterator, state)
+    }
+  }
+
+  private def joinPartitions(lhsPartitions: SpillPartitions,
+                             rhsIterator: Iterator[ExecutionContext],
+                             state: QueryState): Iterator[ExecutionContext] = {
+    val rhsPartitions = new SpillPartitions(state.spilling)
+    var position = 0L
+    for {rhsRow <- rhsIterator
+         joinKey <- computeKey(rhsRow)} {
+      rhsPartitions.write(joinKey.hashCode(), position, null, rhsRow)
+      position += 1
+    }
+
+    val newRow = () => executionContextFactory.newExecutionContext()
+    val joined = (0 until SpillPartitions.COUNT).flatMap { partition =>
+      val lhs = lhsPartitions(partition)
+      val rhs = rhsPartitions(partition)
+      if (lhs == null || rhs == null) {
+        if (lhs != null) lhs.close()
+        if (rhs != null) rhs.close()
+        None
+      } else {
+        val table = buildProbeTable(lhs.rows(state.query, newRow))
+        val out = state.spilling.newFile()
+        rhs.startReading(state.query, newRow)
+        while (rhs.next()) {
+          for {joinKey <- computeKey(rhs.row)
+               lhsRows <- table.get(joinKey)
+               lhsRow <- lhsRows} {
+            val output = lhsRow.createClone()
+            output.mergeWith(rhs.row, state.query)
+            out.write(rhs.seq, null, output)
+          }
+        }
+        rhs.close()
+        Some(out)
+      }
+    }
+    SpillMerge.bySeq(joined, state.query, newRow)
+  }
+
   private val cachedVariables = nodeVariables.toIndexedSeq
 
   private def computeKey(context: ExecutionContext): Option[IndexedSeq[Long]] = {
     val key = new Array[Long](cachedVariables.length)
 
     for (idx <- cachedVariables.indices) {
-      key(idx) = context.getByName(cachedVariables(idx)) match {
-        case n: VirtualNodeValue => n.id()
-        case IsNoValue() => return None
-        case _ => throw new CypherTypeException("Created a plan that uses non-nodes when expecting a node")
-      }
+      key(idx) = nodeId(context, cachedVariables(idx))
+      if (key(idx) == -1L)
+        return None
     }
     Some(key.toIndexedSeq)
   }
+
+  /**
+    * @return the id of the node in the given variable, or -1 if it is null
+    */
+  private def nodeId(context: ExecutionContext, variable: String): Long =
+    context.getByName(variable) match {
+      case n: VirtualNodeValue => n.id()
+      case IsNoValue() => -1L
+      case _ => throw new CypherTypeException("Created a plan that uses non-nodes when expecting a node")
+    }
 }
@@ -28,7 +28,7 @@ case class OptionalPipe(nullableVariables: Set[String], source: Pipe)
   extends PipeWithSource(source) {
 
   private def notFoundExecutionContext(initialContext: Option[ExecutionContext]): ExecutionContext = {
-    val context = initialContext.getOrElse(ExecutionContext.empty)
+    val context = initialContext.getOrElse(executionContextFactory.newExecutionContext())
     nullableVariables.foreach(v => context.set(v, Values.NO_VALUE))
     context
   }
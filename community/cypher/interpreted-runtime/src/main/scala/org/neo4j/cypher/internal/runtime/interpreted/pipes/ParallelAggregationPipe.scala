@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import java.util.concurrent.{Callable, ExecutionException, FutureTask}
+
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.{Count, CountStar, Max, Min, Sum, Variable}
+import org.neo4j.cypher.internal.runtime.interpreted.parallel.MorselNodeScan
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.{AggregatingCol, AggregationTableFactory}
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.GroupingCol
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.{GroupingAggTable, NonGroupingAggTable}
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyLabel.UNKNOWN
+import org.neo4j.cypher.internal.runtime.{ExecutionContext, ExpressionCursors, NoMemoryTracker, QueryContext}
+import org.neo4j.cypher.internal.v4_0.util.attribution.Id
+import org.neo4j.kernel.api.txstate.TxStateHolder
+import org.neo4j.values.AnyValue
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+  * Eager aggregation over a scan of all nodes or of a label, which splits the scan into morsels and has `workers`
+  * threads take turns to read a morsel, pass its nodes through the pipes between the scan and this pipe, and aggregate
+  * the resulting rows in a table of their own. The partial results of all workers are finally aggregated once more, by
+  * `mergeTableFactory`, into the same rows that [[EagerAggregationPipe]] would have produced.
+  *
+  * This is only planned for aggregation functions with partial results that can be aggregated again, and for pipes
+  * that only read. Anything that the workers can not share falls back to running on the calling thread only, like
+  * profiling, memory tracking, spilling, or the right-hand side of an apply.
+  */
+case class ParallelAggregationPipe(source: Pipe,
+                                   tableFactory: AggregationTableFactory,
+                                   mergeTableFactory: AggregationTableFactory,
+                                   workers: Int)
+                                  (val id: Id = Id.INVALID_ID)
+  extends AggregationPipe(source, tableFactory) {
+
+  mergeTableFactory.registerOwningPipe(this)
+
+  private val leaf: Pipe = {
+    var pipe = source
+    while (pipe.isInstanceOf[PipeWithSource]) {
+      pipe = pipe.asInstanceOf[PipeWithSource].getSource
+    }
+    pipe
+  }
+
+  override def createResults(state: QueryState): Iterator[ExecutionContext] = {
+    val scan = if (canRunInParallel(state)) morselScan(state) else null
+    val queries = if (scan == null) None else workerQueries(state)
+    queries match {
+      case Some(workerQueries) =>
+        state.setExecutionContextFactory(executionContextFactory)
+        parallelResults(scan, workerQueries, state)
+      case None =>
+        super.createResults(state)
+    }
+  }
+
+  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
+    val table = tableFactory.table(state, executionContextFactory)
+    table.clear()
+    while (input.hasNext) {
+      table.processRow(input.next())
+    }
+    table.result()
+  }
+
+  private def canRunInParallel(state: QueryState): Boolean =
+    state.decorator == NullPipeDecorator &&
+      state.initialContext.isEmpty &&
+      state.memoryTracker == NoMemoryTracker &&
+      !state.spilling.isEnabled &&
+      (state.query.transactionalContext.transaction match {
+        // The scans of the workers would each see all nodes added in this transaction
+        case txState: TxStateHolder => !txState.hasTxStateWithChanges
+        case _ => false
+      })
+
+  private def morselScan(state: QueryState): MorselNodeScan[_] = leaf match {
+    case _: AllNodesScanPipe =>
+      MorselNodeScan.allNodes(leaf.id, state.query.transactionalContext.dataRead, ParallelAggregationPipe.MORSEL_SIZE)
+    case NodeByLabelScanPipe(_, label) =>
+      val labelId = label.getId(state.query)
+      if (labelId == UNKNOWN) null
+      else MorselNodeScan.nodesByLabel(leaf.id, state.query.transactionalContext.dataRead, labelId, ParallelAggregationPipe.MORSEL_SIZE)
+    case _ =>
+      null
+  }
+
+  /**
+    * One query context per worker, or None if the query context of this query can not hand out contexts for other
+    * threads, like the ones that count db hits or updates.
+    */
+  private def workerQueries(state: QueryState): Option[Seq[QueryContext]] = {
+    val queries = new ArrayBuffer[QueryContext](workers)
+    var supported = true
+    while (supported && queries.size < workers) {
+      state.query.createNewQueryContext() match {
+        case Some(query) => queries += query
+        case None => supported = false
+      }
+    }
+    if (supported) {
+      Some(queries)
+    } else {
+      queries.foreach(_.resources.close())
+      None
+    }
+  }
+
+  private def parallelResults(scan: MorselNodeScan[_], workerQueries: Seq[QueryContext], state: QueryState): Iterator[ExecutionContext] = {
+    val workerStates = workerQueries.map(query => workerState(scan, query, state))
+    val executor = state.query.transactionalContext.workerExecutor
+
+    // The calling thread works on the scan as well, rather than waiting for all of the other workers to get started
+    val tasks = workerStates.tail.map { workerState =>
+      val task = new FutureTask[Seq[ExecutionContext]](new Callable[Seq[ExecutionContext]] {
+        override def call(): Seq[ExecutionContext] = aggregate(workerState)
+      })
+      executor.execute(task)
+      task
+    }
+
+    val partialResults = new ArrayBuffer[Seq[ExecutionContext]](workers)
+    var failure: Throwable = null
+    try {
+      partialResults += aggregate(workerStates.head)
+    } catch {
+      case e: Throwable => failure = e
+    }
+    for (task <- tasks) {
+      try {
+        partialResults += task.get()
+      } catch {
+        case e: ExecutionException => if (failure == null) failure = e.getCause
+        case e: Throwable => if (failure == null) failure = e
+      }
+    }
+    workerStates.foreach(_.query.resources.close())
+    if (failure != null) {
+      throw failure
+    }
+
+    val table = mergeTableFactory.table(state, executionContextFactory)
+    table.clear()
+    partialResults.foreach(_.foreach(table.processRow))
+    table.result()
+  }
+
+  private def aggregate(workerState: QueryState): Seq[ExecutionContext] = {
+    val table = tableFactory.table(workerState, executionContextFactory)
+    table.clear()
+    val input = source.createResults(workerState)
+    while (input.hasNext) {
+      table.processRow(input.next())
+    }
+    table.result().toIndexedSeq
+  }
+
+  private def workerState(scan: MorselNodeScan[_], query: QueryContext, state: QueryState): QueryState = {
+    val cursors = new ExpressionCursors(query.transactionalContext.cursors)
+    query.resources.trace(cursors)
+    new QueryState(query,
+                   state.resources,
+                   state.params,
+                   cursors,
+                   state.queryIndexes,
+                   new Array[AnyValue](state.expressionVariables.length),
+                   state.subscriber,
+                   NoMemoryTracker,
+                   lenientCreateRelationship = state.lenientCreateRelationship,
+                   prePopulateResults = state.prePopulateResults,
+                   input = state.input,
+                   morselScan = scan)
+  }
+}
+
+object ParallelAggregationPipe {
+  /**
+    * The number of nodes that a worker reserves from the scan at a time.
+    */
+  val MORSEL_SIZE = 1024
+
+  /**
+    * The aggregation of the partial results of the workers into the final results, if all aggregation functions have
+    * partial results that can be aggregated again: counts and sums are summed up, and minimums and maximums are
+    * minimized and maximized respectively.
+    */
+  def mergeTableFactory(groupingKeys: Array[String], aggregations: Array[AggregatingCol]): Option[AggregationTableFactory] = {
+    val mergeAggregations = aggregations.map {
+      case AggregatingCol(key, _: Count | _: CountStar | _: Sum) => Some(AggregatingCol(key, Sum(Variable(key))))
+      case AggregatingCol(key, _: Min) => Some(AggregatingCol(key, Min(Variable(key))))
+      case AggregatingCol(key, _: Max) => Some(AggregatingCol(key, Max(Variable(key))))
+      case _ => None
+    }
+    if (mergeAggregations.contains(None)) {
+      None
+    } else if (groupingKeys.isEmpty) {
+      Some(NonGroupingAggTable.Factory(mergeAggregations.flatten))
+    } else {
+      val groupingColumns = groupingKeys.map(key => GroupingCol(key, Variable(key)))
+      Some(GroupingAggTable.Factory(groupingColumns, AggregationPipe.computeGroupingFunction(groupingColumns), mergeAggregations.flatten))
+    }
+  }
+}
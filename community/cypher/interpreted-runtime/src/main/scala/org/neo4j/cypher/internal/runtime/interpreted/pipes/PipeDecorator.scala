@@ -40,6 +40,14 @@ trait PipeDecorator {
 
   def decorate(pipe: Pipe, iter: Iterator[ExecutionContext], previousContextSupplier: () => Option[ExecutionContext]): Iterator[ExecutionContext] = decorate(pipe, iter)
 
+  /*
+   * Whether pipes that keep track of the time they spend on work of their own, such as reading a file,
+   * should report it through addTime.
+   */
+  def tracksTime: Boolean = false
+
+  def addTime(pipe: Pipe, nanos: Long): Unit = {}
+
   /*
    * Returns the inner decorator of this decorator. The inner decorator is used for nested expressions
    * where the `decorate` should refer to the parent pipe instead of the calling pipe.
@@ -64,6 +72,10 @@ class LinenumberPipeDecorator() extends PipeDecorator {
 
   override def decorate(pipe: Pipe, state: QueryState): QueryState = inner.decorate(pipe, state)
 
+  override def tracksTime: Boolean = inner.tracksTime
+
+  override def addTime(pipe: Pipe, nanos: Long): Unit = inner.addTime(pipe, nanos)
+
   def decorate(pipe: Pipe, iter: Iterator[ExecutionContext]): Iterator[ExecutionContext] = throw new UnsupportedOperationException("This method should never be called on LinenumberPipeDecorator")
 
   override def decorate(pipe: Pipe, iter: Iterator[ExecutionContext], sourceIter: Iterator[ExecutionContext]): Iterator[ExecutionContext] = {
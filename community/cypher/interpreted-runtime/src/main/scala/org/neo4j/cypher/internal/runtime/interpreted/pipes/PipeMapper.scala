@@ -37,3 +37,22 @@ case class PipeTreeBuilder(pipeMapper: PipeMapper) {
     pipe
   }
 }
+
+/**
+  * Decorates a [[PipeMapper]] to make all pipes it creates use the given [[ExecutionContextFactory]] for their rows.
+  */
+case class ExecutionContextFactoryPipeMapper(inner: PipeMapper, executionContextFactory: ExecutionContextFactory) extends PipeMapper {
+  override def onLeaf(plan: LogicalPlan): Pipe =
+    withFactory(inner.onLeaf(plan))
+
+  override def onOneChildPlan(plan: LogicalPlan, source: Pipe): Pipe =
+    withFactory(inner.onOneChildPlan(plan, source))
+
+  override def onTwoChildPlan(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): Pipe =
+    withFactory(inner.onTwoChildPlan(plan, lhs, rhs))
+
+  private def withFactory(pipe: Pipe): Pipe = {
+    pipe.executionContextFactory = executionContextFactory
+    pipe
+  }
+}
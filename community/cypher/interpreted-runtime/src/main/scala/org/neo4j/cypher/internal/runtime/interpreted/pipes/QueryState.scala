@@ -22,6 +22,8 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 import org.neo4j.cypher.internal.runtime._
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.PathValueBuilder
 import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.{InCheckContainer, SingleThreadedLRUCache}
+import org.neo4j.cypher.internal.runtime.interpreted.parallel.MorselNodeScan
+import org.neo4j.cypher.internal.runtime.interpreted.spill.QuerySpilling
 import org.neo4j.internal.kernel.api.IndexReadSession
 import org.neo4j.kernel.impl.query.QuerySubscriber
 import org.neo4j.values.AnyValue
@@ -39,7 +41,9 @@ class QueryState(val query: QueryContext,
                  val cachedIn: SingleThreadedLRUCache[Any, InCheckContainer] = new SingleThreadedLRUCache(maxSize = 16),
                  val lenientCreateRelationship: Boolean = false,
                  val prePopulateResults: Boolean = false,
-                 val input: InputDataStream = NoInput) extends AutoCloseable {
+                 val input: InputDataStream = NoInput,
+                 val spilling: QuerySpilling = QuerySpilling.DISABLED,
+                 val morselScan: MorselNodeScan[_] = null) extends AutoCloseable {
 
   private var _pathValueBuilder: PathValueBuilder = _
   private var _exFactory: ExecutionContextFactory = _
@@ -62,11 +66,11 @@ class QueryState(val query: QueryContext,
 
   def withDecorator(decorator: PipeDecorator) =
     new QueryState(query, resources, params, cursors, queryIndexes, expressionVariables, subscriber, memoryTracker, decorator, initialContext,
-                   cachedIn, lenientCreateRelationship, prePopulateResults, input)
+                   cachedIn, lenientCreateRelationship, prePopulateResults, input, spilling, morselScan)
 
   def withInitialContext(initialContext: ExecutionContext) =
     new QueryState(query, resources, params, cursors, queryIndexes, expressionVariables, subscriber, memoryTracker, decorator, Some(initialContext),
-                   cachedIn, lenientCreateRelationship, prePopulateResults, input)
+                   cachedIn, lenientCreateRelationship, prePopulateResults, input, spilling, morselScan)
 
   /**
     * When running on the RHS of an Apply, this method will fill an execution context with argument data
@@ -78,7 +82,7 @@ class QueryState(val query: QueryContext,
 
   def withQueryContext(query: QueryContext) =
     new QueryState(query, resources, params, cursors, queryIndexes, expressionVariables, subscriber, memoryTracker, decorator, initialContext,
-                   cachedIn, lenientCreateRelationship, prePopulateResults, input)
+                   cachedIn, lenientCreateRelationship, prePopulateResults, input, spilling, morselScan)
 
   def setExecutionContextFactory(exFactory: ExecutionContextFactory): Unit = {
     _exFactory = exFactory
@@ -163,3 +167,58 @@ case class CommunityExecutionContextFactory() extends ExecutionContextFactory {
       row.copyWith(key1, value1, key2, value2, key3, value3)
   }
 }
+
+/**
+  * Creates [[ArrayExecutionContext]]s with the variable slots allocated for the plan of the pipes.
+  */
+case class ArrayExecutionContextFactory(slots: VariableSlots) extends ExecutionContextFactory {
+
+  override def newExecutionContext(): ExecutionContext = new ArrayExecutionContext(slots)
+
+  // Not using polymorphism here, instead cast since the cost of being megamorhpic is too high
+  override def copyWith(init: ExecutionContext): ExecutionContext = init match {
+    case context: ArrayExecutionContext =>
+      context.createClone()
+    case _ =>
+      val context = new ArrayExecutionContext(slots)
+      context.mergeWith(init, null)
+      context
+  }
+
+  // Not using polymorphism here, instead cast since the cost of being megamorhpic is too high
+  override def copyWith(row: ExecutionContext, newEntries: Seq[(String, AnyValue)]): ExecutionContext = row match {
+    case context: ArrayExecutionContext =>
+      context.copyWith(newEntries)
+    case _ =>
+      row.copyWith(newEntries)
+  }
+
+  // Not using polymorphism here, instead cast since the cost of being megamorhpic is too high
+  override def copyWith(row: ExecutionContext, key: String, value: AnyValue): ExecutionContext = row match {
+    case context: ArrayExecutionContext =>
+      context.copyWith(key, value)
+    case _ =>
+      row.copyWith(key, value)
+  }
+
+  // Not using polymorphism here, instead cast since the cost of being megamorhpic is too high
+  override def copyWith(row : ExecutionContext,
+                        key1: String, value1: AnyValue,
+                        key2: String, value2: AnyValue): ExecutionContext = row match {
+    case context: ArrayExecutionContext =>
+      context.copyWith(key1, value1, key2, value2)
+    case _ =>
+      row.copyWith(key1, value1, key2, value2)
+  }
+
+  // Not using polymorphism here, instead cast since the cost of being megamorhpic is too high
+  override def copyWith(row : ExecutionContext,
+                        key1: String, value1: AnyValue,
+                        key2: String, value2: AnyValue,
+                        key3: String, value3: AnyValue): ExecutionContext = row match {
+    case context: ArrayExecutionContext =>
+      context.copyWith(key1, value1, key2, value2, key3, value3)
+    case _ =>
+      row.copyWith(key1, value1, key2, value2, key3, value3)
+  }
+}
@@ -22,15 +22,71 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 import java.util.Comparator
 
 import org.neo4j.cypher.internal.runtime.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.spill.{SpillFile, SpillMerge}
 import org.neo4j.cypher.internal.v4_0.util.attribution.Id
 
+import scala.collection.mutable.ArrayBuffer
+
 case class SortPipe(source: Pipe, comparator: Comparator[ExecutionContext])
                    (val id: Id = Id.INVALID_ID)
   extends PipeWithSource(source) {
 
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
-    val array = state.memoryTracker.memoryTrackingIterator(input).toArray
-    java.util.Arrays.sort(array, comparator)
-    array.toIterator
+    if (state.spilling.isEnabled) {
+      externalSort(input, state)
+    } else {
+      val array = state.memoryTracker.memoryTrackingIterator(input).toArray
+      java.util.Arrays.sort(array, comparator)
+      array.toIterator
+    }
+  }
+
+  /**
+    * Sorts the input in runs of as many rows as the memory budget of the query allows, and merges the runs once they
+    * have been written to spill files. If all rows fit in the budget they are sorted in memory, as without spilling.
+    */
+  private def externalSort(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
+    val spilling = state.spilling
+    val buffer = new ArrayBuffer[ExecutionContext]()
+    var bufferedBytes = 0L
+    val runs = new ArrayBuffer[SpillFile]()
+
+    def spillBuffer(): Unit = {
+      val array = buffer.toArray
+      java.util.Arrays.sort(array, comparator)
+      val run = spilling.newFile()
+      array.foreach(row => run.write(row))
+      runs += run
+      buffer.clear()
+      spilling.release(bufferedBytes)
+      state.memoryTracker.deallocated(bufferedBytes)
+      bufferedBytes = 0L
+    }
+
+    while (input.hasNext) {
+      val row = input.next()
+      val bytes = row.estimatedHeapUsage
+      if (!spilling.tryReserve(bytes)) {
+        if (buffer.nonEmpty) {
+          spillBuffer()
+        }
+        spilling.reserve(bytes)
+      }
+      state.memoryTracker.allocated(bytes)
+      buffer += row
+      bufferedBytes += bytes
+    }
+
+    if (runs.isEmpty) {
+      val array = buffer.toArray
+      java.util.Arrays.sort(array, comparator)
+      spilling.release(bufferedBytes)
+      array.toIterator
+    } else {
+      if (buffer.nonEmpty) {
+        spillBuffer()
+      }
+      SpillMerge.byRow(runs, comparator, state.query, () => executionContextFactory.newExecutionContext())
+    }
   }
 }
@@ -23,9 +23,11 @@ import org.neo4j.cypher.internal.runtime.ExecutionContext
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.{AggregatingCol, AggregationTable, AggregationTableFactory}
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.GroupingCol
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.{AggregationPipe, ExecutionContextFactory, Pipe, QueryState}
+import org.neo4j.cypher.internal.runtime.interpreted.spill.{SpillMerge, SpillPartitions}
 import org.neo4j.values.AnyValue
 
 import scala.collection.JavaConverters._
+import scala.collection.mutable.ArrayBuffer
 
 /**
   * This table must be used when we have grouping columns, and there is no provided order for at least one grouping column.
@@ -43,22 +45,77 @@ class GroupingAggTable(groupingColumns: Array[GroupingCol],
   protected var resultMap: java.util.LinkedHashMap[AnyValue, Array[AggregationFunction]] = _
   protected val addKeys: (ExecutionContext, AnyValue) => Unit = AggregationPipe.computeAddKeysToResultRowFunction(groupingColumns)
 
+  // Only used when spilling is enabled, see processRowSpilling
+  private var reservedBytes = 0L
+  private var partitions: SpillPartitions = _
+  private var seq = 0L
+
+  /**
+    * Whether groups which do not fit in the memory budget of the query should be aggregated from spill files.
+    */
+  protected def spillingEnabled: Boolean = state.spilling.isEnabled
+
   override def clear(): Unit = {
     resultMap = new java.util.LinkedHashMap[AnyValue, Array[AggregationFunction]]()
+    reservedBytes = 0L
+    partitions = null
+    seq = 0L
   }
 
   override def processRow(row: ExecutionContext): Unit = {
     val groupingValue: AnyValue = groupingFunction(row, state)
-    val aggregationFunctions = resultMap.computeIfAbsent(groupingValue, _ => {
-      state.memoryTracker.allocated(groupingValue)
-      val functions = new Array[AggregationFunction](aggregations.length)
-      var i = 0
-      while (i < aggregations.length) {
-        functions(i) = aggregations(i).expression.createAggregationFunction
-        i += 1
+    if (spillingEnabled) {
+      processRowSpilling(groupingValue, row)
+    } else {
+      val aggregationFunctions = resultMap.computeIfAbsent(groupingValue, _ => newAggregationFunctions(groupingValue))
+      aggregate(aggregationFunctions, row)
+    }
+  }
+
+  /**
+    * Aggregates rows in memory until the groups use up the memory budget of the query. From then on the rows of groups
+    * already in memory are still aggregated in memory, while the rows of new groups are written to spill partitions by
+    * grouping value. Each partition is aggregated on its own once all groups in memory have been returned.
+    */
+  private def processRowSpilling(groupingValue: AnyValue, row: ExecutionContext): Unit = {
+    var aggregationFunctions = resultMap.get(groupingValue)
+    if (aggregationFunctions == null && partitions == null && reserve(groupingValue)) {
+      aggregationFunctions = newAggregationFunctions(groupingValue)
+      resultMap.put(groupingValue, aggregationFunctions)
+    }
+
+    if (aggregationFunctions != null) {
+      aggregate(aggregationFunctions, row)
+    } else {
+      if (partitions == null) {
+        partitions = new SpillPartitions(state.spilling)
       }
-      functions
-    })
+      partitions.write(groupingValue.hashCode(), seq, groupingValue, row)
+      seq += 1
+    }
+  }
+
+  private def reserve(groupingValue: AnyValue): Boolean = {
+    val bytes = groupingValue.estimatedHeapUsage() + aggregations.length * GroupingAggTable.AGGREGATION_FUNCTION_BYTES
+    val reserved = state.spilling.tryReserve(bytes)
+    if (reserved) {
+      reservedBytes += bytes
+    }
+    reserved
+  }
+
+  private def newAggregationFunctions(groupingValue: AnyValue): Array[AggregationFunction] = {
+    state.memoryTracker.allocated(groupingValue)
+    val functions = new Array[AggregationFunction](aggregations.length)
+    var i = 0
+    while (i < aggregations.length) {
+      functions(i) = aggregations(i).expression.createAggregationFunction
+      i += 1
+    }
+    functions
+  }
+
+  private def aggregate(aggregationFunctions: Array[AggregationFunction], row: ExecutionContext): Unit = {
     var i = 0
     while (i < aggregationFunctions.length) {
       aggregationFunctions(i)(row, state)
@@ -67,7 +124,52 @@ class GroupingAggTable(groupingColumns: Array[GroupingCol],
   }
 
   override def result(): Iterator[ExecutionContext] = {
-    val innerIterator = resultMap.entrySet().iterator()
+    val inMemory = resultRows(resultMap)
+    if (!spillingEnabled) {
+      inMemory
+    } else {
+      val bytes = reservedBytes
+      val spilled = partitions
+      inMemory ++ {
+        state.spilling.release(bytes)
+        if (spilled == null) Iterator.empty else aggregatePartitions(spilled)
+      }
+    }
+  }
+
+  /**
+    * Aggregates one partition at a time and writes its result rows to a spill file, along with the position in the input
+    * of the first row of their group. The result rows of all partitions are then merged by that position, so that the
+    * groups come out in the order they were first seen, just like without spilling.
+    */
+  private def aggregatePartitions(partitions: SpillPartitions): Iterator[ExecutionContext] = {
+    val newRow = () => executionContextFactory.newExecutionContext()
+    val results = partitions.nonEmpty.map { partition =>
+      val groups = new java.util.LinkedHashMap[AnyValue, Array[AggregationFunction]]()
+      val firstSeqs = new ArrayBuffer[Long]()
+      partition.startReading(state.query, newRow)
+      while (partition.next()) {
+        var aggregationFunctions = groups.get(partition.key)
+        if (aggregationFunctions == null) {
+          aggregationFunctions = newAggregationFunctions(partition.key)
+          groups.put(partition.key, aggregationFunctions)
+          firstSeqs += partition.seq
+        }
+        aggregate(aggregationFunctions, partition.row)
+      }
+      partition.close()
+
+      val out = state.spilling.newFile()
+      resultRows(groups).zip(firstSeqs.iterator).foreach {
+        case (row, firstSeq) => out.write(firstSeq, null, row)
+      }
+      out
+    }
+    SpillMerge.bySeq(results, state.query, newRow)
+  }
+
+  private def resultRows(groups: java.util.LinkedHashMap[AnyValue, Array[AggregationFunction]]): Iterator[ExecutionContext] = {
+    val innerIterator = groups.entrySet().iterator()
     new Iterator[ExecutionContext] {
       override def hasNext: Boolean = innerIterator.hasNext
 
@@ -92,6 +194,9 @@ class GroupingAggTable(groupingColumns: Array[GroupingCol],
 
 object GroupingAggTable {
 
+  // A rough estimate of the heap usage of an aggregation function, which is all that is reserved for it when spilling
+  private val AGGREGATION_FUNCTION_BYTES = 64
+
   case class Factory(groupingColumns: Array[GroupingCol],
                      groupingFunction: (ExecutionContext, QueryState) => AnyValue,
                      aggregations: Array[AggregatingCol]) extends AggregationTableFactory {
@@ -47,6 +47,9 @@ class OrderedGroupingAggTable(orderedGroupingFunction: (ExecutionContext, QueryS
 
   private var currentGroupKey: AnyValue = _
 
+  // Each chunk only holds the groups of a single value of the ordered grouping columns
+  override protected def spillingEnabled: Boolean = false
+
   override def clear(): Unit = {
     currentGroupKey = null
     super.clear()
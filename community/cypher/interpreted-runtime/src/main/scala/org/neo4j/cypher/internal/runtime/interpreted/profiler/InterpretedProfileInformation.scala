@@ -31,9 +31,8 @@ class InterpretedProfileInformation extends QueryProfile {
   case class OperatorData(override val dbHits: Long,
                           override val rows: Long,
                           override val pageCacheHits: Long,
-                          override val pageCacheMisses: Long) extends OperatorProfile {
-
-    override def time: Long = OperatorProfile.NO_DATA
+                          override val pageCacheMisses: Long,
+                          override val time: Long = OperatorProfile.NO_DATA) extends OperatorProfile {
 
     override def hashCode: Int = util.Arrays.hashCode(
       Array(this.time(), this.dbHits, this.rows, this.pageCacheHits, this.pageCacheMisses))
@@ -54,6 +53,8 @@ class InterpretedProfileInformation extends QueryProfile {
   val pageCacheMap: mutable.Map[Id, PageCacheStats] = mutable.Map.empty.withDefault(_ => PageCacheStats(0,0))
   val dbHitsMap: mutable.Map[Id, ProfilingPipeQueryContext] = mutable.Map.empty
   val rowMap: mutable.Map[Id, ProfilingIterator] = mutable.Map.empty
+  // Only pipes which time work of their own, e.g. LOAD CSV reading its file, have an entry
+  val timeMap: mutable.Map[Id, Long] = mutable.Map.empty.withDefault(_ => 0L)
 
   def operatorProfile(operatorId: Int): OperatorProfile = {
     val id = Id(operatorId)
@@ -61,7 +62,9 @@ class InterpretedProfileInformation extends QueryProfile {
     val dbHits = dbHitsMap.get(id).map(_.count).getOrElse(0L)
     val pageCacheStats = pageCacheMap(id)
 
-    OperatorData(dbHits, rows, pageCacheStats.hits, pageCacheStats.misses)
+    val time = timeMap.getOrElse(id, OperatorProfile.NO_DATA)
+
+    OperatorData(dbHits, rows, pageCacheStats.hits, pageCacheStats.misses, time)
   }
 }
 
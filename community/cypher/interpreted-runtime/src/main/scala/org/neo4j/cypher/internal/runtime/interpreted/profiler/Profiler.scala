@@ -108,6 +108,10 @@ class Profiler(databaseInfo: DatabaseInfo,
     }
   }
 
+  override def tracksTime: Boolean = true
+
+  override def addTime(pipe: Pipe, nanos: Long): Unit = stats.timeMap(pipe.id) += nanos
+
   private def trackPageCacheStats = {
     databaseInfo.edition != Edition.COMMUNITY
   }
@@ -123,6 +127,10 @@ class Profiler(databaseInfo: DatabaseInfo,
     def decorate(pipe: Pipe, iter: Iterator[ExecutionContext]): Iterator[ExecutionContext] = iter
 
     override def afterCreateResults(pipe: Pipe, state: QueryState): Unit = outerProfiler.afterCreateResults(owningPipe, state)
+
+    override def tracksTime: Boolean = true
+
+    override def addTime(pipe: Pipe, nanos: Long): Unit = outerProfiler.addTime(owningPipe, nanos)
   }
 
   def registerParentPipe(pipe: Pipe): Unit =
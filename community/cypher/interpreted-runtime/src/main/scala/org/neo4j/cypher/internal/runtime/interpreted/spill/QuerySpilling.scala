@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.spill
+
+import org.neo4j.cypher.internal.runtime.ResourceManager
+import org.neo4j.cypher.internal.v4_0.expressions.ASTCachedProperty
+import org.neo4j.values.AnyValue
+
+import scala.collection.mutable
+
+/**
+  * The heap memory budget of a single query for the rows held by pipes which can move them to disk, i.e. sort,
+  * aggregation, distinct and hash join.
+  *
+  * Such a pipe reserves the estimated heap usage of the rows it holds on to. When a reservation fails, the pipe writes
+  * rows to [[SpillFile]]s and releases what it had reserved for them.
+  *
+  * @param budget    the number of bytes that can be reserved, or 0 if rows should never be spilled
+  * @param resources the resources of the query, which close all spill files when the query is closed
+  */
+class QuerySpilling(val budget: Long, resources: ResourceManager) {
+
+  private var reserved = 0L
+
+  // Spilled rows refer to variable names, cached property keys and LOAD CSV file names by number, and to values
+  // which have no binary form by their index in `heapValues`. Spill files never outlive the query, so these never
+  // have to be written out.
+  private[spill] val variableNames = new Dictionary[String]
+  private[spill] val cachedPropertyKeys = new Dictionary[ASTCachedProperty]
+  private[spill] val fileNames = new Dictionary[String]
+  private[spill] val heapValues = new mutable.ArrayBuffer[AnyValue]
+
+  def isEnabled: Boolean = budget > 0
+
+  /**
+    * Reserve the given number of bytes, if that does not exceed the budget.
+    *
+    * @return true if the bytes were reserved, false if the caller should spill rows instead
+    */
+  def tryReserve(bytes: Long): Boolean = {
+    if (reserved + bytes > budget) {
+      false
+    } else {
+      reserved += bytes
+      true
+    }
+  }
+
+  /**
+    * Reserve the given number of bytes whether or not that exceeds the budget. Used for rows that are kept on the heap
+    * even though spilling did not free up enough memory for them.
+    */
+  def reserve(bytes: Long): Unit = reserved += bytes
+
+  def release(bytes: Long): Unit = reserved -= bytes
+
+  def reservedBytes: Long = reserved
+
+  def newFile(): SpillFile = {
+    val file = new SpillFile(this)
+    resources.trace(file)
+    file
+  }
+}
+
+object QuerySpilling {
+  val DISABLED = new QuerySpilling(0L, null)
+
+  def apply(budget: Long, resources: ResourceManager): QuerySpilling =
+    if (budget > 0) new QuerySpilling(budget, resources) else DISABLED
+}
+
+private[spill] class Dictionary[T] {
+  private val ids = new mutable.HashMap[T, Int]
+  private val entries = new mutable.ArrayBuffer[T]
+
+  def id(entry: T): Int = ids.getOrElseUpdate(entry, {
+    entries += entry
+    entries.length - 1
+  })
+
+  def apply(id: Int): T = entries(id)
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.spill
+
+import java.io._
+import java.nio.file.{Files, Path}
+
+import org.neo4j.cypher.internal.runtime.{EntityById, ExecutionContext}
+import org.neo4j.exceptions.CypherExecutionException
+import org.neo4j.internal.kernel.api.{AutoCloseablePlus, DefaultCloseListenable}
+import org.neo4j.values.AnyValue
+
+/**
+  * A temporary file of rows, written by a pipe which holds more rows than its query has memory for, and read back in
+  * the order they were written once the pipe is done writing.
+  *
+  * Each row is stored along with a sequence number and a key. Pipes use the sequence number to restore the order of
+  * their input, and the key to avoid computing a grouping or join key again for a row read back from the file.
+  *
+  * The file is deleted when closed, which the query does for any spill file still open when the query is closed.
+  */
+class SpillFile(spilling: QuerySpilling) extends DefaultCloseListenable with AutoCloseablePlus {
+
+  private val path: Path = Files.createTempFile("cypher-spill-", ".tmp")
+  private var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), SpillFile.BUFFER_SIZE))
+  private var writer = new SpillValueWriter(out, spilling)
+  private var in: DataInputStream = _
+  private var reader: SpillValueReader = _
+  private var remaining = 0L
+  private var _size = 0L
+  private var closed = false
+
+  private var _seq = -1L
+  private var _key: AnyValue = _
+  private var _row: ExecutionContext = _
+
+  /**
+    * The number of rows in this file.
+    */
+  def size: Long = _size
+
+  def write(row: ExecutionContext): Unit = write(-1L, null, row)
+
+  def write(seq: Long, key: AnyValue, row: ExecutionContext): Unit = {
+    try {
+      out.writeLong(seq)
+      writer.write(key)
+      writer.writeRow(row)
+    } catch {
+      case e: IOException => throw failure(e)
+    }
+    _size += 1
+  }
+
+  /**
+    * Stop writing and position the file before its first row.
+    *
+    * @param entityById used to look up nodes and relationships which were spilled as ids
+    * @param newRow     creates the empty rows which spilled rows are read into
+    */
+  def startReading(entityById: EntityById, newRow: () => ExecutionContext): Unit = {
+    try {
+      out.close()
+      out = null
+      writer = null
+      in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), SpillFile.BUFFER_SIZE))
+      reader = new SpillValueReader(in, spilling, entityById, newRow)
+      remaining = _size
+    } catch {
+      case e: IOException => throw failure(e)
+    }
+  }
+
+  /**
+    * Read the next row of the file, which is then available from [[seq]], [[key]] and [[row]].
+    *
+    * @return true if there was another row, false if all rows have been read
+    */
+  def next(): Boolean = {
+    if (remaining == 0) {
+      _key = null
+      _row = null
+      false
+    } else {
+      try {
+        _seq = in.readLong()
+        _key = reader.read()
+        _row = reader.readRow()
+      } catch {
+        case e: IOException => throw failure(e)
+      }
+      remaining -= 1
+      true
+    }
+  }
+
+  def seq: Long = _seq
+
+  def key: AnyValue = _key
+
+  def row: ExecutionContext = _row
+
+  /**
+    * Read all rows of the file, and close it once the last row has been read.
+    */
+  def rows(entityById: EntityById, newRow: () => ExecutionContext): Iterator[ExecutionContext] = {
+    startReading(entityById, newRow)
+    new Iterator[ExecutionContext] {
+      private var fetched = false
+      private var hasMore = false
+
+      override def hasNext: Boolean = {
+        if (!fetched) {
+          hasMore = SpillFile.this.next()
+          fetched = true
+          if (!hasMore) {
+            close()
+          }
+        }
+        hasMore
+      }
+
+      override def next(): ExecutionContext = {
+        if (!hasNext) Iterator.empty.next()
+        fetched = false
+        row
+      }
+    }
+  }
+
+  override def closeInternal(): Unit = {
+    if (!closed) {
+      closed = true
+      if (out != null) out.close()
+      if (in != null) in.close()
+      Files.deleteIfExists(path)
+    }
+  }
+
+  override def close(): Unit = {
+    closeInternal()
+    val listener = closeListener
+    if (listener != null) listener.onClosed(this)
+  }
+
+  override def isClosed: Boolean = closed
+
+  private def failure(e: IOException) = new CypherExecutionException(s"Failed to spill rows to temporary file $path", e)
+}
+
+object SpillFile {
+  private val BUFFER_SIZE = 64 * 1024
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.spill
+
+import java.util.{Comparator, PriorityQueue}
+
+import org.neo4j.cypher.internal.runtime.{EntityById, ExecutionContext}
+
+/**
+  * Merges spill files, each of which holds rows in order, into a single iterator of rows in that order. Rows that are
+  * equal in the order are returned in the order of the files they come from, so merging keeps a sort stable.
+  * Each file is closed once all of its rows have been returned.
+  */
+object SpillMerge {
+
+  /**
+    * Merge files of rows sorted by the given comparator.
+    */
+  def byRow(files: Seq[SpillFile],
+            comparator: Comparator[ExecutionContext],
+            entityById: EntityById,
+            newRow: () => ExecutionContext): Iterator[ExecutionContext] =
+    merge(files, (a, b) => comparator.compare(a.row, b.row), entityById, newRow)
+
+  /**
+    * Merge files of rows in the order of their sequence numbers.
+    */
+  def bySeq(files: Seq[SpillFile],
+            entityById: EntityById,
+            newRow: () => ExecutionContext): Iterator[ExecutionContext] =
+    merge(files, (a, b) => java.lang.Long.compare(a.seq, b.seq), entityById, newRow)
+
+  private def merge(files: Seq[SpillFile],
+                    order: Comparator[SpillFile],
+                    entityById: EntityById,
+                    newRow: () => ExecutionContext): Iterator[ExecutionContext] = {
+    val position = files.zipWithIndex.toMap
+    val queue = new PriorityQueue[SpillFile](math.max(1, files.size), new Comparator[SpillFile] {
+      override def compare(a: SpillFile, b: SpillFile): Int = {
+        val result = order.compare(a, b)
+        if (result != 0) result else Integer.compare(position(a), position(b))
+      }
+    })
+    files.foreach { file =>
+      file.startReading(entityById, newRow)
+      if (file.next()) queue.add(file) else file.close()
+    }
+
+    new Iterator[ExecutionContext] {
+      override def hasNext: Boolean = !queue.isEmpty
+
+      override def next(): ExecutionContext = {
+        if (!hasNext) Iterator.empty.next()
+        val file = queue.poll()
+        val row = file.row
+        if (file.next()) queue.add(file) else file.close()
+        row
+      }
+    }
+  }
+}
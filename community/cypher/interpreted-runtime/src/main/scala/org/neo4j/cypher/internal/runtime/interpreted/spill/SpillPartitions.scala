@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.spill
+
+import org.neo4j.cypher.internal.runtime.ExecutionContext
+import org.neo4j.values.AnyValue
+
+/**
+  * Spill files that rows are distributed over by the hash of their grouping or join key. All rows with the same key
+  * end up in the same file, which lets a pipe process one file at a time with a table of only the keys in that file.
+  */
+class SpillPartitions(spilling: QuerySpilling) {
+
+  private val files = new Array[SpillFile](SpillPartitions.COUNT)
+
+  def write(hash: Int, seq: Long, key: AnyValue, row: ExecutionContext): Unit = {
+    val partition = SpillPartitions.partition(hash)
+    var file = files(partition)
+    if (file == null) {
+      file = spilling.newFile()
+      files(partition) = file
+    }
+    file.write(seq, key, row)
+  }
+
+  /**
+    * The file of the given partition, or null if no rows were written to it. The caller is responsible for closing it.
+    */
+  def apply(partition: Int): SpillFile = files(partition)
+
+  /**
+    * The files that rows were written to, in partition order. The caller is responsible for closing them.
+    */
+  def nonEmpty: Seq[SpillFile] = files.filter(_ != null)
+}
+
+object SpillPartitions {
+  private val BITS = 5
+  val COUNT: Int = 1 << BITS
+
+  // Use the high bits of a multiplicative hash (by 2^32 divided by the golden ratio), so that the hash tables which
+  // process a single partition do not end up with keys that all share the same low bits.
+  def partition(hash: Int): Int = (hash * -0x61c88647) >>> (32 - BITS)
+}
@@ -0,0 +1,426 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.spill
+
+import java.io.{DataInputStream, DataOutputStream, IOException}
+import java.nio.charset.StandardCharsets
+import java.time._
+
+import org.neo4j.cypher.internal.runtime.interpreted.spill.SpillValues._
+import org.neo4j.cypher.internal.runtime.{ArrayExecutionContext, EntityById, ExecutionContext, MapExecutionContext}
+import org.neo4j.cypher.internal.v4_0.expressions.ASTCachedProperty
+import org.neo4j.exceptions.InternalException
+import org.neo4j.kernel.impl.util.{NodeEntityWrappingNodeValue, RelationshipEntityWrappingValue}
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.ValueWriter.ArrayType
+import org.neo4j.values.storable._
+import org.neo4j.values.virtual._
+
+/**
+  * The binary form of spilled rows and values.
+  *
+  * Storable values are written through their [[ValueWriter]] methods. Lists and maps are written element by element.
+  * Nodes and relationships are written as their ids, and read back as references or as entity backed values, depending
+  * on what they were. Any other value is kept on the heap, see [[QuerySpilling]].
+  */
+private[spill] object SpillValues {
+  final val ABSENT = 0
+  final val NO_VALUE = 1
+  final val TRUE = 2
+  final val FALSE = 3
+  final val BYTE = 4
+  final val SHORT = 5
+  final val INT = 6
+  final val LONG = 7
+  final val FLOAT = 8
+  final val DOUBLE = 9
+  final val STRING = 10
+  final val CHAR = 11
+  final val ARRAY = 12
+  final val BYTE_ARRAY = 13
+  final val POINT = 14
+  final val DURATION = 15
+  final val DATE = 16
+  final val LOCAL_TIME = 17
+  final val TIME = 18
+  final val LOCAL_DATE_TIME = 19
+  final val DATE_TIME = 20
+  final val LIST = 21
+  final val MAP = 22
+  final val NODE_REFERENCE = 23
+  final val NODE = 24
+  final val RELATIONSHIP_REFERENCE = 25
+  final val RELATIONSHIP = 26
+  final val PATH = 27
+  final val HEAP = 28
+
+  val ARRAY_TYPES: Array[ArrayType] = ArrayType.values()
+}
+
+private[spill] class SpillValueWriter(out: DataOutputStream, spilling: QuerySpilling) extends ValueWriter[IOException] {
+
+  def writeRow(row: ExecutionContext): Unit = {
+    val (variables, cachedProperties) = row match {
+      case context: MapExecutionContext => (context.toMap, context.cachedPropertyEntries)
+      case context: ArrayExecutionContext => (context.toMap, context.cachedPropertyEntries)
+      case _ => throw new InternalException(s"Can not spill rows of type ${row.getClass.getSimpleName}")
+    }
+
+    out.writeInt(variables.size)
+    variables.foreach {
+      case (name, value) =>
+        out.writeInt(spilling.variableNames.id(name))
+        write(value)
+    }
+
+    if (cachedProperties == null) {
+      out.writeInt(0)
+    } else {
+      out.writeInt(cachedProperties.size)
+      cachedProperties.foreach {
+        case (key, value) =>
+          out.writeInt(spilling.cachedPropertyKeys.id(key))
+          write(value)
+      }
+    }
+
+    row.getLinenumber match {
+      case Some(linenumber) =>
+        out.writeBoolean(true)
+        out.writeInt(spilling.fileNames.id(linenumber.filename))
+        out.writeLong(linenumber.linenumber)
+        out.writeBoolean(linenumber.last)
+      case None =>
+        out.writeBoolean(false)
+    }
+  }
+
+  def write(value: AnyValue): Unit = value match {
+    case null =>
+      out.writeByte(ABSENT)
+
+    case v: Value =>
+      v.writeTo(this)
+
+    case n: NodeReference =>
+      out.writeByte(NODE_REFERENCE)
+      out.writeLong(n.id())
+
+    case n: NodeEntityWrappingNodeValue =>
+      out.writeByte(NODE)
+      out.writeLong(n.id())
+
+    case r: RelationshipReference =>
+      out.writeByte(RELATIONSHIP_REFERENCE)
+      out.writeLong(r.id())
+
+    case r: RelationshipEntityWrappingValue =>
+      out.writeByte(RELATIONSHIP)
+      out.writeLong(r.id())
+
+    case p: PathValue if isEntityPath(p) =>
+      out.writeByte(PATH)
+      val nodes = p.nodes()
+      out.writeInt(nodes.length)
+      nodes.foreach(n => out.writeLong(n.id()))
+      val relationships = p.relationships()
+      out.writeInt(relationships.length)
+      relationships.foreach(r => out.writeLong(r.id()))
+
+    case l: ListValue =>
+      out.writeByte(LIST)
+      out.writeInt(l.size())
+      val iterator = l.iterator()
+      while (iterator.hasNext) {
+        write(iterator.next())
+      }
+
+    case m: MapValue =>
+      out.writeByte(MAP)
+      out.writeInt(m.size())
+      m.foreach((k: String, v: AnyValue) => {
+        writeText(k)
+        write(v)
+      })
+
+    case _ =>
+      out.writeByte(HEAP)
+      out.writeInt(spilling.heapValues.length)
+      spilling.heapValues += value
+  }
+
+  private def isEntityPath(path: PathValue): Boolean =
+    path.nodes().forall(_.isInstanceOf[NodeEntityWrappingNodeValue]) &&
+      path.relationships().forall(_.isInstanceOf[RelationshipEntityWrappingValue])
+
+  private def writeText(value: String): Unit = {
+    val bytes = value.getBytes(StandardCharsets.UTF_8)
+    out.writeInt(bytes.length)
+    out.write(bytes)
+  }
+
+  override def writeNull(): Unit = out.writeByte(NO_VALUE)
+
+  override def writeBoolean(value: Boolean): Unit = out.writeByte(if (value) TRUE else FALSE)
+
+  override def writeInteger(value: Byte): Unit = {
+    out.writeByte(BYTE)
+    out.writeByte(value)
+  }
+
+  override def writeInteger(value: Short): Unit = {
+    out.writeByte(SHORT)
+    out.writeShort(value)
+  }
+
+  override def writeInteger(value: Int): Unit = {
+    out.writeByte(INT)
+    out.writeInt(value)
+  }
+
+  override def writeInteger(value: Long): Unit = {
+    out.writeByte(LONG)
+    out.writeLong(value)
+  }
+
+  override def writeFloatingPoint(value: Float): Unit = {
+    out.writeByte(FLOAT)
+    out.writeFloat(value)
+  }
+
+  override def writeFloatingPoint(value: Double): Unit = {
+    out.writeByte(DOUBLE)
+    out.writeDouble(value)
+  }
+
+  override def writeString(value: String): Unit = {
+    out.writeByte(STRING)
+    writeText(value)
+  }
+
+  override def writeUTF8(bytes: Array[Byte], offset: Int, length: Int): Unit = {
+    out.writeByte(STRING)
+    out.writeInt(length)
+    out.write(bytes, offset, length)
+  }
+
+  override def writeString(value: Char): Unit = {
+    out.writeByte(CHAR)
+    out.writeChar(value)
+  }
+
+  override def beginArray(size: Int, arrayType: ArrayType): Unit = {
+    out.writeByte(ARRAY)
+    out.writeByte(arrayType.ordinal())
+    out.writeInt(size)
+  }
+
+  override def endArray(): Unit = {}
+
+  override def writeByteArray(value: Array[Byte]): Unit = {
+    out.writeByte(BYTE_ARRAY)
+    out.writeInt(value.length)
+    out.write(value)
+  }
+
+  override def writePoint(crs: CoordinateReferenceSystem, coordinate: Array[Double]): Unit = {
+    out.writeByte(POINT)
+    out.writeInt(crs.getCode)
+    out.writeInt(coordinate.length)
+    coordinate.foreach(out.writeDouble)
+  }
+
+  override def writeDuration(months: Long, days: Long, seconds: Long, nanos: Int): Unit = {
+    out.writeByte(DURATION)
+    out.writeLong(months)
+    out.writeLong(days)
+    out.writeLong(seconds)
+    out.writeInt(nanos)
+  }
+
+  override def writeDate(localDate: LocalDate): Unit = {
+    out.writeByte(DATE)
+    out.writeLong(localDate.toEpochDay)
+  }
+
+  override def writeLocalTime(localTime: LocalTime): Unit = {
+    out.writeByte(LOCAL_TIME)
+    out.writeLong(localTime.toNanoOfDay)
+  }
+
+  override def writeTime(offsetTime: OffsetTime): Unit = {
+    out.writeByte(TIME)
+    out.writeLong(offsetTime.toLocalTime.toNanoOfDay)
+    out.writeInt(offsetTime.getOffset.getTotalSeconds)
+  }
+
+  override def writeLocalDateTime(localDateTime: LocalDateTime): Unit = {
+    out.writeByte(LOCAL_DATE_TIME)
+    out.writeLong(localDateTime.toEpochSecond(ZoneOffset.UTC))
+    out.writeInt(localDateTime.getNano)
+  }
+
+  override def writeDateTime(zonedDateTime: ZonedDateTime): Unit = {
+    out.writeByte(DATE_TIME)
+    out.writeLong(zonedDateTime.toEpochSecond)
+    out.writeInt(zonedDateTime.getNano)
+    writeText(zonedDateTime.getZone.getId)
+  }
+}
+
+private[spill] class SpillValueReader(in: DataInputStream,
+                                      spilling: QuerySpilling,
+                                      entityById: EntityById,
+                                      newRow: () => ExecutionContext) {
+
+  def readRow(): ExecutionContext = {
+    val row = newRow()
+
+    var i = in.readInt()
+    while (i > 0) {
+      val name = spilling.variableNames(in.readInt())
+      row.set(name, read())
+      i -= 1
+    }
+
+    i = in.readInt()
+    while (i > 0) {
+      val key: ASTCachedProperty = spilling.cachedPropertyKeys(in.readInt())
+      row.setCachedProperty(key, read().asInstanceOf[Value])
+      i -= 1
+    }
+
+    if (in.readBoolean()) {
+      val fileName = spilling.fileNames(in.readInt())
+      val linenumber = in.readLong()
+      row.setLinenumber(fileName, linenumber, in.readBoolean())
+    }
+    row
+  }
+
+  def read(): AnyValue = {
+    val tag: Int = in.readByte()
+    tag match {
+      case ABSENT => null
+      case NO_VALUE => Values.NO_VALUE
+      case TRUE => Values.TRUE
+      case FALSE => Values.FALSE
+      case BYTE => Values.byteValue(in.readByte())
+      case SHORT => Values.shortValue(in.readShort())
+      case INT => Values.intValue(in.readInt())
+      case LONG => Values.longValue(in.readLong())
+      case FLOAT => Values.floatValue(in.readFloat())
+      case DOUBLE => Values.doubleValue(in.readDouble())
+      case STRING => Values.utf8Value(readBytes())
+      case CHAR => Values.charValue(in.readChar())
+      case ARRAY => readArray()
+      case BYTE_ARRAY => Values.byteArray(readBytes())
+      case POINT =>
+        val crs = CoordinateReferenceSystem.get(in.readInt())
+        val coordinate = new Array[Double](in.readInt())
+        var i = 0
+        while (i < coordinate.length) {
+          coordinate(i) = in.readDouble()
+          i += 1
+        }
+        Values.pointValue(crs, coordinate: _*)
+      case DURATION => DurationValue.duration(in.readLong(), in.readLong(), in.readLong(), in.readInt())
+      case DATE => DateValue.epochDate(in.readLong())
+      case LOCAL_TIME => LocalTimeValue.localTime(in.readLong())
+      case TIME => TimeValue.time(OffsetTime.of(LocalTime.ofNanoOfDay(in.readLong()), ZoneOffset.ofTotalSeconds(in.readInt())))
+      case LOCAL_DATE_TIME => LocalDateTimeValue.localDateTime(in.readLong(), in.readInt())
+      case DATE_TIME =>
+        val instant = Instant.ofEpochSecond(in.readLong(), in.readInt())
+        DateTimeValue.datetime(ZonedDateTime.ofInstant(instant, ZoneId.of(readText())))
+      case LIST =>
+        val values = new Array[AnyValue](in.readInt())
+        var i = 0
+        while (i < values.length) {
+          values(i) = read()
+          i += 1
+        }
+        VirtualValues.list(values: _*)
+      case MAP =>
+        var i = in.readInt()
+        val builder = new MapValueBuilder(i)
+        while (i > 0) {
+          builder.add(readText(), read())
+          i -= 1
+        }
+        builder.build()
+      case NODE_REFERENCE => VirtualValues.node(in.readLong())
+      case NODE => entityById.nodeById(in.readLong())
+      case RELATIONSHIP_REFERENCE => VirtualValues.relationship(in.readLong())
+      case RELATIONSHIP => entityById.relationshipById(in.readLong())
+      case PATH =>
+        val nodes = new Array[NodeValue](in.readInt())
+        var i = 0
+        while (i < nodes.length) {
+          nodes(i) = entityById.nodeById(in.readLong())
+          i += 1
+        }
+        val relationships = new Array[RelationshipValue](in.readInt())
+        i = 0
+        while (i < relationships.length) {
+          relationships(i) = entityById.relationshipById(in.readLong())
+          i += 1
+        }
+        VirtualValues.path(nodes, relationships)
+      case HEAP => spilling.heapValues(in.readInt())
+      case _ => throw new InternalException(s"Unknown spilled value type $tag")
+    }
+  }
+
+  private def readArray(): ArrayValue = {
+    val arrayType = ARRAY_TYPES(in.readByte())
+    val elements = new Array[Value](in.readInt())
+    var i = 0
+    while (i < elements.length) {
+      elements(i) = read().asInstanceOf[Value]
+      i += 1
+    }
+    arrayType match {
+      case ArrayType.BYTE => Values.byteArray(elements.map(_.asInstanceOf[ByteValue].value()))
+      case ArrayType.SHORT => Values.shortArray(elements.map(_.asInstanceOf[ShortValue].value()))
+      case ArrayType.INT => Values.intArray(elements.map(_.asInstanceOf[IntValue].value()))
+      case ArrayType.LONG => Values.longArray(elements.map(_.asInstanceOf[LongValue].value()))
+      case ArrayType.FLOAT => Values.floatArray(elements.map(_.asInstanceOf[FloatValue].value()))
+      case ArrayType.DOUBLE => Values.doubleArray(elements.map(_.asInstanceOf[DoubleValue].value()))
+      case ArrayType.BOOLEAN => Values.booleanArray(elements.map(_.asInstanceOf[BooleanValue].booleanValue()))
+      case ArrayType.STRING => Values.stringArray(elements.map(_.asInstanceOf[TextValue].stringValue()): _*)
+      case ArrayType.CHAR => Values.charArray(elements.map(_.asInstanceOf[CharValue].value()))
+      case ArrayType.POINT => Values.pointArray(elements)
+      case ArrayType.ZONED_DATE_TIME => Values.dateTimeArray(elements.map(_.asInstanceOf[DateTimeValue].asObjectCopy()))
+      case ArrayType.LOCAL_DATE_TIME => Values.localDateTimeArray(elements.map(_.asInstanceOf[LocalDateTimeValue].asObjectCopy()))
+      case ArrayType.DATE => Values.dateArray(elements.map(_.asInstanceOf[DateValue].asObjectCopy()))
+      case ArrayType.ZONED_TIME => Values.timeArray(elements.map(_.asInstanceOf[TimeValue].asObjectCopy()))
+      case ArrayType.LOCAL_TIME => Values.localTimeArray(elements.map(_.asInstanceOf[LocalTimeValue].asObjectCopy()))
+      case ArrayType.DURATION => Values.durationArray(elements.map(_.asInstanceOf[DurationValue]))
+    }
+  }
+
+  private def readBytes(): Array[Byte] = {
+    val bytes = new Array[Byte](in.readInt())
+    in.readFully(bytes)
+    bytes
+  }
+
+  private def readText(): String = new String(readBytes(), StandardCharsets.UTF_8)
+}
@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.runtime.interpreted
 
 import java.net.URL
+import java.util.concurrent.{Executor, Executors}
 
 import org.apache.commons.lang3.SystemUtils
 import org.mockito.ArgumentMatchers._
@@ -244,4 +245,46 @@ class CSVResourcesTest extends CypherFunSuite with CreateTempFileTestSupport {
         r should equal(expected)
     }
   }
+
+  test("should parse chunks in parallel and keep the order of the file") {
+    // given
+    val url = createCSVTempFileURL {
+      writer =>
+        (1 to 1000).foreach(i => writer.println(s"$i,value$i"))
+    }
+    val executor = Executors.newFixedThreadPool(3)
+
+    try {
+      //when
+      val result = resources.getParallelCsvIterator(new URL(url), None, legacyCsvQuoteEscaping = false, bufferSize = 64,
+                                                    headers = false, parserThreads = 3, executor).toList
+
+      //then
+      result.map(_.toList) should equal((1 to 1000).map(i => List(i.toString, s"value$i")).toList)
+    } finally {
+      executor.shutdown()
+    }
+  }
+
+  test("should parse chunks on the calling thread if the executor does not get to them") {
+    // given
+    val url = createCSVTempFileURL {
+      writer =>
+        writer.println("a,b")
+        (1 to 100).foreach(i => writer.println(s"$i,$i"))
+    }
+    val idleExecutor = new Executor {
+      override def execute(command: Runnable): Unit = {}
+    }
+
+    //when
+    val iterator = resources.getParallelCsvIterator(new URL(url), None, legacyCsvQuoteEscaping = false, bufferSize = 64,
+                                                    headers = true, parserThreads = 2, idleExecutor)
+
+    //then
+    iterator.next() should equal(Array("a", "b"))
+    iterator.toList.map(_.toList) should equal((1 to 100).map(i => List(i.toString, i.toString)).toList)
+    iterator.lastProcessed should equal(101)
+    iterator.readAll should equal(true)
+  }
 }
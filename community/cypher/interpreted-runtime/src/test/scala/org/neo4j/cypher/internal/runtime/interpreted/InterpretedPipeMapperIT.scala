@@ -139,7 +139,7 @@ class InterpretedPipeMapperIT extends CypherFunSuite with AstConstructionTestSup
     val logicalPlan = Expand(AllNodesScan("a", Set.empty), "a", SemanticDirection.INCOMING, Seq(), "b", "r1")(idGen)
     val pipe = build(logicalPlan)
 
-    pipe should equal(ExpandAllPipe(AllNodesScanPipe("a")(), "a", "r1", "b", SemanticDirection.INCOMING, RelationshipTypes.empty)())
+    pipe should equal(ExpandAllPipe(AllNodesScanPipe("a")(), "a", "r1", "b", SemanticDirection.INCOMING, RelationshipTypes.empty, ExpandAllPipe.BATCH_SIZE)())
   }
 
   test("simple expand into existing variable MATCH a-[r]->a ") {
@@ -170,8 +170,8 @@ class InterpretedPipeMapperIT extends CypherFunSuite with AstConstructionTestSup
 
     pipe should equal(NodeHashJoinPipe(
       Set("b"),
-      ExpandAllPipe(AllNodesScanPipe("a")(), "a", "r1", "b", SemanticDirection.INCOMING, RelationshipTypes.empty)(),
-      ExpandAllPipe(AllNodesScanPipe("c")(), "c", "r2", "b", SemanticDirection.INCOMING, RelationshipTypes.empty)()
+      ExpandAllPipe(AllNodesScanPipe("a")(), "a", "r1", "b", SemanticDirection.INCOMING, RelationshipTypes.empty, ExpandAllPipe.BATCH_SIZE)(),
+      ExpandAllPipe(AllNodesScanPipe("c")(), "c", "r2", "b", SemanticDirection.INCOMING, RelationshipTypes.empty, ExpandAllPipe.BATCH_SIZE)()
       )())
   }
 
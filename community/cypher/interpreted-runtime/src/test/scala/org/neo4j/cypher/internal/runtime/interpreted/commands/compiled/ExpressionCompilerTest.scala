@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.commands.compiled
+
+import org.neo4j.cypher.internal.runtime.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions._
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates._
+import org.neo4j.cypher.internal.v4_0.util.test_helpers.CypherFunSuite
+import org.neo4j.exceptions.ArithmeticException
+import org.neo4j.values.storable.Values.{FALSE, NO_VALUE, TRUE, longValue, stringValue}
+
+class ExpressionCompilerTest extends CypherFunSuite {
+
+  private val ctx = ExecutionContext.from("x" -> longValue(3), "s" -> stringValue("a"), "n" -> NO_VALUE)
+  private val state = QueryStateHelper.emptyWith(params = Array(longValue(10)))
+
+  test("should compile arithmetics over variables, literals and parameters") {
+    val expression = Add(Multiply(Variable("x"), Literal(2)), Subtract(ParameterFromSlot(0, "p"), Literal(1)))
+
+    val compiled = ExpressionCompiler.compile(expression)
+
+    compiled shouldBe a[CompiledExpressionCommand]
+    compiled(ctx, state) should equal(longValue(15))
+  }
+
+  test("should return null when an operand is null") {
+    ExpressionCompiler.compile(Add(Variable("x"), Variable("n")))(ctx, state) should equal(NO_VALUE)
+    ExpressionCompiler.compile(Divide(Variable("n"), Literal(2)))(ctx, state) should equal(NO_VALUE)
+    ExpressionCompiler.compile(Equals(Variable("n"), Literal(2)))(ctx, state) should equal(NO_VALUE)
+    ExpressionCompiler.compile(Not(Equals(Variable("n"), Literal(2))))(ctx, state) should equal(NO_VALUE)
+  }
+
+  test("should throw the same errors as the interpreter") {
+    intercept[ArithmeticException](ExpressionCompiler.compile(Divide(Variable("x"), Literal(0)))(ctx, state))
+    intercept[ArithmeticException](ExpressionCompiler.compile(Divide(Variable("n"), Literal(0)))(ctx, state))
+  }
+
+  test("should compile predicates") {
+    val predicate = ExpressionCompiler.compilePredicate(GreaterThan(Variable("x"), Literal(2)))
+
+    predicate shouldBe a[CompiledPredicateCommand]
+    predicate(ctx, state) should equal(TRUE)
+    predicate.isMatch(ctx, state) should equal(Some(true))
+    ExpressionCompiler.compilePredicate(IsNull(Variable("x")))(ctx, state) should equal(FALSE)
+    ExpressionCompiler.compilePredicate(IsNull(Variable("n"))).isMatch(ctx, state) should equal(Some(true))
+    ExpressionCompiler.compilePredicate(LessThan(Variable("x"), Variable("s"))).isMatch(ctx, state) should equal(None)
+  }
+
+  test("should compile the conjuncts of a conjunction one by one") {
+    val predicate = ExpressionCompiler.compilePredicate(Ands(Equals(Variable("x"), Literal(3)), StartsWith(Variable("s"), Literal("a"))))
+
+    val Ands(predicates) = predicate
+    predicates.head shouldBe a[CompiledPredicateCommand]
+    predicates.toIndexedSeq.last shouldBe a[StartsWith]
+    predicate(ctx, state) should equal(TRUE)
+  }
+
+  test("should call operands which are not compiled from the compiled code") {
+    val expression = Add(CoalesceFunction(Variable("n"), Literal(1)), Variable("x"))
+
+    ExpressionCompiler.compile(expression)(ctx, state) should equal(longValue(4))
+  }
+
+  test("should not compile expressions without a compiled operator at the root") {
+    val expression = CoalesceFunction(Add(Variable("x"), Literal(1)))
+
+    ExpressionCompiler.compile(expression) should be theSameInstanceAs expression
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.mockito.Mockito._
+import org.neo4j.cypher.internal.runtime.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.GroupingCol
+import org.neo4j.cypher.internal.v4_0.util.test_helpers.CypherFunSuite
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values.{NO_VALUE, intValue, stringValue}
+import org.neo4j.values.virtual.VirtualValues
+
+class DistinctPipeTest extends CypherFunSuite {
+
+  test("should keep the first row of each node when distinct on a single column") {
+    // given
+    val queryState = QueryStateHelper.empty
+
+    val source = mock[Pipe]
+    when(source.createResults(queryState)).thenReturn(Iterator(
+      row("n" -> VirtualValues.node(1), "i" -> intValue(1)),
+      row("n" -> VirtualValues.node(2), "i" -> intValue(2)),
+      row("n" -> NO_VALUE, "i" -> intValue(3)),
+      row("n" -> VirtualValues.node(1), "i" -> intValue(4)),
+      row("n" -> stringValue("1"), "i" -> intValue(5)),
+      row("n" -> NO_VALUE, "i" -> intValue(6)),
+      row("n" -> stringValue("1"), "i" -> intValue(7))))
+
+    // when
+    val result = DistinctPipe(source, Array(GroupingCol("m", Variable("n"))))().createResults(queryState)
+
+    // then
+    result.map(ctx => (ctx.getByName("m"), ctx.getByName("i"))).toList should equal(List(
+      (VirtualValues.node(1), intValue(1)),
+      (VirtualValues.node(2), intValue(2)),
+      (NO_VALUE, intValue(3)),
+      (stringValue("1"), intValue(5))))
+  }
+
+  test("should keep the first row of each combination of values when distinct on several columns") {
+    // given
+    val queryState = QueryStateHelper.empty
+
+    val source = mock[Pipe]
+    when(source.createResults(queryState)).thenReturn(Iterator(
+      row("a" -> VirtualValues.node(1), "b" -> intValue(1)),
+      row("a" -> VirtualValues.node(1), "b" -> intValue(2)),
+      row("a" -> VirtualValues.node(1), "b" -> intValue(1))))
+
+    // when
+    val result = DistinctPipe(source, Array(GroupingCol("a", Variable("a")), GroupingCol("b", Variable("b"))))().createResults(queryState)
+
+    // then
+    result.map(ctx => ctx.getByName("b")).toList should equal(List(intValue(1), intValue(2)))
+  }
+
+  private def row(values: (String, AnyValue)*) = ExecutionContext.from(values: _*)
+}
@@ -27,6 +27,8 @@ import org.neo4j.cypher.internal.runtime.interpreted.{QueryStateHelper, Testable
 import org.neo4j.cypher.internal.v4_0.util.test_helpers.CypherFunSuite
 import org.neo4j.graphdb.Node
 import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values.{NO_VALUE, intValue}
+import org.neo4j.values.virtual.VirtualValues
 
 class NodeHashJoinPipeTest extends CypherFunSuite {
 
@@ -88,6 +90,34 @@ class NodeHashJoinPipeTest extends CypherFunSuite {
     lhsIterator.fetched should equal(0)
   }
 
+  test("should join on a single node in the order of the right-hand side") {
+    // given
+    val queryState = QueryStateHelper.empty
+
+    val left = mock[Pipe]
+    when(left.createResults(queryState)).thenReturn(Iterator(
+      row("b" -> VirtualValues.node(1), "a" -> intValue(1)),
+      row("b" -> VirtualValues.node(2), "a" -> intValue(2)),
+      row("b" -> VirtualValues.node(1), "a" -> intValue(3)),
+      row("b" -> NO_VALUE, "a" -> intValue(4))))
+
+    val right = mock[Pipe]
+    when(right.createResults(queryState)).thenReturn(Iterator(
+      row("b" -> VirtualValues.node(2), "c" -> intValue(1)),
+      row("b" -> NO_VALUE, "c" -> intValue(2)),
+      row("b" -> VirtualValues.node(3), "c" -> intValue(3)),
+      row("b" -> VirtualValues.node(1), "c" -> intValue(4))))
+
+    // when
+    val result = NodeHashJoinPipe(Set("b"), left, right)().createResults(queryState)
+
+    // then
+    result.map(ctx => (ctx.getByName("a"), ctx.getByName("c"))).toList should equal(List(
+      (intValue(2), intValue(1)),
+      (intValue(1), intValue(4)),
+      (intValue(3), intValue(4))))
+  }
+
   private def row(values: (String, AnyValue)*) = ExecutionContext.from(values: _*)
 
   private def newMockedNode(id: Int) = {
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.mockito.Mockito.when
+import org.neo4j.cypher.internal.runtime.{ExecutionContext, QueryContext}
+import org.neo4j.cypher.internal.runtime.interpreted.{QueryStateHelper, UpdateCountingQueryContext}
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions._
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregatingCol
+import org.neo4j.cypher.internal.v4_0.util.test_helpers.CypherFunSuite
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values.{NO_VALUE, intValue, longValue, stringValue}
+
+class ParallelAggregationPipeTest extends CypherFunSuite {
+
+  private val aggregations = Array(
+    AggregatingCol("count", Count(Variable("x"))),
+    AggregatingCol("countStar", CountStar()),
+    AggregatingCol("sum", Sum(Variable("x"))),
+    AggregatingCol("min", Min(Variable("x"))),
+    AggregatingCol("max", Max(Variable("x"))))
+
+  test("should merge partial results of grouping aggregation") {
+    // given
+    val state = QueryStateHelper.empty
+    val table = ParallelAggregationPipe.mergeTableFactory(Array("k"), aggregations).get.table(state, CommunityExecutionContextFactory())
+    table.clear()
+
+    // when
+    table.processRow(partialResult("k" -> stringValue("a"), "count" -> longValue(2), "countStar" -> longValue(3),
+                                   "sum" -> longValue(5), "min" -> intValue(1), "max" -> intValue(4)))
+    table.processRow(partialResult("k" -> stringValue("b"), "count" -> longValue(1), "countStar" -> longValue(1),
+                                   "sum" -> longValue(7), "min" -> intValue(7), "max" -> intValue(7)))
+    table.processRow(partialResult("k" -> stringValue("a"), "count" -> longValue(0), "countStar" -> longValue(1),
+                                   "sum" -> longValue(0), "min" -> NO_VALUE, "max" -> NO_VALUE))
+    table.processRow(partialResult("k" -> stringValue("a"), "count" -> longValue(1), "countStar" -> longValue(1),
+                                   "sum" -> longValue(6), "min" -> intValue(6), "max" -> intValue(6)))
+
+    // then
+    val results = table.result().map(row => aggregations.map(col => row.getByName(col.key)).toList).toList
+    results should equal(List(
+      List(longValue(3), longValue(5), longValue(11), intValue(1), intValue(6)),
+      List(longValue(1), longValue(1), longValue(7), intValue(7), intValue(7))))
+  }
+
+  test("should merge partial results of aggregation without grouping") {
+    // given
+    val state = QueryStateHelper.empty
+    val table = ParallelAggregationPipe.mergeTableFactory(Array.empty, aggregations).get.table(state, CommunityExecutionContextFactory())
+    table.clear()
+
+    // when
+    table.processRow(partialResult("count" -> longValue(0), "countStar" -> longValue(0),
+                                   "sum" -> longValue(0), "min" -> NO_VALUE, "max" -> NO_VALUE))
+    table.processRow(partialResult("count" -> longValue(2), "countStar" -> longValue(2),
+                                   "sum" -> longValue(3), "min" -> intValue(1), "max" -> intValue(2)))
+
+    // then
+    val results = table.result().map(row => aggregations.map(col => row.getByName(col.key)).toList).toList
+    results should equal(List(List(longValue(2), longValue(2), longValue(3), intValue(1), intValue(2))))
+  }
+
+  test("should not merge aggregation functions without partial results") {
+    ParallelAggregationPipe.mergeTableFactory(Array("k"), Array(AggregatingCol("c", Collect(Variable("x"))))) should be(None)
+    ParallelAggregationPipe.mergeTableFactory(Array("k"), Array(AggregatingCol("a", Avg(Variable("x"))))) should be(None)
+  }
+
+  test("should not get worker query contexts from contexts that count what goes through them") {
+    val inner = mock[QueryContext]
+    when(inner.createNewQueryContext()).thenReturn(Some(mock[QueryContext]))
+
+    new UpdateCountingQueryContext(inner).createNewQueryContext() should be(None)
+  }
+
+  private def partialResult(values: (String, AnyValue)*): ExecutionContext = ExecutionContext.from(values: _*)
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.spill
+
+import java.util.Comparator
+
+import org.neo4j.cypher.internal.runtime.{ExecutionContext, ResourceLinenumber, ResourceManager}
+import org.neo4j.cypher.internal.v4_0.util.test_helpers.CypherFunSuite
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values._
+import org.neo4j.values.storable._
+import org.neo4j.values.virtual.VirtualValues
+
+class SpillFileTest extends CypherFunSuite {
+
+  private val newRow = () => ExecutionContext.empty
+
+  test("should read back the rows that were written") {
+    val values: Seq[AnyValue] = Seq(
+      NO_VALUE, TRUE, FALSE, byteValue(1), shortValue(2), intValue(3), longValue(Long.MaxValue), floatValue(1.5f),
+      doubleValue(2.5), stringValue("straße"), utf8Value("ö".getBytes("UTF-8")), charValue('x'),
+      byteArray(Array[Byte](1, 2)), longArray(Array(1L, 2L)), doubleArray(Array(1.0, 2.0)), booleanArray(Array(true, false)),
+      stringArray("a", "b"), pointValue(CoordinateReferenceSystem.WGS84, 12.0, 56.0),
+      pointArray(Array[Value](pointValue(CoordinateReferenceSystem.Cartesian, 1.0, 2.0))),
+      DurationValue.duration(1, 2, 3, 4), DateValue.date(2019, 1, 2), LocalTimeValue.localTime(12, 0, 0, 1),
+      TimeValue.time(12, 0, 0, 0, "+01:00"), LocalDateTimeValue.localDateTime(2019, 1, 2, 3, 4, 5, 6),
+      DateTimeValue.datetime(2019, 1, 2, 3, 4, 5, 6, "Europe/Stockholm"),
+      VirtualValues.list(intValue(1), VirtualValues.EMPTY_LIST),
+      VirtualValues.map(Array("a", "b"), Array(stringValue("c"), VirtualValues.EMPTY_MAP)),
+      VirtualValues.node(42), VirtualValues.relationship(43))
+
+    val row = ExecutionContext.empty
+    values.zipWithIndex.foreach {
+      case (value, i) => row.set(s"v$i", value)
+    }
+    row.setLinenumber("file.csv", 7, last = true)
+
+    val file = newSpilling().newFile()
+    file.write(row)
+    file.write(3L, stringValue("key"), row)
+    file.size should equal(2)
+
+    file.startReading(null, newRow)
+    file.next() shouldBe true
+    file.row should equal(row)
+    file.key shouldBe null
+    file.next() shouldBe true
+    file.seq should equal(3L)
+    file.key should equal(stringValue("key"))
+    file.row should equal(row)
+    file.row.getLinenumber should equal(Some(ResourceLinenumber("file.csv", 7, last = true)))
+    file.next() shouldBe false
+  }
+
+  test("should keep values without a binary form on the heap") {
+    val node = VirtualValues.nodeValue(1, stringArray("L"), VirtualValues.EMPTY_MAP)
+    val row = ExecutionContext.from("n" -> node, "x" -> intValue(1))
+    val spilling = newSpilling()
+
+    val file = spilling.newFile()
+    file.write(row)
+
+    spilling.heapValues should have size 1
+    file.rows(null, newRow).toList should equal(List(row))
+  }
+
+  test("should delete the file when closed by the query") {
+    val resources = new ResourceManager
+    val file = QuerySpilling(1024, resources).newFile()
+    file.write(ExecutionContext.from("x" -> intValue(1)))
+
+    resources.close()
+
+    file.isClosed shouldBe true
+  }
+
+  test("should merge sorted files into sorted order, keeping equal rows in file order") {
+    val spilling = newSpilling()
+    val first = spilling.newFile()
+    Seq(1, 3, 5).foreach(i => first.write(ExecutionContext.from("x" -> intValue(i), "file" -> intValue(1))))
+    val second = spilling.newFile()
+    Seq(2, 3, 4).foreach(i => second.write(ExecutionContext.from("x" -> intValue(i), "file" -> intValue(2))))
+
+    val comparator = new Comparator[ExecutionContext] {
+      override def compare(a: ExecutionContext, b: ExecutionContext): Int =
+        Values.COMPARATOR.compare(a.getByName("x").asInstanceOf[Value], b.getByName("x").asInstanceOf[Value])
+    }
+    val merged = SpillMerge.byRow(Seq(first, second), comparator, null, newRow).toList
+
+    merged.map(row => (row.getByName("x"), row.getByName("file"))) should equal(List(
+      (intValue(1), intValue(1)),
+      (intValue(2), intValue(2)),
+      (intValue(3), intValue(1)),
+      (intValue(3), intValue(2)),
+      (intValue(4), intValue(2)),
+      (intValue(5), intValue(1))))
+    first.isClosed shouldBe true
+    second.isClosed shouldBe true
+  }
+
+  test("should merge files by sequence number") {
+    val spilling = newSpilling()
+    val partitions = new SpillPartitions(spilling)
+    (0 until 100).foreach(i => partitions.write(i, i, null, ExecutionContext.from("x" -> intValue(i))))
+
+    val merged = SpillMerge.bySeq(partitions.nonEmpty, null, newRow).toList
+
+    partitions.nonEmpty.size should be > 1
+    merged.map(_.getByName("x")) should equal((0 until 100).map(intValue))
+  }
+
+  private def newSpilling() = QuerySpilling(1024, new ResourceManager)
+}
@@ -185,6 +185,28 @@ abstract class AbstractLogicalPlanBuilder[T, IMPL <: AbstractLogicalPlanBuilder[
     self
   }
 
+  def bidirectionalVarExpandInto(pattern: String,
+                                 nodePredicate: Predicate = AbstractLogicalPlanBuilder.NO_PREDICATE,
+                                 relationshipPredicate: Predicate = AbstractLogicalPlanBuilder.NO_PREDICATE): IMPL = {
+    val p = patternParser.parse(pattern)
+    p.length match {
+      case VarPatternLength(min, Some(max)) =>
+        appendAtCurrentIndent(UnaryOperator(lp => BidirectionalVarExpandInto(lp,
+          p.from,
+          p.dir,
+          p.relTypes,
+          p.to,
+          min,
+          max,
+          nodePredicate.asVariablePredicate,
+          relationshipPredicate.asVariablePredicate
+        )(_)))
+      case _ =>
+        throw new IllegalArgumentException("This pattern is not compatible with bidirectional var expand")
+    }
+    self
+  }
+
   def expandInto(pattern: String): IMPL = expand(pattern, ExpandInto)
 
   def optionalExpandAll(pattern: String, predicate: Option[String] = None): IMPL = {
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spec.interpreted
+
+import org.neo4j.configuration.GraphDatabaseSettings
+import org.neo4j.cypher.internal.InterpretedRuntime
+import org.neo4j.cypher.internal.runtime.spec.COMMUNITY
+import org.neo4j.cypher.internal.runtime.spec.interpreted.InterpretedParallelSpecSuite.{EDITION, SIZE_HINT}
+import org.neo4j.cypher.internal.runtime.spec.tests._
+
+object InterpretedParallelSpecSuite {
+  // Large enough for the scans to be split into several morsels
+  val SIZE_HINT = 10000
+  val EDITION = COMMUNITY.EDITION.copyWith(GraphDatabaseSettings.cypher_parallel_workers -> Integer.valueOf(4))
+}
+
+class InterpretedParallelAggregationTest extends AggregationTestBase(EDITION, InterpretedRuntime, SIZE_HINT)
+
+// Profiling falls back to aggregating on the calling thread, so the db hits must be the same as without parallel workers
+class InterpretedParallelProfileDbHitsTest extends LegacyDbHitsTestBase(EDITION, InterpretedRuntime, SIZE_HINT)
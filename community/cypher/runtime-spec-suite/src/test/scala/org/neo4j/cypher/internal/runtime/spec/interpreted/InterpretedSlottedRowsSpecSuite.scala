@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spec.interpreted
+
+import java.lang.Boolean.TRUE
+
+import org.neo4j.configuration.GraphDatabaseSettings
+import org.neo4j.cypher.internal.runtime.spec.COMMUNITY
+import org.neo4j.cypher.internal.runtime.spec.interpreted.InterpretedSlottedRowsSpecSuite.{EDITION, SIZE_HINT}
+import org.neo4j.cypher.internal.runtime.spec.tests._
+import org.neo4j.cypher.internal.{CommunityRuntimeContext, InterpretedRuntime}
+
+object InterpretedSlottedRowsSpecSuite {
+  val SIZE_HINT = 200
+  val EDITION = COMMUNITY.EDITION.copyWith(GraphDatabaseSettings.cypher_interpreted_slotted_rows -> TRUE)
+}
+
+class InterpretedSlottedRowsAggregationTest extends AggregationTestBase(EDITION, InterpretedRuntime, SIZE_HINT)
+class InterpretedSlottedRowsCartesianProductTest extends CartesianProductTestBase(EDITION, InterpretedRuntime, SIZE_HINT)
+class InterpretedSlottedRowsExpandAllTest extends ExpandAllTestBase(EDITION, InterpretedRuntime, SIZE_HINT)
+                                          with ExpandAllWithOtherOperatorsTestBase[CommunityRuntimeContext]
+class InterpretedSlottedRowsOptionalExpandAllTest extends OptionalExpandAllTestBase(EDITION, InterpretedRuntime, SIZE_HINT)
+class InterpretedSlottedRowsVarExpandAllTest extends VarLengthExpandTestBase(EDITION, InterpretedRuntime, SIZE_HINT)
+class InterpretedSlottedRowsProjectionTest extends ProjectionTestBase(EDITION, InterpretedRuntime, SIZE_HINT)
+class InterpretedSlottedRowsCachePropertiesTest extends CachePropertiesTestBase(EDITION, InterpretedRuntime, SIZE_HINT)
+class InterpretedSlottedRowsUnwindTest extends UnwindTestBase(EDITION, InterpretedRuntime, SIZE_HINT)
+class InterpretedSlottedRowsDistinctTest extends DistinctTestBase(EDITION, InterpretedRuntime, SIZE_HINT)
+class InterpretedSlottedRowsSortTest extends SortTestBase(EDITION, InterpretedRuntime, SIZE_HINT)
+class InterpretedSlottedRowsNodeHashJoinTest extends NodeHashJoinTestBase(EDITION, InterpretedRuntime, SIZE_HINT)
+class InterpretedSlottedRowsValueHashJoinTest extends ValueHashJoinTestBase(EDITION, InterpretedRuntime, SIZE_HINT)
+class InterpretedSlottedRowsOptionalTest extends OptionalTestBase(EDITION, InterpretedRuntime, SIZE_HINT)
+class InterpretedSlottedRowsExpressionTest extends ExpressionTestBase(EDITION, InterpretedRuntime)
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spec.interpreted
+
+import org.neo4j.configuration.GraphDatabaseSettings
+import org.neo4j.cypher.internal.InterpretedRuntime
+import org.neo4j.cypher.internal.runtime.spec.COMMUNITY
+import org.neo4j.cypher.internal.runtime.spec.interpreted.InterpretedSpillingSpecSuite.{EDITION, SIZE_HINT}
+import org.neo4j.cypher.internal.runtime.spec.tests._
+
+object InterpretedSpillingSpecSuite {
+  val SIZE_HINT = 200
+  // Small enough for the operators to spill most of their rows for the sizes used by the tests
+  val EDITION = COMMUNITY.EDITION.copyWith(GraphDatabaseSettings.cypher_spill_threshold -> java.lang.Long.valueOf(1024))
+}
+
+class InterpretedSpillingAggregationTest extends AggregationTestBase(EDITION, InterpretedRuntime, SIZE_HINT)
+class InterpretedSpillingDistinctTest extends DistinctTestBase(EDITION, InterpretedRuntime, SIZE_HINT)
+class InterpretedSpillingSortTest extends SortTestBase(EDITION, InterpretedRuntime, SIZE_HINT)
+class InterpretedSpillingNodeHashJoinTest extends NodeHashJoinTestBase(EDITION, InterpretedRuntime, SIZE_HINT)
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spec.tests
+
+import org.neo4j.cypher.internal.logical.builder.AbstractLogicalPlanBuilder.Predicate
+import org.neo4j.cypher.internal.runtime.spec._
+import org.neo4j.cypher.internal.{CypherRuntime, RuntimeContext}
+
+abstract class BidirectionalVarLengthExpandTestBase[CONTEXT <: RuntimeContext](
+  edition: Edition[CONTEXT],
+  runtime: CypherRuntime[CONTEXT],
+  sizeHint: Int
+) extends RuntimeTestSuite[CONTEXT](edition, runtime) {
+
+  test("should find paths between bound nodes - outgoing") {
+    // given
+    val n = sizeHint
+    val (nodes, _) = given { circleGraph(n, "L") }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x", "y")
+      .bidirectionalVarExpandInto("(x)-[*1..3]->(y)")
+      .cartesianProduct()
+      .|.nodeByLabelScan("y", "L")
+      .nodeByLabelScan("x", "L")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    val expected = for {
+      x <- 0 until n
+      y <- 0 until n
+      d = (y - x + n) % n
+      if (d >= 1 && d <= 3) || (d == 0 && n <= 3)
+    } yield Array(nodes(x), nodes(y))
+
+    runtimeResult should beColumns("x", "y").withRows(expected)
+  }
+
+  test("should find paths between bound nodes - incoming") {
+    // given
+    val n = sizeHint
+    val (nodes, _) = given { circleGraph(n, "L") }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x", "y")
+      .bidirectionalVarExpandInto("(x)<-[*1..3]-(y)")
+      .cartesianProduct()
+      .|.nodeByLabelScan("y", "L")
+      .nodeByLabelScan("x", "L")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    val expected = for {
+      x <- 0 until n
+      y <- 0 until n
+      d = (x - y + n) % n
+      if (d >= 1 && d <= 3) || (d == 0 && n <= 3)
+    } yield Array(nodes(x), nodes(y))
+
+    runtimeResult should beColumns("x", "y").withRows(expected)
+  }
+
+  test("should find paths between bound nodes - both directions, from length 0") {
+    // given
+    val n = sizeHint
+    val (nodes, _) = given { circleGraph(n, "L") }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x", "y")
+      .bidirectionalVarExpandInto("(x)-[*0..2]-(y)")
+      .cartesianProduct()
+      .|.nodeByLabelScan("y", "L")
+      .nodeByLabelScan("x", "L")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    val expected = for {
+      x <- 0 until n
+      y <- 0 until n
+      d = (y - x + n) % n
+      if d <= 2 || n - d <= 2
+    } yield Array(nodes(x), nodes(y))
+
+    runtimeResult should beColumns("x", "y").withRows(expected)
+  }
+
+  test("should only find paths up to the max length") {
+    // given
+    given { sineGraph() }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x", "y")
+      .bidirectionalVarExpandInto("(x)-[:B*1..5]->(y)")
+      .cartesianProduct()
+      .|.nodeByLabelScan("y", "END")
+      .nodeByLabelScan("x", "START")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("x", "y").withNoRows()
+  }
+
+  test("should find path of exactly the max length") {
+    // given
+    val g = given { sineGraph() }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x", "y")
+      .bidirectionalVarExpandInto("(x)-[:B*1..6]->(y)")
+      .cartesianProduct()
+      .|.nodeByLabelScan("y", "END")
+      .nodeByLabelScan("x", "START")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("x", "y").withSingleRow(g.start, g.end)
+  }
+
+  test("should filter on node predicate") {
+    // given
+    val g = given { sineGraph() }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x", "y")
+      .bidirectionalVarExpandInto("(x)-[*1..10]-(y)", nodePredicate = Predicate("n", "id(n) <> " + g.middle.getId))
+      .cartesianProduct()
+      .|.nodeByLabelScan("y", "END")
+      .nodeByLabelScan("x", "START")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("x", "y").withNoRows()
+  }
+
+  test("should filter on relationship predicate") {
+    // given
+    val g = given { sineGraph() }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x", "y")
+      .bidirectionalVarExpandInto("(x)-[*1..6]->(y)", relationshipPredicate = Predicate("r", "type(r) = 'B'"))
+      .cartesianProduct()
+      .|.nodeByLabelScan("y", "END")
+      .nodeByLabelScan("x", "START")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("x", "y").withSingleRow(g.start, g.end)
+  }
+
+  test("should find paths from a node back to itself without reusing relationships") {
+    // given
+    val (Seq(n1, n2, _), _) = given { lollipopGraph() }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x")
+      .bidirectionalVarExpandInto("(x)-[*1..2]-(y)")
+      .projection("x AS y")
+      .allNodeScan("x")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("x").withRows(singleColumn(Seq(n1, n2)))
+  }
+
+  test("should not find paths from a node back to itself against the direction") {
+    // given
+    given { lollipopGraph() }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x")
+      .bidirectionalVarExpandInto("(x)-[*1..5]->(y)")
+      .projection("x AS y")
+      .allNodeScan("x")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("x").withNoRows()
+  }
+
+  test("should handle null nodes") {
+    // given
+    val (nodes, _) = given { circleGraph(sizeHint) }
+    val input = inputValues(Array[Any](nodes.head, null), Array[Any](null, nodes.head), Array[Any](nodes.head, nodes(1)))
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x", "y")
+      .bidirectionalVarExpandInto("(x)-[*1..2]->(y)")
+      .input(nodes = Seq("x", "y"))
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime, input)
+
+    // then
+    runtimeResult should beColumns("x", "y").withSingleRow(nodes.head, nodes(1))
+  }
+}
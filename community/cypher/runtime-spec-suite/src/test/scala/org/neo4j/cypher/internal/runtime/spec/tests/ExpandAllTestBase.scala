@@ -19,7 +19,7 @@
  */
 package org.neo4j.cypher.internal.runtime.spec.tests
 
-import org.neo4j.cypher.internal.logical.plans.Ascending
+import org.neo4j.cypher.internal.logical.plans.{Ascending, Descending}
 import org.neo4j.cypher.internal.runtime.spec._
 import org.neo4j.cypher.internal.runtime.spec.tests.ExpandAllTestBase.smallTestGraph
 import org.neo4j.cypher.internal.{CypherRuntime, RuntimeContext}
@@ -481,4 +481,96 @@ trait ExpandAllWithOtherOperatorsTestBase[CONTEXT <: RuntimeContext] {
       } yield row
     runtimeResult should beColumns("x", "y").withRows(expected)
   }
+
+  test("should expand two hops") {
+    // given
+    val n = sizeHint
+    val relTuples = (for (i <- 0 until n) yield {
+      Seq(
+        (i, (2 * i) % n, "OTHER"),
+        (i, (i + 1) % n, "NEXT")
+      )
+    }).reduce(_ ++ _)
+    val nodes = given {
+      val nodes = nodeGraph(n, "Honey")
+      connect(nodes, relTuples)
+      nodes
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x", "y", "z")
+      .expandAll("(y)-->(z)")
+      .expandAll("(x)-->(y)")
+      .allNodeScan("x")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    val next = relTuples.groupBy(_._1).mapValues(_.map(_._2))
+    val expected = for {
+      x <- 0 until n
+      y <- next(x)
+      z <- next(y)
+    } yield Array(nodes(x), nodes(y), nodes(z))
+
+    runtimeResult should beColumns("x", "y", "z").withRows(expected)
+  }
+
+  test("should expand three hops") {
+    // given
+    val n = sizeHint
+    val relTuples = (for (i <- 0 until n) yield {
+      Seq(
+        (i, (2 * i) % n, "OTHER"),
+        (i, (i + 1) % n, "NEXT")
+      )
+    }).reduce(_ ++ _)
+    val nodes = given {
+      val nodes = nodeGraph(n, "Honey")
+      connect(nodes, relTuples)
+      nodes
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x", "y", "z", "w")
+      .expandAll("(z)-[:NEXT]->(w)")
+      .expandAll("(y)-->(z)")
+      .expandAll("(x)-->(y)")
+      .allNodeScan("x")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    val next = relTuples.groupBy(_._1).mapValues(_.map(_._2))
+    val expected = for {
+      x <- 0 until n
+      y <- next(x)
+      z <- next(y)
+    } yield Array(nodes(x), nodes(y), nodes(z), nodes((z + 1) % n))
+
+    runtimeResult should beColumns("x", "y", "z", "w").withRows(expected)
+  }
+
+  test("should keep the order of the input rows") {
+    // given
+    val (_, rels) = given { circleGraph(sizeHint) }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x", "y")
+      .expandAll("(x)-->(y)")
+      .sort(Seq(Descending("x")))
+      .allNodeScan("x")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    val expected = rels.sortBy(-_.getStartNode.getId).map(r => Array(r.getStartNode, r.getEndNode))
+    runtimeResult should beColumns("x", "y").withRows(inOrder(expected))
+  }
 }
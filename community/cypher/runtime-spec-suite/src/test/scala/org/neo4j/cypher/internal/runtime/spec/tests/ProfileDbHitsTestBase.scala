@@ -572,6 +572,27 @@ abstract class ProfileDbHitsTestBase[CONTEXT <: RuntimeContext](
     queryProfile.operatorProfile(1).dbHits() shouldBe sizeHint * (costOfGetPropertyChain + costOfProperty)
   }
 
+  test("should profile dbHits of aggregation with partial results over a filtered scan") {
+    given { nodePropertyGraph(sizeHint, { case i => Map("prop" -> i)}) }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("sum", "count")
+      .aggregation(Seq.empty, Seq("sum(x.prop) AS sum", "count(*) AS count"))
+      .filter(s"x.prop < ${sizeHint / 2}")
+      .allNodeScan("x")
+      .build()
+
+    val runtimeResult = profile(logicalQuery, runtime)
+    consume(runtimeResult)
+
+    // then
+    val queryProfile = runtimeResult.runtimeResult.queryProfile()
+    queryProfile.operatorProfile(1).dbHits() shouldBe sizeHint / 2 * (costOfGetPropertyChain + costOfProperty) // aggregation
+    queryProfile.operatorProfile(2).dbHits() shouldBe sizeHint * (costOfGetPropertyChain + costOfProperty) // filter
+    queryProfile.operatorProfile(3).dbHits() should (be (sizeHint) or be (sizeHint + 1)) // all nodes scan
+  }
+
   test("should profile dbHits of aggregation with grouping") {
     // given
     val aggregationGroups = sizeHint / 2
@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime
+
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap
+import org.neo4j.cypher.internal.v4_0.expressions.ASTCachedProperty
+import org.neo4j.exceptions.InternalException
+import org.neo4j.graphdb.NotFoundException
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.{Value, Values}
+import org.neo4j.values.virtual._
+
+import scala.collection.mutable.{Map => MutableMap}
+
+/**
+  * The variables of a plan, each with a fixed offset in the rows of an [[ArrayExecutionContext]].
+  * Allocated once per plan, see [[variableSlotAllocation]], and shared by all rows of all executions of it.
+  */
+class VariableSlots(val names: Array[String]) {
+  private val offsets = {
+    val map = new ObjectIntHashMap[String](names.length)
+    var i = 0
+    while (i < names.length) {
+      map.put(names(i), i)
+      i += 1
+    }
+    map
+  }
+
+  /**
+    * @return the offset of the variable, or -1 if it has no slot
+    */
+  def offset(name: String): Int = offsets.getIfAbsent(name, -1)
+
+  def size: Int = names.length
+
+  override def toString: String = s"VariableSlots(${names.mkString(", ")})"
+}
+
+/**
+  * Execution context which keeps the variables of a row in an array, at the offsets given by the [[VariableSlots]] of the plan,
+  * rather than in a hash map of its own like [[MapExecutionContext]]. Copying a row is an array copy instead of copying a hash map,
+  * and reading or writing a variable is a lookup in the offsets shared by all rows instead of in the hash map of the row.
+  *
+  * Variables that some pipes introduce without them being part of the logical plan have no slot, these are kept in a map
+  * which is only allocated for rows that have them.
+  */
+class ArrayExecutionContext(val slots: VariableSlots,
+                            private val refs: Array[AnyValue],
+                            private var overflow: MutableMap[String, AnyValue],
+                            private var cachedProperties: MutableMap[ASTCachedProperty, Value])
+  extends ExecutionContext {
+
+  def this(slots: VariableSlots) = this(slots, new Array[AnyValue](slots.size), null, null)
+
+  override def copyTo(target: ExecutionContext, sourceLongOffset: Int = 0, sourceRefOffset: Int = 0, targetLongOffset: Int = 0, targetRefOffset: Int = 0): Unit = fail()
+
+  override def copyFrom(input: ExecutionContext, nLongs: Int, nRefs: Int): Unit = fail()
+
+  //used for testing
+  def toMap: Map[String, AnyValue] = {
+    val builder = Map.newBuilder[String, AnyValue]
+    foreachEntry((key, value) => builder += key -> value)
+    builder.result()
+  }
+
+  override def getByName(name: String): AnyValue = {
+    val value = get(name)
+    if (value == null) {
+      throw new NotFoundException(s"Unknown variable `$name`.")
+    }
+    value
+  }
+
+  override def containsName(name: String): Boolean = get(name) != null
+
+  override def numberOfColumns: Int = {
+    var count = if (overflow == null) 0 else overflow.size
+    var i = 0
+    while (i < refs.length) {
+      if (refs(i) != null) {
+        count += 1
+      }
+      i += 1
+    }
+    count
+  }
+
+  override def setLongAt(offset: Int, value: Long): Unit = fail()
+  override def getLongAt(offset: Int): Long = fail()
+
+  override def setRefAt(offset: Int, value: AnyValue): Unit = refs(offset) = value
+  override def getRefAt(offset: Int): AnyValue = refs(offset)
+
+  private def fail(): Nothing = throw new InternalException("Tried using an array context as a slotted context")
+
+  override def mergeWith(other: ExecutionContext, entityById: EntityById): Unit = other match {
+    case otherArrayCtx: ArrayExecutionContext if otherArrayCtx.slots eq slots =>
+      var i = 0
+      while (i < refs.length) {
+        val value = otherArrayCtx.refs(i)
+        if (value != null) {
+          refs(i) = value
+        }
+        i += 1
+      }
+      if (otherArrayCtx.overflow != null) {
+        otherArrayCtx.overflow.foreach { case (key, value) => setOverflow(key, value) }
+      }
+      mergeCachedProperties(otherArrayCtx.cachedProperties)
+      setLinenumber(otherArrayCtx.getLinenumber)
+    case otherArrayCtx: ArrayExecutionContext =>
+      otherArrayCtx.foreachEntry((key, value) => set(key, value))
+      mergeCachedProperties(otherArrayCtx.cachedProperties)
+      setLinenumber(otherArrayCtx.getLinenumber)
+    case otherMapCtx: MapExecutionContext =>
+      otherMapCtx.toMap.foreach { case (key, value) => set(key, value) }
+      mergeCachedProperties(otherMapCtx.cachedPropertyEntries)
+      setLinenumber(otherMapCtx.getLinenumber)
+    case _ => fail()
+  }
+
+  private[runtime] def cachedPropertyEntries: MutableMap[ASTCachedProperty, Value] = cachedProperties
+
+  private def mergeCachedProperties(otherCachedProperties: MutableMap[ASTCachedProperty, Value]): Unit =
+    if (otherCachedProperties != null) {
+      if (cachedProperties == null) {
+        cachedProperties = otherCachedProperties.clone()
+      } else {
+        cachedProperties ++= otherCachedProperties
+      }
+    }
+
+  override def set(newEntries: Seq[(String, AnyValue)]): Unit =
+    newEntries.foreach { case (key, value) => set(key, value) }
+
+  override def set(key: String, value: AnyValue): Unit = {
+    val offset = slots.offset(key)
+    if (offset >= 0) {
+      refs(offset) = value
+    } else {
+      setOverflow(key, value)
+    }
+  }
+
+  override def set(key1: String, value1: AnyValue, key2: String, value2: AnyValue): Unit = {
+    set(key1, value1)
+    set(key2, value2)
+  }
+
+  override def set(key1: String, value1: AnyValue, key2: String, value2: AnyValue, key3: String, value3: AnyValue): Unit = {
+    set(key1, value1)
+    set(key2, value2)
+    set(key3, value3)
+  }
+
+  override def copyWith(key: String, value: AnyValue): ExecutionContext = {
+    val newContext = copy()
+    newContext.set(key, value)
+    newContext
+  }
+
+  override def copyWith(key1: String, value1: AnyValue, key2: String, value2: AnyValue): ExecutionContext = {
+    val newContext = copy()
+    newContext.set(key1, value1)
+    newContext.set(key2, value2)
+    newContext
+  }
+
+  override def copyWith(key1: String, value1: AnyValue,
+                        key2: String, value2: AnyValue,
+                        key3: String, value3: AnyValue): ExecutionContext = {
+    val newContext = copy()
+    newContext.set(key1, value1)
+    newContext.set(key2, value2)
+    newContext.set(key3, value3)
+    newContext
+  }
+
+  override def copyWith(newEntries: Seq[(String, AnyValue)]): ExecutionContext = {
+    val newContext = copy()
+    newContext.set(newEntries)
+    newContext
+  }
+
+  override def createClone(): ExecutionContext = copy()
+
+  override def boundEntities(materializeNode: Long => AnyValue, materializeRelationship: Long => AnyValue): Map[String, AnyValue] = {
+    val builder = Map.newBuilder[String, AnyValue]
+    foreachEntry {
+      case (key, value: NodeValue) =>
+        builder += key -> value
+      case (key, value: RelationshipValue) =>
+        builder += key -> value
+      case (key, value: NodeReference) =>
+        builder += key -> materializeNode(value.id())
+      case (key, value: RelationshipReference) =>
+        builder += key -> materializeRelationship(value.id())
+      case _ =>
+    }
+    builder.result()
+  }
+
+  override def isNull(key: String): Boolean = get(key) eq Values.NO_VALUE
+
+  override def setCachedProperty(key: ASTCachedProperty, value: Value): Unit = {
+    if (cachedProperties == null) {
+      cachedProperties = MutableMap.empty
+    }
+    cachedProperties.put(key, value)
+  }
+
+  override def setCachedPropertyAt(offset: Int, value: Value): Unit = fail()
+
+  override def getCachedProperty(key: ASTCachedProperty): Value = {
+    if (cachedProperties == null) {
+      null
+    } else {
+      cachedProperties.getOrElse(key, null)
+    }
+  }
+
+  override def getCachedPropertyAt(offset: Int): Value = fail()
+
+  override def invalidateCachedNodeProperties(node: Long): Unit = {
+    if (cachedProperties != null) {
+      cachedProperties.keys.filter(cnp => getByName(cnp.entityName) match {
+        case n: VirtualNodeValue => n.id() == node
+        case _ => false
+      }).foreach(cnp => setCachedProperty(cnp, null))
+    }
+  }
+
+  override def invalidateCachedRelationshipProperties(rel: Long): Unit = {
+    if (cachedProperties != null) {
+      cachedProperties.keys.filter(cnp => getByName(cnp.entityName) match {
+        case r: VirtualRelationshipValue => r.id() == rel
+        case _ => false
+      }).foreach(cnp => setCachedProperty(cnp, null))
+    }
+  }
+
+  override def estimatedHeapUsage: Long = {
+    var total = 0L
+    var i = 0
+    while (i < refs.length) {
+      if (refs(i) != null) {
+        total += refs(i).estimatedHeapUsage()
+      }
+      i += 1
+    }
+    if (overflow != null) {
+      val iterator = overflow.valuesIterator
+      while (iterator.hasNext) {
+        total += iterator.next().estimatedHeapUsage()
+      }
+    }
+    if (cachedProperties != null) {
+      val iterator = cachedProperties.valuesIterator
+      while (iterator.hasNext) {
+        total += iterator.next().estimatedHeapUsage()
+      }
+    }
+    total
+  }
+
+  private def get(name: String): AnyValue = {
+    val offset = slots.offset(name)
+    if (offset >= 0) {
+      refs(offset)
+    } else if (overflow == null) {
+      null
+    } else {
+      overflow.getOrElse(name, null)
+    }
+  }
+
+  private def setOverflow(key: String, value: AnyValue): Unit = {
+    if (overflow == null) {
+      overflow = MutableMap.empty
+    }
+    overflow.put(key, value)
+  }
+
+  private def foreachEntry(f: (String, AnyValue) => Unit): Unit = {
+    var i = 0
+    while (i < refs.length) {
+      if (refs(i) != null) {
+        f(slots.names(i), refs(i))
+      }
+      i += 1
+    }
+    if (overflow != null) {
+      overflow.foreach { case (key, value) => f(key, value) }
+    }
+  }
+
+  private def copy(): ArrayExecutionContext = {
+    val newOverflow = if (overflow == null) null else overflow.clone()
+    val newCachedProperties = if (cachedProperties == null) null else cachedProperties.clone()
+    val newContext = new ArrayExecutionContext(slots, refs.clone(), newOverflow, newCachedProperties)
+    newContext.setLinenumber(getLinenumber)
+    newContext
+  }
+
+  def canEqual(other: Any): Boolean = other.isInstanceOf[ArrayExecutionContext]
+
+  override def equals(other: Any): Boolean = other match {
+    case that: ArrayExecutionContext =>
+      (that canEqual this) &&
+        toMap == that.toMap
+    case _ => false
+  }
+
+  override def hashCode(): Int = toMap.hashCode()
+
+  override def toString: String = s"ArrayExecutionContext(m=$toMap, cached=$cachedProperties)"
+}
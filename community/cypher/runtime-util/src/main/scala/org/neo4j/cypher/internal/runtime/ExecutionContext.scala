@@ -162,9 +162,22 @@ class MapExecutionContext(private val m: MutableMap[String, AnyValue], private v
         //otherMapCtx.cachedProperties is null so do nothing
       }
       setLinenumber(otherMapCtx.getLinenumber)
+    case otherArrayCtx: ArrayExecutionContext =>
+      m ++= otherArrayCtx.toMap
+      val otherCachedProperties = otherArrayCtx.cachedPropertyEntries
+      if (otherCachedProperties != null) {
+        if (cachedProperties == null) {
+          cachedProperties = otherCachedProperties.clone()
+        } else {
+          cachedProperties ++= otherCachedProperties
+        }
+      }
+      setLinenumber(otherArrayCtx.getLinenumber)
     case _ => fail()
   }
 
+  private[runtime] def cachedPropertyEntries: MutableMap[ASTCachedProperty, Value] = cachedProperties
+
   override def set(newEntries: Seq[(String, AnyValue)]): Unit =
     m ++= newEntries
 
@@ -21,6 +21,7 @@ package org.neo4j.cypher.internal.runtime
 
 import java.net.URL
 import java.util.Optional
+import java.util.concurrent.Executor
 
 import org.eclipse.collections.api.iterator.LongIterator
 import org.neo4j.cypher.internal.logical.plans.IndexOrder
@@ -30,6 +31,7 @@ import org.neo4j.cypher.internal.v4_0.expressions.SemanticDirection
 import org.neo4j.exceptions.EntityNotFoundException
 import org.neo4j.graphdb.{Entity, Path}
 import org.neo4j.internal.kernel.api._
+import org.neo4j.internal.kernel.api.helpers.ReusableRelationshipSelectionCursor
 import org.neo4j.internal.kernel.api.procs.ProcedureCallContext
 import org.neo4j.internal.schema.IndexDescriptor
 import org.neo4j.kernel.api.KernelTransaction
@@ -65,6 +67,15 @@ trait QueryContext extends TokenContext with DbAccess {
 
   def resources: ResourceManager
 
+  /**
+    * Creates a query context in the same transaction, which can read from another thread concurrently with this one.
+    * It has its own cursors and resources, and the caller is responsible for closing its resources.
+    *
+    * @return the new context, or None if this context can not be used from several threads, in which case the caller
+    *         has to do all of its work on the calling thread.
+    */
+  def createNewQueryContext(): Option[QueryContext]
+
   def nodeOps: NodeOperations
 
   def relationshipOps: RelationshipOperations
@@ -81,6 +92,14 @@ trait QueryContext extends TokenContext with DbAccess {
 
   def getRelationshipsForIdsPrimitive(node: Long, dir: SemanticDirection, types: Array[Int]): RelationshipIterator
 
+  /**
+    * Positions the given cursor on the relationships of the node, instead of allocating new cursors for it.
+    * The returned iterator is only valid until the cursor is positioned on the next node, and the caller is
+    * responsible for closing the cursor.
+    */
+  def getRelationshipsForIdsPrimitive(node: Long, dir: SemanticDirection, types: Array[Int],
+                                      cursor: ReusableRelationshipSelectionCursor): RelationshipIterator
+
   def getOrCreateLabelId(labelName: String): Int
 
   def setLabelsOnNode(node: Long, labelIds: Iterator[Int]): Int
@@ -334,6 +353,11 @@ trait QueryTransactionalContext extends CloseableResource {
   def databaseInfo: DatabaseInfo
 
   def databaseId: NamedDatabaseId
+
+  /**
+    * Runs the work of the other threads of a query, see [[QueryContext.createNewQueryContext]].
+    */
+  def workerExecutor: Executor
 }
 
 trait KernelPredicate[T] {
@@ -19,7 +19,7 @@
  */
 package org.neo4j.cypher.internal.runtime
 
-import org.neo4j.cypher.internal.logical.plans.{LogicalPlan, NestedPlanExpression, PruningVarExpand, VarExpand}
+import org.neo4j.cypher.internal.logical.plans.{BidirectionalVarExpandInto, LogicalPlan, NestedPlanExpression, PruningVarExpand, VarExpand}
 import org.neo4j.cypher.internal.runtime.ast.ExpressionVariable
 import org.neo4j.cypher.internal.v4_0.expressions.{CachedProperty, LogicalVariable, Property, ScopeExpression}
 import org.neo4j.cypher.internal.v4_0.util.attribution.Attribute
@@ -82,6 +82,11 @@ object expressionVariableAllocation {
           val innerVars = allocateVariables(outerVars, (x.nodePredicate ++ x.relationshipPredicate).map(_.variable))
           (innerVars, Some(_ => outerVars))
 
+      case x: BidirectionalVarExpandInto =>
+        outerVars =>
+          val innerVars = allocateVariables(outerVars, (x.nodePredicate ++ x.relationshipPredicate).map(_.variable))
+          (innerVars, Some(_ => outerVars))
+
       case x: NestedPlanExpression =>
         outerVars => {
           availableExpressionVars.set(x.plan.id, outerVars)
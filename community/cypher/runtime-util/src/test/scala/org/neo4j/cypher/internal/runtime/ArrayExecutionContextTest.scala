@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime
+
+import org.neo4j.cypher.internal.logical.plans.{AllNodesScan, CartesianProduct, Projection}
+import org.neo4j.cypher.internal.v4_0.ast.AstConstructionTestSupport
+import org.neo4j.cypher.internal.v4_0.util.attribution.{IdGen, SequentialIdGen}
+import org.neo4j.cypher.internal.v4_0.util.test_helpers.CypherFunSuite
+import org.neo4j.graphdb.NotFoundException
+import org.neo4j.values.storable.Values.{FALSE, NO_VALUE, TRUE, longValue}
+
+class ArrayExecutionContextTest extends CypherFunSuite with AstConstructionTestSupport {
+
+  private implicit val idGen: IdGen = new SequentialIdGen()
+
+  private val slots = new VariableSlots(Array("a", "b"))
+
+  test("should allocate a slot for every variable of the plan") {
+    // given
+    val plan = Projection(CartesianProduct(AllNodesScan("a", Set.empty), AllNodesScan("b", Set.empty)), Map("c" -> varFor("a")))
+
+    // when
+    val allocated = variableSlotAllocation.allocate(plan)
+
+    // then
+    allocated.names.toSet should equal(Set("a", "b", "c"))
+    allocated.names.map(allocated.offset).sorted should equal(Array(0, 1, 2))
+    allocated.offset("d") should equal(-1)
+  }
+
+  test("set and get variables with and without slot") {
+    // given
+    val ctx = new ArrayExecutionContext(slots)
+
+    // when
+    ctx.set("a", TRUE, "x", FALSE)
+
+    // then
+    ctx.getByName("a") should equal(TRUE)
+    ctx.getByName("x") should equal(FALSE)
+    ctx.getRefAt(slots.offset("a")) should equal(TRUE)
+    ctx.containsName("b") should be(false)
+    ctx.numberOfColumns should equal(2)
+    a[NotFoundException] should be thrownBy ctx.getByName("b")
+  }
+
+  test("copies should not affect each other") {
+    // given
+    val ctx = new ArrayExecutionContext(slots)
+    ctx.set("a", TRUE)
+
+    // when
+    val copy = ctx.copyWith("b", longValue(1), "x", longValue(2))
+    ctx.set("a", FALSE)
+
+    // then
+    copy.getByName("a") should equal(TRUE)
+    copy.getByName("b") should equal(longValue(1))
+    copy.getByName("x") should equal(longValue(2))
+    ctx.containsName("b") should be(false)
+    ctx.containsName("x") should be(false)
+  }
+
+  test("merge with array and map contexts") {
+    // given
+    val ctx = new ArrayExecutionContext(slots)
+    ctx.set("a", TRUE)
+    val other = new ArrayExecutionContext(slots)
+    other.set("b", FALSE)
+
+    // when
+    ctx.mergeWith(other, null)
+    ctx.mergeWith(ExecutionContext.from("a" -> NO_VALUE, "x" -> TRUE), null)
+
+    // then
+    ctx.toMap should equal(Map("a" -> NO_VALUE, "b" -> FALSE, "x" -> TRUE))
+    ctx.isNull("a") should be(true)
+  }
+
+  test("map context should merge with array context") {
+    // given
+    val ctx = ExecutionContext()
+    ctx.set("x", TRUE)
+    val other = new ArrayExecutionContext(slots)
+    other.set("a", FALSE)
+
+    // when
+    ctx.mergeWith(other, null)
+
+    // then
+    ctx.toMap should equal(Map("a" -> FALSE, "x" -> TRUE))
+  }
+}
@@ -35,6 +35,7 @@ import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
+import org.neo4j.batchinsert.internal.NativeIndexImporterFactory;
 import org.neo4j.batchinsert.internal.TransactionLogsInitializer;
 import org.neo4j.commandline.Util;
 import org.neo4j.configuration.Config;
@@ -54,7 +55,9 @@ import org.neo4j.internal.batchimport.input.csv.CsvInput;
 import org.neo4j.internal.batchimport.input.csv.DataFactory;
 import org.neo4j.internal.batchimport.staging.ExecutionMonitor;
 import org.neo4j.internal.batchimport.staging.ExecutionMonitors;
+import org.neo4j.internal.batchimport.staging.MultiExecutionMonitor;
 import org.neo4j.internal.batchimport.staging.SpectrumExecutionMonitor;
+import org.neo4j.internal.batchimport.staging.StepUtilizationTimeline;
 import org.neo4j.io.fs.DefaultFileSystemAbstraction;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.FileSystemUtils;
@@ -66,6 +69,7 @@ import org.neo4j.logging.LogProvider;
 import org.neo4j.logging.NullLogProvider;
 import org.neo4j.logging.internal.SimpleLogService;
 import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.time.Clocks;
 
 import static java.util.Objects.requireNonNull;
 import static org.apache.commons.lang3.exception.ExceptionUtils.indexOfThrowable;
@@ -163,8 +167,10 @@ class CsvImporter implements Importer
         {
             LogProvider logProvider = Util.configuredLogProvider( databaseConfig, outputStream );
 
-            ExecutionMonitor executionMonitor = verbose ? new SpectrumExecutionMonitor( 2, TimeUnit.SECONDS, stdOut,
-                    SpectrumExecutionMonitor.DEFAULT_WIDTH ) : ExecutionMonitors.defaultVisible();
+            // In verbose mode each stage is also followed by how processors were assigned to its steps and how busy they were
+            ExecutionMonitor executionMonitor = verbose ? new MultiExecutionMonitor(
+                    new SpectrumExecutionMonitor( 2, TimeUnit.SECONDS, stdOut, SpectrumExecutionMonitor.DEFAULT_WIDTH ),
+                    new StepUtilizationTimeline( Clocks.systemClock(), 2, TimeUnit.SECONDS, stdOut ) ) : ExecutionMonitors.defaultVisible();
 
             BatchImporter importer = BatchImporterFactory.withHighestPriority().instantiate( databaseLayout,
                     fileSystem,
@@ -176,7 +182,7 @@ class CsvImporter implements Importer
                     databaseConfig,
                     RecordFormatSelector.selectForConfig( databaseConfig, logProvider ),
                     new PrintingImportLogicMonitor( stdOut, stdErr ),
-                    jobScheduler, badCollector, TransactionLogsInitializer.INSTANCE );
+                    jobScheduler, badCollector, TransactionLogsInitializer.INSTANCE, NativeIndexImporterFactory.INSTANCE );
 
             printOverview( databaseLayout.databaseDirectory(), nodeFiles, relationshipFiles, importConfig, stdOut );
 
@@ -19,12 +19,15 @@
  */
 package org.neo4j.internal.batchimport;
 
+import java.util.Collection;
+
 import org.neo4j.configuration.Config;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.os.OsBeanUtil;
 
 import static java.lang.Math.min;
 import static java.lang.Math.round;
+import static java.util.Collections.emptyList;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_memory;
 import static org.neo4j.io.ByteUnit.gibiBytes;
 
@@ -167,6 +170,26 @@ public interface Configuration
         return false;
     }
 
+    /**
+     * Whether or not to assign processors to steps based on how many batches are queued up in front of each step,
+     * checked frequently, instead of only comparing the average processing time of the steps. This reacts faster to
+     * changes in load and is better at keeping all steps busy on machines with many processors.
+     */
+    default boolean queueAwareProcessorAssignment()
+    {
+        return false;
+    }
+
+    /**
+     * Schema indexes and uniqueness constraints to build as part of the import. The values of the nodes are fed into
+     * the index populators while the importer anyway is scanning the node store, so that the indexes are online
+     * when the import completes instead of requiring a full store scan for each of them after the import.
+     */
+    default Collection<IndexDeclaration> indexes()
+    {
+        return emptyList();
+    }
+
     Configuration DEFAULT = new Configuration()
     {
     };
@@ -256,6 +279,18 @@ public interface Configuration
         {
             return defaults.allowCacheAllocationOnHeap();
         }
+
+        @Override
+        public boolean queueAwareProcessorAssignment()
+        {
+            return defaults.queueAwareProcessorAssignment();
+        }
+
+        @Override
+        public Collection<IndexDeclaration> indexes()
+        {
+            return defaults.indexes();
+        }
     }
 
     static Configuration withBatchSize( Configuration config, int batchSize )
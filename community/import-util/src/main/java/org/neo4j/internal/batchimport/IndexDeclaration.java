@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import static java.lang.String.format;
+
+/**
+ * Declares a schema index, or a uniqueness constraint and its owned index, which the importer will build as part of the import.
+ * Building these while importing avoids the full store scan per index which would otherwise be needed after the import has completed.
+ */
+public class IndexDeclaration
+{
+    private final String label;
+    private final String[] propertyKeys;
+    private final boolean unique;
+
+    private IndexDeclaration( String label, String[] propertyKeys, boolean unique )
+    {
+        if ( label == null || label.isEmpty() )
+        {
+            throw new IllegalArgumentException( "Index declaration must have a label" );
+        }
+        if ( propertyKeys.length == 0 )
+        {
+            throw new IllegalArgumentException( "Index declaration on :" + label + " must have at least one property key" );
+        }
+        this.label = label;
+        this.propertyKeys = propertyKeys;
+        this.unique = unique;
+    }
+
+    /**
+     * @param label label of the nodes to index.
+     * @param propertyKeys property keys to index, in the order they appear in the index.
+     * @return a declaration of a general schema index.
+     */
+    public static IndexDeclaration index( String label, String... propertyKeys )
+    {
+        return new IndexDeclaration( label, propertyKeys, false );
+    }
+
+    /**
+     * @param label label of the nodes to constrain.
+     * @param propertyKeys property keys which values must be unique among nodes with the given label.
+     * @return a declaration of a uniqueness constraint, which is backed by a unique index.
+     */
+    public static IndexDeclaration uniquenessConstraint( String label, String... propertyKeys )
+    {
+        return new IndexDeclaration( label, propertyKeys, true );
+    }
+
+    public String label()
+    {
+        return label;
+    }
+
+    public String[] propertyKeys()
+    {
+        return propertyKeys.clone();
+    }
+
+    public boolean isUnique()
+    {
+        return unique;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        IndexDeclaration that = (IndexDeclaration) o;
+        return unique == that.unique && label.equals( that.label ) && Arrays.equals( propertyKeys, that.propertyKeys );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * Objects.hash( label, unique ) + Arrays.hashCode( propertyKeys );
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "%s ON :%s(%s)", unique ? "UNIQUE" : "INDEX", label, String.join( ",", propertyKeys ) );
+    }
+}
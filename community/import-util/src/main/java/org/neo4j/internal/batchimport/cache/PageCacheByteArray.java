@@ -21,9 +21,12 @@ package org.neo4j.internal.batchimport.cache;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.DelegatingPageCursor;
 
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_GROW;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
@@ -32,13 +35,22 @@ import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 public class PageCacheByteArray extends PageCacheNumberArray<ByteArray> implements ByteArray
 {
     private final byte[] defaultValue;
+    // When not null, accesses go through one cursor per thread, which stays open until this array is closed
+    private final ThreadLocal<ThreadCursor> threadCursor;
+    private final Queue<ThreadCursor> threadCursors = new ConcurrentLinkedQueue<>();
 
     PageCacheByteArray( PagedFile pagedFile, long length, byte[] defaultValue, long base ) throws IOException
+    {
+        this( pagedFile, length, defaultValue, base, false );
+    }
+
+    PageCacheByteArray( PagedFile pagedFile, long length, byte[] defaultValue, long base, boolean cursorPerThread ) throws IOException
     {
         // Default value is handled locally in this class, in contrast to its siblings, which lets the superclass
         // handle it.
         super( pagedFile, defaultValue.length, length, base );
         this.defaultValue = defaultValue;
+        this.threadCursor = cursorPerThread ? ThreadLocal.withInitial( this::newThreadCursor ) : null;
         setDefaultValue( -1 );
     }
 
@@ -81,7 +93,7 @@ public class PageCacheByteArray extends PageCacheNumberArray<ByteArray> implemen
     {
         long pageId = pageId( index );
         int offset = offset( index );
-        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK ) )
+        try ( PageCursor cursor = cursor( pageId, PF_SHARED_READ_LOCK ) )
         {
             cursor.next();
             do
@@ -105,7 +117,7 @@ public class PageCacheByteArray extends PageCacheNumberArray<ByteArray> implemen
     {
         long pageId = pageId( index );
         offset += offset( index );
-        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK ) )
+        try ( PageCursor cursor = cursor( pageId, PF_SHARED_READ_LOCK ) )
         {
             cursor.next();
             byte result;
@@ -128,7 +140,7 @@ public class PageCacheByteArray extends PageCacheNumberArray<ByteArray> implemen
     {
         long pageId = pageId( index );
         offset += offset( index );
-        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK ) )
+        try ( PageCursor cursor = cursor( pageId, PF_SHARED_READ_LOCK ) )
         {
             cursor.next();
             short result;
@@ -151,7 +163,7 @@ public class PageCacheByteArray extends PageCacheNumberArray<ByteArray> implemen
     {
         long pageId = pageId( index );
         offset += offset( index );
-        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK ) )
+        try ( PageCursor cursor = cursor( pageId, PF_SHARED_READ_LOCK ) )
         {
             cursor.next();
             int result;
@@ -174,7 +186,7 @@ public class PageCacheByteArray extends PageCacheNumberArray<ByteArray> implemen
     {
         long pageId = pageId( index );
         offset += offset( index );
-        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK ) )
+        try ( PageCursor cursor = cursor( pageId, PF_SHARED_READ_LOCK ) )
         {
             cursor.next();
             long result;
@@ -199,7 +211,7 @@ public class PageCacheByteArray extends PageCacheNumberArray<ByteArray> implemen
     {
         long pageId = pageId( index );
         offset += offset( index );
-        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK ) )
+        try ( PageCursor cursor = cursor( pageId, PF_SHARED_READ_LOCK ) )
         {
             cursor.next();
             long result;
@@ -224,7 +236,7 @@ public class PageCacheByteArray extends PageCacheNumberArray<ByteArray> implemen
     {
         long pageId = pageId( index );
         offset += offset( index );
-        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK ) )
+        try ( PageCursor cursor = cursor( pageId, PF_SHARED_READ_LOCK ) )
         {
             cursor.next();
             long result;
@@ -248,7 +260,7 @@ public class PageCacheByteArray extends PageCacheNumberArray<ByteArray> implemen
         assert value.length == entrySize;
         long pageId = pageId( index );
         int offset = offset( index );
-        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_WRITE_LOCK | PF_NO_GROW ) )
+        try ( PageCursor cursor = cursor( pageId, PF_SHARED_WRITE_LOCK | PF_NO_GROW ) )
         {
             cursor.next();
             for ( int i = 0; i < value.length; i++ )
@@ -268,7 +280,7 @@ public class PageCacheByteArray extends PageCacheNumberArray<ByteArray> implemen
     {
         long pageId = pageId( index );
         offset += offset( index );
-        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_WRITE_LOCK | PF_NO_GROW ) )
+        try ( PageCursor cursor = cursor( pageId, PF_SHARED_WRITE_LOCK | PF_NO_GROW ) )
         {
             cursor.next();
             cursor.putByte( offset, value );
@@ -285,7 +297,7 @@ public class PageCacheByteArray extends PageCacheNumberArray<ByteArray> implemen
     {
         long pageId = pageId( index );
         offset += offset( index );
-        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_WRITE_LOCK | PF_NO_GROW ) )
+        try ( PageCursor cursor = cursor( pageId, PF_SHARED_WRITE_LOCK | PF_NO_GROW ) )
         {
             cursor.next();
             cursor.putShort( offset, value );
@@ -302,7 +314,7 @@ public class PageCacheByteArray extends PageCacheNumberArray<ByteArray> implemen
     {
         long pageId = pageId( index );
         offset += offset( index );
-        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_WRITE_LOCK | PF_NO_GROW ) )
+        try ( PageCursor cursor = cursor( pageId, PF_SHARED_WRITE_LOCK | PF_NO_GROW ) )
         {
             cursor.next();
             cursor.putInt( offset, value );
@@ -319,7 +331,7 @@ public class PageCacheByteArray extends PageCacheNumberArray<ByteArray> implemen
     {
         long pageId = pageId( index );
         offset += offset( index );
-        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_WRITE_LOCK | PF_NO_GROW ) )
+        try ( PageCursor cursor = cursor( pageId, PF_SHARED_WRITE_LOCK | PF_NO_GROW ) )
         {
             cursor.next();
             cursor.putInt( offset, (int) value );
@@ -337,7 +349,7 @@ public class PageCacheByteArray extends PageCacheNumberArray<ByteArray> implemen
     {
         long pageId = pageId( index );
         offset += offset( index );
-        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_WRITE_LOCK | PF_NO_GROW ) )
+        try ( PageCursor cursor = cursor( pageId, PF_SHARED_WRITE_LOCK | PF_NO_GROW ) )
         {
             cursor.next();
             cursor.putInt( offset, (int) value );
@@ -355,7 +367,7 @@ public class PageCacheByteArray extends PageCacheNumberArray<ByteArray> implemen
     {
         long pageId = pageId( index );
         offset += offset( index );
-        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_WRITE_LOCK | PF_NO_GROW ) )
+        try ( PageCursor cursor = cursor( pageId, PF_SHARED_WRITE_LOCK | PF_NO_GROW ) )
         {
             cursor.next();
             cursor.putLong( offset, value );
@@ -373,7 +385,7 @@ public class PageCacheByteArray extends PageCacheNumberArray<ByteArray> implemen
 
         long pageId = pageId( index );
         offset += offset( index );
-        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK ) )
+        try ( PageCursor cursor = cursor( pageId, PF_SHARED_READ_LOCK ) )
         {
             cursor.next();
             int result;
@@ -398,7 +410,7 @@ public class PageCacheByteArray extends PageCacheNumberArray<ByteArray> implemen
     {
         long pageId = pageId( index );
         offset += offset( index );
-        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_WRITE_LOCK | PF_NO_GROW ) )
+        try ( PageCursor cursor = cursor( pageId, PF_SHARED_WRITE_LOCK | PF_NO_GROW ) )
         {
             cursor.next();
             cursor.putShort( offset, (short) value );
@@ -410,4 +422,75 @@ public class PageCacheByteArray extends PageCacheNumberArray<ByteArray> implemen
             throw new UncheckedIOException( e );
         }
     }
+
+    @Override
+    public void close()
+    {
+        ThreadCursor cursor;
+        while ( (cursor = threadCursors.poll()) != null )
+        {
+            cursor.closeDelegate();
+        }
+        super.close();
+    }
+
+    /**
+     * @return cursor for accessing the given page, by calling {@link PageCursor#next()} once, and which is to be closed after that access.
+     */
+    private PageCursor cursor( long pageId, int pfFlags ) throws IOException
+    {
+        if ( threadCursor == null )
+        {
+            return pagedFile.io( pageId, pfFlags );
+        }
+        ThreadCursor cursor = threadCursor.get();
+        cursor.pageId = pageId;
+        return cursor;
+    }
+
+    private ThreadCursor newThreadCursor()
+    {
+        try
+        {
+            // Write locked, which allows reading as well and never needs retrying
+            ThreadCursor cursor = new ThreadCursor( pagedFile.io( 0, PF_SHARED_WRITE_LOCK | PF_NO_GROW ) );
+            threadCursors.add( cursor );
+            return cursor;
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * Cursor kept by a thread across accesses. Moves the underlying cursor straight to the page of the current access
+     * and keeps it open when the access is done.
+     */
+    private static class ThreadCursor extends DelegatingPageCursor
+    {
+        private long pageId;
+
+        ThreadCursor( PageCursor delegate )
+        {
+            super( delegate );
+        }
+
+        @Override
+        public boolean next() throws IOException
+        {
+            return delegate.next( pageId );
+        }
+
+        @Override
+        public void close()
+        {
+            // Closed when the array is closed
+        }
+
+        void closeDelegate()
+        {
+            delegate.close();
+        }
+    }
 }
@@ -38,12 +38,26 @@ public class PageCachedNumberArrayFactory extends NumberArrayFactory.Adapter
 {
     private final PageCache pageCache;
     private final File storeDir;
+    private final boolean cursorPerThread;
 
     public PageCachedNumberArrayFactory( PageCache pageCache, File storeDir )
+    {
+        this( pageCache, storeDir, false );
+    }
+
+    /**
+     * @param pageCache {@link PageCache} to map the temporary array files in.
+     * @param storeDir directory to create the temporary array files in, they are deleted when their arrays are closed.
+     * @param cursorPerThread whether or not {@link ByteArray byte arrays} keep one page cursor open per accessing thread,
+     * instead of opening a new cursor for every access. Suitable for arrays accessed by a fixed set of threads,
+     * which are all done with the array before it's closed.
+     */
+    public PageCachedNumberArrayFactory( PageCache pageCache, File storeDir, boolean cursorPerThread )
     {
         Objects.requireNonNull( pageCache );
         this.pageCache = pageCache;
         this.storeDir = storeDir;
+        this.cursorPerThread = cursorPerThread;
     }
 
     @Override
@@ -83,7 +97,7 @@ public class PageCachedNumberArrayFactory extends NumberArrayFactory.Adapter
         {
             File tempFile = File.createTempFile( "byteArray", ".tmp", storeDir );
             PagedFile pagedFile = pageCache.map( tempFile, pageCache.pageSize(), DELETE_ON_CLOSE, CREATE );
-            return new PageCacheByteArray( pagedFile, length, defaultValue, base );
+            return new PageCacheByteArray( pagedFile, length, defaultValue, base, cursorPerThread );
         }
         catch ( IOException e )
         {
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexDeclarationTest
+{
+    @Test
+    void shouldDeclareIndex()
+    {
+        // when
+        IndexDeclaration declaration = IndexDeclaration.index( "Person", "name" );
+
+        // then
+        assertEquals( "Person", declaration.label() );
+        assertArrayEquals( new String[]{"name"}, declaration.propertyKeys() );
+        assertFalse( declaration.isUnique() );
+        assertEquals( "INDEX ON :Person(name)", declaration.toString() );
+    }
+
+    @Test
+    void shouldDeclareCompositeUniquenessConstraint()
+    {
+        // when
+        IndexDeclaration declaration = IndexDeclaration.uniquenessConstraint( "Person", "first", "last" );
+
+        // then
+        assertEquals( "Person", declaration.label() );
+        assertArrayEquals( new String[]{"first", "last"}, declaration.propertyKeys() );
+        assertTrue( declaration.isUnique() );
+        assertNotEquals( IndexDeclaration.index( "Person", "first", "last" ), declaration );
+        assertEquals( IndexDeclaration.uniquenessConstraint( "Person", "first", "last" ), declaration );
+    }
+
+    @Test
+    void shouldFailOnMissingLabelOrProperties()
+    {
+        assertThrows( IllegalArgumentException.class, () -> IndexDeclaration.index( "Person" ) );
+        assertThrows( IllegalArgumentException.class, () -> IndexDeclaration.index( "", "name" ) );
+        assertThrows( IllegalArgumentException.class, () -> IndexDeclaration.uniquenessConstraint( null, "name" ) );
+    }
+
+    @Test
+    void shouldNotExposeInternalPropertyKeys()
+    {
+        // given
+        IndexDeclaration declaration = IndexDeclaration.index( "Person", "name" );
+
+        // when
+        declaration.propertyKeys()[0] = "other";
+
+        // then
+        assertArrayEquals( new String[]{"name"}, declaration.propertyKeys() );
+    }
+}
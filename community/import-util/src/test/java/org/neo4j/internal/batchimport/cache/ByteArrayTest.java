@@ -55,6 +55,7 @@ public class ByteArrayTest extends NumberArrayPageCacheTestSupport
         File dir = fixture.directory;
         NumberArrayFactory autoWithPageCacheFallback = NumberArrayFactory.auto( pageCache, dir, true, NumberArrayFactory.NO_MONITOR );
         NumberArrayFactory pageCacheArrayFactory = new PageCachedNumberArrayFactory( pageCache, dir );
+        NumberArrayFactory cursorPerThreadPageCacheArrayFactory = new PageCachedNumberArrayFactory( pageCache, dir, true );
         int chunkSize = LENGTH / ChunkedNumberArrayFactory.MAGIC_CHUNK_COUNT;
         return Arrays.asList(
                 () -> NumberArrayFactory.HEAP.newByteArray( LENGTH, DEFAULT ),
@@ -66,7 +67,8 @@ public class ByteArrayTest extends NumberArrayPageCacheTestSupport
                 () -> autoWithPageCacheFallback.newByteArray( LENGTH, DEFAULT ),
                 () -> autoWithPageCacheFallback.newDynamicByteArray( chunkSize, DEFAULT ),
                 () -> pageCacheArrayFactory.newByteArray( LENGTH, DEFAULT ),
-                () -> pageCacheArrayFactory.newDynamicByteArray( chunkSize, DEFAULT )
+                () -> pageCacheArrayFactory.newDynamicByteArray( chunkSize, DEFAULT ),
+                () -> cursorPerThreadPageCacheArrayFactory.newByteArray( LENGTH, DEFAULT )
         );
     }
 
@@ -19,6 +19,8 @@
  */
 package org.neo4j.internal.kernel.api;
 
+import org.neo4j.storageengine.api.txstate.DegreeVisitor;
+
 /**
  * Cursor for scanning nodes.
  */
@@ -45,4 +47,14 @@ public interface NodeCursor extends Cursor
     long propertiesReference();
 
     boolean isDense();
+
+    /**
+     * Visits the degree of the given relationship type of the node this cursor currently is placed at, with changes in the transaction
+     * state applied. The visitor is called exactly once, via {@link DegreeVisitor#visitDegree(int, long, long, long)}, where loops are
+     * included in both the outgoing and the incoming degree. No security rules are applied, that's up to the caller.
+     *
+     * @param type the relationship type to visit the degree of.
+     * @param visitor receiving the degree of the given relationship type.
+     */
+    void degrees( int type, DegreeVisitor visitor );
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.kernel.api.helpers;
+
+import org.neo4j.storageengine.api.txstate.DegreeVisitor;
+
+/**
+ * Sums up the degrees it visits, of one or more relationship types. Can be reused after {@link #clear() clearing} it.
+ */
+public class DegreeCounter implements DegreeVisitor
+{
+    private long outgoing;
+    private long incoming;
+    private long loop;
+
+    @Override
+    public void visitDegree( int type, long outgoing, long incoming )
+    {
+        visitDegree( type, outgoing, incoming, 0 );
+    }
+
+    @Override
+    public void visitDegree( int type, long outgoing, long incoming, long loop )
+    {
+        this.outgoing += outgoing;
+        this.incoming += incoming;
+        this.loop += loop;
+    }
+
+    public void clear()
+    {
+        outgoing = 0;
+        incoming = 0;
+        loop = 0;
+    }
+
+    /**
+     * @return the number of outgoing relationships, including loops.
+     */
+    public long outgoing()
+    {
+        return outgoing;
+    }
+
+    /**
+     * @return the number of incoming relationships, including loops.
+     */
+    public long incoming()
+    {
+        return incoming;
+    }
+
+    /**
+     * @return the number of loops.
+     */
+    public long loop()
+    {
+        return loop;
+    }
+
+    /**
+     * @return the number of relationships, where loops are only counted once.
+     */
+    public long total()
+    {
+        return outgoing + incoming - loop;
+    }
+}
@@ -25,6 +25,8 @@ import org.neo4j.internal.kernel.api.RelationshipGroupCursor;
 import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
 import org.neo4j.internal.kernel.api.security.AccessMode;
 
+import static java.lang.Math.toIntExact;
+
 /**
  * Helper methods for working with nodes
  */
@@ -174,18 +176,7 @@ public final class Nodes
     {
         if ( nodeCursor.isDense() && mode.allowsTraverseAllLabels() && mode.allowsTraverseRelType( type ) )
         {
-            try ( RelationshipGroupCursor group = cursors.allocateRelationshipGroupCursor() )
-            {
-                nodeCursor.relationships( group );
-                while ( group.next() )
-                {
-                    if ( group.type() == type )
-                    {
-                        return group.outgoingCount() + group.loopCount();
-                    }
-                }
-                return 0;
-            }
+            return toIntExact( degree( nodeCursor, type ).outgoing() );
         }
         else
         {
@@ -220,19 +211,7 @@ public final class Nodes
     {
         if ( nodeCursor.isDense() && mode.allowsTraverseAllLabels() && mode.allowsTraverseRelType( type ) )
         {
-            try ( RelationshipGroupCursor group = cursors.allocateRelationshipGroupCursor() )
-            {
-                nodeCursor.relationships( group );
-                int count = 0;
-                while ( group.next() )
-                {
-                    if ( group.type() == type )
-                    {
-                        return group.incomingCount() + group.loopCount();
-                    }
-                }
-                return count;
-            }
+            return toIntExact( degree( nodeCursor, type ).incoming() );
         }
         else
         {
@@ -265,19 +244,7 @@ public final class Nodes
     {
         if ( nodeCursor.isDense() && mode.allowsTraverseAllLabels() && mode.allowsTraverseRelType( type ) )
         {
-            try ( RelationshipGroupCursor group = cursors.allocateRelationshipGroupCursor() )
-            {
-                nodeCursor.relationships( group );
-                int count = 0;
-                while ( group.next() )
-                {
-                    if ( group.type() == type )
-                    {
-                        return group.totalCount();
-                    }
-                }
-                return count;
-            }
+            return toIntExact( degree( nodeCursor, type ).total() );
         }
         else
         {
@@ -296,4 +263,14 @@ public final class Nodes
             }
         }
     }
+
+    /**
+     * Reads the degree of the given type of a dense node from the node cursor, instead of finding its group with a group cursor.
+     */
+    private static DegreeCounter degree( NodeCursor nodeCursor, int type )
+    {
+        DegreeCounter degree = new DegreeCounter();
+        nodeCursor.degrees( type, degree );
+        return degree;
+    }
 }
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.kernel.api.helpers;
+
+import org.neo4j.internal.kernel.api.Cursor;
+import org.neo4j.internal.kernel.api.CursorFactory;
+import org.neo4j.internal.kernel.api.DefaultCloseListenable;
+import org.neo4j.internal.kernel.api.KernelReadTracer;
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.Read;
+import org.neo4j.internal.kernel.api.RelationshipGroupCursor;
+import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
+import org.neo4j.io.IOUtils;
+
+/**
+ * Helper cursor for traversing specific types and directions of one node after the other.
+ * <p>
+ * The cursors returned by {@link RelationshipSelections} allocate new cursors for every node and close them as soon as
+ * they are exhausted. This cursor instead keeps using the same node, group and traversal cursors for every node that
+ * it is positioned on, until it is closed itself.
+ */
+public final class ReusableRelationshipSelectionCursor extends DefaultCloseListenable implements RelationshipSelectionCursor
+{
+    private final NodeCursor nodeCursor;
+    private final RelationshipGroupCursor groupCursor;
+    private final RelationshipTraversalCursor traversalCursor;
+    private final RelationshipDenseSelection denseSelection = new RelationshipDenseSelection()
+    {
+    };
+    private final RelationshipSparseSelection sparseSelection = new RelationshipSparseSelection()
+    {
+    };
+    private boolean dense;
+    private boolean onRelationships;
+    private boolean closed;
+
+    public ReusableRelationshipSelectionCursor( CursorFactory cursors )
+    {
+        this.nodeCursor = cursors.allocateNodeCursor();
+        this.groupCursor = cursors.allocateRelationshipGroupCursor();
+        this.traversalCursor = cursors.allocateRelationshipTraversalCursor();
+    }
+
+    /**
+     * Positions this cursor on the outgoing relationships of the given types of a node, including loops.
+     *
+     * @param read used to look up the node
+     * @param node the node to traverse the relationships of
+     * @param types the types of the relationships, or {@code null} for all types
+     * @return {@code false} if the node does not exist, in which case {@link #next()} returns {@code false} right away.
+     */
+    public boolean outgoing( Read read, long node, int[] types )
+    {
+        if ( !singleNode( read, node ) )
+        {
+            return false;
+        }
+        if ( dense )
+        {
+            nodeCursor.relationships( groupCursor );
+            denseSelection.outgoing( groupCursor, traversalCursor, types );
+        }
+        else
+        {
+            nodeCursor.allRelationships( traversalCursor );
+            sparseSelection.outgoing( traversalCursor, types );
+        }
+        return true;
+    }
+
+    /**
+     * Positions this cursor on the incoming relationships of the given types of a node, including loops.
+     *
+     * @see #outgoing(Read, long, int[])
+     */
+    public boolean incoming( Read read, long node, int[] types )
+    {
+        if ( !singleNode( read, node ) )
+        {
+            return false;
+        }
+        if ( dense )
+        {
+            nodeCursor.relationships( groupCursor );
+            denseSelection.incoming( groupCursor, traversalCursor, types );
+        }
+        else
+        {
+            nodeCursor.allRelationships( traversalCursor );
+            sparseSelection.incoming( traversalCursor, types );
+        }
+        return true;
+    }
+
+    /**
+     * Positions this cursor on all relationships of the given types of a node.
+     *
+     * @see #outgoing(Read, long, int[])
+     */
+    public boolean all( Read read, long node, int[] types )
+    {
+        if ( !singleNode( read, node ) )
+        {
+            return false;
+        }
+        if ( dense )
+        {
+            nodeCursor.relationships( groupCursor );
+            denseSelection.all( groupCursor, traversalCursor, types );
+        }
+        else
+        {
+            nodeCursor.allRelationships( traversalCursor );
+            sparseSelection.all( traversalCursor, types );
+        }
+        return true;
+    }
+
+    private boolean singleNode( Read read, long node )
+    {
+        read.singleNode( node, nodeCursor );
+        onRelationships = nodeCursor.next();
+        dense = onRelationships && nodeCursor.isDense();
+        return onRelationships;
+    }
+
+    @Override
+    public boolean next()
+    {
+        if ( onRelationships )
+        {
+            onRelationships = dense ? denseSelection.fetchNext() : sparseSelection.fetchNext();
+        }
+        return onRelationships;
+    }
+
+    @Override
+    public long relationshipReference()
+    {
+        return traversalCursor.relationshipReference();
+    }
+
+    @Override
+    public int type()
+    {
+        return traversalCursor.type();
+    }
+
+    @Override
+    public long otherNodeReference()
+    {
+        return traversalCursor.originNodeReference() == traversalCursor.sourceNodeReference() ?
+               traversalCursor.targetNodeReference() : traversalCursor.sourceNodeReference();
+    }
+
+    @Override
+    public long sourceNodeReference()
+    {
+        return traversalCursor.sourceNodeReference();
+    }
+
+    @Override
+    public long targetNodeReference()
+    {
+        return traversalCursor.targetNodeReference();
+    }
+
+    @Override
+    public long propertiesReference()
+    {
+        return traversalCursor.propertiesReference();
+    }
+
+    @Override
+    public void setTracer( KernelReadTracer tracer )
+    {
+        nodeCursor.setTracer( tracer );
+        groupCursor.setTracer( tracer );
+        traversalCursor.setTracer( tracer );
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+        return closed;
+    }
+
+    @Override
+    public void closeInternal()
+    {
+        if ( !closed )
+        {
+            closed = true;
+            onRelationships = false;
+            IOUtils.<Cursor>closeAllUnchecked( nodeCursor, groupCursor, traversalCursor );
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        closeInternal();
+        var listener = closeListener;
+        if ( listener != null )
+        {
+            listener.onClosed( this );
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        if ( isClosed() )
+        {
+            return "ReusableRelationshipSelectionCursor[closed state]";
+        }
+        else
+        {
+            return "ReusableRelationshipSelectionCursor[relCursor=" + traversalCursor.toString() + "]";
+        }
+    }
+}
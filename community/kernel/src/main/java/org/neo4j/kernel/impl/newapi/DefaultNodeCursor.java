@@ -30,12 +30,17 @@ import org.neo4j.internal.kernel.api.NodeCursor;
 import org.neo4j.internal.kernel.api.PropertyCursor;
 import org.neo4j.internal.kernel.api.RelationshipGroupCursor;
 import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
+import org.neo4j.internal.kernel.api.helpers.DegreeCounter;
 import org.neo4j.internal.kernel.api.security.AccessMode;
 import org.neo4j.kernel.api.txstate.TransactionState;
 import org.neo4j.storageengine.api.AllNodeScan;
+import org.neo4j.storageengine.api.RelationshipDirection;
 import org.neo4j.storageengine.api.StorageNodeCursor;
+import org.neo4j.storageengine.api.txstate.DegreeVisitor;
 import org.neo4j.storageengine.api.txstate.LongDiffSets;
+import org.neo4j.storageengine.api.txstate.NodeState;
 
+import static java.lang.Math.toIntExact;
 import static org.neo4j.kernel.impl.newapi.Read.NO_ID;
 import static org.neo4j.kernel.impl.newapi.RelationshipReferenceEncoding.encodeDense;
 
@@ -50,6 +55,7 @@ class DefaultNodeCursor extends TraceableCursor implements NodeCursor
     private AccessMode accessMode;
 
     private final CursorPool<DefaultNodeCursor> pool;
+    private final DegreeCounter storeDegree = new DegreeCounter();
 
     DefaultNodeCursor( CursorPool<DefaultNodeCursor> pool, StorageNodeCursor storeCursor )
     {
@@ -234,6 +240,28 @@ class DefaultNodeCursor extends TraceableCursor implements NodeCursor
         return currentAddedInTx == NO_ID && storeCursor.isDense();
     }
 
+    @Override
+    public void degrees( int type, DegreeVisitor visitor )
+    {
+        storeDegree.clear();
+        if ( currentAddedInTx == NO_ID )
+        {
+            storeCursor.degrees( type, storeDegree );
+        }
+        long outgoing = storeDegree.outgoing();
+        long incoming = storeDegree.incoming();
+        long loop = storeDegree.loop();
+        if ( read.hasTxStateWithChanges() )
+        {
+            NodeState nodeState = read.txState().getNodeState( nodeReference() );
+            long loopDiff = nodeState.augmentDegree( RelationshipDirection.LOOP, 0, type );
+            outgoing = nodeState.augmentDegree( RelationshipDirection.OUTGOING, toIntExact( outgoing ), type ) + loopDiff;
+            incoming = nodeState.augmentDegree( RelationshipDirection.INCOMING, toIntExact( incoming ), type ) + loopDiff;
+            loop += loopDiff;
+        }
+        visitor.visitDegree( type, outgoing, incoming, loop );
+    }
+
     @Override
     public boolean next()
     {
@@ -50,6 +50,7 @@ public class ReadOnlyTransactionStore implements Lifecycle, LogicalTransactionSt
                 .activeFilesBuilder( fromDatabaseLayout, fs, pageCache ).withLogEntryReader( logEntryReader )
                 .withConfig( config )
                 .build();
+        life.add( logFiles );
         physicalStore = new PhysicalLogicalTransactionStore( logFiles, transactionMetadataCache, logEntryReader,
                 monitors, true );
     }
@@ -33,6 +33,7 @@ import org.neo4j.internal.schema.ConstraintDescriptor;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.SchemaDescriptor;
 import org.neo4j.internal.schema.constraints.IndexBackedConstraintDescriptor;
+import org.neo4j.storageengine.api.txstate.DegreeVisitor;
 import org.neo4j.token.DelegatingTokenHolder;
 import org.neo4j.token.api.TokenHolder;
 import org.neo4j.values.storable.Value;
@@ -496,6 +497,12 @@ public class StubStorageCursors implements StorageReader
             propertyCursor.initNodeProperties( propertiesReference() );
         }
 
+        @Override
+        public void degrees( int type, DegreeVisitor visitor )
+        {
+            throw new UnsupportedOperationException();
+        }
+
         @Override
         public boolean next()
         {
@@ -44,10 +44,23 @@ public abstract class BatchImporterFactory implements NamedService
         this.priority = priority;
     }
 
+    public BatchImporter instantiate( DatabaseLayout directoryStructure, FileSystemAbstraction fileSystem, PageCache externalPageCache,
+            Configuration config, LogService logService, ExecutionMonitor executionMonitor,
+            AdditionalInitialIds additionalInitialIds, Config dbConfig, RecordFormats recordFormats, ImportLogic.Monitor monitor,
+            JobScheduler jobScheduler, Collector badCollector, LogFilesInitializer logFilesInitializer )
+    {
+        return instantiate( directoryStructure, fileSystem, externalPageCache, config, logService, executionMonitor, additionalInitialIds, dbConfig,
+                recordFormats, monitor, jobScheduler, badCollector, logFilesInitializer, IndexImporterFactory.EMPTY );
+    }
+
+    /**
+     * Instantiates a {@link BatchImporter} which also builds the indexes declared in {@link Configuration#indexes()},
+     * using the {@link IndexImporterFactory} to get hold of the index implementation.
+     */
     public abstract BatchImporter instantiate( DatabaseLayout directoryStructure, FileSystemAbstraction fileSystem, PageCache externalPageCache,
             Configuration config, LogService logService, ExecutionMonitor executionMonitor,
             AdditionalInitialIds additionalInitialIds, Config dbConfig, RecordFormats recordFormats, ImportLogic.Monitor monitor,
-            JobScheduler jobScheduler, Collector badCollector, LogFilesInitializer logFilesInitializer );
+            JobScheduler jobScheduler, Collector badCollector, LogFilesInitializer logFilesInitializer, IndexImporterFactory indexImporterFactory );
 
     public static BatchImporterFactory withHighestPriority()
     {
@@ -35,6 +35,7 @@ import org.neo4j.collection.Dependencies;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.counts.CountsAccessor;
+import org.neo4j.exceptions.KernelException;
 import org.neo4j.internal.batchimport.cache.GatheringMemoryStatsVisitor;
 import org.neo4j.internal.batchimport.cache.MemoryStatsVisitor;
 import org.neo4j.internal.batchimport.cache.NodeLabelsCache;
@@ -143,6 +144,7 @@ public class ImportLogic implements Closeable
     private final long maxMemory;
     private final Dependencies dependencies = new Dependencies();
     private final Monitor monitor;
+    private final IndexImporterFactory indexImporterFactory;
     private Input input;
     private boolean successful;
 
@@ -175,6 +177,29 @@ public class ImportLogic implements Closeable
     public ImportLogic( DatabaseLayout databaseLayout, BatchingNeoStores neoStore, Configuration config, Config dbConfig, LogService logService,
             ExecutionMonitor executionMonitor, RecordFormats recordFormats, Collector badCollector, Monitor monitor )
     {
+        this( databaseLayout, neoStore, config, dbConfig, logService, executionMonitor, recordFormats, badCollector, monitor, IndexImporterFactory.EMPTY );
+    }
+
+    /**
+     * @param databaseLayout directory which the db will be created in.
+     * @param neoStore {@link BatchingNeoStores} to import into.
+     * @param config import-specific {@link Configuration}.
+     * @param logService {@link LogService} to use.
+     * @param executionMonitor {@link ExecutionMonitor} to follow progress as the import proceeds.
+     * @param recordFormats which {@link RecordFormats record format} to use for the created db.
+     * @param badCollector {@link Collector} for bad entries.
+     * @param monitor {@link Monitor} for some events.
+     * @param indexImporterFactory {@link IndexImporterFactory} for building the indexes declared in {@link Configuration#indexes()}.
+     */
+    public ImportLogic( DatabaseLayout databaseLayout, BatchingNeoStores neoStore, Configuration config, Config dbConfig, LogService logService,
+            ExecutionMonitor executionMonitor, RecordFormats recordFormats, Collector badCollector, Monitor monitor,
+            IndexImporterFactory indexImporterFactory )
+    {
+        if ( !config.indexes().isEmpty() && indexImporterFactory == IndexImporterFactory.EMPTY )
+        {
+            throw new IllegalArgumentException( "Indexes " + config.indexes() + " were declared, but this importer has not been configured " +
+                    "to be able to build indexes" );
+        }
         this.databaseDirectory = databaseLayout.databaseDirectory();
         this.neoStore = neoStore;
         this.config = config;
@@ -182,6 +207,7 @@ public class ImportLogic implements Closeable
         this.recordFormats = recordFormats;
         this.badCollector = badCollector;
         this.monitor = monitor;
+        this.indexImporterFactory = indexImporterFactory;
         this.log = logService.getInternalLogProvider().getLog( getClass() );
         this.executionMonitor = ExecutionSupervisors.withDynamicProcessorAssignment( executionMonitor, config );
         this.maxMemory = config.maxMemoryUsage();
@@ -494,9 +520,23 @@ public class ImportLogic implements Closeable
     }
 
     /**
-     * Builds the counts store. Requires that {@link #importNodes()} and {@link #importRelationships()} has run.
+     * Builds the counts store, the label index and the schema indexes {@link Configuration#indexes() declared} for this import,
+     * all in the same scan over the node store. Requires that {@link #importNodes()} and {@link #importRelationships()} has run.
      */
     public void buildCountsStore()
+    {
+        try ( IndexImporter indexImporter = new IndexImporter( config.indexes(), neoStore, indexImporterFactory, dbConfig, log ) )
+        {
+            buildCountsStore( indexImporter );
+            indexImporter.complete();
+        }
+        catch ( KernelException e )
+        {
+            throw new IllegalStateException( "Unable to create schema rules for the imported indexes", e );
+        }
+    }
+
+    private void buildCountsStore( IndexImporter indexImporter )
     {
         neoStore.buildCountsStore( new CountsBuilder()
         {
@@ -508,7 +548,7 @@ public class ImportLogic implements Closeable
                 MemoryUsageStatsProvider memoryUsageStats = new MemoryUsageStatsProvider( neoStore, nodeLabelsCache );
                 executeStage( new NodeCountsAndLabelIndexBuildStage( config, nodeLabelsCache, neoStore.getNodeStore(),
                         neoStore.getLabelRepository().getHighId(), updater, progressMonitor.startSection( "Nodes" ),
-                        neoStore.getLabelScanStore(), memoryUsageStats ) );
+                        neoStore.getLabelScanStore(), indexImporter, neoStore.getPropertyStore(), memoryUsageStats ) );
                 // Count label-[type]->label
                 executeStage( new RelationshipCountsStage( config, nodeLabelsCache, neoStore.getRelationshipStore(),
                         neoStore.getLabelRepository().getHighId(),
@@ -0,0 +1,346 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport;
+
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.exceptions.KernelException;
+import org.neo4j.internal.batchimport.store.BatchingNeoStores;
+import org.neo4j.internal.kernel.api.exceptions.EntityNotFoundException;
+import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.internal.schema.IndexPrototype;
+import org.neo4j.internal.schema.LabelSchemaDescriptor;
+import org.neo4j.internal.schema.SchemaDescriptor;
+import org.neo4j.internal.schema.SchemaRule;
+import org.neo4j.internal.schema.constraints.ConstraintDescriptorFactory;
+import org.neo4j.internal.schema.constraints.UniquenessConstraintDescriptor;
+import org.neo4j.io.memory.ByteBufferFactory;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.index.IndexProvider;
+import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.impl.api.index.IndexSamplingConfig;
+import org.neo4j.kernel.impl.api.index.PhaseTracker;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.logging.Log;
+import org.neo4j.storageengine.api.IndexEntryUpdate;
+import org.neo4j.storageengine.api.NodePropertyAccessor;
+import org.neo4j.values.storable.Value;
+
+import static org.neo4j.kernel.impl.store.NodeLabelsField.get;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.CHECK;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.NORMAL;
+import static org.neo4j.values.storable.Values.NO_VALUE;
+
+/**
+ * Populates the indexes {@link Configuration#indexes() declared} for an import. Node property values are fed to the populators
+ * from {@link SchemaIndexWriterStep}, which is part of a stage already scanning the node store, instead of each index
+ * requiring a full store scan of its own after the import. When {@link #complete() completed} the populated indexes are
+ * online, their schema rules are written to the schema store and their samples to the index statistics store.
+ */
+public class IndexImporter implements AutoCloseable
+{
+    private final BatchingNeoStores neoStores;
+    private final IndexImporterFactory factory;
+    private final Log log;
+    private final ByteBufferFactory bufferFactory;
+    private final List<ImportedIndex> indexes = new ArrayList<>();
+    private final MutableIntObjectMap<List<ImportedIndex>> indexesByLabel = new IntObjectHashMap<>();
+
+    IndexImporter( Collection<IndexDeclaration> declarations, BatchingNeoStores neoStores, IndexImporterFactory factory, Config dbConfig,
+            Log log )
+    {
+        this.neoStores = neoStores;
+        this.factory = factory;
+        this.log = log;
+        if ( declarations.isEmpty() )
+        {
+            this.bufferFactory = null;
+            return;
+        }
+
+        this.bufferFactory = factory.newBufferFactory();
+        IndexProvider provider = factory.instantiate( neoStores.getDatabaseLayout(), neoStores.getFileSystem(),
+                neoStores.getPageCache(), dbConfig );
+        IndexSamplingConfig samplingConfig = new IndexSamplingConfig( dbConfig );
+        for ( IndexDeclaration declaration : declarations )
+        {
+            ImportedIndex index = declare( declaration, provider, indexes.size() );
+            index.populator = provider.getPopulator( index.descriptor, samplingConfig, bufferFactory );
+            index.populator.create();
+            indexes.add( index );
+            indexesByLabel.getIfAbsentPut( index.descriptor.schema().getLabelId(), ArrayList::new ).add( index );
+        }
+    }
+
+    private ImportedIndex declare( IndexDeclaration declaration, IndexProvider provider, int ordinal )
+    {
+        int labelId = neoStores.getLabelRepository().getOrCreateId( declaration.label() );
+        String[] propertyKeys = declaration.propertyKeys();
+        int[] propertyKeyIds = new int[propertyKeys.length];
+        for ( int i = 0; i < propertyKeys.length; i++ )
+        {
+            propertyKeyIds[i] = neoStores.getPropertyKeyRepository().getOrCreateId( propertyKeys[i] );
+        }
+        LabelSchemaDescriptor schema = SchemaDescriptor.forLabel( labelId, propertyKeyIds );
+        String[] labels = {declaration.label()};
+        long indexId = neoStores.nextSchemaRuleId();
+        if ( !declaration.isUnique() )
+        {
+            IndexPrototype prototype = IndexPrototype.forSchema( schema, provider.getProviderDescriptor() );
+            prototype = prototype.withName( SchemaRule.generateName( prototype, labels, propertyKeys ) );
+            return new ImportedIndex( ordinal, provider.completeConfiguration( prototype.materialise( indexId ) ), null );
+        }
+
+        long constraintId = neoStores.nextSchemaRuleId();
+        UniquenessConstraintDescriptor constraint = ConstraintDescriptorFactory.uniqueForSchema( schema );
+        constraint = constraint.withName( SchemaRule.generateName( constraint, labels, propertyKeys ) ).withId( constraintId ).withOwnedIndexId( indexId );
+        IndexDescriptor index = IndexPrototype.uniqueForSchema( schema, provider.getProviderDescriptor() )
+                .withName( constraint.getName() )
+                .materialise( indexId );
+        index = provider.completeConfiguration( index ).withOwningConstraintId( constraintId );
+        return new ImportedIndex( ordinal, index, constraint );
+    }
+
+    boolean isEmpty()
+    {
+        return indexes.isEmpty();
+    }
+
+    /**
+     * Feeds the in-use nodes in the given batch, that have labels and properties matching any of the indexes, into the index populators.
+     * Safe to call concurrently from multiple threads.
+     *
+     * @param nodes batch of node records.
+     * @param propertyRecord record instance to read property records into, owned by the calling thread.
+     * @throws IndexEntryConflictException if a populator of a unique index detects a conflict already when adding.
+     */
+    void add( NodeRecord[] nodes, PropertyRecord propertyRecord ) throws IndexEntryConflictException
+    {
+        NodeStore nodeStore = neoStores.getNodeStore();
+        PropertyStore propertyStore = neoStores.getPropertyStore();
+        List<List<IndexEntryUpdate<?>>> updates = new ArrayList<>( indexes.size() );
+        for ( int i = 0; i < indexes.size(); i++ )
+        {
+            updates.add( new ArrayList<>() );
+        }
+        MutableIntObjectMap<Value> properties = new IntObjectHashMap<>();
+        for ( NodeRecord node : nodes )
+        {
+            if ( !node.inUse() || node.getNextProp() == Record.NO_NEXT_PROPERTY.longValue() )
+            {
+                continue;
+            }
+
+            properties.clear();
+            boolean propertiesLoaded = false;
+            for ( long labelId : get( node, nodeStore ) )
+            {
+                List<ImportedIndex> labelIndexes = indexesByLabel.get( (int) labelId );
+                if ( labelIndexes == null )
+                {
+                    continue;
+                }
+                if ( !propertiesLoaded )
+                {
+                    readProperties( node.getNextProp(), propertyRecord, propertyStore, properties );
+                    propertiesLoaded = true;
+                }
+                for ( ImportedIndex index : labelIndexes )
+                {
+                    Value[] values = index.values( properties );
+                    if ( values != null )
+                    {
+                        updates.get( index.ordinal ).add( IndexEntryUpdate.add( node.getId(), index.descriptor, values ) );
+                    }
+                }
+            }
+        }
+
+        for ( int i = 0; i < indexes.size(); i++ )
+        {
+            List<IndexEntryUpdate<?>> indexUpdates = updates.get( i );
+            if ( !indexUpdates.isEmpty() )
+            {
+                IndexPopulator populator = indexes.get( i ).populator;
+                populator.add( indexUpdates );
+                // Populators accept additions from multiple threads, but sample on one thread only
+                synchronized ( populator )
+                {
+                    for ( IndexEntryUpdate<?> update : indexUpdates )
+                    {
+                        populator.includeSample( update );
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Completes the population of all indexes and writes the schema rules of the indexes, and any owning constraints,
+     * which populated successfully, together with their samples. An index whose data violates its uniqueness constraint
+     * is dropped and logged.
+     */
+    void complete() throws KernelException
+    {
+        if ( indexes.isEmpty() )
+        {
+            return;
+        }
+
+        List<SchemaRule> rules = new ArrayList<>();
+        MutableLongObjectMap<IndexSample> samples = new LongObjectHashMap<>();
+        try ( NodePropertyAccessor propertyAccessor = new StoreNodePropertyAccessor() )
+        {
+            for ( ImportedIndex index : indexes )
+            {
+                try
+                {
+                    index.populator.scanCompleted( PhaseTracker.nullInstance );
+                    index.populator.verifyDeferredConstraints( propertyAccessor );
+                    IndexSample sample = index.populator.sampleResult();
+                    index.populator.close( true );
+                    if ( index.constraint != null )
+                    {
+                        rules.add( index.constraint );
+                    }
+                    rules.add( index.descriptor );
+                    samples.put( index.descriptor.getId(), sample );
+                }
+                catch ( IndexEntryConflictException e )
+                {
+                    log.warn( "Not creating %s since the imported data violates it: %s", index.constraint, e.getMessage() );
+                    index.populator.drop();
+                }
+                index.populator = null;
+            }
+        }
+        neoStores.writeSchemaRules( rules );
+        try
+        {
+            factory.writeSamples( neoStores.getDatabaseLayout(), neoStores.getPageCache(), samples );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        for ( ImportedIndex index : indexes )
+        {
+            if ( index.populator != null )
+            {
+                // Population was never completed, e.g. due to a failure in the import
+                index.populator.close( false );
+            }
+        }
+        if ( bufferFactory != null )
+        {
+            bufferFactory.close();
+        }
+    }
+
+    private static void readProperties( long firstPropertyId, PropertyRecord record, PropertyStore propertyStore,
+            MutableIntObjectMap<Value> into )
+    {
+        long propertyId = firstPropertyId;
+        while ( !Record.NO_NEXT_PROPERTY.is( propertyId ) )
+        {
+            propertyStore.getRecord( propertyId, record, CHECK );
+            if ( !record.inUse() )
+            {
+                return;
+            }
+            for ( PropertyBlock block : record )
+            {
+                into.put( block.getKeyIndexId(), block.newPropertyValue( propertyStore ) );
+            }
+            propertyId = record.getNextProp();
+        }
+    }
+
+    private class StoreNodePropertyAccessor implements NodePropertyAccessor
+    {
+        private final NodeRecord nodeRecord = neoStores.getNodeStore().newRecord();
+        private final PropertyRecord propertyRecord = neoStores.getPropertyStore().newRecord();
+        private final MutableIntObjectMap<Value> properties = new IntObjectHashMap<>();
+
+        @Override
+        public Value getNodePropertyValue( long nodeId, int propertyKeyId ) throws EntityNotFoundException
+        {
+            neoStores.getNodeStore().getRecord( nodeId, nodeRecord, NORMAL );
+            properties.clear();
+            readProperties( nodeRecord.getNextProp(), propertyRecord, neoStores.getPropertyStore(), properties );
+            return properties.getIfAbsent( propertyKeyId, () -> NO_VALUE );
+        }
+    }
+
+    private static class ImportedIndex
+    {
+        private final int ordinal;
+        private final IndexDescriptor descriptor;
+        private final UniquenessConstraintDescriptor constraint;
+        private final int[] propertyKeyIds;
+        private IndexPopulator populator;
+
+        ImportedIndex( int ordinal, IndexDescriptor descriptor, UniquenessConstraintDescriptor constraint )
+        {
+            this.ordinal = ordinal;
+            this.descriptor = descriptor;
+            this.constraint = constraint;
+            this.propertyKeyIds = descriptor.schema().getPropertyIds();
+        }
+
+        /**
+         * @return the values for this index from the given properties, or {@code null} if the node doesn't have all of them.
+         */
+        Value[] values( MutableIntObjectMap<Value> properties )
+        {
+            Value[] values = new Value[propertyKeyIds.length];
+            for ( int i = 0; i < propertyKeyIds.length; i++ )
+            {
+                values[i] = properties.get( propertyKeyIds[i] );
+                if ( values[i] == null )
+                {
+                    return null;
+                }
+            }
+            return values;
+        }
+    }
+}
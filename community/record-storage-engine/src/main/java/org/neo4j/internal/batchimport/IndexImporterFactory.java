@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport;
+
+import org.eclipse.collections.api.map.primitive.LongObjectMap;
+
+import java.io.IOException;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.memory.ByteBufferFactory;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.index.IndexProvider;
+import org.neo4j.kernel.api.index.IndexSample;
+
+import static java.lang.Math.toIntExact;
+import static org.neo4j.io.ByteUnit.mebiBytes;
+
+/**
+ * Instantiates the {@link IndexProvider} which builds the indexes {@link Configuration#indexes() declared} for an import.
+ * The importer itself has no knowledge about index implementations, much like how it leaves transaction log
+ * creation to a {@link LogFilesInitializer}.
+ */
+public interface IndexImporterFactory
+{
+    /**
+     * For imports which don't build any indexes. An import declaring indexes is rejected up front when configured with this factory.
+     */
+    IndexImporterFactory EMPTY = new IndexImporterFactory()
+    {
+        @Override
+        public IndexProvider instantiate( DatabaseLayout databaseLayout, FileSystemAbstraction fileSystem, PageCache pageCache, Config config )
+        {
+            return IndexProvider.EMPTY;
+        }
+
+        @Override
+        public void writeSamples( DatabaseLayout databaseLayout, PageCache pageCache, LongObjectMap<IndexSample> samples )
+        {
+        }
+    };
+
+    IndexProvider instantiate( DatabaseLayout databaseLayout, FileSystemAbstraction fileSystem, PageCache pageCache, Config config );
+
+    /**
+     * Writes the samples of the built indexes to the index statistics of the database, so that they come online
+     * with statistics and without having to be sampled again.
+     *
+     * @param samples {@link IndexSample} per index id.
+     */
+    void writeSamples( DatabaseLayout databaseLayout, PageCache pageCache, LongObjectMap<IndexSample> samples ) throws IOException;
+
+    /**
+     * @return {@link ByteBufferFactory} for the populators of the instantiated {@link IndexProvider} to use for their buffers.
+     * The returned factory will be closed by the importer when the indexes have been built.
+     */
+    default ByteBufferFactory newBufferFactory()
+    {
+        return ByteBufferFactory.heapBufferFactory( toIntExact( mebiBytes( 1 ) ) );
+    }
+}
@@ -29,11 +29,13 @@ import org.neo4j.internal.batchimport.staging.Step;
 import org.neo4j.internal.batchimport.stats.StatsProvider;
 import org.neo4j.internal.index.label.LabelScanStore;
 import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
 
 import static org.neo4j.internal.batchimport.RecordIdIterator.allIn;
 
 /**
  * Counts nodes and their labels and also builds {@link LabelScanStore label index} while doing so.
+ * Schema indexes declared for the import are populated in this same scan, by an {@link IndexImporter}.
  */
 public class NodeCountsAndLabelIndexBuildStage extends Stage
 {
@@ -41,12 +43,16 @@ public class NodeCountsAndLabelIndexBuildStage extends Stage
 
     public NodeCountsAndLabelIndexBuildStage( Configuration config, NodeLabelsCache cache, NodeStore nodeStore,
             int highLabelId, CountsAccessor.Updater countsUpdater, ProgressReporter progressReporter,
-            LabelScanStore labelIndex, StatsProvider... additionalStatsProviders )
+            LabelScanStore labelIndex, IndexImporter indexImporter, PropertyStore propertyStore, StatsProvider... additionalStatsProviders )
     {
         super( NAME, null, config, Step.ORDER_SEND_DOWNSTREAM | Step.RECYCLE_BATCHES );
         add( new BatchFeedStep( control(), config, allIn( nodeStore, config ), nodeStore.getRecordSize() ) );
         add( new ReadRecordsStep<>( control(), config, false, nodeStore ) );
         add( new LabelIndexWriterStep( control(), config, labelIndex, nodeStore ) );
+        if ( !indexImporter.isEmpty() )
+        {
+            add( new SchemaIndexWriterStep( control(), config, indexImporter, propertyStore ) );
+        }
         add( new RecordProcessorStep<>( control(), "COUNT", config, new NodeCountsProcessor(
                 nodeStore, cache, highLabelId, countsUpdater, progressReporter ), true, additionalStatsProviders ) );
     }
@@ -58,11 +58,21 @@ public class ParallelBatchImporter implements BatchImporter
     private final JobScheduler jobScheduler;
     private final Collector badCollector;
     private final LogFilesInitializer logFilesInitializer;
+    private final IndexImporterFactory indexImporterFactory;
 
     public ParallelBatchImporter( DatabaseLayout databaseLayout, FileSystemAbstraction fileSystem, PageCache externalPageCache,
             Configuration config, LogService logService, ExecutionMonitor executionMonitor,
             AdditionalInitialIds additionalInitialIds, Config dbConfig, RecordFormats recordFormats, ImportLogic.Monitor monitor,
             JobScheduler jobScheduler, Collector badCollector, LogFilesInitializer logFilesInitializer )
+    {
+        this( databaseLayout, fileSystem, externalPageCache, config, logService, executionMonitor, additionalInitialIds, dbConfig, recordFormats,
+                monitor, jobScheduler, badCollector, logFilesInitializer, IndexImporterFactory.EMPTY );
+    }
+
+    public ParallelBatchImporter( DatabaseLayout databaseLayout, FileSystemAbstraction fileSystem, PageCache externalPageCache,
+            Configuration config, LogService logService, ExecutionMonitor executionMonitor,
+            AdditionalInitialIds additionalInitialIds, Config dbConfig, RecordFormats recordFormats, ImportLogic.Monitor monitor,
+            JobScheduler jobScheduler, Collector badCollector, LogFilesInitializer logFilesInitializer, IndexImporterFactory indexImporterFactory )
     {
         this.externalPageCache = externalPageCache;
         this.databaseLayout = databaseLayout;
@@ -77,6 +87,7 @@ public class ParallelBatchImporter implements BatchImporter
         this.jobScheduler = jobScheduler;
         this.badCollector = badCollector;
         this.logFilesInitializer = logFilesInitializer;
+        this.indexImporterFactory = indexImporterFactory;
     }
 
     @Override
@@ -85,7 +96,7 @@ public class ParallelBatchImporter implements BatchImporter
         try ( BatchingNeoStores store = ImportLogic.instantiateNeoStores( fileSystem, databaseLayout, externalPageCache, recordFormats,
                       config, logService, additionalInitialIds, dbConfig, jobScheduler );
               ImportLogic logic = new ImportLogic( databaseLayout, store, config, dbConfig, logService,
-                      executionMonitor, recordFormats, badCollector, monitor ) )
+                      executionMonitor, recordFormats, badCollector, monitor, indexImporterFactory ) )
         {
             store.createNew();
             logic.initialize( input );
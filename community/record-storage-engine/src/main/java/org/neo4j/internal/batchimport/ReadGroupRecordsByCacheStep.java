@@ -91,7 +91,7 @@ public class ReadGroupRecordsByCacheStep extends ProducerStep
 
         private void send()
         {
-            totalProcessingTime.add( nanoTime() - time );
+            addProcessingTime( nanoTime() - time );
             sendDownstream( batch );
             time = nanoTime();
             assertHealthy();
@@ -77,7 +77,7 @@ public class ReadNodeIdsByCacheStep extends ProducerStep
 
         private void send()
         {
-            totalProcessingTime.add( nanoTime() - time );
+            addProcessingTime( nanoTime() - time );
             sendDownstream( iterator( batch ) );
             time = nanoTime();
             assertHealthy();
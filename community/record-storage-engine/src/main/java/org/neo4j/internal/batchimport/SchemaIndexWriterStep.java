@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport;
+
+import org.neo4j.internal.batchimport.staging.BatchSender;
+import org.neo4j.internal.batchimport.staging.ProcessorStep;
+import org.neo4j.internal.batchimport.staging.StageControl;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+
+/**
+ * Feeds node property values into the populators of the indexes declared for the import, see {@link IndexImporter}.
+ * Contrary to {@link LabelIndexWriterStep} this step can run with multiple processors since index populators
+ * accept additions from multiple threads.
+ */
+public class SchemaIndexWriterStep extends ProcessorStep<NodeRecord[]>
+{
+    private final IndexImporter indexImporter;
+    private final PropertyStore propertyStore;
+
+    public SchemaIndexWriterStep( StageControl control, Configuration config, IndexImporter indexImporter, PropertyStore propertyStore )
+    {
+        super( control, "SCHEMA INDEX", config, 0 );
+        this.indexImporter = indexImporter;
+        this.propertyStore = propertyStore;
+    }
+
+    @Override
+    protected void process( NodeRecord[] batch, BatchSender sender ) throws Throwable
+    {
+        indexImporter.add( batch, propertyStore.newRecord() );
+        sender.send( batch );
+    }
+}
@@ -69,6 +69,9 @@ public abstract class AbstractStep<T> implements Step<T>
     protected final AtomicLong doneBatches = new AtomicLong();
     // Milliseconds spent processing all received batches.
     protected final MovingAverage totalProcessingTime;
+    // Nanoseconds spent processing all received batches. Unlike totalProcessingTime, which only covers the most recent batches,
+    // this only ever grows, so that the processing time between two points in time can be calculated from it.
+    protected final LongAdder busyTime = new LongAdder();
     protected long startTime;
     protected long endTime;
     protected final List<StatsProvider> additionalStatsProvider;
@@ -177,11 +180,22 @@ public abstract class AbstractStep<T> implements Step<T>
     protected void collectStatsProviders( Collection<StatsProvider> into )
     {
         into.add( new ProcessingStats( doneBatches.get() + queuedBatches.get(), doneBatches.get(),
-                totalProcessingTime.total(), totalProcessingTime.average() / processors( 0 ),
+                totalProcessingTime.total(), totalProcessingTime.average() / processors( 0 ), busyTime.sum(),
                 upstreamIdleTime.sum(), downstreamIdleTime.sum() ) );
         into.addAll( additionalStatsProvider );
     }
 
+    /**
+     * Registers time spent processing a batch.
+     *
+     * @param nanos time, in nanoseconds, spent processing a batch.
+     */
+    protected void addProcessingTime( long nanos )
+    {
+        totalProcessingTime.add( nanos );
+        busyTime.add( nanos );
+    }
+
     @Override
     public void endOfUpstream()
     {
@@ -236,6 +250,7 @@ public abstract class AbstractStep<T> implements Step<T>
         queuedBatches.set( 0 );
         doneBatches.set( 0 );
         totalProcessingTime.reset();
+        busyTime.reset();
         startTime = nanoTime();
         endTime = 0;
     }
@@ -236,7 +236,7 @@ public abstract class ForkedProcessorStep<T> extends AbstractStep<T>
                     tail.set( current );
                     queuedBatches.decrementAndGet();
                     doneBatches.incrementAndGet();
-                    totalProcessingTime.add( candidate.processingTime );
+                    addProcessingTime( candidate.processingTime );
                     checkNotifyEndDownstream();
                 }
                 else
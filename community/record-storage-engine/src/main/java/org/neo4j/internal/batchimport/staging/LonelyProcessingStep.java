@@ -96,7 +96,7 @@ public abstract class LonelyProcessingStep extends AbstractStep<Void>
             batch %= batchSize;
             doneBatches.addAndGet( batches );
             long time = nanoTime();
-            totalProcessingTime.add( time - lastProcessingTimestamp );
+            addProcessingTime( time - lastProcessingTimestamp );
             lastProcessingTimestamp = time;
         }
     }
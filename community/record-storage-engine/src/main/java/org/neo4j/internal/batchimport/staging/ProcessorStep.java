@@ -84,7 +84,7 @@ public abstract class ProcessorStep<T> extends AbstractStep<T>
                     doneBatches.incrementAndGet();
                     control.recycle( batch );
                 }
-                totalProcessingTime.add( nanoTime() - startTime - sender.sendTime );
+                addProcessingTime( nanoTime() - startTime - sender.sendTime );
 
                 decrementQueue();
                 checkNotifyEndDownstream();
@@ -46,7 +46,7 @@ public abstract class PullingProducerStep extends ProducerStep
                 break;
             }
 
-            totalProcessingTime.add( nanoTime() - startTime );
+            addProcessingTime( nanoTime() - startTime );
             sendDownstream( batch );
             assertHealthy();
         }
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.staging;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.internal.batchimport.Configuration;
+import org.neo4j.internal.batchimport.stats.Key;
+import org.neo4j.internal.batchimport.stats.Keys;
+import org.neo4j.internal.batchimport.stats.Stat;
+import org.neo4j.internal.batchimport.stats.StepStats;
+
+import static java.lang.Integer.min;
+import static java.lang.Math.max;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Assigns processors to steps based on where batches actually pile up, as an alternative to {@link DynamicProcessorAssigner}
+ * which compares average processing times only. For each step the backlog, i.e. the number of batches received but not yet done,
+ * is multiplied by the per-batch latency of that step to get an estimate of how long it would take the step to drain its queue:
+ * <ul>
+ * <li>The step with the longest drain time gets more processors, more of them the longer its queue is compared to
+ * its current number of processors.</li>
+ * <li>A step which has had an empty queue for a couple of consecutive checks, i.e. is waiting for upstream,
+ * gives back one of its processors.</li>
+ * <li>A change to a step is only made after each of its processors has completed at least one batch since the previous change,
+ * so that the change is reflected in its statistics.</li>
+ * <li>At all times keeps the total number of processors assigned to steps to a total of less than or equal to
+ * {@link Configuration#maxNumberOfProcessors()}.</li>
+ * </ul>
+ * Checks are made a lot more frequently than in {@link DynamicProcessorAssigner} to react quickly to changes in the load.
+ */
+public class QueueAwareProcessorAssigner extends ExecutionMonitor.Adapter
+{
+    static final int IDLE_CHECKS_BEFORE_REMOVAL = 3;
+
+    private final int availableProcessors;
+    private final Map<Step<?>,StepState> states = new HashMap<>();
+
+    public QueueAwareProcessorAssigner( Configuration config )
+    {
+        this( config, 200 );
+    }
+
+    QueueAwareProcessorAssigner( Configuration config, long checkIntervalMillis )
+    {
+        super( checkIntervalMillis, MILLISECONDS );
+        this.availableProcessors = config.maxNumberOfProcessors();
+    }
+
+    @Override
+    public void start( StageExecution execution )
+    {   // A new stage begins, any data that we had is irrelevant
+        states.clear();
+    }
+
+    @Override
+    public void check( StageExecution execution )
+    {
+        if ( !execution.stillExecuting() )
+        {
+            return;
+        }
+
+        Step<?> bottleneck = null;
+        long longestDrainTime = 0;
+        int assignedProcessors = 0;
+        for ( Step<?> step : execution.steps() )
+        {
+            StepState state = states.computeIfAbsent( step, s -> new StepState() );
+            state.update( step );
+            assignedProcessors += state.processors;
+            if ( state.queued > 0 && state.drainTime() > longestDrainTime )
+            {
+                longestDrainTime = state.drainTime();
+                bottleneck = step;
+            }
+        }
+
+        int permits = availableProcessors - assignedProcessors;
+        if ( permits <= 0 )
+        {
+            // Everything is handed out, reclaim from idle steps so that the bottleneck can get them next round
+            removeProcessorFromIdleSteps( execution, bottleneck );
+        }
+        else if ( bottleneck != null )
+        {
+            assignProcessorsToBottleneck( bottleneck, permits );
+        }
+        else
+        {
+            removeProcessorFromIdleSteps( execution, null );
+        }
+    }
+
+    private void assignProcessorsToBottleneck( Step<?> bottleneck, int permits )
+    {
+        StepState state = states.get( bottleneck );
+        if ( !state.changeable() )
+        {
+            return;
+        }
+
+        // A queue which is much longer than the number of processors working on it warrants multiple processors at once
+        int increment = min( max( 1, (int) (state.queued / (2 * state.processors)) ), permits );
+        int after = bottleneck.processors( increment );
+        if ( after > state.processors )
+        {
+            state.changed( after );
+        }
+    }
+
+    private void removeProcessorFromIdleSteps( StageExecution execution, Step<?> bottleneck )
+    {
+        for ( Step<?> step : execution.steps() )
+        {
+            StepState state = states.get( step );
+            if ( step != bottleneck && state.processors > 1 && state.idleChecks >= IDLE_CHECKS_BEFORE_REMOVAL && state.changeable() )
+            {
+                int after = step.processors( -1 );
+                if ( after < state.processors )
+                {
+                    state.changed( after );
+                }
+            }
+        }
+    }
+
+    private static class StepState
+    {
+        private long doneBatches;
+        private long queued;
+        private long latency;
+        private int processors;
+        private int idleChecks;
+        private long doneBatchesAtLastChange = -1;
+
+        void update( Step<?> step )
+        {
+            StepStats stats = step.stats();
+            doneBatches = stat( stats, Keys.done_batches );
+            queued = max( 0, stat( stats, Keys.received_batches ) - doneBatches );
+            latency = stat( stats, Keys.avg_processing_time );
+            processors = step.processors( 0 );
+            idleChecks = queued == 0 ? idleChecks + 1 : 0;
+        }
+
+        private static long stat( StepStats stats, Key key )
+        {
+            Stat stat = stats.stat( key );
+            return stat != null ? stat.asLong() : 0;
+        }
+
+        long drainTime()
+        {
+            // avg_processing_time is already divided by the number of processors of the step
+            return queued * max( 1, latency );
+        }
+
+        boolean changeable()
+        {
+            return doneBatchesAtLastChange == -1 || doneBatches - doneBatchesAtLastChange >= processors;
+        }
+
+        void changed( int newProcessors )
+        {
+            doneBatchesAtLastChange = doneBatches;
+            processors = newProcessors;
+            idleChecks = 0;
+        }
+    }
+}
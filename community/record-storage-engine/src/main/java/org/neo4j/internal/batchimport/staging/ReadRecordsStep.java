@@ -73,25 +73,18 @@ public class ReadRecordsStep<RECORD extends AbstractBaseRecord> extends Processo
             return;
         }
 
-        long id = idRange.next();
+        long[] ids = new long[batchSize];
+        int count = 0;
+        while ( idRange.hasNext() )
+        {
+            ids[count++] = idRange.next();
+        }
         RECORD[] batch = control.reuse( () -> assembler.newBatchObject( batchSize ) );
-        int i = 0;
-        // Just use the first record in the batch here to satisfy the record cursor.
-        // The truth is that we'll be using the read method which accepts an external record anyway so it doesn't matter.
-        try ( PageCursor cursor = store.openPageCursorForReading( id ) )
+        int i;
+        // Read all records in one go, which allows records on the same page to be read together
+        try ( PageCursor cursor = store.openPageCursorForReading( ids[0] ) )
         {
-            boolean hasNext = true;
-            while ( hasNext )
-            {
-                if ( assembler.append( store, cursor, batch, id, i ) )
-                {
-                    i++;
-                }
-                if ( hasNext = idRange.hasNext() )
-                {
-                    id = idRange.next();
-                }
-            }
+            i = assembler.appendAll( store, cursor, batch, ids, count );
         }
 
         sender.send( assembler.cutOffAt( batch, i ) );
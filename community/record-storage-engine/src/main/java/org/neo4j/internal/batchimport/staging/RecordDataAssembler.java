@@ -71,6 +71,27 @@ public class RecordDataAssembler<RECORD extends AbstractBaseRecord>
         return record.inUse() && filter.test( record );
     }
 
+    /**
+     * Reads the records with the given ids into the array and moves the ones which are in use and pass the filter to the front of it.
+     *
+     * @return the number of records at the front of the array which are in use and passed the filter.
+     */
+    public int appendAll( RecordStore<RECORD> store, PageCursor cursor, RECORD[] array, long[] ids, int count )
+    {
+        store.getRecordsByCursor( ids, array, count, RecordLoad.CHECK, cursor );
+        int length = 0;
+        for ( int i = 0; i < count; i++ )
+        {
+            RECORD record = array[i];
+            if ( record.inUse() && filter.test( record ) )
+            {
+                array[i] = array[length];
+                array[length++] = record;
+            }
+        }
+        return length;
+    }
+
     public RECORD[] cutOffAt( RECORD[] array, int length )
     {
         for ( int i = length; i < array.length; i++ )
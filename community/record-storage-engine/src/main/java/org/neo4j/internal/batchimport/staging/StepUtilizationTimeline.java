@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.staging;
+
+import java.io.PrintStream;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.internal.batchimport.stats.Key;
+import org.neo4j.internal.batchimport.stats.Keys;
+import org.neo4j.internal.batchimport.stats.Stat;
+import org.neo4j.internal.batchimport.stats.StepStats;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * {@link ExecutionMonitor} which samples, for every step in every stage, how many processors it has assigned,
+ * how many batches it has queued and how busy its processors were since the previous sample.
+ * The result is a timeline per stage which shows how processor assignment followed the load, useful when tuning
+ * processor assignment, e.g. comparing {@link DynamicProcessorAssigner} to {@link QueueAwareProcessorAssigner}.
+ * If given a {@link PrintStream} the timeline of each stage is printed there when the stage ends.
+ */
+public class StepUtilizationTimeline extends ExecutionMonitor.Adapter
+{
+    private final Clock clock;
+    private final PrintStream out;
+    private final Map<String,List<Sample>> timelines = new LinkedHashMap<>();
+    private final Map<Step<?>,long[]/*time,busy time*/> previous = new HashMap<>();
+    private List<Sample> current;
+    private long stageStartTime;
+
+    public StepUtilizationTimeline( Clock clock, long interval, TimeUnit unit )
+    {
+        this( clock, interval, unit, null );
+    }
+
+    public StepUtilizationTimeline( Clock clock, long interval, TimeUnit unit, PrintStream out )
+    {
+        super( clock, interval, unit );
+        this.clock = clock;
+        this.out = out;
+    }
+
+    @Override
+    public void start( StageExecution execution )
+    {
+        current = new ArrayList<>();
+        timelines.put( execution.name(), current );
+        previous.clear();
+        stageStartTime = clock.millis();
+    }
+
+    @Override
+    public void check( StageExecution execution )
+    {
+        long now = clock.millis();
+        for ( Step<?> step : execution.steps() )
+        {
+            StepStats stats = step.stats();
+            long busyTime = stat( stats, Keys.busy_time );
+            long doneBatches = stat( stats, Keys.done_batches );
+            long queued = max( 0, stat( stats, Keys.received_batches ) - doneBatches );
+            int processors = step.processors( 0 );
+
+            long[] last = previous.put( step, new long[]{now, busyTime} );
+            float utilization = 0;
+            if ( last != null && now > last[0] )
+            {
+                // busy time is measured in nanoseconds
+                long elapsedNanos = MILLISECONDS.toNanos( now - last[0] );
+                utilization = min( 1f, (float) (busyTime - last[1]) / (elapsedNanos * processors) );
+            }
+            current.add( new Sample( now - stageStartTime, step.name(), processors, queued, utilization ) );
+        }
+    }
+
+    @Override
+    public void end( StageExecution execution, long totalTimeMillis )
+    {
+        // A last sample covering the time since the most recent check
+        check( execution );
+        if ( out != null )
+        {
+            print( execution.name(), current, out );
+        }
+    }
+
+    /**
+     * @return the samples of all stages executed so far, keyed by stage name, in the order the stages were executed.
+     */
+    public Map<String,List<Sample>> timelines()
+    {
+        return timelines;
+    }
+
+    /**
+     * Prints the timelines as one line per sample and step.
+     */
+    public void print( PrintStream out )
+    {
+        for ( Map.Entry<String,List<Sample>> timeline : timelines.entrySet() )
+        {
+            print( timeline.getKey(), timeline.getValue(), out );
+        }
+    }
+
+    private static void print( String stage, List<Sample> samples, PrintStream out )
+    {
+        out.println( stage );
+        for ( Sample sample : samples )
+        {
+            out.println( "  " + sample );
+        }
+    }
+
+    private static long stat( StepStats stats, Key key )
+    {
+        Stat stat = stats.stat( key );
+        return stat != null ? stat.asLong() : 0;
+    }
+
+    public static class Sample
+    {
+        private final long timeMillis;
+        private final String step;
+        private final int processors;
+        private final long queuedBatches;
+        private final float utilization;
+
+        Sample( long timeMillis, String step, int processors, long queuedBatches, float utilization )
+        {
+            this.timeMillis = timeMillis;
+            this.step = step;
+            this.processors = processors;
+            this.queuedBatches = queuedBatches;
+            this.utilization = utilization;
+        }
+
+        /**
+         * @return time in milliseconds since the start of the stage.
+         */
+        public long timeMillis()
+        {
+            return timeMillis;
+        }
+
+        public String step()
+        {
+            return step;
+        }
+
+        public int processors()
+        {
+            return processors;
+        }
+
+        public long queuedBatches()
+        {
+            return queuedBatches;
+        }
+
+        /**
+         * @return fraction, between 0 and 1, of the time since the previous sample that the processors of the step were busy.
+         */
+        public float utilization()
+        {
+            return utilization;
+        }
+
+        @Override
+        public String toString()
+        {
+            return format( "%8dms %-20s processors:%d queued:%d utilization:%.2f", timeMillis, step, processors, queuedBatches, utilization );
+        }
+    }
+}
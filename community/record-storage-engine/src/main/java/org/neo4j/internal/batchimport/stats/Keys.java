@@ -27,6 +27,7 @@ public enum Keys implements Key
     received_batches( ">", "Number of batches received from upstream" ),
     done_batches( "!", "Number of batches processed and done, and sent off downstream" ),
     total_processing_time( "=", "Total processing time for all done batches" ),
+    busy_time( "busy", "Accumulated processing time since the step started, never reset while the step is running" ),
     upstream_idle_time( "^", "Time spent waiting for batch from upstream" ),
     downstream_idle_time( "v", "Time spent waiting for downstream to catch up" ),
     avg_processing_time( "avg", "Average processing time per done batch" ),
@@ -29,12 +29,13 @@ public class ProcessingStats extends GenericStatsProvider
 {
     public ProcessingStats(
             long receivedBatches, long doneBatches,
-            long totalProcessingTime, long average,
+            long totalProcessingTime, long average, long busyTime,
             long upstreamIdleTime, long downstreamIdleTime )
     {
         add( Keys.received_batches, Stats.longStat( receivedBatches ) );
         add( Keys.done_batches, Stats.longStat( doneBatches ) );
         add( Keys.total_processing_time, Stats.longStat( totalProcessingTime ) );
+        add( Keys.busy_time, Stats.longStat( busyTime ) );
         add( Keys.upstream_idle_time, Stats.longStat( upstreamIdleTime ) );
         add( Keys.downstream_idle_time, Stats.longStat( downstreamIdleTime ) );
         add( Keys.avg_processing_time, Stats.longStat( average ) );
@@ -27,6 +27,7 @@ import java.nio.file.StandardOpenOption;
 import java.util.function.Predicate;
 
 import org.neo4j.configuration.Config;
+import org.neo4j.exceptions.KernelException;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.internal.batchimport.AdditionalInitialIds;
 import org.neo4j.internal.batchimport.Configuration;
@@ -44,6 +45,8 @@ import org.neo4j.internal.id.IdGeneratorFactory;
 import org.neo4j.internal.index.label.FullStoreChangeStream;
 import org.neo4j.internal.index.label.LabelScanStore;
 import org.neo4j.internal.index.label.NativeLabelScanStore;
+import org.neo4j.internal.recordstorage.RecordStorageEngineFactory;
+import org.neo4j.internal.schema.SchemaRule;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseFile;
 import org.neo4j.io.layout.DatabaseLayout;
@@ -73,6 +76,7 @@ import org.neo4j.logging.internal.LogService;
 import org.neo4j.memory.EmptyMemoryTracker;
 import org.neo4j.monitoring.Monitors;
 import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.storageengine.migration.SchemaRuleMigrationAccess;
 
 import static java.lang.String.valueOf;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_memory;
@@ -363,6 +367,35 @@ public class BatchingNeoStores implements AutoCloseable, MemoryStatsVisitor.Visi
         }
     }
 
+    /**
+     * @return a new id in the schema store, for a schema rule which is later {@link #writeSchemaRules(Iterable) written}.
+     */
+    public long nextSchemaRuleId()
+    {
+        return neoStores.getSchemaStore().nextId();
+    }
+
+    /**
+     * Writes the given schema rules to the schema store. The rules must have their ids allocated by {@link #nextSchemaRuleId()}.
+     * Tokens created by the batching token repositories are flushed before this since writing schema rules may create
+     * internal property key tokens directly in the store.
+     *
+     * @param rules schema rules to write.
+     * @throws KernelException on failure to write a rule.
+     */
+    public void writeSchemaRules( Iterable<SchemaRule> rules ) throws KernelException
+    {
+        propertyKeyRepository.flush();
+        labelRepository.flush();
+        relationshipTypeRepository.flush();
+        // The access isn't closed since that would close the stores, which are owned by this instance
+        SchemaRuleMigrationAccess schemaRuleAccess = RecordStorageEngineFactory.createMigrationTargetSchemaRuleAccess( neoStores );
+        for ( SchemaRule rule : rules )
+        {
+            schemaRuleAccess.writeSchemaRule( rule );
+        }
+    }
+
     @Override
     public void close() throws IOException
     {
@@ -463,6 +496,16 @@ public class BatchingNeoStores implements AutoCloseable, MemoryStatsVisitor.Visi
         return pageCache;
     }
 
+    public FileSystemAbstraction getFileSystem()
+    {
+        return fileSystem;
+    }
+
+    public DatabaseLayout getDatabaseLayout()
+    {
+        return databaseLayout;
+    }
+
     public void flushAndForce() throws IOException
     {
         if ( propertyKeyRepository != null )
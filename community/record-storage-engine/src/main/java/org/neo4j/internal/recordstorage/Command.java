@@ -37,6 +37,7 @@ import org.neo4j.kernel.impl.store.record.DynamicRecord;
 import org.neo4j.kernel.impl.store.record.LabelTokenRecord;
 import org.neo4j.kernel.impl.store.record.NeoStoreRecord;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PrimitiveRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyKeyTokenRecord;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
@@ -155,6 +156,25 @@ public abstract class Command implements StorageCommand
         }
     }
 
+    void writeInlinedProperties( WritableChannel channel, PrimitiveRecord record ) throws IOException
+    {
+        // number_of_value_blocks(byte)+value_blocks(long*n), only written for records flagged as having inlined properties
+        PropertyRecord inlined = record.getInlinedProperties();
+        byte numberOfValueBlocks = 0;
+        for ( PropertyBlock block : inlined )
+        {
+            numberOfValueBlocks += block.getValueBlocks().length;
+        }
+        channel.put( numberOfValueBlocks );
+        for ( PropertyBlock block : inlined )
+        {
+            for ( long valueBlock : block.getValueBlocks() )
+            {
+                channel.putLong( valueBlock );
+            }
+        }
+    }
+
     void writeDynamicRecord( WritableChannel channel, DynamicRecord record ) throws IOException
     {
         // id+type+in_use(byte)+nr_of_bytes(int)+next_block(long)
@@ -244,7 +264,8 @@ public abstract class Command implements StorageCommand
                                    bitFlag( record.isCreated(), Record.CREATED_IN_TX ),
                                    bitFlag( record.requiresSecondaryUnit(), Record.REQUIRE_SECONDARY_UNIT ),
                                    bitFlag( record.hasSecondaryUnitId(), Record.HAS_SECONDARY_UNIT ),
-                                   bitFlag( record.isUseFixedReferences(), Record.USES_FIXED_REFERENCE_FORMAT ) );
+                                   bitFlag( record.isUseFixedReferences(), Record.USES_FIXED_REFERENCE_FORMAT ),
+                                   bitFlag( record.inUse() && record.hasInlinedProperties(), Record.ADDITIONAL_FLAG_1 ) );
             channel.put( flags );
             if ( record.inUse() )
             {
@@ -255,6 +276,10 @@ public abstract class Command implements StorageCommand
                 {
                     channel.putLong( record.getSecondaryUnitId() );
                 }
+                if ( record.hasInlinedProperties() )
+                {
+                    writeInlinedProperties( channel, record );
+                }
             }
             // Always write dynamic label records because we want to know which ones have been deleted
             // especially if the node has been deleted.
@@ -290,7 +315,8 @@ public abstract class Command implements StorageCommand
                                    bitFlag( record.isCreated(), Record.CREATED_IN_TX ),
                                    bitFlag( record.requiresSecondaryUnit(), Record.REQUIRE_SECONDARY_UNIT ),
                                    bitFlag( record.hasSecondaryUnitId(), Record.HAS_SECONDARY_UNIT ),
-                                   bitFlag( record.isUseFixedReferences(), Record.USES_FIXED_REFERENCE_FORMAT ) );
+                                   bitFlag( record.isUseFixedReferences(), Record.USES_FIXED_REFERENCE_FORMAT ),
+                                   bitFlag( record.inUse() && record.hasInlinedProperties(), Record.ADDITIONAL_FLAG_1 ) );
             channel.put( flags );
             if ( record.inUse() )
             {
@@ -303,6 +329,10 @@ public abstract class Command implements StorageCommand
                 {
                     channel.putLong( record.getSecondaryUnitId() );
                 }
+                if ( record.hasInlinedProperties() )
+                {
+                    writeInlinedProperties( channel, record );
+                }
             }
             else
             {
@@ -36,6 +36,7 @@ import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
 import org.neo4j.kernel.impl.store.record.LabelTokenRecord;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PrimitiveRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyKeyTokenRecord;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
@@ -573,6 +574,7 @@ public class PhysicalLogCommandReaderV4_0 extends BaseCommandReader
         boolean requiresSecondaryUnit = bitFlag( flags, Record.REQUIRE_SECONDARY_UNIT );
         boolean hasSecondaryUnit = bitFlag( flags, Record.HAS_SECONDARY_UNIT );
         boolean usesFixedReferenceFormat = bitFlag( flags, Record.USES_FIXED_REFERENCE_FORMAT );
+        boolean hasInlinedProperties = bitFlag( flags, Record.ADDITIONAL_FLAG_1 );
 
         NodeRecord record;
         Collection<DynamicRecord> dynamicLabelRecords = new ArrayList<>();
@@ -589,6 +591,10 @@ public class PhysicalLogCommandReaderV4_0 extends BaseCommandReader
                 record.setSecondaryUnitIdOnLoad( channel.getLong() );
             }
             record.setUseFixedReferences( usesFixedReferenceFormat );
+            if ( hasInlinedProperties )
+            {
+                readInlinedProperties( channel, record );
+            }
         }
         else
         {
@@ -611,6 +617,7 @@ public class PhysicalLogCommandReaderV4_0 extends BaseCommandReader
         boolean requiresSecondaryUnit = bitFlag( flags, Record.REQUIRE_SECONDARY_UNIT );
         boolean hasSecondaryUnit = bitFlag( flags, Record.HAS_SECONDARY_UNIT );
         boolean usesFixedReferenceFormat = bitFlag( flags, Record.USES_FIXED_REFERENCE_FORMAT );
+        boolean hasInlinedProperties = bitFlag( flags, Record.ADDITIONAL_FLAG_1 );
 
         RelationshipRecord record;
         if ( inUse )
@@ -631,6 +638,10 @@ public class PhysicalLogCommandReaderV4_0 extends BaseCommandReader
                 record.setSecondaryUnitIdOnLoad( channel.getLong() );
             }
             record.setUseFixedReferences( usesFixedReferenceFormat );
+            if ( hasInlinedProperties )
+            {
+                readInlinedProperties( channel, record );
+            }
         }
         else
         {
@@ -645,6 +656,20 @@ public class PhysicalLogCommandReaderV4_0 extends BaseCommandReader
         return record;
     }
 
+    private static void readInlinedProperties( ReadableChannel channel, PrimitiveRecord record ) throws IOException
+    {
+        int numberOfValueBlocks = channel.get();
+        if ( numberOfValueBlocks < 0 || numberOfValueBlocks > PropertyType.getPayloadSizeLongs() )
+        {
+            throw new IOException( "Illegal number of inlined property value blocks " + numberOfValueBlocks + " for " + record );
+        }
+        PropertyRecord inlined = record.getInlinedProperties();
+        for ( int i = 0; i < numberOfValueBlocks; i++ )
+        {
+            inlined.addLoadedBlock( channel.getLong() );
+        }
+    }
+
     private DynamicRecord readDynamicRecord( ReadableChannel channel ) throws IOException
     {
         // id+type+in_use(byte)+nr_of_bytes(int)+next_block(long)
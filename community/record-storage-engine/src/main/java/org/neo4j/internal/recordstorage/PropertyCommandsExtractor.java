@@ -83,7 +83,9 @@ public class PropertyCommandsExtractor extends TransactionApplier.Adapter
         return before != after ||
                 // Because we don't know here, there may have been changes to a dynamic label record
                 // even though it still points to the same one
-                fieldPointsToDynamicRecordOfLabels( before ) || fieldPointsToDynamicRecordOfLabels( after );
+                fieldPointsToDynamicRecordOfLabels( before ) || fieldPointsToDynamicRecordOfLabels( after ) ||
+                // Properties inlined in the node record are changed by the node command itself
+                command.getBefore().hasInlinedProperties() || command.getAfter().hasInlinedProperties();
     }
 
     @Override
@@ -41,20 +41,33 @@ public class PropertyCreator
     private final IdSequence propertyRecordIdGenerator;
     private final PropertyTraverser traverser;
     private final boolean allowStorePointsAndTemporal;
+    private final boolean inlineProperties;
 
     public PropertyCreator( PropertyStore propertyStore, PropertyTraverser traverser )
     {
-        this( propertyStore.getStringStore(), propertyStore.getArrayStore(), propertyStore, traverser, propertyStore.allowStorePointsAndTemporal() );
+        this( propertyStore, traverser, false );
     }
 
+    public PropertyCreator( PropertyStore propertyStore, PropertyTraverser traverser, boolean inlineProperties )
+    {
+        this( propertyStore.getStringStore(), propertyStore.getArrayStore(), propertyStore, traverser, propertyStore.allowStorePointsAndTemporal(),
+                inlineProperties );
+    }
+
+    /**
+     * @param inlineProperties whether or not new property values may be placed in the node or relationship record itself, which requires
+     * a record format with {@link org.neo4j.kernel.impl.store.format.RecordStorageCapability#INLINED_PROPERTIES}. Already inlined properties
+     * are found, changed and removed regardless.
+     */
     PropertyCreator( DynamicRecordAllocator stringRecordAllocator, DynamicRecordAllocator arrayRecordAllocator, IdSequence propertyRecordIdGenerator,
-            PropertyTraverser traverser, boolean allowStorePointsAndTemporal )
+            PropertyTraverser traverser, boolean allowStorePointsAndTemporal, boolean inlineProperties )
     {
         this.stringRecordAllocator = stringRecordAllocator;
         this.arrayRecordAllocator = arrayRecordAllocator;
         this.propertyRecordIdGenerator = propertyRecordIdGenerator;
         this.traverser = traverser;
         this.allowStorePointsAndTemporal = allowStorePointsAndTemporal;
+        this.inlineProperties = inlineProperties;
     }
 
     public <P extends PrimitiveRecord> void primitiveSetProperty(
@@ -65,6 +78,25 @@ public class PropertyCreator
         P primitive = primitiveRecordChange.forReadingLinkage();
         assert traverser.assertPropertyChain( primitive, propertyRecords );
 
+        // Inlined properties come before the chain and a key lives in one of the two places only. So a value already inlined is
+        // replaced in place if the new one can be inlined too, or else removed before looking for a place for the new one in the chain
+        if ( PropertyTraverser.findInlinedProperty( primitive, propertyKey ) != null )
+        {
+            PropertyRecord inlined = primitiveRecordChange.forChangingData().getInlinedProperties();
+            inlined.removePropertyBlock( propertyKey );
+            if ( canInline( primitive, block ) && inlined.hasSpaceFor( block ) )
+            {
+                inlined.addPropertyBlock( block );
+                return;
+            }
+        }
+        else if ( canInline( primitive, block ) && primitive.getInlinedProperties().hasSpaceFor( block ) &&
+                Record.NO_NEXT_PROPERTY.is( traverser.findPropertyRecordContaining( primitive, propertyKey, propertyRecords, false ) ) )
+        {
+            primitiveRecordChange.forChangingData().getInlinedProperties().addPropertyBlock( block );
+            return;
+        }
+
         // Traverse the existing property chain. Tracking two things along the way:
         // - (a) Free space for this block (candidateHost)
         // - (b) Existence of a block with the property key
@@ -167,6 +199,16 @@ public class PropertyCreator
         assert traverser.assertPropertyChain( primitive, propertyRecords );
     }
 
+    /**
+     * Only values which are held entirely by their block are inlined, so that reading them never touches another store and so that
+     * records which own dynamic records stay in the property store.
+     */
+    private boolean canInline( PrimitiveRecord primitive, PropertyBlock block )
+    {
+        PropertyType type = block.getType();
+        return inlineProperties && primitive.canHaveInlinedProperties() && type != PropertyType.STRING && type != PropertyType.ARRAY;
+    }
+
     private void removeProperty( PrimitiveRecord primitive, PropertyRecord host, PropertyBlock block )
     {
         host.removePropertyBlock( block.getKeyIndexId() );
@@ -35,9 +35,18 @@ public class PropertyDeleter
         this.traverser = traverser;
     }
 
+    /**
+     * Deletes all properties of {@code primitive}, both the ones inlined in it and its whole property chain.
+     * {@code primitive} is expected to be a record which is already being changed.
+     */
     public void deletePropertyChain( PrimitiveRecord primitive,
             RecordAccess<PropertyRecord, PrimitiveRecord> propertyRecords )
     {
+        if ( primitive.hasInlinedProperties() )
+        {
+            // Inlined values never have dynamic records, see PropertyCreator, so there's nothing more to delete for them
+            primitive.getInlinedProperties().clearPropertyBlocks();
+        }
         long nextProp = primitive.getNextProp();
         while ( nextProp != Record.NO_NEXT_PROPERTY.intValue() )
         {
@@ -81,6 +90,11 @@ public class PropertyDeleter
             int propertyKey, RecordAccess<PropertyRecord,PrimitiveRecord> propertyRecords )
     {
         PrimitiveRecord primitive = primitiveProxy.forReadingData();
+        if ( PropertyTraverser.findInlinedProperty( primitive, propertyKey ) != null )
+        {
+            removeInlinedProperty( primitiveProxy, propertyKey );
+            return true;
+        }
         long propertyId = // propertyData.getId();
                 traverser.findPropertyRecordContaining( primitive, propertyKey, propertyRecords, false );
         if ( !Record.NO_NEXT_PROPERTY.is( propertyId ) )
@@ -104,11 +118,21 @@ public class PropertyDeleter
             RecordAccess<PropertyRecord,PrimitiveRecord> propertyRecords )
     {
         PrimitiveRecord primitive = primitiveProxy.forReadingData();
+        if ( PropertyTraverser.findInlinedProperty( primitive, propertyKey ) != null )
+        {
+            removeInlinedProperty( primitiveProxy, propertyKey );
+            return;
+        }
         long propertyId = // propertyData.getId();
                 traverser.findPropertyRecordContaining( primitive, propertyKey, propertyRecords, true );
         removeProperty( primitiveProxy, propertyKey, propertyRecords, primitive, propertyId );
     }
 
+    private static <P extends PrimitiveRecord> void removeInlinedProperty( RecordProxy<P,Void> primitiveProxy, int propertyKey )
+    {
+        primitiveProxy.forChangingData().getInlinedProperties().removePropertyBlock( propertyKey );
+    }
+
     private <P extends PrimitiveRecord> void removeProperty( RecordProxy<P,Void> primitiveProxy, int propertyKey,
             RecordAccess<PropertyRecord,PrimitiveRecord> propertyRecords, PrimitiveRecord primitive,
             long propertyId )
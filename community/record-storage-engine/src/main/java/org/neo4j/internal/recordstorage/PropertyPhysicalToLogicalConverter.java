@@ -23,7 +23,9 @@ import java.util.Arrays;
 import java.util.Comparator;
 
 import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.record.PrimitiveRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
 import org.neo4j.storageengine.api.EntityUpdates;
 import org.neo4j.values.storable.Value;
 
@@ -119,6 +121,16 @@ public class PropertyPhysicalToLogicalConverter
     {
         beforeBlocksCursor = 0;
         afterBlocksCursor = 0;
+        // Properties inlined in the entity record change along with that record, so they come with the entity command, if any
+        Command entityCommand = changes.currentEntityCommand();
+        if ( entityCommand instanceof Command.NodeCommand )
+        {
+            mapInlinedBlocks( ((Command.NodeCommand) entityCommand).getBefore(), ((Command.NodeCommand) entityCommand).getAfter() );
+        }
+        else if ( entityCommand instanceof Command.RelationshipCommand )
+        {
+            mapInlinedBlocks( ((Command.RelationshipCommand) entityCommand).getBefore(), ((Command.RelationshipCommand) entityCommand).getAfter() );
+        }
         while ( true )
         {
             Command.PropertyCommand change = changes.nextProperty();
@@ -127,25 +139,47 @@ public class PropertyPhysicalToLogicalConverter
                 break;
             }
 
-            for ( PropertyBlock block : change.getBefore() )
+            mapBeforeBlocks( change.getBefore() );
+            mapAfterBlocks( change.getAfter() );
+        }
+        Arrays.sort( beforeBlocks, 0, beforeBlocksCursor, BLOCK_COMPARATOR );
+        Arrays.sort( afterBlocks, 0, afterBlocksCursor, BLOCK_COMPARATOR );
+    }
+
+    private void mapInlinedBlocks( PrimitiveRecord before, PrimitiveRecord after )
+    {
+        if ( before.hasInlinedProperties() )
+        {
+            mapBeforeBlocks( before.getInlinedProperties() );
+        }
+        if ( after.inUse() && after.hasInlinedProperties() )
+        {
+            mapAfterBlocks( after.getInlinedProperties() );
+        }
+    }
+
+    private void mapBeforeBlocks( PropertyRecord record )
+    {
+        for ( PropertyBlock block : record )
+        {
+            if ( beforeBlocksCursor == beforeBlocks.length )
             {
-                if ( beforeBlocksCursor == beforeBlocks.length )
-                {
-                    beforeBlocks = Arrays.copyOf( beforeBlocks, beforeBlocksCursor * 2 );
-                }
-                beforeBlocks[beforeBlocksCursor++] = block;
+                beforeBlocks = Arrays.copyOf( beforeBlocks, beforeBlocksCursor * 2 );
             }
-            for ( PropertyBlock block : change.getAfter() )
+            beforeBlocks[beforeBlocksCursor++] = block;
+        }
+    }
+
+    private void mapAfterBlocks( PropertyRecord record )
+    {
+        for ( PropertyBlock block : record )
+        {
+            if ( afterBlocksCursor == afterBlocks.length )
             {
-                if ( afterBlocksCursor == afterBlocks.length )
-                {
-                    afterBlocks = Arrays.copyOf( afterBlocks, afterBlocksCursor * 2 );
-                }
-                afterBlocks[afterBlocksCursor++] = block;
+                afterBlocks = Arrays.copyOf( afterBlocks, afterBlocksCursor * 2 );
             }
+            afterBlocks[afterBlocksCursor++] = block;
         }
-        Arrays.sort( beforeBlocks, 0, beforeBlocksCursor, BLOCK_COMPARATOR );
-        Arrays.sort( afterBlocks, 0, afterBlocksCursor, BLOCK_COMPARATOR );
     }
 
     private Value valueOf( PropertyBlock block )
@@ -69,6 +69,35 @@ public class PropertyTraverser
         return Record.NO_NEXT_PROPERTY.intValue();
     }
 
+    /**
+     * Finds the property with key {@code propertyKey} among the properties inlined in {@code primitive}.
+     *
+     * @param primitive {@link PrimitiveRecord} which may have inlined properties.
+     * @param propertyKey property key token id to look for.
+     * @return the inlined block of the property, or {@code null} if {@code primitive} doesn't have it inlined.
+     */
+    public static PropertyBlock findInlinedProperty( PrimitiveRecord primitive, int propertyKey )
+    {
+        return primitive.hasInlinedProperties() ? primitive.getInlinedProperties().getPropertyBlock( propertyKey ) : null;
+    }
+
+    /**
+     * Visits all properties of {@code primitive}, i.e. the ones inlined in it followed by the ones in its property chain.
+     */
+    public void getProperties( PrimitiveRecord primitive,
+            RecordAccess<PropertyRecord, PrimitiveRecord> propertyRecords,
+            Consumer<PropertyBlock> collector )
+    {
+        if ( primitive.hasInlinedProperties() )
+        {
+            for ( PropertyBlock propBlock : primitive.getInlinedProperties() )
+            {
+                collector.accept( propBlock );
+            }
+        }
+        getPropertyChain( primitive.getNextProp(), propertyRecords, collector );
+    }
+
     public void getPropertyChain( long nextProp,
             RecordAccess<PropertyRecord, PrimitiveRecord> propertyRecords,
             Consumer<PropertyBlock> collector )
@@ -24,17 +24,24 @@ import org.apache.commons.lang3.exception.CloneFailedException;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.kernel.impl.store.NodeLabelsField;
 import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.RelationshipGroupStore;
+import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.RecordLoad;
 import org.neo4j.storageengine.api.AllNodeScan;
 import org.neo4j.storageengine.api.StorageNodeCursor;
 import org.neo4j.storageengine.api.StoragePropertyCursor;
+import org.neo4j.storageengine.api.txstate.DegreeVisitor;
 
 import static java.lang.Math.min;
+import static org.neo4j.token.api.TokenConstants.ANY_RELATIONSHIP_TYPE;
 
 public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
 {
     private final NodeStore read;
+    private final RelationshipStore relationshipStore;
+    private final RelationshipGroupStore groupStore;
+    private RecordRelationshipGroupCursor groupCursor;
     private PageCursor pageCursor;
     private long next;
     private long highMark;
@@ -42,10 +49,12 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
     private boolean open;
     private boolean batched;
 
-    RecordNodeCursor( NodeStore read )
+    RecordNodeCursor( NodeStore read, RelationshipStore relationshipStore, RelationshipGroupStore groupStore )
     {
         super( NO_ID );
         this.read = read;
+        this.relationshipStore = relationshipStore;
+        this.groupStore = groupStore;
     }
 
     @Override
@@ -152,7 +161,7 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
     @Override
     public boolean hasProperties()
     {
-        return nextProp != NO_ID;
+        return nextProp != NO_ID || hasInlinedProperties();
     }
 
     @Override
@@ -170,13 +179,44 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
     @Override
     public long propertiesReference()
     {
-        return getNextProp();
+        return hasInlinedProperties() ? RecordPropertyCursor.inlinedPropertiesReference( getId() ) : getNextProp();
     }
 
     @Override
     public void properties( StoragePropertyCursor propertyCursor )
     {
-        propertyCursor.initNodeProperties( getNextProp() );
+        propertyCursor.initNodeProperties( propertiesReference() );
+    }
+
+    @Override
+    public void degrees( int type, DegreeVisitor visitor )
+    {
+        if ( groupCursor == null )
+        {
+            groupCursor = new RecordRelationshipGroupCursor( relationshipStore, groupStore );
+        }
+        groupCursor.init( getId(), getNextRel(), isDense() );
+        while ( groupCursor.next() )
+        {
+            int groupType = groupCursor.type();
+            if ( type == ANY_RELATIONSHIP_TYPE || groupType == type )
+            {
+                int loopCount = groupCursor.loopCount();
+                visitor.visitDegree( groupType, groupCursor.outgoingCount() + loopCount, groupCursor.incomingCount() + loopCount, loopCount );
+                if ( type != ANY_RELATIONSHIP_TYPE )
+                {
+                    // There's only one group per type
+                    break;
+                }
+            }
+            else if ( isDense() && groupType > type )
+            {
+                // The groups of a dense node are kept sorted by type, see RelationshipGroupGetter,
+                // so there's no group for this type further down the chain
+                break;
+            }
+        }
+        groupCursor.reset();
     }
 
     @Override
@@ -280,6 +320,11 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
             pageCursor.close();
             pageCursor = null;
         }
+        if ( groupCursor != null )
+        {
+            groupCursor.close();
+            groupCursor = null;
+        }
     }
 
     private PageCursor nodePage( long reference )
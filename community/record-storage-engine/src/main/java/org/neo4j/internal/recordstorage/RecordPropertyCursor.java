@@ -26,13 +26,18 @@ import java.nio.ByteBuffer;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.kernel.impl.store.GeometryType;
 import org.neo4j.kernel.impl.store.LongerShortString;
+import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.kernel.impl.store.ShortArray;
 import org.neo4j.kernel.impl.store.TemporalType;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PrimitiveRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
 import org.neo4j.kernel.impl.store.record.RecordLoad;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.storageengine.api.StoragePropertyCursor;
 import org.neo4j.util.Bits;
 import org.neo4j.values.storable.ArrayValue;
@@ -48,43 +53,71 @@ import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueGroup;
 import org.neo4j.values.storable.Values;
 
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
+import static org.neo4j.kernel.impl.store.record.Record.NO_PREVIOUS_PROPERTY;
+
 class RecordPropertyCursor extends PropertyRecord implements StoragePropertyCursor
 {
     private static final int MAX_BYTES_IN_SHORT_STRING_OR_SHORT_ARRAY = 32;
     private static final int INITIAL_POSITION = -1;
+    // Set in properties references which point to the properties inlined in the node or relationship record
+    // with the id in the remaining bits, rather than to the first property record of a chain.
+    private static final long INLINED_PROPERTIES_REFERENCE_MARKER = 1L << 62;
 
     private final PropertyStore read;
+    private final NodeStore nodeStore;
+    private final RelationshipStore relationshipStore;
     private long next;
     private int block;
     public ByteBuffer buffer;
     private PageCursor page;
     private PageCursor stringPage;
     private PageCursor arrayPage;
+    private PageCursor ownerPage;
+    private PrimitiveRecord owner;
     private boolean open;
 
-    RecordPropertyCursor( PropertyStore read )
+    RecordPropertyCursor( PropertyStore read, NodeStore nodeStore, RelationshipStore relationshipStore )
     {
         super( NO_ID );
         this.read = read;
+        this.nodeStore = nodeStore;
+        this.relationshipStore = relationshipStore;
+    }
+
+    /**
+     * @param entityId id of a node or relationship which has properties inlined in its record.
+     * @return properties reference which makes this cursor read the inlined properties of that entity before its property chain.
+     */
+    static long inlinedPropertiesReference( long entityId )
+    {
+        return entityId | INLINED_PROPERTIES_REFERENCE_MARKER;
+    }
+
+    static boolean isInlinedPropertiesReference( long reference )
+    {
+        return reference != NO_ID && (reference & INLINED_PROPERTIES_REFERENCE_MARKER) != 0;
     }
 
     @Override
     public void initNodeProperties( long reference )
     {
-        init( reference );
+        init( reference, true );
     }
 
     @Override
     public void initRelationshipProperties( long reference )
     {
-        init( reference );
+        init( reference, false );
     }
 
     /**
-     * In this implementation property ids are unique among nodes AND relationships so they all init the same way
-     * @param reference properties reference, actual property record id.
+     * In this implementation property ids are unique among nodes AND relationships so they all init the same way,
+     * except for references to inlined properties, which need to know which store the owning entity lives in.
+     * @param reference properties reference, actual property record id or a reference to inlined properties.
+     * @param node whether or not the properties belong to a node, otherwise a relationship.
      */
-    private void init( long reference )
+    private void init( long reference, boolean node )
     {
         if ( getId() != NO_ID )
         {
@@ -93,7 +126,11 @@ class RecordPropertyCursor extends PropertyRecord implements StoragePropertyCurs
 
         //Set to high value to force a read
         this.block = Integer.MAX_VALUE;
-        if ( reference != NO_ID )
+        if ( isInlinedPropertiesReference( reference ) )
+        {
+            initOwner( node );
+        }
+        else if ( reference != NO_ID )
         {
             if ( page == null )
             {
@@ -106,6 +143,19 @@ class RecordPropertyCursor extends PropertyRecord implements StoragePropertyCurs
         this.open = true;
     }
 
+    private void initOwner( boolean node )
+    {
+        if ( owner == null || node != owner instanceof NodeRecord )
+        {
+            if ( ownerPage != null )
+            {
+                ownerPage.close();
+                ownerPage = null;
+            }
+            owner = node ? new NodeRecord( NO_ID ) : new RelationshipRecord( NO_ID );
+        }
+    }
+
     @Override
     public boolean next()
     {
@@ -145,7 +195,18 @@ class RecordPropertyCursor extends PropertyRecord implements StoragePropertyCurs
                 return false;
             }
 
-            property( this, next, page );
+            if ( isInlinedPropertiesReference( next ) )
+            {
+                inlinedProperties( next & ~INLINED_PROPERTIES_REFERENCE_MARKER );
+            }
+            else
+            {
+                if ( page == null )
+                {
+                    page = propertyPage( next );
+                }
+                property( this, next, page );
+            }
             next = getNextProp();
             block = INITIAL_POSITION;
         }
@@ -390,6 +451,11 @@ class RecordPropertyCursor extends PropertyRecord implements StoragePropertyCurs
             page.close();
             page = null;
         }
+        if ( ownerPage != null )
+        {
+            ownerPage.close();
+            ownerPage = null;
+        }
     }
 
     private PageCursor propertyPage( long reference )
@@ -414,6 +480,43 @@ class RecordPropertyCursor extends PropertyRecord implements StoragePropertyCurs
         read.getRecordByCursor( reference, record, RecordLoad.FORCE, pageCursor );
     }
 
+    /**
+     * Loads the blocks inlined in the record of the given entity into this cursor, as if they were a property record
+     * in front of the property chain of that entity.
+     */
+    private void inlinedProperties( long entityId )
+    {
+        // Loaded forcefully for the same reason as property records, see property(...)
+        if ( owner instanceof NodeRecord )
+        {
+            if ( ownerPage == null )
+            {
+                ownerPage = nodeStore.openPageCursorForReading( entityId );
+            }
+            nodeStore.getRecordByCursor( entityId, (NodeRecord) owner, RecordLoad.FORCE, ownerPage );
+        }
+        else
+        {
+            if ( ownerPage == null )
+            {
+                ownerPage = relationshipStore.openPageCursorForReading( entityId );
+            }
+            relationshipStore.getRecordByCursor( entityId, (RelationshipRecord) owner, RecordLoad.FORCE, ownerPage );
+        }
+
+        // An entity deleted since the reference was handed out has no properties left to read
+        initialize( true, NO_PREVIOUS_PROPERTY.longValue(), owner.inUse() ? owner.getNextProp() : NO_NEXT_PROPERTY.longValue() );
+        if ( owner.inUse() && owner.hasInlinedProperties() )
+        {
+            PropertyRecord inlined = owner.getInlinedProperties();
+            long[] blocks = inlined.getBlocks();
+            for ( int i = 0; i < inlined.getNumberOfBlocks(); i++ )
+            {
+                addLoadedBlock( blocks[i] );
+            }
+        }
+    }
+
     private TextValue string( RecordPropertyCursor cursor, long reference, PageCursor page )
     {
         ByteBuffer buffer = cursor.buffer = read.loadString( reference, cursor.buffer, page );
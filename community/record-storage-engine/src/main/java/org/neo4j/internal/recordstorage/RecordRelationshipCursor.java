@@ -54,7 +54,7 @@ abstract class RecordRelationshipCursor extends RelationshipRecord implements Re
     @Override
     public boolean hasProperties()
     {
-        return nextProp != NO_ID;
+        return nextProp != NO_ID || hasInlinedProperties();
     }
 
     @Override
@@ -72,13 +72,13 @@ abstract class RecordRelationshipCursor extends RelationshipRecord implements Re
     @Override
     public long propertiesReference()
     {
-        return getNextProp();
+        return hasInlinedProperties() ? RecordPropertyCursor.inlinedPropertiesReference( getId() ) : getNextProp();
     }
 
     @Override
     public void properties( StoragePropertyCursor propertyCursor )
     {
-        propertyCursor.initRelationshipProperties( getNextProp() );
+        propertyCursor.initRelationshipProperties( propertiesReference() );
     }
 
     // used to visit transaction state
@@ -34,6 +34,8 @@ import org.neo4j.storageengine.api.StorageRelationshipGroupCursor;
 
 class RecordRelationshipGroupCursor extends RelationshipGroupRecord implements StorageRelationshipGroupCursor
 {
+    private static final int UNKNOWN_COUNT = -1;
+
     private final RelationshipStore relationshipStore;
     private final RelationshipGroupStore groupStore;
     private final RelationshipRecord edge = new RelationshipRecord( NO_ID );
@@ -42,6 +44,10 @@ class RecordRelationshipGroupCursor extends RelationshipGroupRecord implements S
     private PageCursor page;
     private PageCursor edgePage;
     private boolean open;
+    // Counts of the current group, read lazily since each one requires reading the first relationship of its chain
+    private int outgoingCount = UNKNOWN_COUNT;
+    private int incomingCount = UNKNOWN_COUNT;
+    private int loopCount = UNKNOWN_COUNT;
 
     RecordRelationshipGroupCursor( RelationshipStore relationshipStore, RelationshipGroupStore groupStore )
     {
@@ -121,6 +127,7 @@ class RecordRelationshipGroupCursor extends RelationshipGroupRecord implements S
     {
         bufferedGroup = null;
         clear();
+        forgetCounts();
         setOwningNode( nodeReference );
         setNext( reference );
         if ( page == null )
@@ -152,6 +159,7 @@ class RecordRelationshipGroupCursor extends RelationshipGroupRecord implements S
             }
             group( this, getNext(), page );
         } while ( !inUse() );
+        forgetCounts();
 
         return true;
     }
@@ -173,6 +181,7 @@ class RecordRelationshipGroupCursor extends RelationshipGroupRecord implements S
             bufferedGroup = null;
             setId( NO_ID );
             clear();
+            forgetCounts();
         }
     }
 
@@ -185,19 +194,50 @@ class RecordRelationshipGroupCursor extends RelationshipGroupRecord implements S
     @Override
     public int outgoingCount()
     {
-        return isBuffered() ? bufferedGroup.outgoingCount : count( outgoingRawId() );
+        if ( isBuffered() )
+        {
+            return bufferedGroup.outgoingCount;
+        }
+        if ( outgoingCount == UNKNOWN_COUNT )
+        {
+            outgoingCount = count( outgoingRawId() );
+        }
+        return outgoingCount;
     }
 
     @Override
     public int incomingCount()
     {
-        return isBuffered() ? bufferedGroup.incomingCount : count( incomingRawId() );
+        if ( isBuffered() )
+        {
+            return bufferedGroup.incomingCount;
+        }
+        if ( incomingCount == UNKNOWN_COUNT )
+        {
+            incomingCount = count( incomingRawId() );
+        }
+        return incomingCount;
     }
 
     @Override
     public int loopCount()
     {
-        return isBuffered() ? bufferedGroup.loopsCount : count( loopsRawId() );
+        if ( isBuffered() )
+        {
+            return bufferedGroup.loopsCount;
+        }
+        if ( loopCount == UNKNOWN_COUNT )
+        {
+            loopCount = count( loopsRawId() );
+        }
+        return loopCount;
+    }
+
+    private void forgetCounts()
+    {
+        outgoingCount = UNKNOWN_COUNT;
+        incomingCount = UNKNOWN_COUNT;
+        loopCount = UNKNOWN_COUNT;
     }
 
     private int count( long reference )
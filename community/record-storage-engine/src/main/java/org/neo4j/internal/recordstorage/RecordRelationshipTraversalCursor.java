@@ -19,13 +19,17 @@
  */
 package org.neo4j.internal.recordstorage;
 
+import java.util.Arrays;
+
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.kernel.impl.store.RelationshipGroupStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.storageengine.api.RelationshipDirection;
 import org.neo4j.storageengine.api.StorageRelationshipTraversalCursor;
 
+import static org.apache.commons.lang3.ArrayUtils.EMPTY_LONG_ARRAY;
 import static org.neo4j.storageengine.api.RelationshipDirection.directionOfStrict;
 
 class RecordRelationshipTraversalCursor extends RecordRelationshipCursor implements StorageRelationshipTraversalCursor
@@ -295,6 +299,12 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
         this.setNextProp( buffer.nextProp );
         this.setFirstNode( buffer.firstNode );
         this.setSecondNode( buffer.secondNode );
+        PropertyRecord inlinedProperties = getInlinedProperties();
+        inlinedProperties.clear();
+        for ( long block : buffer.inlinedPropertyBlocks )
+        {
+            inlinedProperties.addLoadedBlock( block );
+        }
     }
 
     private boolean traversingDenseNode()
@@ -377,6 +387,7 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
         final long nextProp;
         final long firstNode;
         final long secondNode;
+        final long[] inlinedPropertyBlocks;
         final Record next;
 
         /*
@@ -391,6 +402,7 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
                 nextProp = record.getNextProp();
                 firstNode = record.getFirstNode();
                 secondNode = record.getSecondNode();
+                inlinedPropertyBlocks = record.hasInlinedProperties() ? inlinedPropertyBlocks( record.getInlinedProperties() ) : EMPTY_LONG_ARRAY;
             }
             else
             {
@@ -399,8 +411,14 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
                 nextProp = NO_ID;
                 firstNode = NO_ID;
                 secondNode = NO_ID;
+                inlinedPropertyBlocks = EMPTY_LONG_ARRAY;
             }
             this.next = next;
         }
+
+        private static long[] inlinedPropertyBlocks( PropertyRecord inlinedProperties )
+        {
+            return Arrays.copyOf( inlinedProperties.getBlocks(), inlinedProperties.getNumberOfBlocks() );
+        }
     }
 }
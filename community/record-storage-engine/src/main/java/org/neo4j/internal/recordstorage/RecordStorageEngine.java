@@ -423,6 +423,15 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         return files;
     }
 
+    /**
+     * @return the underlying {@link NeoStores}, for tools which need to read records of the running database directly, like the online
+     * consistency check. Records must only ever be read through it, all changes have to go through transactions.
+     */
+    public NeoStores readAccessNeoStores()
+    {
+        return neoStores;
+    }
+
     /**
      * @return the underlying {@link NeoStores} which should <strong>ONLY</strong> be accessed by tests
      * until all tests are properly converted to not rely on access to {@link NeoStores}. Currently there
@@ -863,6 +863,51 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
         }
     }
 
+    @Override
+    public void getRecordsByCursor( long[] ids, RECORD[] targets, int count, RecordLoad mode, PageCursor cursor ) throws UnderlyingStorageException
+    {
+        try
+        {
+            if ( mode == RecordLoad.NORMAL )
+            {
+                // Decoding errors and unused records are reported for a specific record in this mode, so read them one by one
+                for ( int i = 0; i < count; i++ )
+                {
+                    readIntoRecord( ids[i], targets[i], mode, cursor );
+                }
+                return;
+            }
+
+            int from = 0;
+            while ( from < count )
+            {
+                long pageId = pageIdForRecord( ids[from] );
+                int to = from + 1;
+                while ( to < count && pageIdForRecord( ids[to] ) == pageId )
+                {
+                    to++;
+                }
+                if ( cursor.next( pageId ) )
+                {
+                    readRecordsFromPage( ids, targets, from, to, mode, cursor );
+                }
+                else
+                {
+                    for ( int i = from; i < to; i++ )
+                    {
+                        targets[i].setId( ids[i] );
+                        verifyAfterNotRead( targets[i], mode );
+                    }
+                }
+                from = to;
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+    }
+
     private void readIntoRecord( long id, RECORD record, RecordLoad mode, PageCursor cursor ) throws IOException
     {
         // Mark the record with this id regardless of whether or not we load the contents of it.
@@ -926,6 +971,31 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
         verifyAfterReading( record, mode );
     }
 
+    /**
+     * Reads the records {@code [from,to)}, all residing on the page the cursor currently is at, under a single consistent read
+     * of that page. Only used for modes which don't report decoding errors, so that those need not be tied to a specific record.
+     */
+    private void readRecordsFromPage( long[] ids, RECORD[] targets, int from, int to, RecordLoad mode, PageCursor cursor ) throws IOException
+    {
+        do
+        {
+            for ( int i = from; i < to; i++ )
+            {
+                RECORD record = targets[i];
+                record.setId( ids[i] );
+                record.setInUse( false );
+                cursor.setOffset( offsetForId( ids[i] ) );
+                recordFormat.read( record, cursor, mode, recordSize );
+            }
+        }
+        while ( cursor.shouldRetry() );
+        checkForDecodingErrors( cursor, ids[from], mode );
+        for ( int i = from; i < to; i++ )
+        {
+            verifyAfterReading( targets[i], mode );
+        }
+    }
+
     @Override
     public void updateRecord( RECORD record, IdUpdateListener idUpdateListener )
     {
@@ -140,6 +140,24 @@ public interface RecordStore<RECORD extends AbstractBaseRecord> extends IdSequen
      */
     void getRecordByCursor( long id, RECORD target, RecordLoad mode, PageCursor cursor ) throws InvalidRecordException;
 
+    /**
+     * Reads multiple records from the store into {@code targets}, the record with id {@code ids[i]} into {@code targets[i]},
+     * see {@link RecordStore#getRecord(long, AbstractBaseRecord, RecordLoad)}.
+     * <p>
+     * The provided page cursor will be used to get the records. Consecutive ids residing on the same page will be read
+     * in one go from that page, so ids should preferably be sorted. Compared to calling
+     * {@link #getRecordByCursor(long, AbstractBaseRecord, RecordLoad, PageCursor)} once per id this avoids some
+     * per-record overhead, mostly checking with the page cache whether or not the read was consistent.
+     *
+     * @param ids the record ids, understood to be the absolute references to the store.
+     * @param targets the records to fill, at least {@code count} of them.
+     * @param count number of ids to read, starting from the first one.
+     * @param mode loading behaviour, read more in {@link RecordStore#getRecord(long, AbstractBaseRecord, RecordLoad)}.
+     * @param cursor the PageCursor to use for record loading.
+     * @throws InvalidRecordException if a record is not in use and the {@code mode} allows for throwing.
+     */
+    void getRecordsByCursor( long[] ids, RECORD[] targets, int count, RecordLoad mode, PageCursor cursor ) throws InvalidRecordException;
+
     /**
      * Reads a record from the store into {@code target}, see
      * {@link RecordStore#getRecord(long, AbstractBaseRecord, RecordLoad)}.
@@ -321,6 +339,12 @@ public interface RecordStore<RECORD extends AbstractBaseRecord> extends IdSequen
             actual.getRecordByCursor( id, target, mode, cursor );
         }
 
+        @Override
+        public void getRecordsByCursor( long[] ids, R[] targets, int count, RecordLoad mode, PageCursor cursor ) throws InvalidRecordException
+        {
+            actual.getRecordsByCursor( ids, targets, count, mode, cursor );
+        }
+
         @Override
         public void nextRecordByCursor( R target, RecordLoad mode, PageCursor cursor ) throws InvalidRecordException
         {
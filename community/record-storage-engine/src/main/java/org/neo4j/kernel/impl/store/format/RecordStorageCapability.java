@@ -77,6 +77,11 @@ public enum RecordStorageCapability implements Capability
      * ID files (neostore.xyz.id) are backed by {@link GBPTree}, transactional and recoverable.
      */
     GBPTREE_ID_FILES( false, CapabilityType.STORE ),
+
+    /**
+     * Node and relationship records can hold a few property blocks themselves, in front of their property chain.
+     */
+    INLINED_PROPERTIES( CapabilityType.FORMAT, CapabilityType.STORE ),
     GBPTREE_COUNTS_STORE( CapabilityType.STORE );
 
     private final CapabilityType[] types;
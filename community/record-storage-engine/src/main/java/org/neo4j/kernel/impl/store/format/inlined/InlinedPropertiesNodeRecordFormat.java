@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.format.inlined;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.impl.store.format.standard.NodeRecordFormat;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
+
+public class InlinedPropertiesNodeRecordFormat extends NodeRecordFormat
+{
+    // standard node record(15)+inlined_property_blocks(32)
+    public static final int RECORD_SIZE = NodeRecordFormat.RECORD_SIZE + InlinedPropertyBlocks.SIZE;
+
+    public InlinedPropertiesNodeRecordFormat()
+    {
+        super( RECORD_SIZE );
+    }
+
+    @Override
+    public void read( NodeRecord record, PageCursor cursor, RecordLoad mode, int recordSize )
+    {
+        super.read( record, cursor, mode, recordSize );
+        if ( mode.shouldLoad( record.inUse() ) )
+        {
+            InlinedPropertyBlocks.read( record, cursor );
+        }
+    }
+
+    @Override
+    public void write( NodeRecord record, PageCursor cursor, int recordSize )
+    {
+        super.write( record, cursor, recordSize );
+        if ( record.inUse() )
+        {
+            InlinedPropertyBlocks.write( record, cursor );
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.format.inlined;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.record.PrimitiveRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+
+/**
+ * Reads and writes the area of {@link PropertyType#getPayloadSize()} bytes which node and relationship records of
+ * {@link InlinedPropertiesV4_0} have after their standard fields. The area is laid out like the payload of a property record:
+ * the value blocks of the inlined properties, followed by a zero block if the area isn't full.
+ */
+final class InlinedPropertyBlocks
+{
+    static final int SIZE = PropertyType.getPayloadSize();
+
+    private InlinedPropertyBlocks()
+    {
+    }
+
+    static void read( PrimitiveRecord record, PageCursor cursor )
+    {
+        int offsetAtBeginning = cursor.getOffset();
+        readBlocks( record, cursor );
+        // Leave the cursor at the end of the record, regardless of how many blocks there were
+        cursor.setOffset( offsetAtBeginning + SIZE );
+    }
+
+    private static void readBlocks( PrimitiveRecord record, PageCursor cursor )
+    {
+        int capacity = PropertyType.getPayloadSizeLongs();
+        int read = 0;
+        while ( read < capacity )
+        {
+            long block = cursor.getLong();
+            read++;
+            PropertyType type = PropertyType.getPropertyTypeOrNull( block );
+            if ( type == null )
+            {
+                // Inlined blocks are always kept defragged
+                break;
+            }
+
+            int numberOfBlocksUsed = type.calculateNumberOfBlocksUsed( block );
+            if ( numberOfBlocksUsed == PropertyType.BLOCKS_USED_FOR_BAD_TYPE_OR_ENCODING )
+            {
+                cursor.setCursorException( "Invalid type or encoding of inlined property block: " + block + " (type = " + type + ")" );
+                return;
+            }
+            int additionalBlocks = numberOfBlocksUsed - 1;
+            if ( read + additionalBlocks > capacity )
+            {
+                cursor.setCursorException( "Record claims to have more inlined property blocks than can fit in it" );
+                return;
+            }
+            PropertyRecord inlined = record.getInlinedProperties();
+            inlined.addLoadedBlock( block );
+            while ( additionalBlocks-- > 0 )
+            {
+                inlined.addLoadedBlock( cursor.getLong() );
+                read++;
+            }
+        }
+    }
+
+    static void write( PrimitiveRecord record, PageCursor cursor )
+    {
+        int longsAppended = 0; // For marking the end of blocks
+        if ( record.hasInlinedProperties() )
+        {
+            for ( PropertyBlock block : record.getInlinedProperties() )
+            {
+                for ( long propBlockValue : block.getValueBlocks() )
+                {
+                    cursor.putLong( propBlockValue );
+                }
+                longsAppended += block.getValueBlocks().length;
+            }
+        }
+        if ( longsAppended < PropertyType.getPayloadSizeLongs() )
+        {
+            cursor.putLong( 0 );
+        }
+    }
+}
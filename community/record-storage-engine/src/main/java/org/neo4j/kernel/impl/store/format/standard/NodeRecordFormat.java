@@ -33,7 +33,12 @@ public class NodeRecordFormat extends BaseOneByteHeaderRecordFormat<NodeRecord>
 
     public NodeRecordFormat()
     {
-        super( fixedRecordSize( RECORD_SIZE ), 0, IN_USE_BIT, StandardFormatSettings.NODE_MAXIMUM_ID_BITS );
+        this( RECORD_SIZE );
+    }
+
+    protected NodeRecordFormat( int recordSize )
+    {
+        super( fixedRecordSize( recordSize ), 0, IN_USE_BIT, StandardFormatSettings.NODE_MAXIMUM_ID_BITS );
     }
 
     @Override
@@ -153,6 +153,7 @@ public class NodeRecord extends PrimitiveRecord
                ",created=" + isCreated() +
                "," + denseInfo +
                ",prop=" + getNextProp() +
+               (hasInlinedProperties() ? ",inlined=" + getInlinedProperties() : "") +
                ",labels=" + parseLabelsField( this ) +
                "," + lightHeavyInfo +
                ",secondaryUnitId=" + getSecondaryUnitId() + "]";
@@ -164,6 +165,12 @@ public class NodeRecord extends PrimitiveRecord
         property.setNodeId( getId() );
     }
 
+    @Override
+    public boolean canHaveInlinedProperties()
+    {
+        return true;
+    }
+
     @Override
     public NodeRecord clone()
     {
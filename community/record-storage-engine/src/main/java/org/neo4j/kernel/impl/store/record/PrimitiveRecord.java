@@ -19,11 +19,20 @@
  */
 package org.neo4j.kernel.impl.store.record;
 
+import java.util.Arrays;
 import java.util.Objects;
 
+import org.neo4j.kernel.impl.store.PropertyType;
+
+import static org.apache.commons.lang3.ArrayUtils.EMPTY_LONG_ARRAY;
+
 public abstract class PrimitiveRecord extends AbstractBaseRecord
 {
     protected long nextProp;
+    // Property blocks kept in this record itself, in front of the property chain. Only record formats
+    // with inlined properties store these, and only for entities which can have them, see canHaveInlinedProperties().
+    // Allocated on first use since most records, and all records of other formats, never have any.
+    private PropertyRecord inlinedProperties;
 
     PrimitiveRecord( long id )
     {
@@ -42,12 +51,14 @@ public abstract class PrimitiveRecord extends AbstractBaseRecord
     {
         super.clear();
         nextProp = Record.NO_NEXT_PROPERTY.intValue();
+        clearInlinedProperties();
     }
 
     protected PrimitiveRecord initialize( boolean inUse, long nextProp )
     {
         super.initialize( inUse );
         this.nextProp = nextProp;
+        clearInlinedProperties();
         return this;
     }
 
@@ -63,10 +74,82 @@ public abstract class PrimitiveRecord extends AbstractBaseRecord
 
     public abstract void setIdTo( PropertyRecord property );
 
+    /**
+     * @return whether or not this kind of entity can keep property blocks in its own record, given a record format which supports it.
+     */
+    public boolean canHaveInlinedProperties()
+    {
+        return false;
+    }
+
+    /**
+     * @return whether or not this record has any property blocks inlined in it.
+     */
+    public boolean hasInlinedProperties()
+    {
+        return inlinedProperties != null && inlinedProperties.hasBlocks();
+    }
+
+    /**
+     * The property blocks inlined in this record, which precede the blocks of the property chain starting at {@link #getNextProp()}.
+     * The returned record is only a container of blocks and is itself never stored, it is always in use and its id and chain links carry no meaning.
+     *
+     * @return the inlined property blocks of this record, allocated on first access.
+     */
+    public PropertyRecord getInlinedProperties()
+    {
+        if ( inlinedProperties == null )
+        {
+            inlinedProperties = new PropertyRecord( Record.NULL_REFERENCE.longValue() );
+            inlinedProperties.setInUse( true );
+            setIdTo( inlinedProperties );
+        }
+        return inlinedProperties;
+    }
+
+    private void clearInlinedProperties()
+    {
+        if ( inlinedProperties != null )
+        {
+            inlinedProperties.clear();
+            inlinedProperties.setInUse( true );
+            setIdTo( inlinedProperties );
+        }
+    }
+
+    private long[] inlinedValueBlocks()
+    {
+        if ( !hasInlinedProperties() )
+        {
+            return EMPTY_LONG_ARRAY;
+        }
+        long[] values = new long[PropertyType.getPayloadSizeLongs()];
+        int cursor = 0;
+        for ( PropertyBlock block : inlinedProperties )
+        {
+            for ( long value : block.getValueBlocks() )
+            {
+                values[cursor++] = value;
+            }
+        }
+        return Arrays.copyOf( values, cursor );
+    }
+
+    @Override
+    public PrimitiveRecord clone()
+    {
+        PrimitiveRecord clone = (PrimitiveRecord) super.clone();
+        if ( inlinedProperties != null )
+        {
+            clone.inlinedProperties = inlinedProperties.clone();
+        }
+        return clone;
+    }
+
     @Override
     public int hashCode()
     {
-        return Objects.hash( super.hashCode(), nextProp );
+        return Objects.hash( super.hashCode(), nextProp, Arrays.hashCode( inlinedValueBlocks() ) );
     }
 
     @Override
@@ -77,6 +160,6 @@ public abstract class PrimitiveRecord extends AbstractBaseRecord
             return false;
         }
         PrimitiveRecord other = (PrimitiveRecord) obj;
-        return nextProp == other.nextProp;
+        return nextProp == other.nextProp && Arrays.equals( inlinedValueBlocks(), other.inlinedValueBlocks() );
     }
 }
@@ -182,6 +182,14 @@ public class PropertyRecord extends AbstractBaseRecord implements Iterable<Prope
         return result;
     }
 
+    /**
+     * @return whether or not this record has any blocks, without constructing {@link PropertyBlock} instances for loaded blocks.
+     */
+    public boolean hasBlocks()
+    {
+        return blocksLoaded ? blockRecordsCursor > 0 : blocksCursor > 0;
+    }
+
     public int numberOfProperties()
     {
         ensureBlocksLoaded();
@@ -201,6 +201,7 @@ public class RelationshipRecord extends PrimitiveRecord
                (firstInSecondChain ? ",tCount=" : ",tPrev=") + secondPrevRel +
                ",tNext=" + secondNextRel +
                ",prop=" + getNextProp() +
+               (hasInlinedProperties() ? ",inlined=" + getInlinedProperties() : "") +
                ",secondaryUnitId=" + getSecondaryUnitId() +
                (firstInFirstChain ? ", sFirst" : ",!sFirst") +
                (firstInSecondChain ? ", tFirst" : ",!tFirst") + "]";
@@ -218,6 +219,12 @@ public class RelationshipRecord extends PrimitiveRecord
         property.setRelId( getId() );
     }
 
+    @Override
+    public boolean canHaveInlinedProperties()
+    {
+        return true;
+    }
+
     @Override
     public boolean equals( Object o )
     {
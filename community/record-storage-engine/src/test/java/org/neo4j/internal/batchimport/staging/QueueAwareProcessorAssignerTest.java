@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.staging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import org.neo4j.internal.batchimport.Configuration;
+import org.neo4j.internal.batchimport.stats.Keys;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.neo4j.internal.batchimport.staging.ControlledStep.stepWithStats;
+import static org.neo4j.internal.batchimport.staging.QueueAwareProcessorAssigner.IDLE_CHECKS_BEFORE_REMOVAL;
+
+class QueueAwareProcessorAssignerTest
+{
+    @Test
+    void shouldAssignProcessorsToStepWithLongestQueue()
+    {
+        // GIVEN
+        Configuration config = config( 10 );
+        QueueAwareProcessorAssigner assigner = new QueueAwareProcessorAssigner( config );
+
+        ControlledStep<?> queuedStep = stepWithStats( "queued", 0,
+                Keys.received_batches, 16L, Keys.done_batches, 10L, Keys.avg_processing_time, 10L );
+        ControlledStep<?> drainedStep = stepWithStats( "drained", 0,
+                Keys.received_batches, 10L, Keys.done_batches, 10L, Keys.avg_processing_time, 10L );
+
+        StageExecution execution = executionOf( config, queuedStep, drainedStep );
+        assigner.start( execution );
+
+        // WHEN
+        assigner.check( execution );
+
+        // THEN the six queued batches warrant three more processors
+        assertEquals( 4, queuedStep.processors( 0 ) );
+        assertEquals( 1, drainedStep.processors( 0 ) );
+    }
+
+    @Test
+    void shouldPreferLongestDrainTimeOverLongestQueue()
+    {
+        // GIVEN
+        Configuration config = config( 10 );
+        QueueAwareProcessorAssigner assigner = new QueueAwareProcessorAssigner( config );
+
+        ControlledStep<?> longQueueStep = stepWithStats( "long queue", 0,
+                Keys.received_batches, 20L, Keys.done_batches, 10L, Keys.avg_processing_time, 1L );
+        ControlledStep<?> slowStep = stepWithStats( "slow", 0,
+                Keys.received_batches, 12L, Keys.done_batches, 10L, Keys.avg_processing_time, 100L );
+
+        StageExecution execution = executionOf( config, longQueueStep, slowStep );
+        assigner.start( execution );
+
+        // WHEN
+        assigner.check( execution );
+
+        // THEN
+        assertEquals( 1, longQueueStep.processors( 0 ) );
+        assertEquals( 2, slowStep.processors( 0 ) );
+    }
+
+    @Test
+    void shouldNotChangeStepAgainUntilAllItsProcessorsHaveCompletedBatches()
+    {
+        // GIVEN
+        Configuration config = config( 20 );
+        QueueAwareProcessorAssigner assigner = new QueueAwareProcessorAssigner( config );
+
+        ControlledStep<?> step = stepWithStats( "step", 0,
+                Keys.received_batches, 20L, Keys.done_batches, 10L, Keys.avg_processing_time, 10L );
+        StageExecution execution = executionOf( config, step );
+        assigner.start( execution );
+        assigner.check( execution );
+        assertEquals( 6, step.processors( 0 ) );
+
+        // WHEN checking again before the new processors have had an effect
+        step.setStat( Keys.done_batches, 13L );
+        assigner.check( execution );
+
+        // THEN
+        assertEquals( 6, step.processors( 0 ) );
+
+        // and WHEN all processors have completed a batch since the change
+        step.setStat( Keys.received_batches, 30L );
+        step.setStat( Keys.done_batches, 16L );
+        assigner.check( execution );
+
+        // THEN
+        assertEquals( 7, step.processors( 0 ) );
+    }
+
+    @Test
+    void shouldRemoveProcessorFromStepIdleForMultipleChecks()
+    {
+        // GIVEN
+        Configuration config = config( 3 );
+        QueueAwareProcessorAssigner assigner = new QueueAwareProcessorAssigner( config );
+
+        ControlledStep<?> busyStep = stepWithStats( "busy", 1,
+                Keys.received_batches, 20L, Keys.done_batches, 10L, Keys.avg_processing_time, 10L );
+        ControlledStep<?> idleStep = spy( stepWithStats( "idle", 0,
+                Keys.received_batches, 10L, Keys.done_batches, 10L, Keys.avg_processing_time, 1L )
+                .setProcessors( 1 ) );
+
+        StageExecution execution = executionOf( config, busyStep, idleStep );
+        assigner.start( execution );
+
+        // WHEN
+        for ( int i = 0; i < IDLE_CHECKS_BEFORE_REMOVAL - 1; i++ )
+        {
+            assigner.check( execution );
+        }
+
+        // THEN an idle period that short is tolerated
+        verify( idleStep, never() ).processors( -1 );
+
+        // and WHEN
+        assigner.check( execution );
+
+        // THEN
+        verify( idleStep ).processors( -1 );
+        assertEquals( 1, idleStep.processors( 0 ) );
+    }
+
+    private Configuration config( int processors )
+    {
+        return new Configuration()
+        {
+            @Override
+            public int maxNumberOfProcessors()
+            {
+                return processors;
+            }
+        };
+    }
+
+    private StageExecution executionOf( Configuration config, Step<?>... steps )
+    {
+        return new StageExecution( "Test", null, config, Arrays.asList( steps ), Step.ORDER_SEND_DOWNSTREAM );
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.staging;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+import org.neo4j.internal.batchimport.Configuration;
+import org.neo4j.internal.batchimport.stats.Keys;
+import org.neo4j.time.Clocks;
+import org.neo4j.time.FakeClock;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StepUtilizationTimelineTest
+{
+    private final FakeClock clock = Clocks.fakeClock();
+
+    @Test
+    void shouldCalculateUtilizationFromBusyTimeSincePreviousSample()
+    {
+        // GIVEN
+        ControlledStep<?> step = new ControlledStep<>( "step", 0, 2 );
+        step.setStat( Keys.busy_time, 0 );
+        StageExecution execution = executionOf( step );
+        StepUtilizationTimeline timeline = new StepUtilizationTimeline( clock, 1, SECONDS );
+        timeline.start( execution );
+
+        // WHEN
+        timeline.check( execution );
+        clock.forward( 1, SECONDS );
+        step.setStat( Keys.busy_time, SECONDS.toNanos( 1 ) );
+        timeline.check( execution );
+        clock.forward( 1, SECONDS );
+        step.setStat( Keys.busy_time, SECONDS.toNanos( 3 ) );
+        timeline.check( execution );
+        clock.forward( 1, SECONDS );
+        timeline.check( execution );
+
+        // THEN one of two processors busy, then both, then none
+        List<StepUtilizationTimeline.Sample> samples = timeline.timelines().get( "Test" );
+        assertEquals( 4, samples.size() );
+        assertEquals( 0f, samples.get( 0 ).utilization() );
+        assertEquals( 0.5f, samples.get( 1 ).utilization() );
+        assertEquals( 1f, samples.get( 2 ).utilization() );
+        assertEquals( 0f, samples.get( 3 ).utilization() );
+        assertEquals( 3_000, samples.get( 3 ).timeMillis() );
+        assertEquals( 2, samples.get( 3 ).processors() );
+    }
+
+    @Test
+    void shouldNotUseMovingProcessingTimeWindowForUtilization()
+    {
+        // GIVEN a step whose processing time window has moved on to cover fewer, faster batches
+        ControlledStep<?> step = new ControlledStep<>( "step", 0, 1 );
+        step.setStat( Keys.total_processing_time, MILLISECONDS.toNanos( 800 ) );
+        step.setStat( Keys.busy_time, MILLISECONDS.toNanos( 800 ) );
+        StageExecution execution = executionOf( step );
+        StepUtilizationTimeline timeline = new StepUtilizationTimeline( clock, 1, SECONDS );
+        timeline.start( execution );
+        timeline.check( execution );
+
+        // WHEN
+        clock.forward( 1, SECONDS );
+        step.setStat( Keys.total_processing_time, MILLISECONDS.toNanos( 200 ) );
+        step.setStat( Keys.busy_time, MILLISECONDS.toNanos( 1_700 ) );
+        timeline.check( execution );
+
+        // THEN
+        assertEquals( 0.9f, timeline.timelines().get( "Test" ).get( 1 ).utilization(), 0.0001f );
+    }
+
+    @Test
+    void shouldIncludeQueuedBatches()
+    {
+        // GIVEN
+        ControlledStep<?> step = new ControlledStep<>( "step", 0, 1 );
+        step.setStat( Keys.received_batches, 10 );
+        step.setStat( Keys.done_batches, 4 );
+        StageExecution execution = executionOf( step );
+        StepUtilizationTimeline timeline = new StepUtilizationTimeline( clock, 1, SECONDS );
+        timeline.start( execution );
+
+        // WHEN
+        timeline.check( execution );
+
+        // THEN
+        assertEquals( 6, timeline.timelines().get( "Test" ).get( 0 ).queuedBatches() );
+    }
+
+    @Test
+    void shouldPrintTimelineOfStageWhenItEnds()
+    {
+        // GIVEN
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ControlledStep<?> step = new ControlledStep<>( "my-step", 0, 1 );
+        StageExecution execution = executionOf( step );
+        StepUtilizationTimeline timeline = new StepUtilizationTimeline( clock, 1, SECONDS, new PrintStream( output, true ) );
+        timeline.start( execution );
+        timeline.check( execution );
+        clock.forward( 1, SECONDS );
+
+        // WHEN
+        timeline.end( execution, 1_000 );
+
+        // THEN
+        assertEquals( 2, timeline.timelines().get( "Test" ).size() );
+        String printed = output.toString();
+        assertThat( printed, containsString( "Test" ) );
+        assertThat( printed, containsString( "my-step" ) );
+        assertThat( printed, containsString( "1000ms" ) );
+    }
+
+    private static StageExecution executionOf( Step<?>... steps )
+    {
+        return new StageExecution( "Test", null, Configuration.DEFAULT, List.of( steps ), Step.ORDER_SEND_DOWNSTREAM );
+    }
+}
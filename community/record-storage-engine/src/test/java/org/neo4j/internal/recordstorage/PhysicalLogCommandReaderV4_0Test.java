@@ -28,10 +28,12 @@ import java.util.concurrent.ThreadLocalRandom;
 import org.neo4j.internal.schema.IndexPrototype;
 import org.neo4j.internal.schema.SchemaDescriptor;
 import org.neo4j.internal.schema.SchemaRule;
+import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.PropertyType;
 import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
 import org.neo4j.kernel.impl.store.record.LabelTokenRecord;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyKeyTokenRecord;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
@@ -40,8 +42,11 @@ import org.neo4j.kernel.impl.store.record.RelationshipTypeTokenRecord;
 import org.neo4j.kernel.impl.store.record.SchemaRecord;
 import org.neo4j.kernel.impl.transaction.log.InMemoryClosableChannel;
 import org.neo4j.storageengine.api.CommandReader;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.internal.recordstorage.PhysicalLogCommandReaderV4_0.markAfterRecordAsCreatedIfCommandLooksCreated;
 
@@ -376,6 +381,56 @@ class PhysicalLogCommandReaderV4_0Test
         assertTrue( nodeCommand.getAfter().isUseFixedReferences() );
     }
 
+    @Test
+    void nodeCommandWithInlinedProperties() throws Exception
+    {
+        // Given
+        InMemoryClosableChannel channel = new InMemoryClosableChannel();
+        NodeRecord before = new NodeRecord( 42, true, false, 33, 99, 66 );
+        before.getInlinedProperties().addPropertyBlock( propertyBlock( 1, Values.intValue( 10 ) ) );
+        NodeRecord after = new NodeRecord( 42, true, false, 33, 99, 66 );
+        after.getInlinedProperties().addPropertyBlock( propertyBlock( 1, Values.intValue( 11 ) ) );
+        after.getInlinedProperties().addPropertyBlock( propertyBlock( 2, Values.longValue( Long.MAX_VALUE ) ) );
+
+        new Command.NodeCommand( before, after ).serialize( channel );
+
+        // When
+        BaseCommandReader reader = createReader();
+        Command command = reader.read( channel );
+        assertTrue( command instanceof Command.NodeCommand );
+
+        Command.NodeCommand nodeCommand = (Command.NodeCommand) command;
+
+        // Then
+        assertBeforeAndAfterEquals( nodeCommand, before, after );
+        assertEquals( 1, nodeCommand.getBefore().getInlinedProperties().numberOfProperties() );
+        assertEquals( 2, nodeCommand.getAfter().getInlinedProperties().numberOfProperties() );
+    }
+
+    @Test
+    void relationshipCommandWithInlinedPropertiesRemovedOnDelete() throws Exception
+    {
+        // Given
+        InMemoryClosableChannel channel = new InMemoryClosableChannel();
+        RelationshipRecord before = new RelationshipRecord( 42, true, 1, 2, 3, 4, 5, 6, 7, true, true );
+        before.getInlinedProperties().addPropertyBlock( propertyBlock( 1, Values.booleanValue( true ) ) );
+        RelationshipRecord after = new RelationshipRecord( 42, -1, -1, -1 );
+
+        new Command.RelationshipCommand( before, after ).serialize( channel );
+
+        // When
+        BaseCommandReader reader = createReader();
+        Command command = reader.read( channel );
+        assertTrue( command instanceof Command.RelationshipCommand );
+
+        Command.RelationshipCommand relationshipCommand = (Command.RelationshipCommand) command;
+
+        // Then
+        assertBeforeAndAfterEquals( relationshipCommand, before, after );
+        assertTrue( relationshipCommand.getBefore().hasInlinedProperties() );
+        assertFalse( relationshipCommand.getAfter().hasInlinedProperties() );
+    }
+
     @Test
     void readPropertyCommandWithSecondaryUnit() throws IOException
     {
@@ -507,6 +562,13 @@ class PhysicalLogCommandReaderV4_0Test
         return record;
     }
 
+    private static PropertyBlock propertyBlock( int key, Value value )
+    {
+        PropertyBlock block = new PropertyBlock();
+        PropertyStore.encodeValue( block, key, value, null, null, true );
+        return block;
+    }
+
     private BaseCommandReader createReader()
     {
         return new PhysicalLogCommandReaderV4_0();
@@ -318,6 +318,72 @@ class PropertyCreatorTest
         assertEquals( propCount + 1, propertyRecordsInUse() );
     }
 
+    @Test
+    void shouldInlineSmallPropertiesWhenEnabled()
+    {
+        // GIVEN
+        existingChain();
+        long propCount = propertyRecordsInUse();
+
+        // WHEN
+        setInlinedProperty( 0, 10 );
+        setInlinedProperty( 1, "short" );
+
+        // THEN
+        assertInlined( record( property( 0, 10 ), property( 1, "short" ) ) );
+        assertChain();
+        assertEquals( Record.NO_NEXT_PROPERTY.longValue(), primitive.record.getNextProp() );
+        assertEquals( propCount, propertyRecordsInUse() );
+    }
+
+    @Test
+    void shouldPutPropertiesWhichAreDynamicOrDoNotFitInlinedInChain()
+    {
+        // GIVEN
+        existingChain();
+        String longString = "this is a really long string, believe me!";
+
+        // WHEN
+        setInlinedProperty( 0, longString );
+        setInlinedProperty( 1, Long.MAX_VALUE );
+        setInlinedProperty( 2, Long.MIN_VALUE );
+        setInlinedProperty( 3, Long.MAX_VALUE - 1 );
+
+        // THEN
+        assertInlined( record( property( 1, Long.MAX_VALUE ), property( 2, Long.MIN_VALUE ) ) );
+        assertChain( record( property( 0, longString, true ), property( 3, Long.MAX_VALUE - 1 ) ) );
+    }
+
+    @Test
+    void shouldMoveInlinedPropertyToChainWhenChangedToDynamicValue()
+    {
+        // GIVEN
+        existingChain();
+        setInlinedProperty( 0, 1 );
+        String longString = "this is a really long string, believe me!";
+
+        // WHEN
+        setInlinedProperty( 0, longString );
+
+        // THEN
+        assertInlined( record() );
+        assertChain( record( property( 0, longString, true ) ) );
+    }
+
+    @Test
+    void shouldChangePropertyInChainRatherThanInliningIt()
+    {
+        // GIVEN
+        existingChain( record( property( 0, "one" ), property( 1, 1 ) ) );
+
+        // WHEN
+        setInlinedProperty( 1, 2 );
+
+        // THEN
+        assertInlined( record() );
+        assertChain( record( property( 0, "one" ), property( 1, 2 ) ) );
+    }
+
     private void existingChain( ExpectedRecord... initialRecords )
     {
         PropertyRecord prev = null;
@@ -359,6 +425,11 @@ class PropertyCreatorTest
         creator.primitiveSetProperty( primitive, key, Values.of( value ), records );
     }
 
+    private void setInlinedProperty( int key, Object value )
+    {
+        new PropertyCreator( propertyStore, new PropertyTraverser(), true ).primitiveSetProperty( primitive, key, Values.of( value ), records );
+    }
+
     private void assertChain( ExpectedRecord... expectedRecords )
     {
         long nextProp = primitive.forReadingLinkage().getNextProp();
@@ -371,6 +442,11 @@ class PropertyCreatorTest
         }
     }
 
+    private void assertInlined( ExpectedRecord expectedRecord )
+    {
+        assertRecord( primitive.forReadingData().getInlinedProperties(), expectedRecord );
+    }
+
     private void assertRecord( PropertyRecord record, ExpectedRecord expectedRecord )
     {
         assertEquals( expectedRecord.properties.length, record.numberOfProperties() );
@@ -22,6 +22,8 @@ package org.neo4j.internal.recordstorage;
 import org.junit.jupiter.api.Test;
 
 import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.RelationshipGroupStore;
+import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -57,7 +59,7 @@ class RecordNodeCursorTest
             record.initialize( record.getId() == 200, 1L, false, 1L, 0L );
             return null;
         } ).when( nodeStore ).nextRecordByCursor( any(), any(), any() );
-        RecordNodeCursor cursor = new RecordNodeCursor( nodeStore );
+        RecordNodeCursor cursor = new RecordNodeCursor( nodeStore, mock( RelationshipStore.class ), mock( RelationshipGroupStore.class ) );
 
         // when
         cursor.scan();
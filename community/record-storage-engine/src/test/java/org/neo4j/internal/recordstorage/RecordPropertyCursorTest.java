@@ -36,8 +36,11 @@ import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.format.inlined.InlinedPropertiesV4_0;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
 import org.neo4j.logging.NullLogProvider;
 import org.neo4j.test.extension.EphemeralNeo4jLayoutExtension;
 import org.neo4j.test.extension.Inject;
@@ -47,9 +50,14 @@ import org.neo4j.test.rule.RandomRule;
 import org.neo4j.values.storable.Value;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
 import static org.neo4j.internal.helpers.collection.Iterators.iterator;
+import static org.neo4j.values.storable.Values.booleanValue;
+import static org.neo4j.values.storable.Values.intValue;
+import static org.neo4j.values.storable.Values.longValue;
+import static org.neo4j.values.storable.Values.stringValue;
 
 @EphemeralPageCacheExtension
 @EphemeralNeo4jLayoutExtension
@@ -112,6 +120,40 @@ class RecordPropertyCursorTest
         assertPropertyChain( valuesB, firstPropertyIdB, cursor );
     }
 
+    @Test
+    void shouldReadInlinedPropertiesFollowedByPropertyChain()
+    {
+        DatabaseLayout inlinedLayout = databaseLayout.getNeo4jLayout().databaseLayout( "inlined" );
+        try ( NeoStores inlinedStores = new StoreFactory( inlinedLayout, Config.defaults(), idGeneratorFactory, pageCache, fs,
+                InlinedPropertiesV4_0.RECORD_FORMATS, NullLogProvider.getInstance() ).openAllNeoStores( true ) )
+        {
+            // given a node with more properties than can be inlined, strings never being inlined
+            Value[] values = {intValue( 1 ), stringValue( "two" ), longValue( Long.MAX_VALUE ), booleanValue( true ), longValue( Long.MIN_VALUE )};
+            PropertyCreator inliningCreator = new PropertyCreator( inlinedStores.getPropertyStore(), new PropertyTraverser(), true );
+            DirectRecordAccessSet access = new DirectRecordAccessSet( inlinedStores, idGeneratorFactory );
+            long nodeId = inlinedStores.getNodeStore().nextId();
+            RecordAccess.RecordProxy<NodeRecord,Void> node = access.getNodeRecords().create( nodeId, null );
+            node.forChangingData().setInUse( true );
+            for ( int key = 0; key < values.length; key++ )
+            {
+                inliningCreator.primitiveSetProperty( node, key, values[key], access.getPropertyRecords() );
+            }
+            access.close();
+
+            NodeRecord stored = inlinedStores.getNodeStore().getRecord( nodeId, inlinedStores.getNodeStore().newRecord(), RecordLoad.NORMAL );
+            assertTrue( stored.hasInlinedProperties() );
+            assertNotEquals( Record.NO_NEXT_PROPERTY.longValue(), stored.getNextProp() );
+
+            // when
+            try ( RecordPropertyCursor cursor = new RecordPropertyCursor( inlinedStores.getPropertyStore(), inlinedStores.getNodeStore(),
+                    inlinedStores.getRelationshipStore() ) )
+            {
+                // then
+                assertPropertyChain( values, RecordPropertyCursor.inlinedPropertiesReference( nodeId ), cursor );
+            }
+        }
+    }
+
     @Test
     void closeShouldBeIdempotent()
     {
@@ -127,7 +169,7 @@ class RecordPropertyCursorTest
 
     private RecordPropertyCursor createCursor()
     {
-        return new RecordPropertyCursor( neoStores.getPropertyStore() );
+        return new RecordPropertyCursor( neoStores.getPropertyStore(), neoStores.getNodeStore(), neoStores.getRelationshipStore() );
     }
 
     private static void assertPropertyChain( Value[] values, long firstPropertyId, RecordPropertyCursor cursor )
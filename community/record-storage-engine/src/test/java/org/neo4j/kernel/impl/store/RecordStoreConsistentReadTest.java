@@ -23,6 +23,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import java.lang.reflect.Array;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.neo4j.configuration.Config;
@@ -30,6 +31,7 @@ import org.neo4j.internal.id.DefaultIdGeneratorFactory;
 import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
 import org.neo4j.kernel.impl.store.record.RecordLoad;
 import org.neo4j.logging.NullLogProvider;
@@ -102,6 +104,21 @@ abstract class RecordStoreConsistentReadTest<R extends AbstractBaseRecord, S ext
         return store.getRecord( id, store.newRecord(), RecordLoad.FORCE );
     }
 
+    @SuppressWarnings( "unchecked" )
+    R[] getForceBatch( S store, long... ids )
+    {
+        R[] records = (R[]) Array.newInstance( store.newRecord().getClass(), ids.length );
+        for ( int i = 0; i < ids.length; i++ )
+        {
+            records[i] = store.newRecord();
+        }
+        try ( PageCursor cursor = store.openPageCursorForReading( ids[0] ) )
+        {
+            store.getRecordsByCursor( ids, records, ids.length, RecordLoad.FORCE, cursor );
+        }
+        return records;
+    }
+
     @Test
     void mustReadExistingRecord()
     {
@@ -195,4 +212,28 @@ abstract class RecordStoreConsistentReadTest<R extends AbstractBaseRecord, S ext
             assertRecordsEqual( record, createExistingRecord( true ) );
         }
     }
+
+    @Test
+    void mustForceReadBatchOfExistingAndNonExistingRecords()
+    {
+        try ( NeoStores neoStores = storeFixture() )
+        {
+            S store = getStore( neoStores );
+            R[] records = getForceBatch( store, ID, ID + 1 );
+            assertRecordsEqual( records[0], createExistingRecord( true ) );
+            assertRecordsEqual( records[1], createNullRecord( ID + 1 ) );
+        }
+    }
+
+    @Test
+    void mustRetryInconsistentBatchReads()
+    {
+        try ( NeoStores neoStores = storeFixture() )
+        {
+            S store = getStore( neoStores );
+            nextReadIsInconsistent.set( true );
+            R[] records = getForceBatch( store, ID );
+            assertRecordsEqual( records[0], createExistingRecord( true ) );
+        }
+    }
 }
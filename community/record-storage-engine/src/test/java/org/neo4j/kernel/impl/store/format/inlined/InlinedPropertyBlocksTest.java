@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.format.inlined;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.StubPageCursor;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.format.RecordFormat;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PrimitiveRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.kernel.impl.store.NoStoreHeader.NO_STORE_HEADER;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_RELATIONSHIP;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.FORCE;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.NORMAL;
+
+class InlinedPropertyBlocksTest
+{
+    private final RecordFormat<NodeRecord> nodeFormat = InlinedPropertiesV4_0.RECORD_FORMATS.node();
+    private final RecordFormat<RelationshipRecord> relationshipFormat = InlinedPropertiesV4_0.RECORD_FORMATS.relationship();
+
+    @Test
+    void shouldWriteAndReadNodeWithInlinedProperties()
+    {
+        NodeRecord node = new NodeRecord( 5 ).initialize( true, 10, false, NO_NEXT_RELATIONSHIP.longValue(), 0 );
+        inline( node, 0, Values.intValue( 42 ) );
+        inline( node, 1, Values.booleanValue( true ) );
+
+        NodeRecord read = writeAndRead( nodeFormat, node, new NodeRecord( node.getId() ) );
+
+        assertEquals( node, read );
+        assertEquals( 10, read.getNextProp() );
+        assertEquals( List.of( Values.intValue( 42 ), Values.booleanValue( true ) ), inlinedValues( read ) );
+    }
+
+    @Test
+    void shouldWriteAndReadRelationshipWithInlinedPropertiesFillingTheWholeArea()
+    {
+        RelationshipRecord relationship = new RelationshipRecord( 7 ).initialize( true, NO_NEXT_PROPERTY.longValue(), 1, 2, 3, 4, 5, 6, 7, true, true );
+        // Longs that don't fit in the key block take two blocks each, so two of them fill the area
+        inline( relationship, 0, Values.longValue( Long.MAX_VALUE ) );
+        inline( relationship, 1, Values.longValue( Long.MIN_VALUE ) );
+        assertFalse( relationship.getInlinedProperties().hasSpaceFor( block( 2, Values.byteValue( (byte) 1 ) ) ) );
+
+        RelationshipRecord read = writeAndRead( relationshipFormat, relationship, new RelationshipRecord( relationship.getId() ) );
+
+        assertEquals( relationship, read );
+        assertEquals( List.of( Values.longValue( Long.MAX_VALUE ), Values.longValue( Long.MIN_VALUE ) ), inlinedValues( read ) );
+    }
+
+    @Test
+    void shouldNotCarryOverInlinedPropertiesBetweenReads()
+    {
+        NodeRecord withProperties = new NodeRecord( 1 ).initialize( true, NO_NEXT_PROPERTY.longValue(), false, NO_NEXT_RELATIONSHIP.longValue(), 0 );
+        inline( withProperties, 0, Values.shortValue( (short) 3 ) );
+        NodeRecord withoutProperties = new NodeRecord( 2 ).initialize( true, NO_NEXT_PROPERTY.longValue(), false, NO_NEXT_RELATIONSHIP.longValue(), 0 );
+
+        NodeRecord read = writeAndRead( nodeFormat, withProperties, new NodeRecord( withProperties.getId() ) );
+        assertTrue( read.hasInlinedProperties() );
+        read.setId( withoutProperties.getId() );
+        writeAndRead( nodeFormat, withoutProperties, read );
+
+        assertFalse( read.hasInlinedProperties() );
+    }
+
+    @Test
+    void shouldSkipInlinedPropertiesOfUnusedRecords()
+    {
+        NodeRecord node = new NodeRecord( 3 ).initialize( false, NO_NEXT_PROPERTY.longValue(), false, NO_NEXT_RELATIONSHIP.longValue(), 0 );
+        int recordSize = nodeFormat.getRecordSize( NO_STORE_HEADER );
+        try ( PageCursor cursor = new StubPageCursor( 0, recordSize ) )
+        {
+            cursor.next();
+            nodeFormat.write( node, cursor, recordSize );
+
+            NodeRecord read = new NodeRecord( node.getId() );
+            cursor.setOffset( 0 );
+            nodeFormat.read( read, cursor, FORCE, recordSize );
+
+            assertFalse( read.inUse() );
+            assertFalse( read.hasInlinedProperties() );
+        }
+    }
+
+    private static <R extends PrimitiveRecord> R writeAndRead( RecordFormat<R> format, R record, R into )
+    {
+        int recordSize = format.getRecordSize( NO_STORE_HEADER );
+        try ( PageCursor cursor = new StubPageCursor( 0, recordSize ) )
+        {
+            cursor.next();
+            format.write( record, cursor, recordSize );
+            cursor.setOffset( 0 );
+            format.read( into, cursor, NORMAL, recordSize );
+            assertFalse( cursor.checkAndClearBoundsFlag() );
+            assertEquals( recordSize, cursor.getOffset() );
+            return into;
+        }
+    }
+
+    private static void inline( PrimitiveRecord record, int key, Value value )
+    {
+        record.getInlinedProperties().addPropertyBlock( block( key, value ) );
+    }
+
+    private static PropertyBlock block( int key, Value value )
+    {
+        PropertyBlock block = new PropertyBlock();
+        PropertyStore.encodeValue( block, key, value, null, null, true );
+        return block;
+    }
+
+    private static List<Value> inlinedValues( PrimitiveRecord record )
+    {
+        List<Value> values = new ArrayList<>();
+        for ( PropertyBlock block : record.getInlinedProperties() )
+        {
+            values.add( block.newPropertyValue( null ) );
+        }
+        return values;
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.http.cypher.format.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetTime;
+import java.time.ZonedDateTime;
+
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.DurationValue;
+import org.neo4j.values.storable.ValueWriter;
+
+/**
+ * Writes storable values straight into a {@link JsonGenerator}, without first converting them into objects that
+ * {@link Neo4jJsonCodec} would have to look up serializers for. The produced JSON is the same as the one the codec
+ * produces for the corresponding java objects, i.e. points as a map with type, coordinates and crs, temporal values as
+ * their ISO-8601 string, byte arrays as an array of numbers and char arrays as a single string.
+ */
+class JsonValueWriter implements ValueWriter<IOException>
+{
+    private final JsonGenerator out;
+    private StringBuilder chars;
+    private boolean inCharArray;
+
+    JsonValueWriter( JsonGenerator out )
+    {
+        this.out = out;
+    }
+
+    @Override
+    public void writeNull() throws IOException
+    {
+        out.writeNull();
+    }
+
+    @Override
+    public void writeBoolean( boolean value ) throws IOException
+    {
+        out.writeBoolean( value );
+    }
+
+    @Override
+    public void writeInteger( byte value ) throws IOException
+    {
+        out.writeNumber( value );
+    }
+
+    @Override
+    public void writeInteger( short value ) throws IOException
+    {
+        out.writeNumber( value );
+    }
+
+    @Override
+    public void writeInteger( int value ) throws IOException
+    {
+        out.writeNumber( value );
+    }
+
+    @Override
+    public void writeInteger( long value ) throws IOException
+    {
+        out.writeNumber( value );
+    }
+
+    @Override
+    public void writeFloatingPoint( float value ) throws IOException
+    {
+        out.writeNumber( value );
+    }
+
+    @Override
+    public void writeFloatingPoint( double value ) throws IOException
+    {
+        out.writeNumber( value );
+    }
+
+    @Override
+    public void writeString( String value ) throws IOException
+    {
+        out.writeString( value );
+    }
+
+    @Override
+    public void writeString( char value ) throws IOException
+    {
+        if ( inCharArray )
+        {
+            chars.append( value );
+        }
+        else
+        {
+            out.writeString( String.valueOf( value ) );
+        }
+    }
+
+    @Override
+    public void beginArray( int size, ArrayType arrayType ) throws IOException
+    {
+        if ( arrayType == ArrayType.CHAR )
+        {
+            // char arrays have always been serialized as a string
+            if ( chars == null )
+            {
+                chars = new StringBuilder( size );
+            }
+            chars.setLength( 0 );
+            inCharArray = true;
+        }
+        else
+        {
+            out.writeStartArray();
+        }
+    }
+
+    @Override
+    public void endArray() throws IOException
+    {
+        if ( inCharArray )
+        {
+            inCharArray = false;
+            out.writeString( chars.toString() );
+        }
+        else
+        {
+            out.writeEndArray();
+        }
+    }
+
+    @Override
+    public void writeByteArray( byte[] value ) throws IOException
+    {
+        out.writeStartArray();
+        for ( byte b : value )
+        {
+            out.writeNumber( b );
+        }
+        out.writeEndArray();
+    }
+
+    @Override
+    public void writePoint( CoordinateReferenceSystem crs, double[] coordinate ) throws IOException
+    {
+        out.writeStartObject();
+        out.writeStringField( "type", "Point" );
+        out.writeArrayFieldStart( "coordinates" );
+        for ( double c : coordinate )
+        {
+            out.writeNumber( c );
+        }
+        out.writeEndArray();
+        out.writeObjectFieldStart( "crs" );
+        out.writeNumberField( "srid", crs.getCode() );
+        out.writeStringField( "name", crs.getType() );
+        out.writeStringField( "type", "link" );
+        out.writeObjectFieldStart( "properties" );
+        out.writeStringField( "href", crs.getHref() + "ogcwkt/" );
+        out.writeStringField( "type", "ogcwkt" );
+        out.writeEndObject();
+        out.writeEndObject();
+        out.writeEndObject();
+    }
+
+    @Override
+    public void writeDuration( long months, long days, long seconds, int nanos ) throws IOException
+    {
+        out.writeString( DurationValue.duration( months, days, seconds, nanos ).prettyPrint() );
+    }
+
+    @Override
+    public void writeDate( LocalDate localDate ) throws IOException
+    {
+        out.writeString( localDate.toString() );
+    }
+
+    @Override
+    public void writeLocalTime( LocalTime localTime ) throws IOException
+    {
+        out.writeString( localTime.toString() );
+    }
+
+    @Override
+    public void writeTime( OffsetTime offsetTime ) throws IOException
+    {
+        out.writeString( offsetTime.toString() );
+    }
+
+    @Override
+    public void writeLocalDateTime( LocalDateTime localDateTime ) throws IOException
+    {
+        out.writeString( localDateTime.toString() );
+    }
+
+    @Override
+    public void writeDateTime( ZonedDateTime zonedDateTime ) throws IOException
+    {
+        out.writeString( zonedDateTime.toString() );
+    }
+}
@@ -47,6 +47,8 @@ import org.neo4j.graphdb.spatial.Point;
 import org.neo4j.server.http.cypher.TransactionHandle;
 import org.neo4j.server.http.cypher.TransactionStateChecker;
 import org.neo4j.server.http.cypher.TransitionalTxManagementKernelTransaction;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 
 import static com.fasterxml.jackson.databind.SerializationFeature.FLUSH_AFTER_WRITE_VALUE;
 import static java.util.Objects.requireNonNull;
@@ -95,7 +97,16 @@ public class Neo4jJsonCodec extends ObjectMapper
     @Override
     public void writeValue( JsonGenerator out, Object value ) throws IOException
     {
-        if ( value instanceof Entity )
+        if ( writeScalar( out, value ) )
+        {
+            return;
+        }
+        if ( value instanceof Value )
+        {
+            // Points, durations and other storable values write themselves, without going through the object mapper
+            ((Value) value).writeTo( new JsonValueWriter( out ) );
+        }
+        else if ( value instanceof Entity )
         {
             var context = transactionHandle.getContext();
             TransactionStateChecker txStateChecker = TransactionStateChecker.create( context );
@@ -150,6 +161,89 @@ public class Neo4jJsonCodec extends ObjectMapper
         }
     }
 
+    /**
+     * The vast majority of values in a result are plain strings, numbers and booleans, or arrays of those. Write them
+     * directly to the generator instead of letting {@link ObjectMapper} look up a serializer for each one of them.
+     *
+     * @return {@code true} if the value was written, otherwise {@code false}.
+     */
+    private static boolean writeScalar( JsonGenerator out, Object value ) throws IOException
+    {
+        if ( value == null )
+        {
+            out.writeNull();
+        }
+        else if ( value instanceof String )
+        {
+            out.writeString( (String) value );
+        }
+        else if ( value instanceof Long )
+        {
+            out.writeNumber( (Long) value );
+        }
+        else if ( value instanceof Integer || value instanceof Byte )
+        {
+            out.writeNumber( ((Number) value).intValue() );
+        }
+        else if ( value instanceof Short )
+        {
+            out.writeNumber( (Short) value );
+        }
+        else if ( value instanceof Double )
+        {
+            out.writeNumber( (Double) value );
+        }
+        else if ( value instanceof Float )
+        {
+            out.writeNumber( (Float) value );
+        }
+        else if ( value instanceof Boolean )
+        {
+            out.writeBoolean( (Boolean) value );
+        }
+        else if ( value instanceof Character )
+        {
+            out.writeString( value.toString() );
+        }
+        else if ( value instanceof String[] )
+        {
+            Values.stringArray( (String[]) value ).writeTo( new JsonValueWriter( out ) );
+        }
+        else if ( value instanceof long[] )
+        {
+            Values.longArray( (long[]) value ).writeTo( new JsonValueWriter( out ) );
+        }
+        else if ( value instanceof int[] )
+        {
+            Values.intArray( (int[]) value ).writeTo( new JsonValueWriter( out ) );
+        }
+        else if ( value instanceof short[] )
+        {
+            Values.shortArray( (short[]) value ).writeTo( new JsonValueWriter( out ) );
+        }
+        else if ( value instanceof double[] )
+        {
+            Values.doubleArray( (double[]) value ).writeTo( new JsonValueWriter( out ) );
+        }
+        else if ( value instanceof float[] )
+        {
+            Values.floatArray( (float[]) value ).writeTo( new JsonValueWriter( out ) );
+        }
+        else if ( value instanceof boolean[] )
+        {
+            Values.booleanArray( (boolean[]) value ).writeTo( new JsonValueWriter( out ) );
+        }
+        else if ( value instanceof char[] )
+        {
+            Values.charArray( (char[]) value ).writeTo( new JsonValueWriter( out ) );
+        }
+        else
+        {
+            return false;
+        }
+        return true;
+    }
+
     private boolean supportedArrayType( Class<?> valueClass )
     {
         return Geometry.class.isAssignableFrom( valueClass ) || CRS.class.isAssignableFrom( valueClass ) ||
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.http.cypher.format.output.columnar;
+
+/**
+ * Type of a column vector in a batch, chosen per batch from the values in it. A column where all non-null values are
+ * of the same scalar type gets the vector of that type, any other column falls back to {@link #JSON}.
+ */
+enum ColumnType
+{
+    LONG( 1 ),
+    DOUBLE( 2 ),
+    BOOLEAN( 3 ),
+    STRING( 4 ),
+    JSON( 5 );
+
+    private final byte code;
+
+    ColumnType( int code )
+    {
+        this.code = (byte) code;
+    }
+
+    byte code()
+    {
+        return code;
+    }
+
+    /**
+     * @return the type of vector a value would be stored in, if it was the only non-null value of its column.
+     */
+    static ColumnType of( Object value )
+    {
+        if ( value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte )
+        {
+            return LONG;
+        }
+        if ( value instanceof Double || value instanceof Float )
+        {
+            return DOUBLE;
+        }
+        if ( value instanceof Boolean )
+        {
+            return BOOLEAN;
+        }
+        if ( value instanceof String )
+        {
+            return STRING;
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.http.cypher.format.output.columnar;
+
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+import org.neo4j.server.http.cypher.format.api.FailureEvent;
+import org.neo4j.server.http.cypher.format.api.OutputEvent;
+import org.neo4j.server.http.cypher.format.api.OutputEventSource;
+import org.neo4j.server.http.cypher.format.api.RecordEvent;
+import org.neo4j.server.http.cypher.format.api.StatementStartEvent;
+import org.neo4j.server.http.cypher.format.api.TransactionInfoEvent;
+
+/**
+ * Writes the output of the transactional endpoint as a stream of binary, column oriented messages, for clients that
+ * extract large amounts of rows and would otherwise spend most of their time parsing JSON. Selected by requesting
+ * {@value #MEDIA_TYPE} in the {@code Accept} header, statements are still submitted as JSON.
+ * <p>
+ * All numbers are big-endian and all strings are UTF-8 prefixed by their length in bytes as an int. The stream is a
+ * sequence of messages, each one starting with a one byte tag:
+ * <ul>
+ * <li>{@code STATEMENT_START}: number of columns as an int, followed by the name of each column.</li>
+ * <li>{@code BATCH}: number of rows as an int, followed by a vector for each column. A vector starts with a one
+ * byte column type and a validity bitmap, one bit per row, least significant bit first, where a cleared bit means
+ * that the value is null. It continues depending on the column type with
+ * a long per row for {@code LONG}, a double per row for {@code DOUBLE}, a bitmap like the validity one for
+ * {@code BOOLEAN}, or an int offset per row plus one and then the length prefixed bytes of all the values for
+ * {@code STRING} and {@code JSON}. {@code JSON} is the fallback for nodes, relationships, paths, lists, maps and
+ * everything else which isn't a plain scalar; its values are encoded exactly like in the JSON format.
+ * Values of rows which are null are undefined, but take up space in the fixed width vectors.</li>
+ * <li>{@code STATEMENT_END}: no content, all batches of the current statement have been written.</li>
+ * <li>{@code FAILURE}: the status code and the message of an error.</li>
+ * <li>{@code TRANSACTION_INFO}: always last, the commit uri, or an empty string if the transaction isn't open,
+ * and the expiration timestamp of the transaction as a long, {@code -1} if it isn't open.</li>
+ * </ul>
+ * The tags and column types are defined in {@link ColumnarResultSerializer.Tag} and {@link ColumnType}.
+ */
+@Provider
+@Produces( ColumnarMessageBodyWriter.MEDIA_TYPE )
+public class ColumnarMessageBodyWriter implements MessageBodyWriter<OutputEventSource>
+{
+    public static final String MEDIA_TYPE = "application/vnd.neo4j.columnar";
+    private static final MediaType COLUMNAR = MediaType.valueOf( MEDIA_TYPE );
+
+    @Override
+    public boolean isWriteable( Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType )
+    {
+        // only when asked for explicitly, clients accepting anything keep getting JSON
+        return OutputEventSource.class.isAssignableFrom( type ) && mediaType != null && !mediaType.isWildcardType() &&
+               !mediaType.isWildcardSubtype() && COLUMNAR.isCompatible( mediaType );
+    }
+
+    @Override
+    public void writeTo( OutputEventSource outputEventSource, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String,Object> httpHeaders, OutputStream entityStream ) throws WebApplicationException
+    {
+        ColumnarResultSerializer serializer = new ColumnarResultSerializer( entityStream, outputEventSource.getTransactionHandle() );
+        outputEventSource.produceEvents( outputEvent -> handleEvent( outputEvent, serializer ) );
+    }
+
+    private static void handleEvent( OutputEvent event, ColumnarResultSerializer serializer )
+    {
+        switch ( event.getType() )
+        {
+        case STATEMENT_START:
+            serializer.writeStatementStart( (StatementStartEvent) event );
+            break;
+        case RECORD:
+            serializer.writeRecord( (RecordEvent) event );
+            break;
+        case STATEMENT_END:
+            serializer.writeStatementEnd();
+            break;
+        case FAILURE:
+            serializer.writeFailure( (FailureEvent) event );
+            break;
+        case TRANSACTION_INFO:
+            serializer.writeTransactionInfo( (TransactionInfoEvent) event );
+            break;
+        default:
+            throw new IllegalStateException( "Unsupported event encountered:"  + event.getType() );
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.http.cypher.format.output.columnar;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.neo4j.server.http.cypher.TransactionHandle;
+import org.neo4j.server.http.cypher.format.api.ConnectionException;
+import org.neo4j.server.http.cypher.format.api.FailureEvent;
+import org.neo4j.server.http.cypher.format.api.OutputEvent;
+import org.neo4j.server.http.cypher.format.api.RecordEvent;
+import org.neo4j.server.http.cypher.format.api.StatementStartEvent;
+import org.neo4j.server.http.cypher.format.api.TransactionInfoEvent;
+import org.neo4j.server.http.cypher.format.common.Neo4jJsonCodec;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A stateful serializer that serializes the event stream into the format described in {@link ColumnarMessageBodyWriter}.
+ * The serialization methods are expected to be invoked in the order of the event stream events as described in {@link OutputEvent}.
+ */
+class ColumnarResultSerializer
+{
+    static final int BATCH_SIZE = 1024;
+
+    enum Tag
+    {
+        STATEMENT_START( 1 ),
+        BATCH( 2 ),
+        STATEMENT_END( 3 ),
+        FAILURE( 4 ),
+        TRANSACTION_INFO( 5 );
+
+        private final byte code;
+
+        Tag( int code )
+        {
+            this.code = (byte) code;
+        }
+
+        byte code()
+        {
+            return code;
+        }
+    }
+
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream jsonBuffer = new ByteArrayOutputStream();
+    private final JsonGenerator json;
+
+    private List<String> columns;
+    private RecordBatch batch;
+
+    ColumnarResultSerializer( OutputStream output, TransactionHandle transactionHandle )
+    {
+        this.out = new DataOutputStream( new BufferedOutputStream( output, 64 * 1024 ) );
+        try
+        {
+            this.json = new JsonFactory( new Neo4jJsonCodec( transactionHandle ) ).createGenerator( jsonBuffer );
+        }
+        catch ( IOException e )
+        {
+            throw new IllegalStateException( "Failed to create JSON generator", e );
+        }
+        json.setRootValueSeparator( null );
+    }
+
+    void writeStatementStart( StatementStartEvent statementStartEvent )
+    {
+        columns = statementStartEvent.getColumns();
+        batch = new RecordBatch( columns.size(), BATCH_SIZE, this::encodeJson );
+        try
+        {
+            out.writeByte( Tag.STATEMENT_START.code() );
+            out.writeInt( columns.size() );
+            for ( String column : columns )
+            {
+                writeString( column );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new ConnectionException( "Failed to write to the connection", e );
+        }
+    }
+
+    void writeRecord( RecordEvent recordEvent )
+    {
+        try
+        {
+            for ( int i = 0; i < columns.size(); i++ )
+            {
+                batch.set( i, recordEvent.getValue( columns.get( i ) ) );
+            }
+            if ( batch.endRow() )
+            {
+                writeBatch();
+                out.flush();
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new ConnectionException( "Failed to write to the connection", e );
+        }
+    }
+
+    void writeStatementEnd()
+    {
+        try
+        {
+            writeBatch();
+            batch = null;
+            out.writeByte( Tag.STATEMENT_END.code() );
+        }
+        catch ( IOException e )
+        {
+            throw new ConnectionException( "Failed to write to the connection", e );
+        }
+    }
+
+    void writeFailure( FailureEvent failureEvent )
+    {
+        try
+        {
+            // rows produced before the failure are still delivered, same as in the JSON format
+            writeBatch();
+            batch = null;
+            out.writeByte( Tag.FAILURE.code() );
+            writeString( failureEvent.getStatus().code().serialize() );
+            writeString( failureEvent.getMessage() );
+        }
+        catch ( IOException e )
+        {
+            throw new ConnectionException( "Failed to write to the connection", e );
+        }
+    }
+
+    void writeTransactionInfo( TransactionInfoEvent transactionInfoEvent )
+    {
+        try
+        {
+            out.writeByte( Tag.TRANSACTION_INFO.code() );
+            writeString( transactionInfoEvent.getCommitUri() == null ? "" : transactionInfoEvent.getCommitUri().toString() );
+            out.writeLong( transactionInfoEvent.getExpirationTimestamp() );
+            out.flush();
+        }
+        catch ( IOException e )
+        {
+            throw new ConnectionException( "Failed to write to the connection", e );
+        }
+    }
+
+    private void writeBatch() throws IOException
+    {
+        if ( batch != null && !batch.isEmpty() )
+        {
+            out.writeByte( Tag.BATCH.code() );
+            batch.writeTo( out );
+        }
+    }
+
+    private void writeString( String value ) throws IOException
+    {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes( UTF_8 );
+        out.writeInt( bytes.length );
+        out.write( bytes );
+    }
+
+    private byte[] encodeJson( Object value ) throws IOException
+    {
+        jsonBuffer.reset();
+        json.writeObject( value );
+        json.flush();
+        return jsonBuffer.toByteArray();
+    }
+}
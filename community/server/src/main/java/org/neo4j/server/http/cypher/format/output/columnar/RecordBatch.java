@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.http.cypher.format.output.columnar;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Rows of a statement, buffered column by column until there are enough of them to be written as one batch of
+ * column vectors. Values which will end up in a {@link ColumnType#JSON} vector regardless of the other values of
+ * their column are encoded as soon as they are added, so that no entities are held on to between records.
+ */
+class RecordBatch
+{
+    interface JsonEncoder
+    {
+        byte[] encode( Object value ) throws IOException;
+    }
+
+    private final Object[][] columns;
+    private final int capacity;
+    private final JsonEncoder jsonEncoder;
+    private int size;
+
+    RecordBatch( int numberOfColumns, int capacity, JsonEncoder jsonEncoder )
+    {
+        this.columns = new Object[numberOfColumns][capacity];
+        this.capacity = capacity;
+        this.jsonEncoder = jsonEncoder;
+    }
+
+    void set( int column, Object value ) throws IOException
+    {
+        columns[column][size] = ColumnType.of( value ) == ColumnType.JSON && value != null ? new EncodedJson( jsonEncoder.encode( value ) ) : value;
+    }
+
+    /**
+     * Completes the row which values have been {@link #set(int, Object) set}.
+     *
+     * @return {@code true} if the batch is full and should be written before adding more rows.
+     */
+    boolean endRow()
+    {
+        size++;
+        return size == capacity;
+    }
+
+    boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Writes all rows added since the previous call as one batch and clears this batch.
+     */
+    void writeTo( DataOutputStream out ) throws IOException
+    {
+        out.writeInt( size );
+        for ( Object[] values : columns )
+        {
+            ColumnType type = typeOf( values );
+            out.writeByte( type.code() );
+            writeValidity( out, values );
+            switch ( type )
+            {
+            case LONG:
+                for ( int row = 0; row < size; row++ )
+                {
+                    out.writeLong( values[row] == null ? 0 : ((Number) values[row]).longValue() );
+                }
+                break;
+            case DOUBLE:
+                for ( int row = 0; row < size; row++ )
+                {
+                    out.writeDouble( values[row] == null ? 0 : ((Number) values[row]).doubleValue() );
+                }
+                break;
+            case BOOLEAN:
+                writeBooleans( out, values );
+                break;
+            case STRING:
+            case JSON:
+                writeVariableWidth( out, values, type );
+                break;
+            default:
+                throw new IllegalStateException( "Unsupported column type " + type );
+            }
+            Arrays.fill( values, 0, size, null );
+        }
+        size = 0;
+    }
+
+    private ColumnType typeOf( Object[] values )
+    {
+        ColumnType type = null;
+        for ( int row = 0; row < size; row++ )
+        {
+            Object value = values[row];
+            if ( value != null )
+            {
+                ColumnType valueType = ColumnType.of( value );
+                if ( type != null && type != valueType )
+                {
+                    return ColumnType.JSON;
+                }
+                type = valueType;
+            }
+        }
+        // a column of only nulls is as cheap as it gets as a string column, there's no data besides the offsets
+        return type == null ? ColumnType.STRING : type;
+    }
+
+    private void writeValidity( DataOutputStream out, Object[] values ) throws IOException
+    {
+        int bits = 0;
+        for ( int row = 0; row < size; row++ )
+        {
+            if ( values[row] != null )
+            {
+                bits |= 1 << (row & 7);
+            }
+            if ( (row & 7) == 7 )
+            {
+                out.writeByte( bits );
+                bits = 0;
+            }
+        }
+        if ( (size & 7) != 0 )
+        {
+            out.writeByte( bits );
+        }
+    }
+
+    private void writeBooleans( DataOutputStream out, Object[] values ) throws IOException
+    {
+        int bits = 0;
+        for ( int row = 0; row < size; row++ )
+        {
+            if ( values[row] == Boolean.TRUE )
+            {
+                bits |= 1 << (row & 7);
+            }
+            if ( (row & 7) == 7 )
+            {
+                out.writeByte( bits );
+                bits = 0;
+            }
+        }
+        if ( (size & 7) != 0 )
+        {
+            out.writeByte( bits );
+        }
+    }
+
+    private void writeVariableWidth( DataOutputStream out, Object[] values, ColumnType type ) throws IOException
+    {
+        // Encode first, in place, since the offsets have to be written before the data
+        int offset = 0;
+        out.writeInt( offset );
+        for ( int row = 0; row < size; row++ )
+        {
+            Object value = values[row];
+            if ( value != null )
+            {
+                byte[] bytes = encode( value, type );
+                values[row] = bytes;
+                offset += bytes.length;
+            }
+            out.writeInt( offset );
+        }
+        out.writeInt( offset );
+        for ( int row = 0; row < size; row++ )
+        {
+            if ( values[row] != null )
+            {
+                out.write( (byte[]) values[row] );
+            }
+        }
+    }
+
+    private byte[] encode( Object value, ColumnType type ) throws IOException
+    {
+        if ( type == ColumnType.STRING )
+        {
+            return ((String) value).getBytes( UTF_8 );
+        }
+        if ( value instanceof EncodedJson )
+        {
+            return ((EncodedJson) value).utf8;
+        }
+        // a scalar in a column of mixed types
+        return jsonEncoder.encode( value );
+    }
+
+    private static class EncodedJson
+    {
+        private final byte[] utf8;
+
+        EncodedJson( byte[] utf8 )
+        {
+            this.utf8 = utf8;
+        }
+    }
+}
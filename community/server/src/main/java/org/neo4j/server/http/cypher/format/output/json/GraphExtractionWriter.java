@@ -20,11 +20,11 @@
 package org.neo4j.server.http.cypher.format.output.json;
 
 import com.fasterxml.jackson.core.JsonGenerator;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
 
 import java.io.IOException;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 
 import org.neo4j.graphdb.Entity;
 import org.neo4j.graphdb.Label;
@@ -37,13 +37,18 @@ import org.neo4j.server.http.cypher.format.api.RecordEvent;
 
 class GraphExtractionWriter implements ResultDataContentWriter
 {
+    // Nodes and relationships of the current record, keyed by id. Reused from record to record and deduplicating
+    // on the primitive id rather than on equality of the entities themselves.
+    private final MutableLongObjectMap<Node> nodes = new LongObjectHashMap<>();
+    private final MutableLongObjectMap<Relationship> relationships = new LongObjectHashMap<>();
+
     @Override
     public void write( JsonGenerator out, RecordEvent recordEvent, TransactionStateChecker txStateChecker )
             throws IOException
     {
-        Set<Node> nodes = new HashSet<>();
-        Set<Relationship> relationships = new HashSet<>();
-        extract( nodes, relationships, map( recordEvent ) );
+        nodes.clear();
+        relationships.clear();
+        extract( map( recordEvent ) );
 
         out.writeObjectFieldStart( "graph" );
         try
@@ -162,44 +167,62 @@ class GraphExtractionWriter implements ResultDataContentWriter
         }
     }
 
-    private void extract( Set<Node> nodes, Set<Relationship> relationships, Iterable<?> source )
+    private void extract( Iterable<?> source )
     {
         for ( Object item : source )
         {
             if ( item instanceof Node )
             {
-                nodes.add( (Node) item );
+                addNode( (Node) item );
             }
             else if ( item instanceof Relationship )
             {
                 Relationship relationship = (Relationship) item;
-                relationships.add( relationship );
-                nodes.add( relationship.getStartNode() );
-                nodes.add( relationship.getEndNode() );
+                if ( addRelationship( relationship ) )
+                {
+                    addNode( relationship.getStartNode() );
+                    addNode( relationship.getEndNode() );
+                }
             }
             if ( item instanceof Path )
             {
                 Path path = (Path) item;
                 for ( Node node : path.nodes() )
                 {
-                    nodes.add( node );
+                    addNode( node );
                 }
                 for ( Relationship relationship : path.relationships() )
                 {
-                    relationships.add( relationship );
+                    addRelationship( relationship );
                 }
             }
             else if ( item instanceof Map<?, ?> )
             {
-                extract( nodes, relationships, ((Map<?, ?>) item).values() );
+                extract( ((Map<?, ?>) item).values() );
             }
             else if ( item instanceof Iterable<?> )
             {
-                extract( nodes, relationships, (Iterable<?>) item );
+                extract( (Iterable<?>) item );
             }
         }
     }
 
+    private void addNode( Node node )
+    {
+        nodes.getIfAbsentPut( node.getId(), node );
+    }
+
+    private boolean addRelationship( Relationship relationship )
+    {
+        long id = relationship.getId();
+        if ( relationships.containsKey( id ) )
+        {
+            return false;
+        }
+        relationships.put( id, relationship );
+        return true;
+    }
+
     private static Iterable<?> map( RecordEvent recordEvent )
     {
         return new IterableWrapper<>( recordEvent.getColumns() )
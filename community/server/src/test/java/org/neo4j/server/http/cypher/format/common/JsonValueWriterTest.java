@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.http.cypher.format.common;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.DateTimeValue;
+import org.neo4j.values.storable.DateValue;
+import org.neo4j.values.storable.DurationValue;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.test.mockito.mock.SpatialMocks.mockCartesian;
+import static org.neo4j.test.mockito.mock.SpatialMocks.mockPoint;
+
+class JsonValueWriterTest
+{
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldWriteScalarsAndArraysLikeTheObjectMapper() throws IOException
+    {
+        Object[] values = {"a string", 42L, 42, (short) 42, (byte) 42, 4.2d, 4.2f, true, 'c',
+                           new String[]{"a", "b"}, new long[]{1, 2}, new int[]{1, 2}, new short[]{1, 2}, new double[]{1.5, 2.5},
+                           new float[]{1.5f, 2.5f}, new boolean[]{true, false}, new char[]{'a', 'b'}, new char[0]};
+
+        for ( Object value : values )
+        {
+            assertEquals( objectMapper.writeValueAsString( value ), write( value ) );
+        }
+    }
+
+    @Test
+    void shouldWritePointValueLikeAnyOtherPoint() throws IOException
+    {
+        assertEquals( write( mockPoint( 1.0, 2.0, mockCartesian() ) ), write( Values.pointValue( CoordinateReferenceSystem.Cartesian, 1.0, 2.0 ) ) );
+    }
+
+    @Test
+    void shouldWriteTemporalValuesAsStrings() throws IOException
+    {
+        LocalDate date = LocalDate.of( 2020, 2, 29 );
+        ZonedDateTime dateTime = ZonedDateTime.of( 2020, 2, 29, 12, 30, 0, 0, ZoneOffset.UTC );
+        DurationValue duration = DurationValue.duration( 14, 3, 3600, 0 );
+
+        assertEquals( write( date ), write( DateValue.date( date ) ) );
+        assertEquals( write( dateTime ), write( DateTimeValue.datetime( dateTime ) ) );
+        assertEquals( "\"" + duration.prettyPrint() + "\"", write( duration ) );
+    }
+
+    @Test
+    void shouldReuseCharBufferBetweenArrays() throws IOException
+    {
+        StringWriter out = new StringWriter();
+        JsonGenerator json = new JsonFactory().createGenerator( out );
+        JsonValueWriter writer = new JsonValueWriter( json );
+
+        json.writeStartArray();
+        Values.charArray( new char[]{'a', 'b', 'c'} ).writeTo( writer );
+        Values.charArray( new char[]{'d'} ).writeTo( writer );
+        json.writeEndArray();
+        json.flush();
+
+        assertEquals( "[\"abc\",\"d\"]", out.toString() );
+    }
+
+    private static String write( Object value ) throws IOException
+    {
+        StringWriter out = new StringWriter();
+        JsonGenerator json = new JsonFactory( new Neo4jJsonCodec() ).createGenerator( out );
+        json.writeObject( value );
+        json.flush();
+        return out.toString();
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.http.cypher.format.output.columnar;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.neo4j.server.rest.AbstractRestFunctionalTestBase;
+import org.neo4j.test.server.HTTP;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.ws.rs.core.HttpHeaders.ACCEPT;
+import static javax.ws.rs.core.HttpHeaders.CONTENT_TYPE;
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.neo4j.test.server.HTTP.RawPayload.quotedJson;
+
+public class ColumnarMessageBodyWriterIT extends AbstractRestFunctionalTestBase
+{
+    private static final String STATEMENTS = "{ 'statements': [ { 'statement': 'UNWIND [1, 2] AS i RETURN i AS number, \\\"row \\\" + i AS text' } ] }";
+
+    @Test
+    public void shouldWriteColumnarResultsWhenAskedFor() throws Exception
+    {
+        // when
+        HttpResponse<byte[]> response = post( ColumnarMessageBodyWriter.MEDIA_TYPE );
+
+        // then
+        assertEquals( 200, response.statusCode() );
+        assertThat( response.headers().firstValue( CONTENT_TYPE ).orElse( "" ), startsWith( ColumnarMessageBodyWriter.MEDIA_TYPE ) );
+
+        DataInputStream in = new DataInputStream( new ByteArrayInputStream( response.body() ) );
+        assertEquals( ColumnarResultSerializer.Tag.STATEMENT_START.code(), in.readByte() );
+        assertEquals( 2, in.readInt() );
+        assertEquals( "number", readString( in ) );
+        assertEquals( "text", readString( in ) );
+
+        assertEquals( ColumnarResultSerializer.Tag.BATCH.code(), in.readByte() );
+        assertEquals( 2, in.readInt() );
+        assertEquals( ColumnType.LONG.code(), in.readByte() );
+        assertEquals( 0b11, in.readByte() );
+        assertEquals( 1, in.readLong() );
+        assertEquals( 2, in.readLong() );
+        assertEquals( ColumnType.STRING.code(), in.readByte() );
+        assertEquals( 0b11, in.readByte() );
+        assertEquals( List.of( "row 1", "row 2" ), readVariableWidth( in, 2 ) );
+
+        assertEquals( ColumnarResultSerializer.Tag.STATEMENT_END.code(), in.readByte() );
+        assertEquals( ColumnarResultSerializer.Tag.TRANSACTION_INFO.code(), in.readByte() );
+        readString( in );
+        in.readLong();
+        assertEquals( -1, in.read() );
+    }
+
+    @Test
+    public void shouldFallBackToJsonWhenNotAskedForColumnarResults() throws Exception
+    {
+        for ( String accept : List.of( APPLICATION_JSON, "*/*" ) )
+        {
+            // when
+            HttpResponse<byte[]> response = post( accept );
+
+            // then
+            assertEquals( 200, response.statusCode() );
+            assertThat( response.headers().firstValue( CONTENT_TYPE ).orElse( "" ), startsWith( APPLICATION_JSON ) );
+            HTTP.Response json = HTTP.withHeaders( ACCEPT, accept ).POST( txCommitUri(), quotedJson( STATEMENTS ) );
+            assertNoErrors( json );
+            assertEquals( "[\"number\",\"text\"]", json.get( "results" ).get( 0 ).get( "columns" ).toString() );
+            assertEquals( "[1,\"row 1\"]", json.get( "results" ).get( 0 ).get( "data" ).get( 0 ).get( "row" ).toString() );
+            assertEquals( "[2,\"row 2\"]", json.get( "results" ).get( 0 ).get( "data" ).get( 1 ).get( "row" ).toString() );
+        }
+    }
+
+    private static HttpResponse<byte[]> post( String accept ) throws Exception
+    {
+        // The results may be binary, so read them as bytes rather than through HTTP.Response
+        HttpRequest request = HttpRequest.newBuilder( URI.create( txCommitUri() ) )
+                .header( ACCEPT, accept )
+                .header( CONTENT_TYPE, APPLICATION_JSON )
+                .POST( BodyPublishers.ofString( quotedJson( STATEMENTS ).get() ) )
+                .build();
+        return HTTP.newClient().send( request, BodyHandlers.ofByteArray() );
+    }
+
+    private static List<String> readVariableWidth( DataInputStream in, int rows ) throws IOException
+    {
+        int[] offsets = new int[rows + 1];
+        for ( int i = 0; i <= rows; i++ )
+        {
+            offsets[i] = in.readInt();
+        }
+        byte[] data = new byte[in.readInt()];
+        in.readFully( data );
+        assertEquals( offsets[rows], data.length );
+
+        List<String> values = new ArrayList<>();
+        for ( int i = 0; i < rows; i++ )
+        {
+            values.add( new String( Arrays.copyOfRange( data, offsets[i], offsets[i + 1] ), UTF_8 ) );
+        }
+        return values;
+    }
+
+    private static String readString( DataInputStream in ) throws IOException
+    {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully( bytes );
+        return new String( bytes, UTF_8 );
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.http.cypher.format.output.columnar;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.server.http.cypher.TransactionHandle;
+import org.neo4j.server.http.cypher.format.api.FailureEvent;
+import org.neo4j.server.http.cypher.format.api.RecordEvent;
+import org.neo4j.server.http.cypher.format.api.StatementStartEvent;
+import org.neo4j.server.http.cypher.format.api.TransactionInfoEvent;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.neo4j.server.http.cypher.format.api.TransactionNotificationState.OPEN;
+import static org.neo4j.server.http.cypher.format.output.columnar.ColumnarResultSerializer.BATCH_SIZE;
+
+class ColumnarResultSerializerTest
+{
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private final ColumnarResultSerializer serializer = new ColumnarResultSerializer( output, mock( TransactionHandle.class ) );
+
+    @Test
+    void shouldWriteTypedColumnVectors() throws IOException
+    {
+        List<String> columns = List.of( "long", "double", "bool", "string", "map", "mixed" );
+
+        serializer.writeStatementStart( new StatementStartEvent( null, columns ) );
+        serializer.writeRecord( record( columns, 1L, 1.5d, true, "one", Map.of( "k", 1 ), 1 ) );
+        serializer.writeRecord( record( columns, 2, null, false, null, null, "two" ) );
+        serializer.writeRecord( record( columns, null, 3.5f, true, "drei", Map.of( "k", "v" ), null ) );
+        serializer.writeStatementEnd();
+        serializer.writeTransactionInfo( new TransactionInfoEvent( OPEN, URI.create( "http://localhost/commit" ), 42 ) );
+
+        DataInputStream in = input();
+        assertEquals( ColumnarResultSerializer.Tag.STATEMENT_START.code(), in.readByte() );
+        assertEquals( columns.size(), in.readInt() );
+        for ( String column : columns )
+        {
+            assertEquals( column, readString( in ) );
+        }
+
+        assertEquals( ColumnarResultSerializer.Tag.BATCH.code(), in.readByte() );
+        assertEquals( 3, in.readInt() );
+
+        assertColumn( in, ColumnType.LONG, 0b011 );
+        assertEquals( 1, in.readLong() );
+        assertEquals( 2, in.readLong() );
+        in.readLong();
+
+        assertColumn( in, ColumnType.DOUBLE, 0b101 );
+        assertEquals( 1.5, in.readDouble() );
+        in.readDouble();
+        assertEquals( 3.5, in.readDouble() );
+
+        assertColumn( in, ColumnType.BOOLEAN, 0b111 );
+        assertEquals( 0b101, in.readByte() );
+
+        assertColumn( in, ColumnType.STRING, 0b101 );
+        assertEquals( List.of( "one", "", "drei" ), readVariableWidth( in, 3 ) );
+
+        assertColumn( in, ColumnType.JSON, 0b101 );
+        assertEquals( List.of( "{\"k\":1}", "", "{\"k\":\"v\"}" ), readVariableWidth( in, 3 ) );
+
+        assertColumn( in, ColumnType.JSON, 0b011 );
+        assertEquals( List.of( "1", "\"two\"", "" ), readVariableWidth( in, 3 ) );
+
+        assertEquals( ColumnarResultSerializer.Tag.STATEMENT_END.code(), in.readByte() );
+        assertEquals( ColumnarResultSerializer.Tag.TRANSACTION_INFO.code(), in.readByte() );
+        assertEquals( "http://localhost/commit", readString( in ) );
+        assertEquals( 42, in.readLong() );
+        assertEquals( -1, in.read() );
+    }
+
+    @Test
+    void shouldSplitRowsIntoBatches() throws IOException
+    {
+        List<String> columns = List.of( "n" );
+
+        serializer.writeStatementStart( new StatementStartEvent( null, columns ) );
+        for ( long i = 0; i <= BATCH_SIZE; i++ )
+        {
+            serializer.writeRecord( record( columns, i ) );
+        }
+        serializer.writeStatementEnd();
+        serializer.writeTransactionInfo( new TransactionInfoEvent( null, null, -1 ) );
+
+        DataInputStream in = input();
+        in.readByte();
+        in.readInt();
+        readString( in );
+
+        assertEquals( ColumnarResultSerializer.Tag.BATCH.code(), in.readByte() );
+        assertEquals( BATCH_SIZE, in.readInt() );
+        assertEquals( ColumnType.LONG.code(), in.readByte() );
+        in.skipBytes( BATCH_SIZE / 8 + BATCH_SIZE * Long.BYTES );
+
+        assertEquals( ColumnarResultSerializer.Tag.BATCH.code(), in.readByte() );
+        assertEquals( 1, in.readInt() );
+        assertColumn( in, ColumnType.LONG, 0b1 );
+        assertEquals( BATCH_SIZE, in.readLong() );
+        assertEquals( ColumnarResultSerializer.Tag.STATEMENT_END.code(), in.readByte() );
+    }
+
+    @Test
+    void shouldWriteRowsBeforeFailure() throws IOException
+    {
+        List<String> columns = List.of( "n" );
+
+        serializer.writeStatementStart( new StatementStartEvent( null, columns ) );
+        serializer.writeRecord( record( columns, "a" ) );
+        serializer.writeFailure( new FailureEvent( Status.Statement.ArithmeticError, "/ by zero" ) );
+        serializer.writeTransactionInfo( new TransactionInfoEvent( null, null, -1 ) );
+
+        DataInputStream in = input();
+        in.readByte();
+        in.readInt();
+        readString( in );
+
+        assertEquals( ColumnarResultSerializer.Tag.BATCH.code(), in.readByte() );
+        assertEquals( 1, in.readInt() );
+        assertColumn( in, ColumnType.STRING, 0b1 );
+        assertEquals( List.of( "a" ), readVariableWidth( in, 1 ) );
+
+        assertEquals( ColumnarResultSerializer.Tag.FAILURE.code(), in.readByte() );
+        assertEquals( Status.Statement.ArithmeticError.code().serialize(), readString( in ) );
+        assertEquals( "/ by zero", readString( in ) );
+        assertEquals( ColumnarResultSerializer.Tag.TRANSACTION_INFO.code(), in.readByte() );
+        assertEquals( "", readString( in ) );
+        assertEquals( -1, in.readLong() );
+    }
+
+    private DataInputStream input()
+    {
+        return new DataInputStream( new ByteArrayInputStream( output.toByteArray() ) );
+    }
+
+    private static RecordEvent record( List<String> columns, Object... values )
+    {
+        List<Object> row = Arrays.asList( values );
+        return new RecordEvent( columns, column -> row.get( columns.indexOf( column ) ) );
+    }
+
+    private static void assertColumn( DataInputStream in, ColumnType type, int validity ) throws IOException
+    {
+        assertEquals( type.code(), in.readByte() );
+        assertEquals( validity, in.readByte() );
+    }
+
+    private static List<String> readVariableWidth( DataInputStream in, int rows ) throws IOException
+    {
+        int[] offsets = new int[rows + 1];
+        for ( int i = 0; i <= rows; i++ )
+        {
+            offsets[i] = in.readInt();
+        }
+        byte[] data = new byte[in.readInt()];
+        in.readFully( data );
+        assertEquals( offsets[rows], data.length );
+
+        List<String> values = new ArrayList<>();
+        for ( int i = 0; i < rows; i++ )
+        {
+            values.add( new String( Arrays.copyOfRange( data, offsets[i], offsets[i + 1] ), UTF_8 ) );
+        }
+        return values;
+    }
+
+    private static String readString( DataInputStream in ) throws IOException
+    {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully( bytes );
+        return new String( bytes, UTF_8 );
+    }
+}
@@ -19,6 +19,8 @@
  */
 package org.neo4j.storageengine.api;
 
+import org.neo4j.storageengine.api.txstate.DegreeVisitor;
+
 /**
  * Cursor over nodes and its data.
  */
@@ -54,4 +56,16 @@ public interface StorageNodeCursor extends StorageEntityScanCursor<AllNodeScan>
      * @return whether or not this node is dense.
      */
     boolean isDense();
+
+    /**
+     * Visits the degrees of the node this cursor currently is placed at, one call per relationship type.
+     * Loops are included in both the outgoing and the incoming degree, the number of loops is passed to
+     * {@link DegreeVisitor#visitDegree(int, long, long, long)}.
+     * The degrees are read from the store as-is, i.e. without any transaction state applied.
+     *
+     * @param type the relationship type to visit the degree of, or {@link org.neo4j.token.api.TokenConstants#ANY_RELATIONSHIP_TYPE}
+     * for visiting the degrees of all types.
+     * @param visitor receiving the degree of each relationship type that the node has relationships of.
+     */
+    void degrees( int type, DegreeVisitor visitor );
 }
@@ -22,4 +22,13 @@ package org.neo4j.storageengine.api.txstate;
 public interface DegreeVisitor
 {
     void visitDegree( int type, long outgoing, long incoming );
+
+    /**
+     * Same as {@link #visitDegree(int, long, long)}, but also with the number of loops, which are included in both the outgoing and incoming degree.
+     * Called by visited sources which know the number of loops, for visitors which need it.
+     */
+    default void visitDegree( int type, long outgoing, long incoming, long loop )
+    {
+        visitDegree( type, outgoing, incoming );
+    }
 }
@@ -28,7 +28,6 @@ import org.neo4j.io.IOUtils;
 import org.neo4j.storageengine.api.CountsDelta;
 import org.neo4j.storageengine.api.StorageNodeCursor;
 import org.neo4j.storageengine.api.StorageReader;
-import org.neo4j.storageengine.api.StorageRelationshipGroupCursor;
 import org.neo4j.storageengine.api.StorageRelationshipScanCursor;
 
 import static org.neo4j.token.api.TokenConstants.ANY_LABEL;
@@ -39,7 +38,6 @@ public class TransactionCountingStateVisitor extends TxStateVisitor.Delegator
     private final CountsDelta counts;
     private final ReadableTransactionState txState;
     private final StorageNodeCursor nodeCursor;
-    private final StorageRelationshipGroupCursor groupCursor;
     private final StorageRelationshipScanCursor relationshipCursor;
 
     public TransactionCountingStateVisitor( TxStateVisitor next, StorageReader storageReader,
@@ -49,7 +47,6 @@ public class TransactionCountingStateVisitor extends TxStateVisitor.Delegator
         this.txState = txState;
         this.counts = counts;
         this.nodeCursor = storageReader.allocateNodeCursor();
-        this.groupCursor = storageReader.allocateRelationshipGroupCursor();
         this.relationshipCursor = storageReader.allocateRelationshipScanCursor();
     }
 
@@ -80,19 +77,7 @@ public class TransactionCountingStateVisitor extends TxStateVisitor.Delegator
             counts.incrementNodeCount( labelId, -1 );
         }
 
-        visitDegrees( node, ( type, out, in ) -> updateRelationshipsCountsFromDegrees( labelIds, type, -out, -in ) );
-    }
-
-    private void visitDegrees( StorageNodeCursor node, DegreeVisitor visitor )
-    {
-        groupCursor.init( node.entityReference(), node.relationshipGroupReference(), node.isDense() );
-        while ( groupCursor.next() )
-        {
-            int loopCount = groupCursor.loopCount();
-            visitor.visitDegree( groupCursor.type(),
-                    groupCursor.outgoingCount() + loopCount,
-                    groupCursor.incomingCount() + loopCount );
-        }
+        node.degrees( ANY_RELATIONSHIP_TYPE, ( type, out, in ) -> updateRelationshipsCountsFromDegrees( labelIds, type, -out, -in ) );
     }
 
     @Override
@@ -130,7 +115,7 @@ public class TransactionCountingStateVisitor extends TxStateVisitor.Delegator
             nodeCursor.single( id );
             if ( nodeCursor.next() )
             {
-                visitDegrees( nodeCursor, ( type, out, in ) ->
+                nodeCursor.degrees( ANY_RELATIONSHIP_TYPE, ( type, out, in ) ->
                 {
                     added.forEach( label -> updateRelationshipsCountsFromDegrees( type, label, out, in ) );
                     removed.forEach( label -> updateRelationshipsCountsFromDegrees( type, label, -out, -in ) );
@@ -202,6 +187,6 @@ public class TransactionCountingStateVisitor extends TxStateVisitor.Delegator
     public void close()
     {
         super.close();
-        IOUtils.closeAllUnchecked( nodeCursor, groupCursor, relationshipCursor );
+        IOUtils.closeAllUnchecked( nodeCursor, relationshipCursor );
     }
 }
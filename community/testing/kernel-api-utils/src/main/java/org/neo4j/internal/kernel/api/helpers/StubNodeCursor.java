@@ -31,6 +31,7 @@ import org.neo4j.internal.kernel.api.NodeCursor;
 import org.neo4j.internal.kernel.api.PropertyCursor;
 import org.neo4j.internal.kernel.api.RelationshipGroupCursor;
 import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
+import org.neo4j.storageengine.api.txstate.DegreeVisitor;
 import org.neo4j.values.storable.Value;
 
 public class StubNodeCursor extends DefaultCloseListenable implements NodeCursor
@@ -38,6 +39,7 @@ public class StubNodeCursor extends DefaultCloseListenable implements NodeCursor
     private int offset = -1;
     private boolean dense;
     private List<NodeData> nodes = new ArrayList<>();
+    private StubGroupCursor.GroupData[] groups = new StubGroupCursor.GroupData[0];
 
     public StubNodeCursor()
     {
@@ -84,6 +86,12 @@ public class StubNodeCursor extends DefaultCloseListenable implements NodeCursor
         return this;
     }
 
+    public StubNodeCursor withGroups( StubGroupCursor.GroupData... groups )
+    {
+        this.groups = groups;
+        return this;
+    }
+
     @Override
     public long nodeReference()
     {
@@ -158,6 +166,24 @@ public class StubNodeCursor extends DefaultCloseListenable implements NodeCursor
         return dense;
     }
 
+    @Override
+    public void degrees( int type, DegreeVisitor visitor )
+    {
+        long outgoing = 0;
+        long incoming = 0;
+        long loop = 0;
+        for ( StubGroupCursor.GroupData group : groups )
+        {
+            if ( group.type == type )
+            {
+                outgoing += group.countOut + group.countLoop;
+                incoming += group.countIn + group.countLoop;
+                loop += group.countLoop;
+            }
+        }
+        visitor.visitDegree( type, outgoing, incoming, loop );
+    }
+
     @Override
     public void setTracer( KernelReadTracer tracer )
     {